@@ -2,9 +2,16 @@ package gtp.taskmanagement.config;
 
 import gtp.taskmanagement.model.Task;
 import gtp.taskmanagement.repository.TaskRepository;
+import gtp.taskmanagement.service.TaskImporter;
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -13,7 +20,10 @@ import java.util.concurrent.TimeUnit;
  * Configuration class for initializing sample task data when the application starts.
  * <p>
  * This class automatically inserts predefined tasks into the database upon application startup
- * if no tasks exist. Useful for demonstration and testing purposes.
+ * if no tasks exist. Useful for demonstration and testing purposes. Persistent stores that
+ * restored tasks from disk are left untouched. When {@code task.seed.file} names an NDJSON
+ * file, its tasks are imported instead of the samples; {@code task.seed.samples=false}
+ * skips the samples, so that the nodes of a cluster do not each add their own.
  * </p>
  *
  * @see Task
@@ -23,14 +33,26 @@ import java.util.concurrent.TimeUnit;
 public class DataInit {
 
     private final TaskRepository taskRepository;
+    private final TaskImporter taskImporter;
+    private final String seedFile;
+    private final boolean samples;
 
     /**
      * Constructs a new DataInit instance with the required TaskRepository.
      *
      * @param taskRepository The task repository used for data persistence
+     * @param taskImporter The importer used to load a seed file
+     * @param seedFile Path of an NDJSON seed file to load instead of the samples, or empty
+     * @param samples Whether to add the sample tasks when there is no seed file
      */
-    public DataInit(TaskRepository taskRepository) {
+    public DataInit(TaskRepository taskRepository,
+                    TaskImporter taskImporter,
+                    @Value("${task.seed.file:}") String seedFile,
+                    @Value("${task.seed.samples:true}") boolean samples) {
         this.taskRepository = taskRepository;
+        this.taskImporter = taskImporter;
+        this.seedFile = seedFile;
+        this.samples = samples;
     }
 
     /**
@@ -43,6 +65,16 @@ public class DataInit {
      */
     @PostConstruct
     public void init() {
+        if (!taskRepository.findPage(null, 1).isEmpty()) {
+            return;
+        }
+        if (!seedFile.isBlank()) {
+            loadSeedFile(Path.of(seedFile));
+            return;
+        }
+        if (!samples) {
+            return;
+        }
         long oneDayInMillis = TimeUnit.DAYS.toMillis(1);
         long threeDaysInMillis = TimeUnit.DAYS.toMillis(3);
 
@@ -66,4 +98,17 @@ public class DataInit {
                 List.of("docs")
         ));
     }
+
+    /**
+     * Streams an NDJSON seed file into the store through the same importer as
+     * {@code POST /api/v1/tasks/import}, so seed files of any size load in
+     * constant memory.
+     */
+    private void loadSeedFile(Path path) {
+        try (InputStream in = Files.newInputStream(path)) {
+            taskImporter.importTasks(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read seed file " + path, e);
+        }
+    }
 }
\ No newline at end of file
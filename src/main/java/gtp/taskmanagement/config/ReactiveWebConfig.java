@@ -0,0 +1,116 @@
+package gtp.taskmanagement.config;
+
+import gtp.taskmanagement.controller.ReactiveTaskHandler;
+import gtp.taskmanagement.exception.BatchTooLargeException;
+import gtp.taskmanagement.exception.GlobalExceptionHandler;
+import gtp.taskmanagement.exception.InvalidCursorException;
+import gtp.taskmanagement.exception.InvalidFilterException;
+import gtp.taskmanagement.exception.InvalidLimitException;
+import gtp.taskmanagement.exception.TaskNotFoundException;
+import gtp.taskmanagement.exception.TaskVersionConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static gtp.taskmanagement.util.Util.toETag;
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+
+/**
+ * Configuration of the reactive deployment mode, active when the application
+ * runs as a reactive web application (the {@code reactive} profile sets
+ * {@code spring.main.web-application-type=reactive}).
+ * <p>
+ * Serves the {@code /api/v1/tasks} surface through functional routes on
+ * Reactor Netty instead of {@link gtp.taskmanagement.controller.TaskController}
+ * on Tomcat. Netty is selected explicitly because Tomcat, also on the
+ * classpath, would otherwise take precedence.
+ * </p>
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig {
+
+    private static final String TASKS = "/api/v1/tasks";
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Routes of the task API. Fixed paths are declared before {@code /{id}} so
+     * that, for instance, {@code /export} is not taken for a task id. Service
+     * exceptions are mapped to responses here, and counted like
+     * {@link GlobalExceptionHandler} does, because exception handlers only
+     * apply to annotated controllers.
+     */
+    @Bean
+    public RouterFunction<ServerResponse> taskRoutes(ReactiveTaskHandler handler, MeterRegistry registry) {
+        String errors = GlobalExceptionHandler.ERRORS_METRIC;
+        Counter notFound = registry.counter(errors, "reason", "not_found");
+        Counter versionConflict = registry.counter(errors, "reason", "version_conflict");
+        Counter invalidCursor = registry.counter(errors, "reason", "invalid_cursor");
+        Counter invalidLimit = registry.counter(errors, "reason", "invalid_limit");
+        Counter invalidFilter = registry.counter(errors, "reason", "invalid_filter");
+        Counter batchTooLarge = registry.counter(errors, "reason", "batch_too_large");
+        return RouterFunctions.route()
+                .GET(TASKS, handler::getAllTasks)
+                .POST(TASKS, handler::createTask)
+                .GET(TASKS + "/status/{status}", handler::getTasksByStatus)
+                .GET(TASKS + "/priority/{priority}", handler::getTasksByPriority)
+                .GET(TASKS + "/tags/counts", handler::getTagCounts)
+                .GET(TASKS + "/stats", handler::getStatistics)
+                .GET(TASKS + "/tags", handler::getTasksByTags)
+                .GET(TASKS + "/due", handler::getTasksDueBetween)
+                .GET(TASKS + "/overdue", handler::getOverdueTasks)
+                .GET(TASKS + "/upcoming", handler::getUpcomingTasks)
+                .GET(TASKS + "/search", handler::searchTasks)
+                .GET(TASKS + "/query", handler::queryTasks)
+                .GET(TASKS + "/export", handler::exportTasks)
+                .GET(TASKS + "/feed", handler::followChanges)
+                .POST(TASKS + "/import", contentType(MediaType.APPLICATION_NDJSON), handler::importTasks)
+                .POST(TASKS + "/batch", handler::createTasks)
+                .PATCH(TASKS + "/batch", handler::patchTasks)
+                .POST(TASKS + "/batch/get", handler::getTasksById)
+                .POST(TASKS + "/batch/delete", handler::deleteTasks)
+                .GET(TASKS + "/{id}", handler::getTaskById)
+                .PUT(TASKS + "/{id}", handler::updateTask)
+                .PATCH(TASKS + "/{id}", handler::patchTask)
+                .DELETE(TASKS + "/{id}", handler::deleteTask)
+                .onError(TaskNotFoundException.class, (e, request) -> {
+                    notFound.increment();
+                    return ServerResponse.status(HttpStatus.NOT_FOUND).bodyValue(e.getMessage());
+                })
+                .onError(TaskVersionConflictException.class, (e, request) -> {
+                    versionConflict.increment();
+                    return ServerResponse.status(HttpStatus.PRECONDITION_FAILED)
+                            .eTag(toETag(((TaskVersionConflictException) e).getCurrentVersion()))
+                            .bodyValue(e.getMessage());
+                })
+                .onError(InvalidCursorException.class, (e, request) -> {
+                    invalidCursor.increment();
+                    return ServerResponse.badRequest().bodyValue(e.getMessage());
+                })
+                .onError(InvalidLimitException.class, (e, request) -> {
+                    invalidLimit.increment();
+                    return ServerResponse.badRequest().bodyValue(e.getMessage());
+                })
+                .onError(InvalidFilterException.class, (e, request) -> {
+                    invalidFilter.increment();
+                    return ServerResponse.badRequest().bodyValue(e.getMessage());
+                })
+                .onError(BatchTooLargeException.class, (e, request) -> {
+                    batchTooLarge.increment();
+                    return ServerResponse.badRequest().bodyValue(e.getMessage());
+                })
+                .build();
+    }
+}
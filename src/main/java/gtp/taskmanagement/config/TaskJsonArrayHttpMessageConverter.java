@@ -0,0 +1,62 @@
+package gtp.taskmanagement.config;
+
+import gtp.taskmanagement.dto.TaskJsonArray;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes a {@link TaskJsonArray} by copying its pre-encoded fragments to the
+ * response body, with an exact {@code Content-Length}.
+ * <p>
+ * Spring Boot registers converter beans ahead of its defaults, so list
+ * endpoints returning a {@code TaskJsonArray} bypass Jackson entirely. The
+ * converter is write-only: {@link #canRead} is always false, so Spring never
+ * asks it to read a request body.
+ * </p>
+ */
+@Component
+public class TaskJsonArrayHttpMessageConverter implements HttpMessageConverter<TaskJsonArray> {
+
+    private static final List<MediaType> SUPPORTED = List.of(MediaType.APPLICATION_JSON);
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return TaskJsonArray.class == clazz
+                && (mediaType == null || MediaType.APPLICATION_JSON.isCompatibleWith(mediaType));
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes() {
+        return SUPPORTED;
+    }
+
+    @Override
+    public TaskJsonArray read(Class<? extends TaskJsonArray> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("TaskJsonArray is write-only", inputMessage);
+    }
+
+    @Override
+    public void write(TaskJsonArray array, MediaType contentType, HttpOutputMessage outputMessage) throws IOException {
+        HttpHeaders headers = outputMessage.getHeaders();
+        if (headers.getContentType() == null) {
+            headers.setContentType(contentType == null || !contentType.isConcrete() ? MediaType.APPLICATION_JSON : contentType);
+        }
+        if (headers.getContentLength() < 0 && !headers.containsKey(HttpHeaders.TRANSFER_ENCODING)) {
+            headers.setContentLength(array.contentLength());
+        }
+        array.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,49 @@
+package gtp.taskmanagement.config;
+
+import gtp.taskmanagement.model.Task;
+import gtp.taskmanagement.repository.TaskRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the size of the task store as gauges: {@code task.store.tasks} for
+ * the whole store, and {@code task.store.status.tasks} and
+ * {@code task.store.priority.tasks} broken down by status and by priority.
+ * <p>
+ * The gauges read the repository's index counters when scraped, which takes
+ * constant time however many tasks are stored.
+ * </p>
+ */
+@Component
+public class TaskStoreMetrics implements MeterBinder {
+
+    private final TaskRepository taskRepository;
+
+    public TaskStoreMetrics(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("task.store.tasks", taskRepository, TaskRepository::count)
+                .description("Number of stored tasks")
+                .baseUnit("tasks")
+                .register(registry);
+        for (Task.Status status : Task.Status.values()) {
+            Gauge.builder("task.store.status.tasks", taskRepository, repository -> repository.countByStatus(status))
+                    .description("Number of stored tasks with a status")
+                    .baseUnit("tasks")
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+        for (Task.Priority priority : Task.Priority.values()) {
+            Gauge.builder("task.store.priority.tasks", taskRepository, repository -> repository.countByPriority(priority))
+                    .description("Number of stored tasks with a priority")
+                    .baseUnit("tasks")
+                    .tag("priority", priority.name())
+                    .register(registry);
+        }
+    }
+}
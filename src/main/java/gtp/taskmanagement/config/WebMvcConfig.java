@@ -0,0 +1,30 @@
+package gtp.taskmanagement.config;
+
+import gtp.taskmanagement.controller.ClientRateLimiter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration of the servlet deployment mode's request handling: applies
+ * the {@link ClientRateLimiter} to the task API unless
+ * {@code task.rate-limit.enabled} is {@code false}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "task.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ClientRateLimiter rateLimiter;
+
+    public WebMvcConfig(ClientRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimiter).addPathPatterns("/api/v1/tasks", "/api/v1/tasks/**");
+    }
+}
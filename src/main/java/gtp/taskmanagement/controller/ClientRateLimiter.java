@@ -0,0 +1,175 @@
+package gtp.taskmanagement.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import gtp.taskmanagement.controller.RateLimited.Budget;
+import gtp.taskmanagement.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Admits requests to {@link TaskController} per client, so that one client
+ * sending too many requests is turned away before it slows down the others.
+ * <p>
+ * Clients are told apart by the API key in the
+ * {@code task.rate-limit.client-header} header if it is one of
+ * {@code task.rate-limit.api-keys}, and otherwise by their remote address.
+ * Nothing else checks the header, so a key that is not configured is ignored:
+ * a client making up a new key for every request still draws on the buckets of
+ * its address. Every client
+ * has two token buckets, one per {@link Budget}: endpoints annotated with
+ * {@code @RateLimited(LIST)} draw from the list budget, all others from the
+ * point budget, so a client walking the whole store cannot use up its budget
+ * for single task reads. A bucket holds up to {@code burst} tokens and refills
+ * at {@code rate} tokens a second. A request finding its bucket empty fails
+ * with {@link RateLimitExceededException}, which is answered with 429 and a
+ * {@code Retry-After} header, and is counted in {@code task.rate.limit.throttled}.
+ * </p>
+ * <p>
+ * A bucket is a single {@code long}: the time at which it will be full again.
+ * Taking a token moves that time forward by one refill interval with one
+ * compare-and-set, and the bucket is empty when it lies more than
+ * {@code burst} intervals ahead, so admission takes no lock. Buckets are kept
+ * in a cache bounded by {@code task.rate-limit.max-clients}. An idle client
+ * expires once its buckets would have refilled anyway, which forgets nothing;
+ * only when more clients than that are active at once can a client lose its
+ * state early and get a fresh burst.
+ * </p>
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ClientRateLimiter implements HandlerInterceptor {
+
+    private static final Budget[] BUDGETS = Budget.values();
+
+    private final String clientHeader;
+    private final Set<String> apiKeys = new HashSet<>();
+    private final long[] intervals = new long[BUDGETS.length];
+    private final long[] tolerances = new long[BUDGETS.length];
+    private final Counter[] throttled = new Counter[BUDGETS.length];
+    private final Cache<String, AtomicLongArray> clients;
+
+    public ClientRateLimiter(MeterRegistry registry,
+                             @Value("${task.rate-limit.client-header:X-API-Key}") String clientHeader,
+                             @Value("${task.rate-limit.api-keys:}") String apiKeys,
+                             @Value("${task.rate-limit.point.rate:200}") double pointRate,
+                             @Value("${task.rate-limit.point.burst:400}") int pointBurst,
+                             @Value("${task.rate-limit.list.rate:20}") double listRate,
+                             @Value("${task.rate-limit.list.burst:40}") int listBurst,
+                             @Value("${task.rate-limit.max-clients:100000}") long maxClients) {
+        this.clientHeader = clientHeader;
+        for (String key : apiKeys.split(",")) {
+            if (!key.isBlank()) {
+                this.apiKeys.add(key.trim());
+            }
+        }
+        configure(Budget.POINT, pointRate, pointBurst);
+        configure(Budget.LIST, listRate, listBurst);
+        for (Budget budget : BUDGETS) {
+            throttled[budget.ordinal()] = Counter.builder("task.rate.limit.throttled")
+                    .description("Requests turned away because the client's budget was used up")
+                    .tag("budget", budget.name().toLowerCase())
+                    .register(registry);
+        }
+        long refill = 0;
+        for (int i = 0; i < BUDGETS.length; i++) {
+            refill = Math.max(refill, tolerances[i]);
+        }
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(refill))
+                .build();
+        Gauge.builder("task.rate.limit.clients", clients, Cache::estimatedSize)
+                .description("Clients whose request budgets are being tracked")
+                .register(registry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Exports and feeds dispatch again when they complete; the request was admitted already.
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        RateLimited annotation = method.getMethodAnnotation(RateLimited.class);
+        Budget budget = annotation != null ? annotation.value() : Budget.POINT;
+        long wait = acquire(clientOf(request), budget);
+        if (wait > 0) {
+            throttled[budget.ordinal()].increment();
+            throw new RateLimitExceededException(
+                    "Too many " + budget.name().toLowerCase() + " requests", Duration.ofNanos(wait));
+        }
+        return true;
+    }
+
+    /**
+     * Takes a token from {@code client}'s bucket for {@code budget}.
+     *
+     * @return {@code 0} if the request is admitted, otherwise the nanoseconds
+     *         until a token will be available
+     */
+    long acquire(String client, Budget budget) {
+        long now = System.nanoTime();
+        AtomicLongArray buckets = clients.get(client, key -> newBuckets(now));
+        int index = budget.ordinal();
+        long interval = intervals[index];
+        long tolerance = tolerances[index];
+        while (true) {
+            long full = buckets.get(index);
+            long next = (full - now > 0 ? full : now) + interval;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (buckets.compareAndSet(index, full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * The configured API key the request carries, or else its remote address.
+     */
+    String clientOf(HttpServletRequest request) {
+        String key = request.getHeader(clientHeader);
+        if (key != null && apiKeys.contains(key)) {
+            return "key:" + key;
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+
+    private void configure(Budget budget, double rate, int burst) {
+        if (rate <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate limit of the " + budget + " budget must have a positive "
+                    + "rate and a burst of at least 1");
+        }
+        long interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+        intervals[budget.ordinal()] = interval;
+        tolerances[budget.ordinal()] = interval * burst;
+    }
+
+    /**
+     * Buckets that start out full.
+     */
+    private static AtomicLongArray newBuckets(long now) {
+        AtomicLongArray buckets = new AtomicLongArray(BUDGETS.length);
+        for (int i = 0; i < BUDGETS.length; i++) {
+            buckets.set(i, now);
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,105 @@
+package gtp.taskmanagement.controller;
+
+import gtp.taskmanagement.repository.ClusterTaskRepository;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Endpoint through which the members of a cluster reach each other's tasks,
+ * active with {@code task.store.mode=cluster}. Requests and responses are
+ * binary and only meant for {@link ClusterTaskRepository} on the other nodes;
+ * {@code GET} shows how this node sees the cluster.
+ * <p>
+ * Every request must carry the cluster's shared secret in the
+ * {@value ClusterTaskRepository#SECRET_HEADER} header: without it the node
+ * answers 401, with a wrong one 403.
+ * </p>
+ * <p>
+ * Cluster mode is served by the servlet deployment only: the reactive one
+ * runs reads on its event loops, which must not wait on other nodes, and
+ * {@link ClusterTaskRepository} refuses to start there.
+ * </p>
+ */
+@Hidden
+@RestController
+@RequestMapping("/internal/v1/cluster")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "task.store.mode", havingValue = "cluster")
+public class ClusterController {
+
+    private final ClusterTaskRepository cluster;
+
+    public ClusterController(ClusterTaskRepository cluster) {
+        this.cluster = cluster;
+    }
+
+    @GetMapping
+    public ClusterState state(
+            @RequestHeader(value = ClusterTaskRepository.SECRET_HEADER, required = false) String secret) {
+        authenticate(secret);
+        return new ClusterState(cluster.self(), cluster.members(), cluster.localCount());
+    }
+
+    @PostMapping(value = "/{operation}", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public byte[] serve(@PathVariable String operation,
+                        @RequestHeader(value = ClusterTaskRepository.SECRET_HEADER, required = false) String secret,
+                        @RequestBody(required = false) byte[] request) {
+        authenticate(secret);
+        return cluster.serve(operation, request != null ? request : new byte[0]);
+    }
+
+    private void authenticate(String secret) {
+        if (secret == null) {
+            throw new PeerNotAuthenticatedException(HttpStatus.UNAUTHORIZED);
+        }
+        if (!cluster.isClusterSecret(secret)) {
+            throw new PeerNotAuthenticatedException(HttpStatus.FORBIDDEN);
+        }
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleUnknownOperation(IllegalArgumentException ex) {
+        return ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler(PeerNotAuthenticatedException.class)
+    public ResponseEntity<String> handleNotAuthenticated(PeerNotAuthenticatedException ex) {
+        return ResponseEntity.status(ex.status).build();
+    }
+
+    /**
+     * A request without the cluster secret, or with the wrong one.
+     */
+    private static final class PeerNotAuthenticatedException extends RuntimeException {
+        private final HttpStatus status;
+
+        private PeerNotAuthenticatedException(HttpStatus status) {
+            super(status.getReasonPhrase(), null, false, false);
+            this.status = status;
+        }
+    }
+
+    /**
+     * How this node sees the cluster.
+     *
+     * @param self The address of this node
+     * @param members The live members, this node included
+     * @param localTasks The number of tasks this node holds
+     */
+    public record ClusterState(String self, List<String> members, long localTasks) {
+    }
+}
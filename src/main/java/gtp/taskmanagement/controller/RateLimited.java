@@ -0,0 +1,36 @@
+package gtp.taskmanagement.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects the rate limit budget a {@link TaskController} endpoint draws from.
+ * Endpoints without it use {@link Budget#POINT}.
+ *
+ * @see ClientRateLimiter
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimited {
+
+    Budget value();
+
+    /**
+     * The separate request budgets every client has.
+     */
+    enum Budget {
+        /**
+         * Requests on a single task, whose cost does not grow with the store.
+         */
+        POINT,
+        /**
+         * Listings, filters, searches, exports, imports and batches, which walk
+         * an index or serialize many tasks.
+         */
+        LIST
+    }
+}
@@ -0,0 +1,419 @@
+package gtp.taskmanagement.controller;
+
+import gtp.taskmanagement.dto.ExportFormat;
+import gtp.taskmanagement.dto.TagMatch;
+import gtp.taskmanagement.dto.TaskChangeEvent;
+import gtp.taskmanagement.dto.TaskBatchPatch;
+import gtp.taskmanagement.dto.TaskFilter;
+import gtp.taskmanagement.dto.TaskPage;
+import gtp.taskmanagement.dto.TaskRequest;
+import gtp.taskmanagement.dto.TaskResponse;
+import gtp.taskmanagement.dto.TaskSort;
+import gtp.taskmanagement.dto.TaskUpdateRequest;
+import gtp.taskmanagement.model.Task;
+import gtp.taskmanagement.repository.TaskVersion;
+import gtp.taskmanagement.service.ReactiveTaskService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static gtp.taskmanagement.controller.TaskController.NEXT_CURSOR_HEADER;
+import static gtp.taskmanagement.util.Util.parseIfMatch;
+import static gtp.taskmanagement.util.Util.toETag;
+
+/**
+ * Handler functions behind the reactive routes of {@code /api/v1/tasks}.
+ * <p>
+ * Each method mirrors the {@link TaskController} endpoint of the same name:
+ * same parameters, status codes, validation, pagination headers and
+ * conditional request handling. List, filter and export endpoints write their
+ * tasks as a {@link Flux}, as a JSON array by default or one task per line when
+ * the client accepts {@code application/x-ndjson}.
+ * </p>
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTaskHandler {
+
+    private final ReactiveTaskService taskService;
+    private final Validator validator;
+    private final Duration feedHeartbeat;
+
+    public ReactiveTaskHandler(ReactiveTaskService taskService, Validator validator,
+                               @Value("${task.feed.heartbeat-seconds:30}") long feedHeartbeatSeconds) {
+        this.taskService = taskService;
+        this.validator = validator;
+        this.feedHeartbeat = Duration.ofSeconds(feedHeartbeatSeconds);
+    }
+
+    public Mono<ServerResponse> getAllTasks(ServerRequest request) {
+        return ifModified(request, etag -> taskService.getTasks(cursor(request), limit(request))
+                .flatMap(page -> pageResponse(request, page, etag)));
+    }
+
+    public Mono<ServerResponse> getTaskById(ServerRequest request) {
+        UUID id = id(request);
+        return taskService.getTaskVersion(id).flatMap(version -> {
+            String etag = toETag(version.version());
+            if (notModified(request, etag, version)) {
+                return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return taskService.getTaskById(id).flatMap(task -> withETag(HttpStatus.OK, task));
+        });
+    }
+
+    public Mono<ServerResponse> createTask(ServerRequest request) {
+        return body(request, TaskRequest.class).flatMap(body -> {
+            Map<String, String> errors = validate(body);
+            if (!errors.isEmpty()) {
+                return ServerResponse.badRequest().bodyValue(errors);
+            }
+            return taskService.createTask(toTask(null, body))
+                    .flatMap(task -> withETag(HttpStatus.CREATED, task));
+        });
+    }
+
+    public Mono<ServerResponse> updateTask(ServerRequest request) {
+        UUID id = id(request);
+        Set<Long> expectedVersions = parseIfMatch(String.join(",", request.headers().header(HttpHeaders.IF_MATCH)));
+        return body(request, TaskRequest.class).flatMap(body -> {
+            Map<String, String> errors = validate(body);
+            if (!errors.isEmpty()) {
+                return ServerResponse.badRequest().bodyValue(errors);
+            }
+            return taskService.updateTask(id, toTask(id, body), expectedVersions)
+                    .flatMap(task -> withETag(HttpStatus.OK, task));
+        });
+    }
+
+    public Mono<ServerResponse> patchTask(ServerRequest request) {
+        UUID id = id(request);
+        Set<Long> expectedVersions = parseIfMatch(String.join(",", request.headers().header(HttpHeaders.IF_MATCH)));
+        return body(request, TaskUpdateRequest.class).flatMap(updates -> {
+            Map<String, String> errors = validate(updates);
+            if (!errors.isEmpty()) {
+                return ServerResponse.badRequest().bodyValue(errors);
+            }
+            return taskService.patchTask(id, updates, expectedVersions)
+                    .flatMap(task -> withETag(HttpStatus.OK, task));
+        });
+    }
+
+    public Mono<ServerResponse> deleteTask(ServerRequest request) {
+        return taskService.deleteTask(id(request))
+                .then(ServerResponse.noContent().build());
+    }
+
+    public Mono<ServerResponse> getTasksByStatus(ServerRequest request) {
+        return ifModified(request, etag -> taskService
+                .getTasksByStatus(request.pathVariable("status"), cursor(request), limit(request))
+                .flatMap(page -> pageResponse(request, page, etag)));
+    }
+
+    public Mono<ServerResponse> getTasksByPriority(ServerRequest request) {
+        return ifModified(request, etag -> taskService
+                .getTasksByPriority(request.pathVariable("priority"), cursor(request), limit(request))
+                .flatMap(page -> pageResponse(request, page, etag)));
+    }
+
+    public Mono<ServerResponse> getTasksByTags(ServerRequest request) {
+        List<String> tags = listParam(request, "tag");
+        if (tags.isEmpty()) {
+            return Mono.error(new ServerWebInputException("Required parameter 'tag' is not present"));
+        }
+        TagMatch match = parse(request, "match", TagMatch::valueOf, TagMatch.ANY);
+        return ifModified(request, etag -> taskService
+                .getTasksByTags(tags, match, cursor(request), limit(request))
+                .flatMap(page -> pageResponse(request, page, etag)));
+    }
+
+    public Mono<ServerResponse> getTagCounts(ServerRequest request) {
+        return ifModified(request, etag -> taskService.getTagCounts()
+                .flatMap(counts -> ServerResponse.ok().eTag(etag).bodyValue(counts)));
+    }
+
+    public Mono<ServerResponse> getStatistics(ServerRequest request) {
+        return taskService.getStatistics().flatMap(stats -> ServerResponse.ok().bodyValue(stats));
+    }
+
+    public Mono<ServerResponse> getTasksDueBetween(ServerRequest request) {
+        Instant from = parse(request, "from", Instant::parse, null);
+        Instant to = parse(request, "to", Instant::parse, null);
+        return ifModified(request, etag -> taskService
+                .getTasksDueBetween(from, to, statuses(request), cursor(request), limit(request))
+                .flatMap(page -> pageResponse(request, page, etag)));
+    }
+
+    public Mono<ServerResponse> getOverdueTasks(ServerRequest request) {
+        return taskService.getOverdueTasks(statuses(request), cursor(request), limit(request))
+                .flatMap(page -> pageResponse(request, page, null));
+    }
+
+    public Mono<ServerResponse> getUpcomingTasks(ServerRequest request) {
+        int hours = parse(request, "hours", Integer::valueOf, 24);
+        return taskService.getUpcomingTasks(Duration.ofHours(hours), statuses(request), cursor(request), limit(request))
+                .flatMap(page -> pageResponse(request, page, null));
+    }
+
+    public Mono<ServerResponse> searchTasks(ServerRequest request) {
+        String query = request.queryParam("q")
+                .orElseThrow(() -> new ServerWebInputException("Required parameter 'q' is not present"));
+        return ifModified(request, etag -> ServerResponse.ok()
+                .eTag(etag)
+                .contentType(listMediaType(request))
+                .body(taskService.searchTasks(query, limit(request)), TaskResponse.class));
+    }
+
+    public Mono<ServerResponse> queryTasks(ServerRequest request) {
+        List<String> priorities = listParam(request, "priority");
+        List<String> tags = listParam(request, "tag");
+        TaskFilter filter = new TaskFilter(
+                statuses(request),
+                priorities.isEmpty() ? null : priorities,
+                tags.isEmpty() ? null : tags,
+                parse(request, "match", TagMatch::valueOf, TagMatch.ALL),
+                parse(request, "dueFrom", Instant::parse, null),
+                parse(request, "dueTo", Instant::parse, null),
+                request.queryParam("q").orElse(null),
+                parse(request, "sort", TaskSort::valueOf, TaskSort.ID));
+        return ifModified(request, etag -> taskService
+                .queryTasks(filter, cursor(request), limit(request))
+                .flatMap(page -> pageResponse(request, page, etag)));
+    }
+
+    public Mono<ServerResponse> exportTasks(ServerRequest request) {
+        ExportFormat format = parse(request, "format", ExportFormat::valueOf, ExportFormat.NDJSON);
+        boolean ndjson = format == ExportFormat.NDJSON;
+        return taskService.streamTasks(request.queryParam("status").orElse(null), request.queryParam("priority").orElse(null))
+                .flatMap(tasks -> ServerResponse.ok()
+                        .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                "attachment; filename=\"tasks." + (ndjson ? "ndjson" : "json") + "\"")
+                        .body(tasks, TaskResponse.class));
+    }
+
+    public Mono<ServerResponse> followChanges(ServerRequest request) {
+        Task.Status status = parse(request, "status", value -> Task.Status.valueOf(value.toUpperCase()), null);
+        Task.Priority priority = parse(request, "priority", value -> Task.Priority.valueOf(value.toUpperCase()), null);
+        String lastEventHeader = request.headers().firstHeader("Last-Event-ID");
+        Long lastEventId = lastEventHeader != null ? parseValue("Last-Event-ID", lastEventHeader, Long::valueOf) : null;
+        Flux<ServerSentEvent<TaskChangeEvent>> events = taskService.followChanges(status, priority, lastEventId)
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(Long.toString(event.sequence()))
+                        .event(event.type().name())
+                        .build())
+                .mergeWith(Flux.interval(feedHeartbeat)
+                        .map(tick -> ServerSentEvent.<TaskChangeEvent>builder().comment("keep-alive").build()));
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(events, new ParameterizedTypeReference<ServerSentEvent<TaskChangeEvent>>() {});
+    }
+
+    public Mono<ServerResponse> importTasks(ServerRequest request) {
+        return taskService.importTasks(request.bodyToFlux(DataBuffer.class))
+                .flatMap(result -> ServerResponse.ok().bodyValue(result));
+    }
+
+    public Mono<ServerResponse> createTasks(ServerRequest request) {
+        return body(request, new ParameterizedTypeReference<List<TaskRequest>>() {})
+                .flatMap(taskService::createTasks)
+                .flatMap(results -> ServerResponse.ok().bodyValue(results));
+    }
+
+    public Mono<ServerResponse> patchTasks(ServerRequest request) {
+        return body(request, new ParameterizedTypeReference<List<TaskBatchPatch>>() {})
+                .flatMap(taskService::patchTasks)
+                .flatMap(results -> ServerResponse.ok().bodyValue(results));
+    }
+
+    public Mono<ServerResponse> getTasksById(ServerRequest request) {
+        return body(request, new ParameterizedTypeReference<List<UUID>>() {})
+                .flatMap(taskService::getTasksById)
+                .flatMap(results -> ServerResponse.ok().bodyValue(results));
+    }
+
+    public Mono<ServerResponse> deleteTasks(ServerRequest request) {
+        return body(request, new ParameterizedTypeReference<List<UUID>>() {})
+                .flatMap(taskService::deleteTasks)
+                .flatMap(results -> ServerResponse.ok().bodyValue(results));
+    }
+
+    /**
+     * Answers a conditional read of a collection from the store's modification
+     * epoch alone, before any query runs, as {@code TaskController} does.
+     */
+    private Mono<ServerResponse> ifModified(ServerRequest request, Function<String, Mono<ServerResponse>> response) {
+        String etag = toETag(taskService.getModificationEpoch());
+        if (etagMatches(request, etag)) {
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return response.apply(etag);
+    }
+
+    /**
+     * Evaluates {@code If-None-Match} and, when it is absent,
+     * {@code If-Modified-Since} against a single task's version.
+     */
+    private static boolean notModified(ServerRequest request, String etag, TaskVersion version) {
+        if (!request.headers().header(HttpHeaders.IF_NONE_MATCH).isEmpty()) {
+            return etagMatches(request, etag);
+        }
+        long ifModifiedSince = request.headers().asHttpHeaders().getIfModifiedSince();
+        return ifModifiedSince >= 0 && version.lastModified() >= 0
+                && version.lastModified() / 1000 * 1000 <= ifModifiedSince;
+    }
+
+    private static boolean etagMatches(ServerRequest request, String etag) {
+        for (String header : request.headers().header(HttpHeaders.IF_NONE_MATCH)) {
+            for (String candidate : header.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Mono<ServerResponse> withETag(HttpStatus status, TaskResponse task) {
+        return ServerResponse.status(status)
+                .eTag(toETag(task.version()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(task);
+    }
+
+    /**
+     * Streams a page as a {@link Flux}, advertising the next page (if any)
+     * through the {@value TaskController#NEXT_CURSOR_HEADER} and {@code Link}
+     * headers. {@code etag} is omitted for time-dependent results.
+     */
+    private static Mono<ServerResponse> pageResponse(ServerRequest request, TaskPage page, String etag) {
+        ServerResponse.BodyBuilder response = ServerResponse.ok().contentType(listMediaType(request));
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        if (page.nextCursor() != null) {
+            String next = UriComponentsBuilder.fromUri(request.uri())
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor())
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(Flux.fromIterable(page.items()), TaskResponse.class);
+    }
+
+    private static MediaType listMediaType(ServerRequest request) {
+        return request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+    }
+
+    private static <T> Mono<T> body(ServerRequest request, Class<T> type) {
+        return request.bodyToMono(type)
+                .switchIfEmpty(Mono.error(new ServerWebInputException("Request body is missing")));
+    }
+
+    private static <T> Mono<T> body(ServerRequest request, ParameterizedTypeReference<T> type) {
+        return request.bodyToMono(type)
+                .switchIfEmpty(Mono.error(new ServerWebInputException("Request body is missing")));
+    }
+
+    private Map<String, String> validate(Object body) {
+        Map<String, String> errors = new TreeMap<>();
+        for (ConstraintViolation<Object> violation : validator.validate(body)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    private static Task toTask(UUID id, TaskRequest request) {
+        return new Task(
+                id,
+                request.title(),
+                request.description(),
+                request.priority(),
+                request.status(),
+                request.dueDate(),
+                request.tags()
+        );
+    }
+
+    private static UUID id(ServerRequest request) {
+        return parseValue("id", request.pathVariable("id"), UUID::fromString);
+    }
+
+    private static String cursor(ServerRequest request) {
+        return request.queryParam("cursor").orElse(null);
+    }
+
+    private static Integer limit(ServerRequest request) {
+        return parse(request, "limit", Integer::valueOf, null);
+    }
+
+    private static List<String> statuses(ServerRequest request) {
+        List<String> statuses = listParam(request, "status");
+        return statuses.isEmpty() ? null : statuses;
+    }
+
+    /**
+     * Collects a repeatable query parameter, also splitting comma-separated
+     * values as MVC does for list parameters.
+     */
+    private static List<String> listParam(ServerRequest request, String name) {
+        List<String> values = new ArrayList<>();
+        for (String value : request.queryParams().getOrDefault(name, List.of())) {
+            for (String part : value.split(",")) {
+                if (!part.isBlank()) {
+                    values.add(part.trim());
+                }
+            }
+        }
+        return values;
+    }
+
+    private static <T> T parse(ServerRequest request, String name, Function<String, T> parser, T defaultValue) {
+        return request.queryParam(name)
+                .map(value -> parseValue(name, value, parser))
+                .orElse(defaultValue);
+    }
+
+    /**
+     * Parses a request value, reporting malformed input as a 400 like MVC's
+     * argument conversion.
+     */
+    private static <T> T parseValue(String name, String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ServerWebInputException("Invalid value for '" + name + "': " + value);
+        }
+    }
+}
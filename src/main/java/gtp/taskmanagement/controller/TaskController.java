@@ -1,9 +1,22 @@
 package gtp.taskmanagement.controller;
 
+import gtp.taskmanagement.dto.BatchItemResult;
+import gtp.taskmanagement.dto.ExportFormat;
+import gtp.taskmanagement.dto.ImportResult;
+import gtp.taskmanagement.dto.TagMatch;
+import gtp.taskmanagement.dto.TaskBatchPatch;
+import gtp.taskmanagement.dto.TaskFilter;
+import gtp.taskmanagement.dto.TaskJsonArray;
+import gtp.taskmanagement.dto.TaskPage;
 import gtp.taskmanagement.dto.TaskRequest;
 import gtp.taskmanagement.dto.TaskResponse;
+import gtp.taskmanagement.dto.TaskSort;
+import gtp.taskmanagement.dto.TaskStats;
 import gtp.taskmanagement.dto.TaskUpdateRequest;
 import gtp.taskmanagement.model.Task;
+import gtp.taskmanagement.repository.TaskVersion;
+import gtp.taskmanagement.service.TaskImporter;
+import gtp.taskmanagement.service.TaskJsonCache;
 import gtp.taskmanagement.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,43 +26,109 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static gtp.taskmanagement.util.Util.parseIfMatch;
+import static gtp.taskmanagement.util.Util.toETag;
 
 /**
  * REST controller for managing tasks in the system.
  * Provides endpoints for CRUD operations and task filtering capabilities.
- * All endpoints are prefixed with /api/v1/tasks.
+ * All endpoints are prefixed with /api/v1/tasks. Active in the default servlet
+ * deployment; the reactive mode serves the same API through {@link ReactiveTaskHandler}.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/tasks")
 @Tag(name = "Task Controller", description = "Operations for managing tasks")
 public class TaskController {
 
+    /**
+     * Response header carrying the opaque cursor for the next page of a list endpoint.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final Object ASYNC_TIMEOUT = TaskController.class.getName() + ".asyncTimeout";
+
     private final TaskService taskService;
+    private final TaskJsonCache taskJsonCache;
+    private final TaskImporter taskImporter;
+    private final TaskFeedEmitters feedEmitters;
+    private final long exportTimeoutMillis;
 
     /**
      * Constructs a new TaskController with the required TaskService.
      *
      * @param taskService The service handling task business logic
+     * @param taskJsonCache Cache of encoded tasks used to write response bodies
+     * @param taskImporter Importer for NDJSON request bodies
+     * @param feedEmitters Server-sent event streams of the change feed
+     * @param exportTimeoutSeconds How long a single export may run
      */
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskJsonCache taskJsonCache, TaskImporter taskImporter,
+                          TaskFeedEmitters feedEmitters,
+                          @Value("${task.export.timeout-seconds:3600}") long exportTimeoutSeconds) {
         this.taskService = taskService;
+        this.taskJsonCache = taskJsonCache;
+        this.taskImporter = taskImporter;
+        this.feedEmitters = feedEmitters;
+        this.exportTimeoutMillis = TimeUnit.SECONDS.toMillis(exportTimeoutSeconds);
     }
 
     /**
-     * Retrieves all tasks in the system.
+     * Retrieves one page of tasks, ordered by id.
      *
-     * @return List of all tasks with HTTP 200 status
+     * @param cursor Opaque cursor from a previous page's {@value #NEXT_CURSOR_HEADER} header
+     * @param limit Maximum number of tasks to return (capped server-side)
+     * @return Page of tasks with HTTP 200 status
      */
     @Operation(
             summary = "Get all tasks",
-            description = "Retrieves a list of all tasks in the system",
+            description = "Retrieves one page of tasks ordered by id. When more tasks are available, "
+                    + "the cursor for the next page is returned in the " + NEXT_CURSOR_HEADER + " header "
+                    + "and a Link header with rel=\"next\"",
+            parameters = {
+                    @Parameter(
+                            name = "cursor",
+                            description = "Opaque cursor returned by the previous page",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string")
+                    ),
+                    @Parameter(
+                            name = "limit",
+                            description = "Maximum number of tasks to return",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "integer", minimum = "1")
+                    )
+            },
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -58,17 +137,30 @@ public class TaskController {
                                     mediaType = "application/json",
                                     array = @ArraySchema(schema = @Schema(implementation = TaskResponse.class))
                             )
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "No task changed since the ETag given in If-None-Match"
                     )
             }
     )
+    @RateLimited(RateLimited.Budget.LIST)
     @GetMapping
-    public ResponseEntity<List<TaskResponse>> getAllTasks() {
-        return ResponseEntity.ok(taskService.getAllTasks());
+    public ResponseEntity<TaskJsonArray> getAllTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        return pageResponse(taskService.getTasks(cursor, limit));
     }
 
 
     /**
-     * Retrieves a specific task by its ID.
+     * Retrieves a specific task by its ID. The version check that answers
+     * conditional requests also finds the cached encoding, so a cache hit
+     * neither reads nor serializes the task.
      *
      * @param id UUID of the task to retrieve
      * @return Requested task with HTTP 200 status
@@ -88,12 +180,16 @@ public class TaskController {
             responses = {
                     @ApiResponse(
                             responseCode = "200",
-                            description = "Task found and returned",
+                            description = "Task found and returned, with its version as ETag",
                             content = @Content(
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = TaskResponse.class)
                             )
                     ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Task unchanged since the ETag or date given in If-None-Match/If-Modified-Since"
+                    ),
                     @ApiResponse(
                             responseCode = "404",
                             description = "Task not found"
@@ -101,9 +197,19 @@ public class TaskController {
             }
     )
     @GetMapping("/{id}")
-    public ResponseEntity<TaskResponse> getTaskById(
-            @PathVariable UUID id) {
-        return ResponseEntity.ok(taskService.getTaskById(id));
+    public ResponseEntity<byte[]> getTaskById(
+            @PathVariable UUID id,
+            WebRequest request) {
+        TaskVersion version = taskService.getTaskVersion(id);
+        if (request.checkNotModified(toETag(version.version()), version.lastModified())) {
+            return null;
+        }
+        byte[] json = taskJsonCache.find(id, version.version());
+        if (json != null) {
+            return jsonWithETag(version.version(), json);
+        }
+        TaskResponse task = taskService.getTaskById(id);
+        return jsonWithETag(task.version(), taskJsonCache.put(task));
     }
 
 
@@ -150,10 +256,7 @@ public class TaskController {
                 request.dueDate(),
                 request.tags()
         );
-        return new ResponseEntity<>(
-                taskService.createTask(task),
-                HttpStatus.CREATED
-        );
+        return withETag(HttpStatus.CREATED, taskService.createTask(task));
     }
 
 
@@ -174,6 +277,12 @@ public class TaskController {
                             required = true,
                             in = ParameterIn.PATH,
                             schema = @Schema(type = "string", format = "uuid")
+                    ),
+                    @Parameter(
+                            name = "If-Match",
+                            description = "ETag of the version being modified, or a comma-separated list of acceptable ETags; the update is rejected with 412 if the task is at none of them. Weak ETags never match",
+                            in = ParameterIn.HEADER,
+                            schema = @Schema(type = "string")
                     )
             },
             responses = {
@@ -192,6 +301,10 @@ public class TaskController {
                     @ApiResponse(
                             responseCode = "404",
                             description = "Task not found"
+                    ),
+                    @ApiResponse(
+                            responseCode = "412",
+                            description = "If-Match does not match the current version of the task"
                     )
             }
     )
@@ -206,7 +319,8 @@ public class TaskController {
                             schema = @Schema(implementation = TaskRequest.class)
                     )
             )
-            @Valid @RequestBody TaskRequest request) {
+            @Valid @RequestBody TaskRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Task taskUpdates = new Task(
                 id,
                 request.title(),
@@ -216,7 +330,7 @@ public class TaskController {
                 request.dueDate(),
                 request.tags()
         );
-        return ResponseEntity.ok(taskService.updateTask(id, taskUpdates));
+        return withETag(HttpStatus.OK, taskService.updateTask(id, taskUpdates, parseIfMatch(ifMatch)));
     }
 
 
@@ -237,6 +351,12 @@ public class TaskController {
                             required = true,
                             in = ParameterIn.PATH,
                             schema = @Schema(type = "string", format = "uuid")
+                    ),
+                    @Parameter(
+                            name = "If-Match",
+                            description = "ETag of the version being modified, or a comma-separated list of acceptable ETags; the update is rejected with 412 if the task is at none of them. Weak ETags never match",
+                            in = ParameterIn.HEADER,
+                            schema = @Schema(type = "string")
                     )
             },
             responses = {
@@ -255,6 +375,10 @@ public class TaskController {
                     @ApiResponse(
                             responseCode = "404",
                             description = "Task not found"
+                    ),
+                    @ApiResponse(
+                            responseCode = "412",
+                            description = "If-Match does not match the current version of the task"
                     )
             }
     )
@@ -268,8 +392,9 @@ public class TaskController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = TaskUpdateRequest.class)
                     ))
-            @Valid @RequestBody TaskUpdateRequest updates) {
-        return ResponseEntity.ok(taskService.patchTask(id, updates));
+            @Valid @RequestBody TaskUpdateRequest updates,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(HttpStatus.OK, taskService.patchTask(id, updates, parseIfMatch(ifMatch)));
     }
 
 
@@ -311,10 +436,12 @@ public class TaskController {
 
 
     /**
-     * Filters tasks by their status.
+     * Filters tasks by their status, one page at a time.
      *
      * @param status Status to filter by
-     * @return List of matching tasks with HTTP 200 status
+     * @param cursor Opaque cursor from a previous page
+     * @param limit Maximum number of tasks to return (capped server-side)
+     * @return Page of matching tasks with HTTP 200 status
      */
     @Operation(
             summary = "Filter tasks by status",
@@ -329,6 +456,18 @@ public class TaskController {
                                     type = "string",
                                     allowableValues = {"PENDING", "COMPLETED", "FAILED", "IN_PROGRESS"}
                             )
+                    ),
+                    @Parameter(
+                            name = "cursor",
+                            description = "Opaque cursor returned by the previous page",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string")
+                    ),
+                    @Parameter(
+                            name = "limit",
+                            description = "Maximum number of tasks to return",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "integer", minimum = "1")
                     )
             },
             responses = {
@@ -339,21 +478,34 @@ public class TaskController {
                                     mediaType = "application/json",
                                     array = @ArraySchema(schema = @Schema(implementation = TaskResponse.class))
                             )
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "No task changed since the ETag given in If-None-Match"
                     )
             }
     )
+    @RateLimited(RateLimited.Budget.LIST)
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<TaskResponse>> getTasksByStatus(
-            @PathVariable String status) {
-        return ResponseEntity.ok(taskService.getTasksByStatus(status));
+    public ResponseEntity<TaskJsonArray> getTasksByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        return pageResponse(taskService.getTasksByStatus(status, cursor, limit));
     }
 
 
     /**
-     * Filters tasks by their priority level.
+     * Filters tasks by their priority level, one page at a time.
      *
      * @param priority Priority level to filter by
-     * @return List of matching tasks with HTTP 200 status
+     * @param cursor Opaque cursor from a previous page
+     * @param limit Maximum number of tasks to return (capped server-side)
+     * @return Page of matching tasks with HTTP 200 status
      */
     @Operation(
             summary = "Filter tasks by priority",
@@ -365,6 +517,18 @@ public class TaskController {
                             required = true,
                             in = ParameterIn.PATH,
                             schema = @Schema(type = "string")
+                    ),
+                    @Parameter(
+                            name = "cursor",
+                            description = "Opaque cursor returned by the previous page",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string")
+                    ),
+                    @Parameter(
+                            name = "limit",
+                            description = "Maximum number of tasks to return",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "integer", minimum = "1")
                     )
             },
             responses = {
@@ -375,12 +539,967 @@ public class TaskController {
                                     mediaType = "application/json",
                                     array = @ArraySchema(schema = @Schema(implementation = TaskResponse.class))
                             )
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "No task changed since the ETag given in If-None-Match"
                     )
             }
     )
+    @RateLimited(RateLimited.Budget.LIST)
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<TaskResponse>> getTasksByPriority(
-            @PathVariable String priority) {
-        return ResponseEntity.ok(taskService.getTasksByPriority(priority));
+    public ResponseEntity<TaskJsonArray> getTasksByPriority(
+            @PathVariable String priority,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        return pageResponse(taskService.getTasksByPriority(priority, cursor, limit));
+    }
+
+
+    /**
+     * Finds tasks by tag, one page at a time.
+     *
+     * @param tags Tags to look for
+     * @param match Whether tasks must carry any or all of the tags
+     * @param cursor Opaque cursor from a previous page
+     * @param limit Maximum number of tasks to return (capped server-side)
+     * @return Page of matching tasks with HTTP 200 status
+     */
+    @Operation(
+            summary = "Filter tasks by tags",
+            description = "Retrieves tasks carrying any (default) or all of the given tags",
+            parameters = {
+                    @Parameter(
+                            name = "tag",
+                            description = "Tag to match; repeat the parameter or separate values with commas",
+                            required = true,
+                            in = ParameterIn.QUERY,
+                            array = @ArraySchema(schema = @Schema(type = "string"))
+                    ),
+                    @Parameter(
+                            name = "match",
+                            description = "ANY to match tasks with at least one tag, ALL to require every tag",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string", allowableValues = {"ANY", "ALL"}, defaultValue = "ANY")
+                    ),
+                    @Parameter(
+                            name = "cursor",
+                            description = "Opaque cursor returned by the previous page",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string")
+                    ),
+                    @Parameter(
+                            name = "limit",
+                            description = "Maximum number of tasks to return",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "integer", minimum = "1")
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Tasks filtered by tags",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = TaskResponse.class))
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "No task changed since the ETag given in If-None-Match"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "No tag or an invalid match mode provided"
+                    )
+            }
+    )
+    @RateLimited(RateLimited.Budget.LIST)
+    @GetMapping("/tags")
+    public ResponseEntity<TaskJsonArray> getTasksByTags(
+            @RequestParam("tag") List<String> tags,
+            @RequestParam(defaultValue = "ANY") TagMatch match,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        return pageResponse(taskService.getTasksByTags(tags, match, cursor, limit));
+    }
+
+
+    /**
+     * Counts tasks per tag.
+     *
+     * @return Number of tasks carrying each tag with HTTP 200 status
+     */
+    @Operation(
+            summary = "Count tasks per tag",
+            description = "Returns the number of tasks carrying each tag in use",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Tag counts returned",
+                            content = @Content(mediaType = "application/json")
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "No task changed since the ETag given in If-None-Match"
+                    )
+            }
+    )
+    @GetMapping("/tags/counts")
+    public ResponseEntity<Map<String, Long>> getTagCounts(WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        return ResponseEntity.ok(taskService.getTagCounts());
+    }
+
+
+    /**
+     * Summarizes the store for dashboards: counts by status and priority,
+     * overdue tasks and the completion rate.
+     * <p>
+     * The counts are maintained as tasks are written, so this answers in
+     * constant time however many tasks are stored. Not cached with an ETag,
+     * since tasks become overdue without being written.
+     * </p>
+     *
+     * @return Task statistics with HTTP 200 status
+     */
+    @Operation(
+            summary = "Get task statistics",
+            description = "Returns task counts by status and priority, the number of overdue tasks "
+                    + "that are not completed, and the share of tasks completed",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Statistics returned",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStats> getStatistics() {
+        return ResponseEntity.ok(taskService.getStatistics());
+    }
+
+
+    /**
+     * Finds tasks due within a time range, ordered by due date, one page at a time.
+     *
+     * @param from Start of the range (inclusive); unbounded when absent
+     * @param to End of the range (exclusive); unbounded when absent
+     * @param statuses Statuses to include; all statuses when absent
+     * @param cursor Opaque cursor from a previous page
+     * @param limit Maximum number of tasks to return (capped server-side)
+     * @return Page of matching tasks with HTTP 200 status
+     */
+    @Operation(
+            summary = "Filter tasks by due date",
+            description = "Retrieves tasks due in [from, to), earliest first. Tasks without a due date are not returned",
+            parameters = {
+                    @Parameter(
+                            name = "from",
+                            description = "Start of the range (inclusive), as an ISO-8601 instant",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string", format = "date-time")
+                    ),
+                    @Parameter(
+                            name = "to",
+                            description = "End of the range (exclusive), as an ISO-8601 instant",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string", format = "date-time")
+                    ),
+                    @Parameter(
+                            name = "status",
+                            description = "Status to include; repeat the parameter or separate values with commas",
+                            in = ParameterIn.QUERY,
+                            array = @ArraySchema(schema = @Schema(type = "string"))
+                    ),
+                    @Parameter(
+                            name = "cursor",
+                            description = "Opaque cursor returned by the previous page",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string")
+                    ),
+                    @Parameter(
+                            name = "limit",
+                            description = "Maximum number of tasks to return",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "integer", minimum = "1")
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Tasks due in the range",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = TaskResponse.class))
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "No task changed since the ETag given in If-None-Match"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid date or cursor provided"
+                    )
+            }
+    )
+    @RateLimited(RateLimited.Budget.LIST)
+    @GetMapping("/due")
+    public ResponseEntity<TaskJsonArray> getTasksDueBetween(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(name = "status", required = false) List<String> statuses,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        return pageResponse(taskService.getTasksDueBetween(from, to, statuses, cursor, limit));
+    }
+
+
+    /**
+     * Finds tasks whose due date has passed, oldest first, one page at a time.
+     *
+     * @param statuses Statuses to include; every status except COMPLETED when absent
+     * @param cursor Opaque cursor from a previous page
+     * @param limit Maximum number of tasks to return (capped server-side)
+     * @return Page of overdue tasks with HTTP 200 status
+     */
+    @Operation(
+            summary = "Get overdue tasks",
+            description = "Retrieves tasks due before now that are not COMPLETED, most overdue first",
+            parameters = {
+                    @Parameter(
+                            name = "status",
+                            description = "Status to include; repeat the parameter or separate values with commas",
+                            in = ParameterIn.QUERY,
+                            array = @ArraySchema(schema = @Schema(type = "string"))
+                    ),
+                    @Parameter(
+                            name = "cursor",
+                            description = "Opaque cursor returned by the previous page",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string")
+                    ),
+                    @Parameter(
+                            name = "limit",
+                            description = "Maximum number of tasks to return",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "integer", minimum = "1")
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Overdue tasks",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = TaskResponse.class))
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid cursor provided"
+                    )
+            }
+    )
+    @RateLimited(RateLimited.Budget.LIST)
+    @GetMapping("/overdue")
+    public ResponseEntity<TaskJsonArray> getOverdueTasks(
+            @RequestParam(name = "status", required = false) List<String> statuses,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return pageResponse(taskService.getOverdueTasks(statuses, cursor, limit));
+    }
+
+
+    /**
+     * Finds tasks due within the next few hours, earliest first, one page at a time.
+     *
+     * @param hours Length of the window starting now
+     * @param statuses Statuses to include; every status except COMPLETED when absent
+     * @param cursor Opaque cursor from a previous page
+     * @param limit Maximum number of tasks to return (capped server-side)
+     * @return Page of upcoming tasks with HTTP 200 status
+     */
+    @Operation(
+            summary = "Get upcoming tasks",
+            description = "Retrieves tasks that are not COMPLETED and fall due within the next hours, earliest first",
+            parameters = {
+                    @Parameter(
+                            name = "hours",
+                            description = "Length of the window starting now, in hours",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "integer", minimum = "1", defaultValue = "24")
+                    ),
+                    @Parameter(
+                            name = "status",
+                            description = "Status to include; repeat the parameter or separate values with commas",
+                            in = ParameterIn.QUERY,
+                            array = @ArraySchema(schema = @Schema(type = "string"))
+                    ),
+                    @Parameter(
+                            name = "cursor",
+                            description = "Opaque cursor returned by the previous page",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string")
+                    ),
+                    @Parameter(
+                            name = "limit",
+                            description = "Maximum number of tasks to return",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "integer", minimum = "1")
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Upcoming tasks",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = TaskResponse.class))
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid window or cursor provided"
+                    )
+            }
+    )
+    @RateLimited(RateLimited.Budget.LIST)
+    @GetMapping("/upcoming")
+    public ResponseEntity<TaskJsonArray> getUpcomingTasks(
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(name = "status", required = false) List<String> statuses,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return pageResponse(taskService.getUpcomingTasks(Duration.ofHours(hours), statuses, cursor, limit));
+    }
+
+
+    /**
+     * Searches task titles and descriptions.
+     *
+     * @param query Words to search for; each must match a word in the task or be a prefix of one
+     * @param limit Maximum number of tasks to return (capped server-side)
+     * @return Matching tasks, best match first, with HTTP 200 status
+     */
+    @Operation(
+            summary = "Search tasks",
+            description = "Full-text search over task titles and descriptions. Every query word must match, "
+                    + "exactly or as a prefix; results are ranked by relevance and title matches rank higher",
+            parameters = {
+                    @Parameter(
+                            name = "q",
+                            description = "Words to search for",
+                            required = true,
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string")
+                    ),
+                    @Parameter(
+                            name = "limit",
+                            description = "Maximum number of tasks to return",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "integer", minimum = "1")
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Matching tasks, best match first",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = TaskResponse.class))
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "No task changed since the ETag given in If-None-Match"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "No query provided"
+                    )
+            }
+    )
+    @RateLimited(RateLimited.Budget.LIST)
+    @GetMapping("/search")
+    public ResponseEntity<TaskJsonArray> searchTasks(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        return ResponseEntity.ok(taskJsonCache.toJsonArray(taskService.searchTasks(query, limit)));
+    }
+
+
+    /**
+     * Finds tasks matching several criteria at once, one page at a time.
+     *
+     * @param statuses Statuses to accept; any when absent
+     * @param priorities Priorities to accept; any when absent
+     * @param tags Tags to match; none required when absent
+     * @param match Whether a task needs every tag or at least one
+     * @param dueFrom Start of the due-date range (inclusive)
+     * @param dueTo End of the due-date range (exclusive)
+     * @param text Words to find in the title or description
+     * @param sort Order of the results
+     * @param cursor Opaque cursor from a previous page
+     * @param limit Maximum number of tasks to return (capped server-side)
+     * @return Page of matching tasks with HTTP 200 status
+     */
+    @Operation(
+            summary = "Query tasks",
+            description = "Combines status, priority, tag, due-date and text criteria; a task must meet every "
+                    + "criterion given. The most selective criterion is looked up in its index and the others are "
+                    + "checked per task, so the cost follows the rarest criterion rather than the size of the store",
+            parameters = {
+                    @Parameter(
+                            name = "status",
+                            description = "Status to accept; repeat the parameter or separate values with commas",
+                            in = ParameterIn.QUERY,
+                            array = @ArraySchema(schema = @Schema(type = "string"))
+                    ),
+                    @Parameter(
+                            name = "priority",
+                            description = "Priority to accept; repeat the parameter or separate values with commas",
+                            in = ParameterIn.QUERY,
+                            array = @ArraySchema(schema = @Schema(type = "string"))
+                    ),
+                    @Parameter(
+                            name = "tag",
+                            description = "Tag to match; repeat the parameter or separate values with commas",
+                            in = ParameterIn.QUERY,
+                            array = @ArraySchema(schema = @Schema(type = "string"))
+                    ),
+                    @Parameter(
+                            name = "match",
+                            description = "ALL to require every tag, ANY to match tasks with at least one",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string", allowableValues = {"ALL", "ANY"}, defaultValue = "ALL")
+                    ),
+                    @Parameter(
+                            name = "dueFrom",
+                            description = "Start of the due-date range (inclusive), as an ISO-8601 instant",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string", format = "date-time")
+                    ),
+                    @Parameter(
+                            name = "dueTo",
+                            description = "End of the due-date range (exclusive), as an ISO-8601 instant",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string", format = "date-time")
+                    ),
+                    @Parameter(
+                            name = "q",
+                            description = "Words that must each match a word of the title or description, "
+                                    + "exactly or as a prefix",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string")
+                    ),
+                    @Parameter(
+                            name = "sort",
+                            description = "ID, or DUE_DATE for earliest due first (tasks without a due date are "
+                                    + "left out)",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string", allowableValues = {"ID", "DUE_DATE"}, defaultValue = "ID")
+                    ),
+                    @Parameter(
+                            name = "cursor",
+                            description = "Opaque cursor returned by the previous page",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string")
+                    ),
+                    @Parameter(
+                            name = "limit",
+                            description = "Maximum number of tasks to return",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "integer", minimum = "1")
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Tasks matching every criterion",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = TaskResponse.class))
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "No task changed since the ETag given in If-None-Match"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid criterion, sort or cursor provided"
+                    )
+            }
+    )
+    @RateLimited(RateLimited.Budget.LIST)
+    @GetMapping("/query")
+    public ResponseEntity<TaskJsonArray> queryTasks(
+            @RequestParam(name = "status", required = false) List<String> statuses,
+            @RequestParam(name = "priority", required = false) List<String> priorities,
+            @RequestParam(name = "tag", required = false) List<String> tags,
+            @RequestParam(defaultValue = "ALL") TagMatch match,
+            @RequestParam(required = false) Instant dueFrom,
+            @RequestParam(required = false) Instant dueTo,
+            @RequestParam(name = "q", required = false) String text,
+            @RequestParam(defaultValue = "ID") TaskSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        TaskFilter filter = new TaskFilter(statuses, priorities, tags, match, dueFrom, dueTo, text, sort);
+        return pageResponse(taskService.queryTasks(filter, cursor, limit));
+    }
+
+
+    /**
+     * Streams every task, optionally filtered, as NDJSON or as one JSON array.
+     *
+     * @param status Status to keep; all statuses when absent
+     * @param priority Priority to keep; all priorities when absent
+     * @param format NDJSON for one task per line, or JSON for a single array
+     * @return Body written while the store is walked, with HTTP 200 status
+     */
+    @Operation(
+            summary = "Export tasks",
+            description = "Streams every matching task in id order, reading the store one page at a time while "
+                    + "the response is written, so memory does not grow with the number of tasks. A client that "
+                    + "reads slowly pauses the walk rather than making the server buffer ahead of it",
+            parameters = {
+                    @Parameter(
+                            name = "status",
+                            description = "Status to keep (PENDING, COMPLETED, FAILED, IN_PROGRESS)",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string")
+                    ),
+                    @Parameter(
+                            name = "priority",
+                            description = "Priority to keep (HIGH, MEDIUM, LOW)",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string")
+                    ),
+                    @Parameter(
+                            name = "format",
+                            description = "NDJSON for one task per line, JSON for a single array",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string", allowableValues = {"NDJSON", "JSON"}, defaultValue = "NDJSON")
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Tasks streamed as an attachment",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/x-ndjson",
+                                            schema = @Schema(implementation = TaskResponse.class)
+                                    ),
+                                    @Content(
+                                            mediaType = "application/json",
+                                            array = @ArraySchema(schema = @Schema(implementation = TaskResponse.class))
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid format, status or priority provided"
+                    )
+            }
+    )
+    @RateLimited(RateLimited.Budget.LIST)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            WebRequest request) {
+        // Opened here so that bad filters fail before the response is committed.
+        Stream<TaskResponse> tasks = taskService.streamTasks(status, priority);
+        setAsyncTimeout(request, exportTimeoutMillis);
+        boolean ndjson = format == ExportFormat.NDJSON;
+        StreamingResponseBody body = out -> {
+            try (tasks) {
+                writeExport(tasks.iterator(), ndjson, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"tasks." + (ndjson ? "ndjson" : "json") + "\"")
+                .body(body);
+    }
+
+
+    /**
+     * Streams task changes as server-sent events.
+     *
+     * @param status Status to follow; all statuses when absent
+     * @param priority Priority to follow; all priorities when absent
+     * @param lastEventId Id of the last event received, sent by reconnecting clients
+     * @return Event stream that stays open until either side closes it
+     */
+    @Operation(
+            summary = "Follow task changes",
+            description = "Pushes an event for every task created, updated, patched or deleted, named after the "
+                    + "change and carrying the task as JSON. Updates and patches are sent when the task matches "
+                    + "the filters before or after the change; deletions are always sent. A client that falls "
+                    + "behind, or reconnects after missing events, after a restart or to another instance, "
+                    + "receives a RESYNC event and should reload the tasks it follows. In cluster mode only "
+                    + "the changes made through this instance are sent",
+            parameters = {
+                    @Parameter(
+                            name = "status",
+                            description = "Status to follow (PENDING, COMPLETED, FAILED, IN_PROGRESS)",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string")
+                    ),
+                    @Parameter(
+                            name = "priority",
+                            description = "Priority to follow (HIGH, MEDIUM, LOW)",
+                            in = ParameterIn.QUERY,
+                            schema = @Schema(type = "string")
+                    ),
+                    @Parameter(
+                            name = "Last-Event-ID",
+                            description = "Id of the last event received before reconnecting",
+                            in = ParameterIn.HEADER,
+                            schema = @Schema(type = "integer", format = "int64")
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Event stream opened",
+                            content = @Content(mediaType = "text/event-stream")
+                    )
+            }
+    )
+    @GetMapping(value = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter followChanges(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return feedEmitters.open(
+                status != null ? Task.Status.valueOf(status.toUpperCase()) : null,
+                priority != null ? Task.Priority.valueOf(priority.toUpperCase()) : null,
+                lastEventId);
+    }
+
+
+    /**
+     * Imports tasks from an NDJSON request body, one task request per line.
+     *
+     * @param body Request body, read incrementally
+     * @return Import summary with HTTP 200 status
+     * @throws IOException if reading the request body fails
+     */
+    @Operation(
+            summary = "Import tasks",
+            description = "Reads one task request per line and creates the valid ones in batches while the body "
+                    + "is still arriving. Each line is validated like POST /api/v1/tasks; rejected lines are "
+                    + "counted and the first of them reported with their line number and field errors",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Import finished; counts, rejected lines and throughput",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ImportResult.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "415",
+                            description = "Body is not application/x-ndjson"
+                    )
+            }
+    )
+    @RateLimited(RateLimited.Budget.LIST)
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportResult> importTasks(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Task requests, one JSON object per line",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = TaskRequest.class)
+                    ))
+            InputStream body) throws IOException {
+        return ResponseEntity.ok(taskImporter.importTasks(body));
+    }
+
+
+    /**
+     * Creates several tasks in one request.
+     *
+     * @param requests Task creation requests
+     * @return One result per request, in request order, with HTTP 200 status
+     */
+    @Operation(
+            summary = "Create tasks in bulk",
+            description = "Creates every valid task in one pass. Each item is validated on its own; invalid items "
+                    + "are reported with status 400 and their field errors without aborting the rest of the batch",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Per-item results: 201 with the created task, or 400 with field errors",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = BatchItemResult.class))
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Batch is malformed or exceeds the maximum batch size"
+                    )
+            }
+    )
+    @RateLimited(RateLimited.Budget.LIST)
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> createTasks(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Tasks to create",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = TaskRequest.class))
+                    ))
+            @RequestBody List<TaskRequest> requests) {
+        return ResponseEntity.ok(taskService.createTasks(requests));
+    }
+
+
+    /**
+     * Partially updates several tasks in one request.
+     *
+     * @param patches Task ids with the fields to update
+     * @return One result per patch, in request order, with HTTP 200 status
+     */
+    @Operation(
+            summary = "Partially update tasks in bulk",
+            description = "Applies each patch as PATCH /{id} would and saves the changed tasks in one pass. "
+                    + "Patches for the same id are applied in order",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Per-item results: 200 with the updated task, 400 with field errors, or 404",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = BatchItemResult.class))
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Batch is malformed or exceeds the maximum batch size"
+                    )
+            }
+    )
+    @RateLimited(RateLimited.Budget.LIST)
+    @PatchMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> patchTasks(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Task ids with the fields to update",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = TaskBatchPatch.class))
+                    ))
+            @RequestBody List<TaskBatchPatch> patches) {
+        return ResponseEntity.ok(taskService.patchTasks(patches));
+    }
+
+
+    /**
+     * Retrieves several tasks by id in one request.
+     *
+     * @param ids UUIDs of the tasks to retrieve
+     * @return One result per id, in request order, with HTTP 200 status
+     */
+    @Operation(
+            summary = "Get tasks in bulk",
+            description = "Looks up every id in one pass",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Per-item results: 200 with the task, or 404",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = BatchItemResult.class))
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Batch is malformed or exceeds the maximum batch size"
+                    )
+            }
+    )
+    @RateLimited(RateLimited.Budget.LIST)
+    @PostMapping("/batch/get")
+    public ResponseEntity<List<BatchItemResult>> getTasksById(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "UUIDs of the tasks to retrieve",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(type = "string", format = "uuid"))
+                    ))
+            @RequestBody List<UUID> ids) {
+        return ResponseEntity.ok(taskService.getTasksById(ids));
+    }
+
+
+    /**
+     * Deletes several tasks in one request.
+     *
+     * @param ids UUIDs of the tasks to delete
+     * @return One result per id, in request order, with HTTP 200 status
+     */
+    @Operation(
+            summary = "Delete tasks in bulk",
+            description = "Deletes every listed task in one pass",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Per-item results: 204 when deleted, or 404",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = BatchItemResult.class))
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Batch is malformed or exceeds the maximum batch size"
+                    )
+            }
+    )
+    @RateLimited(RateLimited.Budget.LIST)
+    @PostMapping("/batch/delete")
+    public ResponseEntity<List<BatchItemResult>> deleteTasks(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "UUIDs of the tasks to delete",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(type = "string", format = "uuid"))
+                    ))
+            @RequestBody List<UUID> ids) {
+        return ResponseEntity.ok(taskService.deleteTasks(ids));
+    }
+
+
+    /**
+     * Answers a conditional read of a collection endpoint from the store's
+     * modification epoch alone, before any query runs. When nothing was written
+     * since the client's {@code If-None-Match} tag, the response is set to 304
+     * and the caller returns no body; otherwise the tag is added to the response.
+     * In cluster mode a write through another node only changes the tag after
+     * the next heartbeat. Endpoints whose result depends on the current time
+     * must not use this.
+     */
+    private boolean notModified(WebRequest request) {
+        return request.checkNotModified(toETag(taskService.getModificationEpoch()));
+    }
+
+    /**
+     * Gives this request's async processing its own timeout instead of
+     * {@code spring.mvc.async.request-timeout}. The interceptor runs when the
+     * request goes async, after Spring has applied the default timeout and
+     * before the container is told.
+     */
+    private static void setAsyncTimeout(WebRequest request, long timeoutMillis) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ASYNC_TIMEOUT,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest asyncRequest, Callable<T> task) {
+                        if (asyncRequest instanceof AsyncWebRequest async) {
+                            async.setTimeout(timeoutMillis);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Wraps a single task in a response carrying its version as a strong ETag,
+     * which clients echo in {@code If-Match} to make their next update conditional.
+     */
+    private static ResponseEntity<TaskResponse> withETag(HttpStatus status, TaskResponse task) {
+        return ResponseEntity.status(status)
+                .eTag(toETag(task.version()))
+                .body(task);
+    }
+
+    /**
+     * Wraps an encoded task in a 200 response carrying its version as ETag.
+     */
+    private static ResponseEntity<byte[]> jsonWithETag(long version, byte[] json) {
+        return ResponseEntity.ok()
+                .eTag(toETag(version))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json);
+    }
+
+    /**
+     * Writes exported tasks one at a time. Each write blocks while the client is
+     * not reading, which in turn holds back the next page read from the store.
+     * Encodings already cached are reused, but exported tasks are not added to
+     * the cache.
+     */
+    private void writeExport(Iterator<TaskResponse> tasks, boolean ndjson, OutputStream out) throws IOException {
+        if (!ndjson) {
+            out.write('[');
+        }
+        boolean first = true;
+        while (tasks.hasNext()) {
+            if (!ndjson && !first) {
+                out.write(',');
+            }
+            out.write(taskJsonCache.encode(tasks.next()));
+            if (ndjson) {
+                out.write('\n');
+            }
+            first = false;
+        }
+        if (!ndjson) {
+            out.write(']');
+        }
+        out.flush();
+    }
+
+    /**
+     * Wraps a page in a 200 response, advertising the next page (if any) through
+     * the {@value #NEXT_CURSOR_HEADER} and {@code Link} headers so the body stays
+     * a plain JSON array. The body is assembled from cached task encodings.
+     */
+    private ResponseEntity<TaskJsonArray> pageResponse(TaskPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor())
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(taskJsonCache.toJsonArray(page.items()));
     }
 }
\ No newline at end of file
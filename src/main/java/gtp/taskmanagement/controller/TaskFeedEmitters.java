@@ -0,0 +1,149 @@
+package gtp.taskmanagement.controller;
+
+import gtp.taskmanagement.dto.TaskChangeEvent;
+import gtp.taskmanagement.model.Task;
+import gtp.taskmanagement.service.TaskChangeFeed;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves {@link TaskChangeFeed} subscriptions as server-sent events over
+ * Servlet async requests.
+ * <p>
+ * An open stream holds no thread. When a subscription has events, one virtual
+ * thread is started to write them out and ends once the ring is empty, so
+ * a client that reads slowly only keeps its own virtual thread waiting. A
+ * keep-alive comment is sent to every stream every
+ * {@code task.feed.heartbeat-seconds}, which also detects disconnected clients.
+ * </p>
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TaskFeedEmitters {
+
+    private static final int BATCH = 64;
+
+    private final TaskChangeFeed changeFeed;
+    private final Set<Stream> streams = ConcurrentHashMap.newKeySet();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats;
+
+    public TaskFeedEmitters(TaskChangeFeed changeFeed,
+                            @Value("${task.feed.heartbeat-seconds:30}") long heartbeatSeconds) {
+        this.changeFeed = changeFeed;
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Opens a stream of changes matching the optional filters.
+     *
+     * @see TaskChangeFeed#subscribe
+     */
+    public SseEmitter open(Task.Status status, Task.Priority priority, Long lastEventId) {
+        // No timeout: the stream stays open until the client or the server closes it.
+        SseEmitter emitter = new SseEmitter(0L);
+        Stream stream = new Stream(emitter, changeFeed.subscribe(status, priority, lastEventId));
+        emitter.onCompletion(stream::close);
+        emitter.onTimeout(stream::close);
+        emitter.onError(error -> stream.close());
+        streams.add(stream);
+        stream.subscription.onAvailable(stream::schedule);
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        for (Stream stream : streams) {
+            stream.emitter.complete();
+        }
+        writers.shutdownNow();
+    }
+
+    private void heartbeat() {
+        for (Stream stream : streams) {
+            writers.execute(stream::heartbeat);
+        }
+    }
+
+    /**
+     * One open event stream and the subscription feeding it.
+     */
+    private final class Stream {
+        private final SseEmitter emitter;
+        private final TaskChangeFeed.Subscription subscription;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Stream(SseEmitter emitter, TaskChangeFeed.Subscription subscription) {
+            this.emitter = emitter;
+            this.subscription = subscription;
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    List<TaskChangeEvent> events = subscription.poll(BATCH);
+                    if (events.isEmpty()) {
+                        scheduled.set(false);
+                        // Events offered after the poll but before the flag was cleared found it set.
+                        if (!subscription.hasPending() || !scheduled.compareAndSet(false, true)) {
+                            return;
+                        }
+                        continue;
+                    }
+                    for (TaskChangeEvent event : events) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(event.sequence()))
+                                .name(event.type().name())
+                                .data(event, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                fail(e);
+            }
+        }
+
+        private void heartbeat() {
+            try {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (IOException | IllegalStateException e) {
+                fail(e);
+            }
+        }
+
+        private void fail(Exception e) {
+            close();
+            emitter.completeWithError(e);
+        }
+
+        private void close() {
+            streams.remove(this);
+            subscription.close();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package gtp.taskmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Outcome of one item of a batch request. {@code status} is the HTTP status the
+ * item would have received as a single request; {@code task} is set on success
+ * and {@code errors} (field to message, as for single requests) on failure.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResult(
+        int index,
+        UUID id,
+        int status,
+        TaskResponse task,
+        Map<String, String> errors
+) {
+    public static BatchItemResult success(int index, int status, TaskResponse task) {
+        return new BatchItemResult(index, task.id(), status, task, null);
+    }
+
+    public static BatchItemResult failure(int index, UUID id, int status, Map<String, String> errors) {
+        return new BatchItemResult(index, id, status, null, errors);
+    }
+}
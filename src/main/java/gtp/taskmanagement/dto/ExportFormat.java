@@ -0,0 +1,15 @@
+package gtp.taskmanagement.dto;
+
+/**
+ * Body format of a task export.
+ */
+public enum ExportFormat {
+    /**
+     * One JSON task per line.
+     */
+    NDJSON,
+    /**
+     * A single JSON array of tasks.
+     */
+    JSON
+}
@@ -0,0 +1,13 @@
+package gtp.taskmanagement.dto;
+
+import java.util.Map;
+
+/**
+ * A line of an import that was rejected. {@code line} is 1-based; {@code errors}
+ * maps the offending field (or {@code line} for unparseable input) to a message,
+ * as for single requests.
+ */
+public record ImportLineError(
+        long line,
+        Map<String, String> errors
+) {}
@@ -0,0 +1,18 @@
+package gtp.taskmanagement.dto;
+
+import java.util.List;
+
+/**
+ * Summary of an NDJSON import. Blank lines are counted in {@code lines} but are
+ * neither imported nor failed. Only the first rejected lines are listed in
+ * {@code errors}; {@code errorsTruncated} tells whether more were left out.
+ */
+public record ImportResult(
+        long lines,
+        long imported,
+        long failed,
+        List<ImportLineError> errors,
+        boolean errorsTruncated,
+        long elapsedMillis,
+        long tasksPerSecond
+) {}
@@ -0,0 +1,15 @@
+package gtp.taskmanagement.dto;
+
+/**
+ * How a tag query combines several tags.
+ */
+public enum TagMatch {
+    /**
+     * Tasks carrying at least one of the tags.
+     */
+    ANY,
+    /**
+     * Tasks carrying every one of the tags.
+     */
+    ALL
+}
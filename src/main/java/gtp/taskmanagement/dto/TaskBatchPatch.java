@@ -0,0 +1,11 @@
+package gtp.taskmanagement.dto;
+
+import java.util.UUID;
+
+/**
+ * One item of a batch partial update: the task to change and the fields to set.
+ */
+public record TaskBatchPatch(
+        UUID id,
+        TaskUpdateRequest changes
+) {}
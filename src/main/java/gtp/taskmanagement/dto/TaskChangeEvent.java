@@ -0,0 +1,29 @@
+package gtp.taskmanagement.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One entry of the task change feed.
+ * <p>
+ * Events of one task can arrive out of order when it is written concurrently;
+ * keep the task with the highest {@code version}.
+ * </p>
+ *
+ * @param sequence Position of the event in the feed, also sent as the SSE event id
+ * @param type What happened
+ * @param id The task changed, or {@code null} for {@link TaskChangeType#RESYNC}
+ * @param task The task after the change, or {@code null} for deletions and resyncs
+ * @param previousStatus The status before an update or patch, or {@code null}
+ * @param previousPriority The priority before an update or patch, or {@code null}
+ * @param at When the change was published
+ */
+public record TaskChangeEvent(
+        long sequence,
+        TaskChangeType type,
+        UUID id,
+        TaskResponse task,
+        String previousStatus,
+        String previousPriority,
+        Instant at
+) {}
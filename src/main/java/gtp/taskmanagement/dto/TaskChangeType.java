@@ -0,0 +1,16 @@
+package gtp.taskmanagement.dto;
+
+/**
+ * Kind of a {@link TaskChangeEvent}.
+ */
+public enum TaskChangeType {
+    CREATED,
+    UPDATED,
+    PATCHED,
+    DELETED,
+    /**
+     * Events were dropped for this subscriber; reload the tasks of interest
+     * before applying further events.
+     */
+    RESYNC
+}
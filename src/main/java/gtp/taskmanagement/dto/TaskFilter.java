@@ -0,0 +1,27 @@
+package gtp.taskmanagement.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Criteria of a combined task query; every criterion given must hold.
+ *
+ * @param statuses Statuses to accept, or {@code null} for any
+ * @param priorities Priorities to accept, or {@code null} for any
+ * @param tags Tags to match, or {@code null}
+ * @param tagMatch Whether a task needs every tag or at least one
+ * @param dueFrom Start of the due-date range (inclusive), or {@code null}
+ * @param dueTo End of the due-date range (exclusive), or {@code null}
+ * @param text Words to find in the title or description, or {@code null}
+ * @param sort Order of the results
+ */
+public record TaskFilter(
+        List<String> statuses,
+        List<String> priorities,
+        List<String> tags,
+        TagMatch tagMatch,
+        Instant dueFrom,
+        Instant dueTo,
+        String text,
+        TaskSort sort
+) {}
@@ -0,0 +1,56 @@
+package gtp.taskmanagement.dto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * A JSON array of tasks held as already-encoded UTF-8 fragments, one per task.
+ * <p>
+ * List endpoints return this instead of a {@code List<TaskResponse>} so that
+ * the fragments kept by the JSON cache are copied straight to the response
+ * stream, with the separators written in between, rather than serialized
+ * again on every request. The body is byte-for-byte what Jackson would have
+ * produced for the same tasks.
+ * </p>
+ */
+public final class TaskJsonArray {
+
+    private final List<byte[]> elements;
+
+    public TaskJsonArray(List<byte[]> elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * @return The encoded tasks, in response order
+     */
+    public List<byte[]> elements() {
+        return elements;
+    }
+
+    /**
+     * @return The exact number of bytes {@link #writeTo} writes
+     */
+    public long contentLength() {
+        long length = 2 + Math.max(0, elements.size() - 1);
+        for (byte[] element : elements) {
+            length += element.length;
+        }
+        return length;
+    }
+
+    /**
+     * Writes the array to {@code out}, leaving the stream open.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write('[');
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(elements.get(i));
+        }
+        out.write(']');
+    }
+}
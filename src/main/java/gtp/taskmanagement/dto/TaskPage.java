@@ -0,0 +1,14 @@
+package gtp.taskmanagement.dto;
+
+import java.util.List;
+
+/**
+ * One page of tasks returned by a keyset-paginated query.
+ *
+ * @param items The tasks on this page, ordered by id
+ * @param nextCursor Opaque cursor for the following page, or {@code null} if this is the last page
+ */
+public record TaskPage(
+        List<TaskResponse> items,
+        String nextCursor
+) {}
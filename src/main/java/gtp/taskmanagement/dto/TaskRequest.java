@@ -1,5 +1,6 @@
 package gtp.taskmanagement.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -7,6 +8,7 @@ import jakarta.validation.constraints.Size;
 import java.util.Date;
 import java.util.List;
 
+@JsonDeserialize(using = TaskRequestDeserializers.Create.class)
 public record TaskRequest(
         @NotBlank(message = "Title is required")
         @Size(min = 3, max = 100, message = "Title must be 3-100 characters")
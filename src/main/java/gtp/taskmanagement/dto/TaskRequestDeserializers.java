@@ -0,0 +1,352 @@
+package gtp.taskmanagement.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.util.StdDateFormat;
+
+import java.io.IOException;
+import java.time.Month;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads {@link TaskRequest} and {@link TaskUpdateRequest} bodies in a single
+ * pass over the parser's tokens, straight into the record's constructor.
+ * <p>
+ * They accept what Jackson's own record deserialization accepts with Spring
+ * Boot's defaults: unknown fields are skipped, scalars are read as text, and a
+ * due date is either epoch milliseconds or a string. The ISO-8601 form the API
+ * writes, such as {@code 2025-06-01T09:30:00.000+00:00}, is parsed by hand;
+ * any other string goes to the mapper's date format as before.
+ * </p>
+ * <p>
+ * Field names are those the mapper gives the record's components, so
+ * {@code @JsonProperty}, {@code @JsonAlias} and a configured naming strategy
+ * apply as they would without these deserializers.
+ * </p>
+ */
+public final class TaskRequestDeserializers {
+
+    private static final long NOT_ISO = Long.MIN_VALUE;
+
+    private TaskRequestDeserializers() {
+    }
+
+    public static final class Create extends FieldReader<TaskRequest> {
+
+        public Create() {
+            this(Field.BY_COMPONENT);
+        }
+
+        private Create(Map<String, Field> fields) {
+            super(TaskRequest.class, fields);
+        }
+
+        @Override
+        Create withFields(Map<String, Field> fields) {
+            return new Create(fields);
+        }
+
+        @Override
+        TaskRequest create(String title, String description, String priority, String status, Date dueDate,
+                           List<String> tags) {
+            return new TaskRequest(title, description, priority, status, dueDate, tags);
+        }
+    }
+
+    public static final class Update extends FieldReader<TaskUpdateRequest> {
+
+        public Update() {
+            this(Field.BY_COMPONENT);
+        }
+
+        private Update(Map<String, Field> fields) {
+            super(TaskUpdateRequest.class, fields);
+        }
+
+        @Override
+        Update withFields(Map<String, Field> fields) {
+            return new Update(fields);
+        }
+
+        @Override
+        TaskUpdateRequest create(String title, String description, String priority, String status, Date dueDate,
+                                 List<String> tags) {
+            return new TaskUpdateRequest(title, description, priority, status, dueDate, tags);
+        }
+    }
+
+    /**
+     * The components shared by both request records.
+     */
+    enum Field {
+        TITLE("title"),
+        DESCRIPTION("description"),
+        PRIORITY("priority"),
+        STATUS("status"),
+        DUE_DATE("dueDate"),
+        TAGS("tags");
+
+        /**
+         * Each field by its component name, which is also its JSON name when
+         * the mapper renames nothing.
+         */
+        static final Map<String, Field> BY_COMPONENT = byComponent();
+
+        private final String component;
+
+        Field(String component) {
+            this.component = component;
+        }
+
+        private static Map<String, Field> byComponent() {
+            Map<String, Field> fields = new HashMap<>();
+            for (Field field : values()) {
+                fields.put(field.component, field);
+            }
+            return Map.copyOf(fields);
+        }
+    }
+
+    /**
+     * Reads the fields of a request record in one pass and hands them to
+     * {@link #create}. The JSON name of each field is looked up once, from the
+     * mapper's view of the record, when the deserializer is contextualized.
+     */
+    abstract static class FieldReader<T> extends StdDeserializer<T> implements ContextualDeserializer {
+
+        private final Map<String, Field> fields;
+
+        FieldReader(Class<T> type, Map<String, Field> fields) {
+            super(type);
+            this.fields = fields;
+        }
+
+        abstract FieldReader<T> withFields(Map<String, Field> fields);
+
+        abstract T create(String title, String description, String priority, String status, Date dueDate,
+                          List<String> tags);
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) {
+            BeanDescription bean = ctxt.getConfig().introspect(ctxt.constructType(handledType()));
+            Map<String, Field> named = new HashMap<>();
+            for (BeanPropertyDefinition definition : bean.findProperties()) {
+                Field field = Field.BY_COMPONENT.get(definition.getInternalName());
+                if (field != null) {
+                    named.put(definition.getName(), field);
+                    for (PropertyName alias : definition.findAliases()) {
+                        named.putIfAbsent(alias.getSimpleName(), field);
+                    }
+                }
+            }
+            return named.equals(fields) ? this : withFields(Map.copyOf(named));
+        }
+
+        @Override
+        public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String title = null;
+            String description = null;
+            String priority = null;
+            String status = null;
+            Date dueDate = null;
+            List<String> tags = null;
+            for (JsonToken token = firstField(p, ctxt, handledType()); token == JsonToken.FIELD_NAME;
+                 token = p.nextToken()) {
+                Field field = fields.get(p.currentName());
+                p.nextToken();
+                if (field == null) {
+                    p.skipChildren();
+                    continue;
+                }
+                switch (field) {
+                    case TITLE -> title = text(p, ctxt);
+                    case DESCRIPTION -> description = text(p, ctxt);
+                    case PRIORITY -> priority = text(p, ctxt);
+                    case STATUS -> status = text(p, ctxt);
+                    case DUE_DATE -> dueDate = date(p, ctxt);
+                    case TAGS -> tags = tags(p, ctxt);
+                }
+            }
+            return create(title, description, priority, status, dueDate, tags);
+        }
+    }
+
+    /**
+     * Moves past the start of the object, failing if there is none.
+     *
+     * @return The token of the first field, or the end of an empty object
+     */
+    private static JsonToken firstField(JsonParser p, DeserializationContext ctxt, Class<?> type) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        }
+        if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            ctxt.handleUnexpectedToken(type, p);
+        }
+        return token;
+    }
+
+    private static String text(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return p.getText();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return p.getValueAsString();
+        }
+        return (String) ctxt.handleUnexpectedToken(String.class, p);
+    }
+
+    private static List<String> tags(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            @SuppressWarnings("unchecked")
+            List<String> handled = (List<String>) ctxt.handleUnexpectedToken(ctxt.constructType(List.class), p);
+            return handled;
+        }
+        List<String> tags = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            tags.add(text(p, ctxt));
+        }
+        return tags;
+    }
+
+    private static Date date(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return new Date(p.getLongValue());
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            return (Date) ctxt.handleUnexpectedToken(Date.class, p);
+        }
+        String text = p.getText().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        // A custom spring.jackson.date-format decides for itself what it accepts.
+        if (ctxt.getConfig().getDateFormat() instanceof StdDateFormat) {
+            long millis = parseIsoInstant(text);
+            if (millis != NOT_ISO) {
+                return new Date(millis);
+            }
+        }
+        try {
+            return ctxt.parseDate(text);
+        } catch (IllegalArgumentException e) {
+            return (Date) ctxt.handleWeirdStringValue(Date.class, text, "not a valid date: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Parses {@code yyyy-MM-ddTHH:mm:ss}, optionally followed by {@code .SSS},
+     * then by {@code Z}, {@code +HH:mm} or {@code +HHmm}, as epoch milliseconds.
+     * Anything else, including out-of-range fields that a lenient date format
+     * would roll over and years before 1900, is left to the date format.
+     *
+     * @return The instant, or {@link #NOT_ISO}
+     */
+    static long parseIsoInstant(String text) {
+        int length = text.length();
+        if (length < 20 || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T'
+                || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return NOT_ISO;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        int second = digits(text, 17, 2);
+        int position = 19;
+        int millis = 0;
+        if (text.charAt(position) == '.') {
+            millis = digits(text, position + 1, 3);
+            position += 4;
+        }
+        if (year < 1900 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 59 || millis < 0
+                || day > Month.of(month).length(Year.isLeap(year))) {
+            return NOT_ISO;
+        }
+
+        int offsetMinutes;
+        if (position == length - 1 && text.charAt(position) == 'Z') {
+            offsetMinutes = 0;
+        } else if (position < length && (text.charAt(position) == '+' || text.charAt(position) == '-')) {
+            int hours = digits(text, position + 1, 2);
+            int minutes;
+            if (length == position + 6 && text.charAt(position + 3) == ':') {
+                minutes = digits(text, position + 4, 2);
+            } else if (length == position + 5) {
+                minutes = digits(text, position + 3, 2);
+            } else {
+                return NOT_ISO;
+            }
+            if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59) {
+                return NOT_ISO;
+            }
+            offsetMinutes = (hours * 60 + minutes) * (text.charAt(position) == '-' ? -1 : 1);
+        } else {
+            return NOT_ISO;
+        }
+
+        long seconds = epochDay(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second
+                - offsetMinutes * 60L;
+        return seconds * 1_000L + millis;
+    }
+
+    /**
+     * The decimal number in {@code count} characters from {@code start}, or
+     * {@code -1} if any of them is not a digit or lies past the end.
+     */
+    private static int digits(String text, int start, int count) {
+        if (start + count > text.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Days from 1970-01-01 to a date in the Gregorian calendar, counting years
+     * from March so that the leap day falls at the end.
+     */
+    private static long epochDay(int year, int month, int day) {
+        int marchYear = month <= 2 ? year - 1 : year;
+        int era = marchYear / 400;
+        int yearOfEra = marchYear - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+}
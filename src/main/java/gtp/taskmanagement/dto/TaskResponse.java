@@ -15,7 +15,8 @@ public record TaskResponse(
         Date dueDate,
         List<String> tags,
         LocalDateTime createdAt,
-        LocalDateTime updatedAt
+        LocalDateTime updatedAt,
+        long version
 ) {
     public static TaskResponse fromEntity(Task task) {
         return new TaskResponse(
@@ -27,7 +28,8 @@ public record TaskResponse(
                 task.getDueDate(),
                 task.getTags(),
                 task.getCreatedAt(),
-                task.getUpdatedAt()
+                task.getUpdatedAt(),
+                task.getVersion()
         );
     }
 }
@@ -0,0 +1,15 @@
+package gtp.taskmanagement.dto;
+
+/**
+ * Order of the tasks returned by a combined query.
+ */
+public enum TaskSort {
+    /**
+     * By id, the order of every other paginated listing.
+     */
+    ID,
+    /**
+     * By due date, earliest first, then by id. Tasks without a due date are left out.
+     */
+    DUE_DATE
+}
@@ -0,0 +1,27 @@
+package gtp.taskmanagement.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Summary counts of the task store, for dashboards.
+ *
+ * @param total Number of tasks
+ * @param byStatus Number of tasks per status
+ * @param byPriority Number of tasks per priority
+ * @param byStatusAndPriority Number of tasks per status, then per priority
+ * @param overdue Number of tasks past their due date that are not completed
+ * @param overdueByPriority Number of overdue tasks per priority
+ * @param completionRate Share of tasks that are completed, from 0 to 1
+ * @param asOf The time overdue tasks were counted up to
+ */
+public record TaskStats(
+        long total,
+        Map<String, Long> byStatus,
+        Map<String, Long> byPriority,
+        Map<String, Map<String, Long>> byStatusAndPriority,
+        long overdue,
+        Map<String, Long> overdueByPriority,
+        double completionRate,
+        Instant asOf
+) {}
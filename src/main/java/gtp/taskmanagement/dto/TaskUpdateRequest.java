@@ -1,17 +1,22 @@
 package gtp.taskmanagement.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import jakarta.validation.constraints.Size;
 import java.util.Date;
 import java.util.List;
-import java.util.Optional;
 
+/**
+ * The fields of a partial update. A field that is absent or {@code null}
+ * leaves the task's value unchanged.
+ */
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonDeserialize(using = TaskRequestDeserializers.Update.class)
 public record TaskUpdateRequest(
-        Optional<@Size(min = 3, max = 100) String> title,
-        Optional<@Size(max = 500) String> description,
-        Optional<String> priority,
-        Optional<String> status,
-        Optional<Date> dueDate,
-        Optional<List<@Size(max = 20) String>> tags
+        @Size(min = 3, max = 100) String title,
+        @Size(max = 500) String description,
+        String priority,
+        String status,
+        Date dueDate,
+        List<@Size(max = 20) String> tags
 ) {}
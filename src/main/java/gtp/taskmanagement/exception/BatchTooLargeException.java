@@ -0,0 +1,7 @@
+package gtp.taskmanagement.exception;
+
+public class BatchTooLargeException extends RuntimeException {
+    public BatchTooLargeException(String message) {
+        super(message);
+    }
+}
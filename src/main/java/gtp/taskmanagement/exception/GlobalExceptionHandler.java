@@ -1,5 +1,9 @@
 package gtp.taskmanagement.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
@@ -10,12 +14,48 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import java.util.HashMap;
 import java.util.Map;
 
+import static gtp.taskmanagement.util.Util.toETag;
+
+/**
+ * Maps exceptions thrown by the task API to responses and counts them in the
+ * {@code task.api.errors} counter, tagged with the reason.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    /**
+     * Name of the counter of rejected requests, shared with the reactive routes.
+     */
+    public static final String ERRORS_METRIC = "task.api.errors";
+
+    private final Counter validationFailed;
+    private final Counter malformedBody;
+    private final Counter notFound;
+    private final Counter invalidCursor;
+    private final Counter invalidLimit;
+    private final Counter invalidFilter;
+    private final Counter versionConflict;
+    private final Counter batchTooLarge;
+    private final Counter rateLimited;
+    private final Counter nodeUnavailable;
+
+    public GlobalExceptionHandler(MeterRegistry registry) {
+        this.validationFailed = registry.counter(ERRORS_METRIC, "reason", "validation");
+        this.malformedBody = registry.counter(ERRORS_METRIC, "reason", "malformed_body");
+        this.notFound = registry.counter(ERRORS_METRIC, "reason", "not_found");
+        this.invalidCursor = registry.counter(ERRORS_METRIC, "reason", "invalid_cursor");
+        this.invalidLimit = registry.counter(ERRORS_METRIC, "reason", "invalid_limit");
+        this.invalidFilter = registry.counter(ERRORS_METRIC, "reason", "invalid_filter");
+        this.versionConflict = registry.counter(ERRORS_METRIC, "reason", "version_conflict");
+        this.batchTooLarge = registry.counter(ERRORS_METRIC, "reason", "batch_too_large");
+        this.rateLimited = registry.counter(ERRORS_METRIC, "reason", "rate_limited");
+        this.nodeUnavailable = registry.counter(ERRORS_METRIC, "reason", "node_unavailable");
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
+        validationFailed.increment();
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach(error -> {
             String fieldName = ((FieldError) error).getField();
@@ -27,6 +67,61 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<String> handleJsonErrors(HttpMessageNotReadableException ex) {
+        malformedBody.increment();
         return ResponseEntity.badRequest().body("Invalid patch format");
     }
+
+    @ExceptionHandler(TaskNotFoundException.class)
+    public ResponseEntity<String> handleTaskNotFound(TaskNotFoundException ex) {
+        notFound.increment();
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> handleInvalidCursor(InvalidCursorException ex) {
+        invalidCursor.increment();
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidLimitException.class)
+    public ResponseEntity<String> handleInvalidLimit(InvalidLimitException ex) {
+        invalidLimit.increment();
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidFilterException.class)
+    public ResponseEntity<String> handleInvalidFilter(InvalidFilterException ex) {
+        invalidFilter.increment();
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    @ExceptionHandler(TaskVersionConflictException.class)
+    public ResponseEntity<String> handleVersionConflict(TaskVersionConflictException ex) {
+        versionConflict.increment();
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .eTag(toETag(ex.getCurrentVersion()))
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<String> handleBatchTooLarge(BatchTooLargeException ex) {
+        batchTooLarge.increment();
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<String> handleRateLimitExceeded(RateLimitExceededException ex) {
+        rateLimited.increment();
+        // Retry-After is in whole seconds; rounding down would invite a retry that fails again.
+        long seconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(NodeUnavailableException.class)
+    public ResponseEntity<String> handleNodeUnavailable(NodeUnavailableException ex) {
+        nodeUnavailable.increment();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+    }
 }
\ No newline at end of file
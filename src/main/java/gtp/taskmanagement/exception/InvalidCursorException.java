@@ -0,0 +1,7 @@
+package gtp.taskmanagement.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
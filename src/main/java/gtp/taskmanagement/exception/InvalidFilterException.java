@@ -0,0 +1,7 @@
+package gtp.taskmanagement.exception;
+
+public class InvalidFilterException extends RuntimeException {
+    public InvalidFilterException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package gtp.taskmanagement.exception;
+
+public class InvalidLimitException extends RuntimeException {
+    public InvalidLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package gtp.taskmanagement.exception;
+
+public class NodeUnavailableException extends RuntimeException {
+    private final String node;
+
+    public NodeUnavailableException(String node, Throwable cause) {
+        super("Cluster node " + node + " is unavailable: " + cause, cause);
+        this.node = node;
+    }
+
+    public NodeUnavailableException(String node, String reason) {
+        super("Cluster node " + node + " " + reason);
+        this.node = node;
+    }
+
+    public String getNode() {
+        return node;
+    }
+}
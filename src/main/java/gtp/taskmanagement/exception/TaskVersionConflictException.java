@@ -0,0 +1,22 @@
+package gtp.taskmanagement.exception;
+
+import java.util.Set;
+import java.util.UUID;
+
+public class TaskVersionConflictException extends RuntimeException {
+    private final long currentVersion;
+
+    public TaskVersionConflictException(UUID id, long expectedVersion, long currentVersion) {
+        super("Task " + id + " is at version " + currentVersion + ", expected " + expectedVersion);
+        this.currentVersion = currentVersion;
+    }
+
+    public TaskVersionConflictException(UUID id, Set<Long> expectedVersions, long currentVersion) {
+        super("Task " + id + " is at version " + currentVersion + ", expected one of " + expectedVersions);
+        this.currentVersion = currentVersion;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
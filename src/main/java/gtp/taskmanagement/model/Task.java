@@ -5,6 +5,10 @@
  * status, due date, and tags. It includes validation constraints and automatic
  * timestamp generation for creation and modification times.
  * </p>
+ * <p>
+ * The tag list is always held as an unmodifiable copy, so a task never aliases
+ * a list owned by its caller and can hand its tags out without copying them.
+ * </p>
  *
  */
 package gtp.taskmanagement.model;
@@ -15,12 +19,14 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
-import static gtp.taskmanagement.util.Util.isValidPriority;
-import static gtp.taskmanagement.util.Util.isValidStatus;
+import static gtp.taskmanagement.util.Util.parsePriority;
+import static gtp.taskmanagement.util.Util.parseStatus;
 
 public class Task {
     private UUID id;
@@ -32,6 +38,7 @@ public class Task {
     private List<String> tags;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private long version;
 
     /**
      * Enum representing possible task statuses.
@@ -81,10 +88,43 @@ public class Task {
         this();
         this.title = title;
         this.description = description;
-        this.priority = isValidPriority(priority) ? Priority.valueOf(priority.toUpperCase()) : Priority.LOW;
-        this.status = isValidStatus(status) ? Status.valueOf(status.toUpperCase()) : Status.PENDING;
+        Priority parsedPriority = parsePriority(priority);
+        Status parsedStatus = parseStatus(status);
+        this.priority = parsedPriority != null ? parsedPriority : Priority.LOW;
+        this.status = parsedStatus != null ? parsedStatus : Status.PENDING;
         this.dueDate = dueDate;
-        this.tags = tags;
+        this.tags = immutableTags(tags);
+    }
+
+    /**
+     * Restores a task with all of its state, including identity and timestamps.
+     * Intended for storage implementations that load previously saved tasks;
+     * no validation or timestamp generation takes place.
+     *
+     * @param id The unique identifier for the task
+     * @param title The task title
+     * @param description The task description
+     * @param priority The task priority
+     * @param status The task status
+     * @param dueDate The due date
+     * @param tags List of tags
+     * @param createdAt Timestamp when the task was created
+     * @param updatedAt Timestamp when the task was last updated
+     * @param version The stored version of the task
+     */
+    public Task(UUID id, String title, String description, Priority priority, Status status,
+                Date dueDate, List<String> tags, LocalDateTime createdAt, LocalDateTime updatedAt,
+                long version) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.priority = priority;
+        this.status = status;
+        this.dueDate = dueDate;
+        this.tags = immutableTags(tags);
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
     }
 
     /**
@@ -144,7 +184,7 @@ public class Task {
     }
 
     /**
-     * @return List of tags associated with the task
+     * @return Unmodifiable list of tags associated with the task
      */
     public List<String> getTags() {
         return tags;
@@ -164,6 +204,15 @@ public class Task {
         return updatedAt;
     }
 
+    /**
+     * The version is assigned by the repository: 1 when the task is first stored,
+     * incremented on every later save, and 0 for a task that was never stored.
+     * @return The version of the task as it was read from the repository
+     */
+    public long getVersion() {
+        return version;
+    }
+
     /**
      * Sets the task title and updates the modification timestamp.
      * @param title The new title (3-100 characters)
@@ -188,8 +237,9 @@ public class Task {
      * @param priority The new priority as a String
      */
     public void setPriority(String priority) {
-        if (isValidPriority(priority)) {
-            this.priority = Priority.valueOf(priority.toUpperCase());
+        Priority parsed = parsePriority(priority);
+        if (parsed != null) {
+            this.priority = parsed;
             this.updatedAt = LocalDateTime.now();
         }
     }
@@ -209,8 +259,9 @@ public class Task {
      * @param status The new status as a String
      */
     public void setStatus(String status) {
-        if (isValidStatus(status)) {
-            this.status = Status.valueOf(status.toUpperCase());
+        Status parsed = parseStatus(status);
+        if (parsed != null) {
+            this.status = parsed;
             this.updatedAt = LocalDateTime.now();
         }
     }
@@ -238,7 +289,72 @@ public class Task {
      * @param tags The new list of tags (each tag max 20 characters)
      */
     public void setTags(List<String> tags) {
-        this.tags = tags;
+        this.tags = immutableTags(tags);
         this.updatedAt = LocalDateTime.now();
     }
+
+    /**
+     * Sets every field given in one step, leaving those passed as {@code null}
+     * unchanged, and updates the modification timestamp once if any was given.
+     * Priority and status names that are not valid are ignored, as by
+     * {@link #setPriority(String)} and {@link #setStatus(String)}.
+     *
+     * @param title The new title, or {@code null}
+     * @param description The new description, or {@code null}
+     * @param priority The new priority as a String, or {@code null}
+     * @param status The new status as a String, or {@code null}
+     * @param dueDate The new due date, or {@code null}
+     * @param tags The new list of tags, or {@code null}
+     */
+    public void update(String title, String description, String priority, String status,
+                       Date dueDate, List<String> tags) {
+        boolean changed = false;
+        if (title != null) {
+            this.title = title;
+            changed = true;
+        }
+        if (description != null) {
+            this.description = description;
+            changed = true;
+        }
+        Priority parsedPriority = parsePriority(priority);
+        if (parsedPriority != null) {
+            this.priority = parsedPriority;
+            changed = true;
+        }
+        Status parsedStatus = parseStatus(status);
+        if (parsedStatus != null) {
+            this.status = parsedStatus;
+            changed = true;
+        }
+        if (dueDate != null) {
+            this.dueDate = dueDate;
+            changed = true;
+        }
+        if (tags != null) {
+            this.tags = immutableTags(tags);
+            changed = true;
+        }
+        if (changed) {
+            this.updatedAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Copies {@code tags} into an unmodifiable list. Lists that are already
+     * unmodifiable copies ({@link List#of}, {@link List#copyOf}) are shared rather
+     * than copied again; lists with {@code null} elements, which those cannot
+     * hold, are wrapped after copying.
+     */
+    private static List<String> immutableTags(List<String> tags) {
+        if (tags == null) {
+            return null;
+        }
+        for (String tag : tags) {
+            if (tag == null) {
+                return Collections.unmodifiableList(new ArrayList<>(tags));
+            }
+        }
+        return List.copyOf(tags);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,560 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.exception.NodeUnavailableException;
+import gtp.taskmanagement.exception.TaskNotFoundException;
+import gtp.taskmanagement.exception.TaskVersionConflictException;
+import gtp.taskmanagement.model.Task;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The protocol between the nodes of a cluster: every {@link TaskPartition}
+ * operation is a {@code POST} to {@value #PATH}{@code /{operation}} of the
+ * node, whose body and response are the arguments and the result encoded
+ * with {@link TaskCodec}.
+ * <p>
+ * Every request carries the cluster's shared secret in the
+ * {@value ClusterTaskRepository#SECRET_HEADER} header; a node answers requests
+ * without it with 401 and with a wrong one with 403.
+ * </p>
+ * <p>
+ * A response starts with a status byte, so that the not-found and version
+ * conflict failures of a compare-and-save reach the caller as the same
+ * exceptions a local store throws. Any other failure, or a node that does not
+ * answer, surfaces as {@link NodeUnavailableException}.
+ * </p>
+ */
+final class ClusterRpc {
+
+    /**
+     * Path under which a node serves its partition to its peers.
+     */
+    static final String PATH = "/internal/v1/cluster";
+
+    private static final byte OK = 0;
+    private static final byte NOT_FOUND = 1;
+    private static final byte VERSION_CONFLICT = 2;
+    private static final Task.Status[] STATUSES = Task.Status.values();
+    private static final Task.Priority[] PRIORITIES = Task.Priority.values();
+
+    private ClusterRpc() {
+    }
+
+    enum Operation {
+        PING, FIND_BY_ID, FIND_VERSION, FIND_ALL_BY_ID, SAVE, SAVE_ALL, DELETE_BY_ID, DELETE_ALL_BY_ID, ADOPT,
+        SCAN, QUERY, QUERY_BY_DUE_DATE, RANK, COUNT_BY_TAG, SUMMARY, STATISTICS;
+
+        String path() {
+            return name().toLowerCase().replace('_', '-');
+        }
+
+        static Operation of(String path) {
+            return valueOf(path.toUpperCase().replace('-', '_'));
+        }
+    }
+
+    /**
+     * Runs the operation a peer asked for on {@code partition}.
+     *
+     * @param operation The operation, as named in the request path
+     * @param request The encoded arguments
+     * @return The encoded result
+     * @throws IllegalArgumentException if there is no such operation
+     */
+    static byte[] serve(TaskPartition partition, String operation, byte[] request) {
+        Operation op = Operation.of(operation);
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(request));
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            try {
+                out.writeByte(OK);
+                serve(partition, op, in, out);
+            } catch (TaskNotFoundException e) {
+                bytes.reset();
+                out.writeByte(NOT_FOUND);
+            } catch (TaskVersionConflictException e) {
+                bytes.reset();
+                out.writeByte(VERSION_CONFLICT);
+                out.writeLong(e.getCurrentVersion());
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void serve(TaskPartition partition, Operation op, DataInput in, DataOutput out)
+            throws IOException {
+        switch (op) {
+            case PING -> {
+                TaskPartition.Heartbeat heartbeat = partition.heartbeat();
+                out.writeLong(heartbeat.incarnation());
+                out.writeLong(heartbeat.epoch());
+            }
+            case FIND_BY_ID -> writeOptional(out, partition.findById(TaskCodec.readId(in)).orElse(null));
+            case FIND_VERSION -> {
+                Optional<TaskVersion> version = partition.findVersion(TaskCodec.readId(in));
+                out.writeBoolean(version.isPresent());
+                if (version.isPresent()) {
+                    out.writeLong(version.get().version());
+                    out.writeLong(version.get().lastModified());
+                }
+            }
+            case FIND_ALL_BY_ID -> writeTasks(out, partition.findAllById(readIds(in)));
+            case SAVE -> {
+                Task task = TaskCodec.read(in);
+                TaskCodec.write(out, partition.save(task, in.readLong()));
+            }
+            case SAVE_ALL -> writeTasks(out, partition.saveAll(readTasks(in)));
+            case DELETE_BY_ID -> out.writeBoolean(partition.deleteById(TaskCodec.readId(in)));
+            case DELETE_ALL_BY_ID -> writeIds(out, partition.deleteAllById(readIds(in)));
+            case ADOPT -> partition.adopt(readTasks(in));
+            case SCAN -> {
+                byte status = in.readByte();
+                byte priority = in.readByte();
+                writeTasks(out, partition.scan(status >= 0 ? STATUSES[status] : null,
+                        priority >= 0 ? PRIORITIES[priority] : null));
+            }
+            case QUERY -> {
+                TaskQuery query = readQuery(in);
+                UUID after = in.readBoolean() ? TaskCodec.readId(in) : null;
+                writeTasks(out, partition.query(query, after, in.readInt()));
+            }
+            case QUERY_BY_DUE_DATE -> {
+                TaskQuery query = readQuery(in);
+                DueDateKey after = in.readBoolean() ? new DueDateKey(in.readLong(), TaskCodec.readId(in)) : null;
+                writeTasks(out, partition.queryByDueDate(query, after, in.readInt()));
+            }
+            case RANK -> {
+                String text = in.readUTF();
+                int limit = in.readInt();
+                List<TextIndex.Hit> hits = partition.rank(text, limit, in.readLong());
+                out.writeInt(hits.size());
+                for (TextIndex.Hit hit : hits) {
+                    TaskCodec.writeId(out, hit.id());
+                    out.writeDouble(hit.score());
+                }
+            }
+            case COUNT_BY_TAG -> {
+                Map<String, Long> counts = partition.countByTag();
+                out.writeInt(counts.size());
+                for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue());
+                }
+            }
+            case SUMMARY -> {
+                TaskPartition.Summary summary = partition.summary();
+                out.writeLong(summary.count());
+                out.writeLong(summary.epoch());
+                for (long count : summary.byStatus()) {
+                    out.writeLong(count);
+                }
+                for (long count : summary.byPriority()) {
+                    out.writeLong(count);
+                }
+            }
+            case STATISTICS -> {
+                TaskStatistics statistics = partition.statistics();
+                writeGrid(out, statistics.counts());
+                writeGrid(out, statistics.overdue());
+                out.writeLong(statistics.asOf());
+            }
+        }
+    }
+
+    /**
+     * A peer's partition, reached over HTTP.
+     */
+    static final class Remote implements TaskPartition {
+
+        private final String node;
+        private final HttpClient client;
+        private final Duration timeout;
+        private final String secret;
+
+        /**
+         * @param secret The cluster's shared secret, sent with every request
+         */
+        Remote(String node, HttpClient client, Duration timeout, String secret) {
+            this.node = node;
+            this.client = client;
+            this.timeout = timeout;
+            this.secret = secret;
+        }
+
+        @Override
+        public String node() {
+            return node;
+        }
+
+        @Override
+        public Heartbeat heartbeat() {
+            DataInput in = call(Operation.PING, out -> { });
+            return read(() -> new Heartbeat(in.readLong(), in.readLong()));
+        }
+
+        @Override
+        public Optional<Task> findById(UUID id) {
+            DataInput in = call(Operation.FIND_BY_ID, out -> TaskCodec.writeId(out, id));
+            return Optional.ofNullable(read(() -> in.readBoolean() ? TaskCodec.read(in) : null));
+        }
+
+        @Override
+        public Optional<TaskVersion> findVersion(UUID id) {
+            DataInput in = call(Operation.FIND_VERSION, out -> TaskCodec.writeId(out, id));
+            return Optional.ofNullable(read(() ->
+                    in.readBoolean() ? new TaskVersion(in.readLong(), in.readLong()) : null));
+        }
+
+        @Override
+        public List<Task> findAllById(Collection<UUID> ids) {
+            return readTasks(call(Operation.FIND_ALL_BY_ID, out -> writeIds(out, ids)));
+        }
+
+        @Override
+        public Task save(Task task, long expectedVersion) {
+            DataInput in = call(Operation.SAVE, out -> {
+                TaskCodec.write(out, task);
+                out.writeLong(expectedVersion);
+            }, task.getId(), expectedVersion);
+            return read(() -> TaskCodec.read(in));
+        }
+
+        @Override
+        public List<Task> saveAll(List<Task> tasks) {
+            return readTasks(call(Operation.SAVE_ALL, out -> writeTasks(out, tasks)));
+        }
+
+        @Override
+        public boolean deleteById(UUID id) {
+            DataInput in = call(Operation.DELETE_BY_ID, out -> TaskCodec.writeId(out, id));
+            return read(in::readBoolean);
+        }
+
+        @Override
+        public Set<UUID> deleteAllById(Collection<UUID> ids) {
+            return new HashSet<>(readIds(call(Operation.DELETE_ALL_BY_ID, out -> writeIds(out, ids))));
+        }
+
+        @Override
+        public void adopt(List<Task> tasks) {
+            call(Operation.ADOPT, out -> writeTasks(out, tasks));
+        }
+
+        @Override
+        public List<Task> scan(Task.Status status, Task.Priority priority) {
+            return readTasks(call(Operation.SCAN, out -> {
+                out.writeByte(status != null ? status.ordinal() : -1);
+                out.writeByte(priority != null ? priority.ordinal() : -1);
+            }));
+        }
+
+        @Override
+        public List<Task> query(TaskQuery query, UUID after, int limit) {
+            return readTasks(call(Operation.QUERY, out -> {
+                writeQuery(out, query);
+                out.writeBoolean(after != null);
+                if (after != null) {
+                    TaskCodec.writeId(out, after);
+                }
+                out.writeInt(limit);
+            }));
+        }
+
+        @Override
+        public List<Task> queryByDueDate(TaskQuery query, DueDateKey after, int limit) {
+            return readTasks(call(Operation.QUERY_BY_DUE_DATE, out -> {
+                writeQuery(out, query);
+                out.writeBoolean(after != null);
+                if (after != null) {
+                    out.writeLong(after.dueDate());
+                    TaskCodec.writeId(out, after.id());
+                }
+                out.writeInt(limit);
+            }));
+        }
+
+        @Override
+        public List<TextIndex.Hit> rank(String text, int limit, long documents) {
+            DataInput in = call(Operation.RANK, out -> {
+                out.writeUTF(text);
+                out.writeInt(limit);
+                out.writeLong(documents);
+            });
+            return read(() -> {
+                int size = in.readInt();
+                List<TextIndex.Hit> hits = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    hits.add(new TextIndex.Hit(TaskCodec.readId(in), in.readDouble()));
+                }
+                return hits;
+            });
+        }
+
+        @Override
+        public Map<String, Long> countByTag() {
+            DataInput in = call(Operation.COUNT_BY_TAG, out -> { });
+            return read(() -> {
+                int size = in.readInt();
+                Map<String, Long> counts = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    counts.put(in.readUTF(), in.readLong());
+                }
+                return counts;
+            });
+        }
+
+        @Override
+        public Summary summary() {
+            DataInput in = call(Operation.SUMMARY, out -> { });
+            return read(() -> {
+                long count = in.readLong();
+                long epoch = in.readLong();
+                long[] byStatus = new long[STATUSES.length];
+                for (int i = 0; i < byStatus.length; i++) {
+                    byStatus[i] = in.readLong();
+                }
+                long[] byPriority = new long[PRIORITIES.length];
+                for (int i = 0; i < byPriority.length; i++) {
+                    byPriority[i] = in.readLong();
+                }
+                return new Summary(count, epoch, byStatus, byPriority);
+            });
+        }
+
+        @Override
+        public TaskStatistics statistics() {
+            DataInput in = call(Operation.STATISTICS, out -> { });
+            return read(() -> new TaskStatistics(readGrid(in), readGrid(in), in.readLong()));
+        }
+
+        private DataInput call(Operation operation, Encoder arguments) {
+            return call(operation, arguments, null, TaskPartition.ANY_VERSION);
+        }
+
+        /**
+         * Sends {@code operation} and returns the response positioned after its status.
+         *
+         * @param id The task a compare-and-save applies to, for the exceptions it may throw
+         * @param expectedVersion The version a compare-and-save expects
+         */
+        private DataInput call(Operation operation, Encoder arguments, UUID id, long expectedVersion) {
+            byte[] body;
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+                DataOutputStream out = new DataOutputStream(bytes);
+                arguments.encode(out);
+                out.flush();
+                body = bytes.toByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(node + PATH + "/" + operation.path()))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/octet-stream")
+                    .header(ClusterTaskRepository.SECRET_HEADER, secret)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            HttpResponse<byte[]> response;
+            try {
+                response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            } catch (IOException e) {
+                throw new NodeUnavailableException(node, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new NodeUnavailableException(node, e);
+            }
+            if (response.statusCode() != 200) {
+                throw new NodeUnavailableException(node,
+                        "answered " + operation.path() + " with " + response.statusCode());
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(response.body()));
+            byte status = read(in::readByte);
+            if (status == NOT_FOUND) {
+                throw new TaskNotFoundException("Task not found with id: " + id);
+            }
+            if (status == VERSION_CONFLICT) {
+                throw new TaskVersionConflictException(id, expectedVersion, read(in::readLong));
+            }
+            return in;
+        }
+
+        private <T> T read(Decoder<T> decoder) {
+            try {
+                return decoder.decode();
+            } catch (IOException e) {
+                throw new NodeUnavailableException(node, e);
+            }
+        }
+
+        private List<Task> readTasks(DataInput in) {
+            return read(() -> ClusterRpc.readTasks(in));
+        }
+
+        private List<UUID> readIds(DataInput in) {
+            return read(() -> ClusterRpc.readIds(in));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Encoder {
+        void encode(DataOutput out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Decoder<T> {
+        T decode() throws IOException;
+    }
+
+    private static void writeOptional(DataOutput out, Task task) throws IOException {
+        out.writeBoolean(task != null);
+        if (task != null) {
+            TaskCodec.write(out, task);
+        }
+    }
+
+    private static void writeTasks(DataOutput out, Collection<Task> tasks) throws IOException {
+        out.writeInt(tasks.size());
+        for (Task task : tasks) {
+            TaskCodec.write(out, task);
+        }
+    }
+
+    private static List<Task> readTasks(DataInput in) throws IOException {
+        int size = in.readInt();
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(TaskCodec.read(in));
+        }
+        return tasks;
+    }
+
+    private static void writeIds(DataOutput out, Collection<UUID> ids) throws IOException {
+        out.writeInt(ids.size());
+        for (UUID id : ids) {
+            TaskCodec.writeId(out, id);
+        }
+    }
+
+    private static List<UUID> readIds(DataInput in) throws IOException {
+        int size = in.readInt();
+        List<UUID> ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ids.add(TaskCodec.readId(in));
+        }
+        return ids;
+    }
+
+    private static void writeQuery(DataOutput out, TaskQuery query) throws IOException {
+        writeOrdinals(out, query.statuses());
+        writeOrdinals(out, query.priorities());
+        out.writeInt(query.tags() != null ? query.tags().size() : -1);
+        if (query.tags() != null) {
+            for (String tag : query.tags()) {
+                out.writeUTF(tag);
+            }
+        }
+        out.writeBoolean(query.allTags());
+        writeNullable(out, query.dueFrom());
+        writeNullable(out, query.dueTo());
+        TaskCodec.writeString(out, query.text());
+    }
+
+    private static TaskQuery readQuery(DataInput in) throws IOException {
+        Set<Task.Status> statuses = readOrdinals(in, STATUSES, Task.Status.class);
+        Set<Task.Priority> priorities = readOrdinals(in, PRIORITIES, Task.Priority.class);
+        int tagCount = in.readInt();
+        Set<String> tags = null;
+        if (tagCount >= 0) {
+            tags = new HashSet<>();
+            for (int i = 0; i < tagCount; i++) {
+                tags.add(in.readUTF());
+            }
+        }
+        boolean allTags = in.readBoolean();
+        Long dueFrom = readNullable(in);
+        Long dueTo = readNullable(in);
+        return new TaskQuery(statuses, priorities, tags, allTags, dueFrom, dueTo, TaskCodec.readString(in));
+    }
+
+    private static void writeOrdinals(DataOutput out, Set<? extends Enum<?>> values) throws IOException {
+        out.writeInt(values != null ? values.size() : -1);
+        if (values != null) {
+            for (Enum<?> value : values) {
+                out.writeByte(value.ordinal());
+            }
+        }
+    }
+
+    private static <E extends Enum<E>> Set<E> readOrdinals(DataInput in, E[] constants, Class<E> type)
+            throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        Set<E> values = EnumSet.noneOf(type);
+        for (int i = 0; i < size; i++) {
+            values.add(constants[in.readByte()]);
+        }
+        return values;
+    }
+
+    private static void writeNullable(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeGrid(DataOutput out, Map<Task.Status, Map<Task.Priority, Long>> grid)
+            throws IOException {
+        for (Task.Status status : STATUSES) {
+            Map<Task.Priority, Long> row = grid.getOrDefault(status, Map.of());
+            for (Task.Priority priority : PRIORITIES) {
+                out.writeLong(row.getOrDefault(priority, 0L));
+            }
+        }
+    }
+
+    private static Map<Task.Status, Map<Task.Priority, Long>> readGrid(DataInput in) throws IOException {
+        Map<Task.Status, Map<Task.Priority, Long>> grid = new EnumMap<>(Task.Status.class);
+        for (Task.Status status : STATUSES) {
+            Map<Task.Priority, Long> row = new EnumMap<>(Task.Priority.class);
+            for (Task.Priority priority : PRIORITIES) {
+                row.put(priority, in.readLong());
+            }
+            grid.put(status, row);
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,752 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.exception.NodeUnavailableException;
+import gtp.taskmanagement.exception.TaskNotFoundException;
+import gtp.taskmanagement.exception.TaskVersionConflictException;
+import gtp.taskmanagement.model.Task;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * {@link TaskRepository} spreading tasks over several instances of this
+ * service, so that the store can outgrow the memory and cores of one JVM.
+ * <p>
+ * Every node holds the tasks a {@link HashRing} of the live members assigns
+ * to it, in an in-memory {@link TaskRepositoryImpl}, and serves them to its
+ * peers at {@value ClusterRpc#PATH}. A request may arrive at any node: reads
+ * and writes of a single task are forwarded to the task's owner, batches are
+ * split by owner, and listings, filters, searches and counts are sent to every
+ * member in parallel and merged, pages in id or due-date order. The
+ * controllers and services above the repository do not change.
+ * </p>
+ * <p>
+ * Members are configured statically with {@code task.cluster.peers}; this
+ * node's own address is {@code task.cluster.self}. Every
+ * {@code task.cluster.heartbeat-interval-ms} each node pings its peers. A peer
+ * joins the ring once it answers and leaves it after
+ * {@code task.cluster.failure-threshold} missed pings in a row. When the
+ * members change, the node hands the tasks it no longer owns over to their new
+ * owners, retrying on later heartbeats until every one has moved, and a node
+ * shutting down hands all its tasks over before it stops. A node starts alone
+ * in its ring, so it never waits for its peers to come up.
+ * </p>
+ * <p>
+ * There are no replicas: the tasks of a node that fails without shutting down
+ * are lost with it. Members learn of a change one heartbeat apart, so for
+ * about one heartbeat after a change a request may reach a former owner, and
+ * a task being handed over may be missing from a listing. A request that
+ * needs an unreachable member fails with {@link NodeUnavailableException}
+ * rather than returning partial results.
+ * </p>
+ * <p>
+ * Cluster mode needs the servlet deployment, which serves the peer endpoint;
+ * a node started with the reactive profile fails at startup.
+ * </p>
+ * <p>
+ * Peers authenticate to each other with the shared secret
+ * {@code task.cluster.secret}, which every member must be given and without
+ * which the node does not start. It is sent in plain text, so the peer
+ * endpoint should still only be reachable from the other members.
+ * </p>
+ * <p>
+ * {@link #modificationEpoch()} is answered without asking the peers: every
+ * ping also returns the peer's epoch, and writes made through this node are
+ * counted here, so a write through this node changes the epoch at once and a
+ * write through another node within a heartbeat. Until then a conditional
+ * read through this node may be answered 304 although the collection changed.
+ * </p>
+ */
+@Repository
+@ConditionalOnProperty(name = "task.store.mode", havingValue = "cluster")
+public class ClusterTaskRepository implements TaskRepository, ApplicationContextAware {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterTaskRepository.class);
+    private static final int HANDOFF_BATCH = 512;
+    private static final TaskQuery ALL = new TaskQuery(null, null, null, false, null, null, null);
+
+    /**
+     * Header carrying {@code task.cluster.secret} on requests between members.
+     */
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+
+    private final LocalTaskPartition local;
+    private final Map<String, TaskPartition> peers = new LinkedHashMap<>();
+    private final HttpClient client;
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat;
+    private final int failureThreshold;
+    private final Duration timeout;
+    private final byte[] secret;
+    /**
+     * The epochs of the peers as of their last answered ping.
+     */
+    private final Map<String, Long> peerEpochs = new ConcurrentHashMap<>();
+    /**
+     * Writes made through this node, whoever owns the tasks.
+     */
+    private final LongAdder writes = new LongAdder();
+
+    // Only touched by the heartbeat thread.
+    private final Map<String, Integer> missedPings = new HashMap<>();
+    private final Map<String, Long> incarnations = new HashMap<>();
+    private boolean handOffPending;
+
+    private volatile Membership membership;
+
+    public ClusterTaskRepository(
+            @Value("${task.cluster.self:http://localhost:${server.port:8080}}") String self,
+            @Value("${task.cluster.peers:}") String peers,
+            @Value("${task.cluster.heartbeat-interval-ms:1000}") long heartbeatInterval,
+            @Value("${task.cluster.timeout-ms:2000}") long timeout,
+            @Value("${task.cluster.failure-threshold:3}") int failureThreshold,
+            @Value("${task.cluster.secret:}") String secret) {
+        if (secret.isBlank()) {
+            throw new IllegalStateException("task.cluster.secret must be set in cluster mode");
+        }
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.local = new LocalTaskPartition(normalize(self));
+        this.timeout = Duration.ofMillis(timeout);
+        this.failureThreshold = failureThreshold;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(this.timeout)
+                .build();
+        for (String peer : peers.split(",")) {
+            String node = normalize(peer);
+            if (!node.isEmpty() && !node.equals(local.node())) {
+                this.peers.put(node, new ClusterRpc.Remote(node, client, this.timeout, secret));
+            }
+        }
+        this.membership = new Membership(new HashRing(Set.of(local.node())), 0);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-cluster-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!this.peers.isEmpty()) {
+            heartbeat.scheduleWithFixedDelay(this::heartbeat, 0, heartbeatInterval, TimeUnit.MILLISECONDS);
+        }
+        log.info("Cluster node {} with peers {}", local.node(), this.peers.keySet());
+    }
+
+    /**
+     * Refuses to start outside the servlet deployment, which alone serves
+     * the peer endpoint; the reactive one would also run peer calls on its
+     * event loops.
+     */
+    @Override
+    public void setApplicationContext(ApplicationContext context) {
+        if (!(context instanceof WebApplicationContext)) {
+            throw new IllegalStateException("task.store.mode=cluster requires the servlet deployment; "
+                    + "run cluster nodes without the reactive profile");
+        }
+    }
+
+    /**
+     * Stops pinging peers and hands every task of this node over to the
+     * remaining members.
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        heartbeat.shutdownNow();
+        heartbeat.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        Set<String> others = new TreeSet<>(membership.ring().nodes());
+        others.remove(local.node());
+        if (!others.isEmpty() && local.store().count() > 0 && !handOff(new HashRing(others))) {
+            log.warn("Cluster node {} stopped before handing all its tasks over", local.node());
+        }
+        callers.shutdownNow();
+        client.close();
+    }
+
+    /**
+     * Runs an operation a peer sent to this node on the tasks this node holds.
+     *
+     * @param operation The operation, as named in the request path
+     * @param request The encoded arguments
+     * @return The encoded result
+     * @throws IllegalArgumentException if there is no such operation
+     */
+    public byte[] serve(String operation, byte[] request) {
+        return ClusterRpc.serve(local, operation, request);
+    }
+
+    /**
+     * Whether {@code secret} is the cluster's shared secret, compared in
+     * constant time.
+     */
+    public boolean isClusterSecret(String secret) {
+        return secret != null && MessageDigest.isEqual(this.secret, secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The address of this node.
+     */
+    public String self() {
+        return local.node();
+    }
+
+    /**
+     * The members this node currently spreads tasks over, itself included.
+     */
+    public List<String> members() {
+        return membership.ring().nodes();
+    }
+
+    /**
+     * The number of tasks held by this node.
+     */
+    public long localCount() {
+        return local.store().count();
+    }
+
+    @Override
+    public List<Task> findAll() {
+        List<Task> result = new ArrayList<>();
+        for (List<Task> part : fanOut(partition -> partition.scan(null, null))) {
+            result.addAll(part);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> findPage(UUID after, int limit) {
+        return query(ALL, after, limit);
+    }
+
+    @Override
+    public Optional<Task> findById(UUID id) {
+        return owner(id).findById(id);
+    }
+
+    @Override
+    public Optional<TaskVersion> findVersion(UUID id) {
+        return owner(id).findVersion(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A digest rather than a counter: a hash of the membership generation this
+     * node has seen, since tasks change hands without a write when members
+     * come and go, of the writes made through this node, and of every
+     * member's epoch, as of its last heartbeat for a peer. It changes with
+     * every write counted, but does not grow. A write through another node
+     * only changes it once the next heartbeat has brought that node's epoch.
+     * </p>
+     */
+    @Override
+    public long modificationEpoch() {
+        Membership current = membership;
+        long digest = HashRing.mix(current.generation() ^ HashRing.mix(writes.sum()));
+        for (String node : current.ring().nodes()) {
+            long epoch = node.equals(local.node()) ? local.store().modificationEpoch() : peerEpochs.getOrDefault(node, 0L);
+            digest = HashRing.mix(digest * 31 + epoch);
+        }
+        return digest;
+    }
+
+    @Override
+    public List<Task> findAllById(Collection<UUID> ids) {
+        Map<TaskPartition, List<UUID>> byOwner = new LinkedHashMap<>();
+        for (UUID id : ids) {
+            byOwner.computeIfAbsent(owner(id), partition -> new ArrayList<>()).add(id);
+        }
+        Map<UUID, Task> found = new HashMap<>();
+        for (List<Task> part : inParallel(byOwner, TaskPartition::findAllById)) {
+            for (Task task : part) {
+                found.put(task.getId(), task);
+            }
+        }
+        List<Task> result = new ArrayList<>(found.size());
+        for (UUID id : ids) {
+            Task task = found.get(id);
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Task save(Task task) {
+        Task withId = TaskRepositoryImpl.withId(task);
+        try {
+            return owner(withId.getId()).save(withId, TaskPartition.ANY_VERSION);
+        } finally {
+            writes.increment();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The batch is split by owner and the parts are saved in parallel.
+     * </p>
+     */
+    @Override
+    public List<Task> saveAll(Collection<Task> tasks) {
+        Map<TaskPartition, List<Task>> byOwner = new LinkedHashMap<>();
+        Map<TaskPartition, List<Integer>> positions = new HashMap<>();
+        int position = 0;
+        for (Task task : tasks) {
+            Task withId = TaskRepositoryImpl.withId(task);
+            TaskPartition owner = owner(withId.getId());
+            byOwner.computeIfAbsent(owner, partition -> new ArrayList<>()).add(withId);
+            positions.computeIfAbsent(owner, partition -> new ArrayList<>()).add(position++);
+        }
+        List<List<Task>> parts;
+        try {
+            parts = inParallel(byOwner, TaskPartition::saveAll);
+        } finally {
+            writes.increment();
+        }
+        Task[] saved = new Task[tasks.size()];
+        int index = 0;
+        for (TaskPartition owner : byOwner.keySet()) {
+            List<Task> part = parts.get(index++);
+            List<Integer> mine = positions.get(owner);
+            for (int i = 0; i < part.size(); i++) {
+                saved[mine.get(i)] = part.get(i);
+            }
+        }
+        return Arrays.asList(saved);
+    }
+
+    @Override
+    public Task compareAndSave(Task task, long expectedVersion) {
+        try {
+            return owner(task.getId()).save(task, expectedVersion);
+        } finally {
+            writes.increment();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each task is written by its owner in turn; the partition protocol has no
+     * conditional batch write.
+     * </p>
+     */
+    @Override
+    public List<Task> compareAndSaveAll(Collection<Task> tasks) {
+        List<Task> saved = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            try {
+                saved.add(compareAndSave(task, task.getVersion()));
+            } catch (TaskNotFoundException | TaskVersionConflictException e) {
+                saved.add(null);
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    public boolean deleteById(UUID id) {
+        try {
+            return owner(id).deleteById(id);
+        } finally {
+            writes.increment();
+        }
+    }
+
+    @Override
+    public Set<UUID> deleteAllById(Collection<UUID> ids) {
+        Map<TaskPartition, List<UUID>> byOwner = new LinkedHashMap<>();
+        for (UUID id : ids) {
+            byOwner.computeIfAbsent(owner(id), partition -> new ArrayList<>()).add(id);
+        }
+        Set<UUID> deleted = new HashSet<>();
+        try {
+            for (Set<UUID> part : inParallel(byOwner, TaskPartition::deleteAllById)) {
+                deleted.addAll(part);
+            }
+        } finally {
+            writes.increment();
+        }
+        return deleted;
+    }
+
+    @Override
+    public List<Task> findByStatus(Task.Status status) {
+        List<Task> result = new ArrayList<>();
+        for (List<Task> part : fanOut(partition -> partition.scan(status, null))) {
+            result.addAll(part);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> findByStatus(Task.Status status, UUID after, int limit) {
+        return query(new TaskQuery(Set.of(status), null, null, false, null, null, null), after, limit);
+    }
+
+    @Override
+    public List<Task> findByPriority(Task.Priority priority) {
+        List<Task> result = new ArrayList<>();
+        for (List<Task> part : fanOut(partition -> partition.scan(null, priority))) {
+            result.addAll(part);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> findByPriority(Task.Priority priority, UUID after, int limit) {
+        return query(new TaskQuery(null, Set.of(priority), null, false, null, null, null), after, limit);
+    }
+
+    @Override
+    public List<Task> findByAnyTag(Collection<String> tags, UUID after, int limit) {
+        if (tags.isEmpty()) {
+            return List.of();
+        }
+        return query(new TaskQuery(null, null, new HashSet<>(tags), false, null, null, null), after, limit);
+    }
+
+    @Override
+    public List<Task> findByAllTags(Collection<String> tags, UUID after, int limit) {
+        if (tags.isEmpty()) {
+            return List.of();
+        }
+        return query(new TaskQuery(null, null, new HashSet<>(tags), true, null, null, null), after, limit);
+    }
+
+    @Override
+    public List<Task> findByDueDate(long from, long to, Collection<Task.Status> statuses, DueDateKey after, int limit) {
+        if (statuses.isEmpty()) {
+            return List.of();
+        }
+        return queryByDueDate(new TaskQuery(new HashSet<>(statuses), null, null, false, from, to, null), after, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Every member is asked for a whole page, one request each, and the pages
+     * are merged.
+     * </p>
+     */
+    @Override
+    public List<Task> query(TaskQuery query, UUID after, int limit) {
+        return merge((partition, from, size) -> partition.query(query, from, size), Task::getId, after, limit);
+    }
+
+    @Override
+    public List<Task> queryByDueDate(TaskQuery query, DueDateKey after, int limit) {
+        return merge((partition, from, size) -> partition.queryByDueDate(query, from, size),
+                DueDateKey::of, after, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Every member ranks its own tasks, scored against this node's task count
+     * times the number of members as an estimate of the cluster's size, and the
+     * best hits are fetched from their owners.
+     * </p>
+     */
+    @Override
+    public List<Task> search(String query, int limit) {
+        Membership current = membership;
+        long documents = local.store().count() * current.ring().nodes().size();
+        PriorityQueue<TextIndex.Hit> best = new PriorityQueue<>(TextIndex.Hit.BEST_FIRST);
+        for (List<TextIndex.Hit> part : fanOut(current, partition -> partition.rank(query, limit, documents))) {
+            best.addAll(part);
+        }
+        List<UUID> ids = new ArrayList<>(Math.min(limit, best.size()));
+        while (ids.size() < limit && !best.isEmpty()) {
+            ids.add(best.poll().id());
+        }
+        return findAllById(ids);
+    }
+
+    @Override
+    public Map<String, Long> countByTag() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map<String, Long> part : fanOut(TaskPartition::countByTag)) {
+            part.forEach((tag, count) -> counts.merge(tag, count, Long::sum));
+        }
+        return counts;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Asks every member for its count.
+     * </p>
+     */
+    @Override
+    public long count() {
+        long count = 0;
+        for (TaskPartition.Summary summary : fanOut(TaskPartition::summary)) {
+            count += summary.count();
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Asks every member for its count.
+     * </p>
+     */
+    @Override
+    public long countByStatus(Task.Status status) {
+        long count = 0;
+        for (TaskPartition.Summary summary : fanOut(TaskPartition::summary)) {
+            count += summary.byStatus()[status.ordinal()];
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Asks every member for its count.
+     * </p>
+     */
+    @Override
+    public long countByPriority(Task.Priority priority) {
+        long count = 0;
+        for (TaskPartition.Summary summary : fanOut(TaskPartition::summary)) {
+            count += summary.byPriority()[priority.ordinal()];
+        }
+        return count;
+    }
+
+    @Override
+    public TaskStatistics statistics() {
+        return TaskStatistics.sum(fanOut(TaskPartition::statistics));
+    }
+
+    /**
+     * Pings every peer, updates the members and hands over the tasks this node
+     * no longer owns. Runs on the heartbeat thread only.
+     */
+    private void heartbeat() {
+        try {
+            Membership current = membership;
+            Set<String> live = new TreeSet<>(current.ring().nodes());
+            Map<String, Future<TaskPartition.Heartbeat>> pings = new LinkedHashMap<>();
+            for (TaskPartition peer : peers.values()) {
+                pings.put(peer.node(), callers.submit(peer::heartbeat));
+            }
+            boolean changed = false;
+            for (Map.Entry<String, Future<TaskPartition.Heartbeat>> ping : pings.entrySet()) {
+                String node = ping.getKey();
+                try {
+                    TaskPartition.Heartbeat heartbeat = ping.getValue().get();
+                    long incarnation = heartbeat.incarnation();
+                    peerEpochs.put(node, heartbeat.epoch());
+                    missedPings.put(node, 0);
+                    Long known = incarnations.put(node, incarnation);
+                    // A peer that restarted lost its tasks: whatever was cached about them is stale.
+                    changed |= live.add(node) || known != null && known != incarnation;
+                } catch (ExecutionException e) {
+                    if (missedPings.merge(node, 1, Integer::sum) >= failureThreshold && live.remove(node)) {
+                        log.warn("Cluster node {} stopped answering: {}", node, e.getCause().getMessage());
+                        changed = true;
+                    }
+                }
+            }
+            if (changed) {
+                membership = new Membership(new HashRing(live), current.generation() + 1);
+                log.info("Cluster members are now {}", live);
+                handOffPending = true;
+            }
+            if (handOffPending) {
+                handOffPending = !handOff(membership.ring());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Cluster heartbeat failed", e);
+        }
+    }
+
+    /**
+     * Moves every task of this node that {@code ring} assigns to another
+     * member over to it.
+     *
+     * @return Whether every such task was moved
+     */
+    private boolean handOff(HashRing ring) {
+        return handOff(local.store(), local.node(), ring, (node, tasks) -> peers.get(node).adopt(tasks));
+    }
+
+    /**
+     * Moves every task of {@code store} that {@code ring} assigns to a member
+     * other than {@code self} over to it with {@code adopt}. A task is only
+     * removed here once its owner has it, and only if it was not written
+     * meanwhile; a task written meanwhile stays here and the hand-over is
+     * incomplete, so that the next one sends the newer version, which the
+     * owner keeps over the one it has.
+     *
+     * @return Whether every such task was moved
+     */
+    static boolean handOff(TaskRepositoryImpl store, String self, HashRing ring,
+                           BiConsumer<String, List<Task>> adopt) {
+        boolean complete = true;
+        long moved = 0;
+        UUID after = null;
+        while (true) {
+            List<Task> page = store.findPage(after, HANDOFF_BATCH);
+            if (page.isEmpty()) {
+                break;
+            }
+            after = page.get(page.size() - 1).getId();
+            Map<String, List<Task>> byOwner = new HashMap<>();
+            for (Task task : page) {
+                String owner = ring.owner(task.getId());
+                if (!owner.equals(self)) {
+                    byOwner.computeIfAbsent(owner, node -> new ArrayList<>()).add(task);
+                }
+            }
+            for (Map.Entry<String, List<Task>> entry : byOwner.entrySet()) {
+                try {
+                    adopt.accept(entry.getKey(), entry.getValue());
+                } catch (NodeUnavailableException e) {
+                    log.warn("Could not hand tasks over to {}: {}", entry.getKey(), e.getMessage());
+                    complete = false;
+                    continue;
+                }
+                for (Task task : entry.getValue()) {
+                    if (store.evict(task.getId(), task.getVersion())) {
+                        moved++;
+                    } else {
+                        complete = false;
+                    }
+                }
+            }
+        }
+        if (moved > 0) {
+            log.info("Handed {} tasks over to their new owners", moved);
+        }
+        return complete;
+    }
+
+    private TaskPartition owner(UUID id) {
+        return partition(membership.ring().owner(id));
+    }
+
+    private TaskPartition partition(String node) {
+        return node.equals(local.node()) ? local : peers.get(node);
+    }
+
+    private <R> List<R> fanOut(Function<TaskPartition, R> call) {
+        return fanOut(membership, call);
+    }
+
+    /**
+     * Runs {@code call} on every member in parallel, this node's share on the
+     * calling thread.
+     *
+     * @return The results, in the order of the members
+     */
+    private <R> List<R> fanOut(Membership current, Function<TaskPartition, R> call) {
+        Map<TaskPartition, Void> members = new LinkedHashMap<>();
+        for (String node : current.ring().nodes()) {
+            members.put(partition(node), null);
+        }
+        return inParallel(members, (partition, unused) -> call.apply(partition));
+    }
+
+    /**
+     * Runs {@code call} on every partition with its argument, remote ones on
+     * their own virtual thread and this node's on the calling thread.
+     *
+     * @return The results, in the order of {@code arguments}
+     */
+    private <A, R> List<R> inParallel(Map<TaskPartition, A> arguments, PartitionCall<A, R> call) {
+        List<Future<R>> pending = new ArrayList<>(arguments.size());
+        for (Map.Entry<TaskPartition, A> entry : arguments.entrySet()) {
+            TaskPartition partition = entry.getKey();
+            A argument = entry.getValue();
+            pending.add(partition == local ? null : callers.submit(() -> call.apply(partition, argument)));
+        }
+        R own = arguments.containsKey(local) ? call.apply(local, arguments.get(local)) : null;
+        List<R> results = new ArrayList<>(pending.size());
+        for (Future<R> future : pending) {
+            results.add(future != null ? join(future) : own);
+        }
+        return results;
+    }
+
+    private <K extends Comparable<K>> List<Task> merge(PageMerge.PageFetch<TaskPartition, K> fetch,
+                                                       Function<Task, K> key, K after, int limit) {
+        Membership current = membership;
+        List<TaskPartition> members = new ArrayList<>();
+        for (String node : current.ring().nodes()) {
+            members.add(partition(node));
+        }
+        List<List<Task>> pages = fanOut(current, partition -> fetch.fetch(partition, after, limit));
+        return PageMerge.merge(members, pages, limit, fetch, key, limit);
+    }
+
+    private static <R> R join(Future<R> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String normalize(String node) {
+        String trimmed = node.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    @FunctionalInterface
+    private interface PartitionCall<A, R> {
+        R apply(TaskPartition partition, A argument);
+    }
+
+    /**
+     * The ring of the live members, and how many times this node has seen them change.
+     */
+    private record Membership(HashRing ring, long generation) {
+    }
+}
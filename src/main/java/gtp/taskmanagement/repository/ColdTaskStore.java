@@ -0,0 +1,759 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Tasks kept in memory-mapped segment files rather than on the heap: the cold
+ * tier of {@link TieredTaskRepository}.
+ * <p>
+ * Every task is appended, encoded with {@link TaskCodec} and prefixed with its
+ * length, to the current segment ({@code segment-N.dat}), a file of
+ * {@code segmentBytes} mapped whole; a new segment is started when it is full.
+ * The heap only holds an id index: where each task's record lies, and the
+ * task as a {@link CompactTask} without its title and description. That is
+ * enough to count tasks and to filter them by status, priority, tags and due
+ * date without reading a record, and a {@link DueDateIndex} over it serves
+ * due-date order. The most recently read tasks are kept whole in a small LRU
+ * cache.
+ * </p>
+ * <p>
+ * Text is only on disk. Each index entry carries a 128-bit signature of the
+ * task's words, one bit per hash of a word's first characters, so a text
+ * criterion only reads the records of tasks whose signature holds the bit of
+ * every query word, and ranking a search those holding the bit of any. The
+ * rest is read, which suits tasks that are rarely read again: those that get
+ * moved here.
+ * </p>
+ * <p>
+ * Replacing or removing a task leaves its old record behind.
+ * {@link #compact()} copies the live records out of full segments that are
+ * mostly such garbage and deletes those segments.
+ * </p>
+ * <p>
+ * Writes are serialized on the store; reads take no lock. A segment deleted by
+ * compaction stays mapped until no index entry or reader refers to it and its
+ * buffer is garbage collected; there is no way to unmap it sooner. Until then
+ * it holds address space and, on most file systems, its disk space.
+ * </p>
+ */
+final class ColdTaskStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ColdTaskStore.class);
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-\\d+\\.dat");
+    private static final int SIGNATURE_PREFIX = 3;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final NavigableMap<UUID, Slot> slots = new ConcurrentSkipListMap<>();
+    private final TagDictionary tagDictionary = new TagDictionary();
+    private final LongAdder size = new LongAdder();
+    private final LongAdder[] byStatus = adders(Task.Status.values().length);
+    private final LongAdder[] byPriority = adders(Task.Priority.values().length);
+    private final Map<Integer, LongAdder> byTag = new ConcurrentHashMap<>();
+    private final DueDateIndex dueDateIndex = new DueDateIndex();
+    private final TaskCounters counters = new TaskCounters(System.currentTimeMillis());
+    /**
+     * Held by statistics readers, and exclusively while the due horizon of
+     * {@link #counters} moves; writers are held off by the store's monitor.
+     */
+    private final ReadWriteLock dueHorizonLock = new ReentrantReadWriteLock();
+    private final LongAdder modifications = TaskRepositoryImpl.modificationCounter();
+    private final Map<UUID, CompactTask> cache;
+
+    // Guarded by this.
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment current;
+    private int segmentCount;
+    private boolean closed;
+
+    /**
+     * Opens an empty store in {@code directory}, deleting the segments of any
+     * earlier store there.
+     *
+     * @param segmentBytes The size of a segment file
+     * @param cacheSize The number of tasks kept whole in memory
+     */
+    ColdTaskStore(Path directory, int segmentBytes, int cacheSize) throws IOException {
+        if (segmentBytes < 4096) {
+            throw new IllegalArgumentException("Cold segments must be at least 4096 bytes");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, CompactTask> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        DueHorizonTicker.schedule(this, ColdTaskStore::advanceDueHorizon);
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (SEGMENT_FILE.matcher(file.getFileName().toString()).matches()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    long count() {
+        return size.sum();
+    }
+
+    long countByStatus(Task.Status status) {
+        return byStatus[status.ordinal()].sum();
+    }
+
+    long countByPriority(Task.Priority priority) {
+        return byPriority[priority.ordinal()].sum();
+    }
+
+    Map<String, Long> countByTag() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<Integer, LongAdder> entry : byTag.entrySet()) {
+            long count = entry.getValue().sum();
+            String tag = tagDictionary.tag(entry.getKey());
+            if (count > 0 && tag != null) {
+                counts.put(tag, count);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @see TaskRepository#modificationEpoch()
+     */
+    long modificationEpoch() {
+        return modifications.sum();
+    }
+
+    boolean contains(UUID id) {
+        return slots.containsKey(id);
+    }
+
+    Optional<Task> findById(UUID id) {
+        CompactTask entry = load(id);
+        return entry != null ? Optional.of(entry.toTask(tagDictionary)) : Optional.empty();
+    }
+
+    Optional<TaskVersion> findVersion(UUID id) {
+        Slot slot = slots.get(id);
+        return slot != null
+                ? Optional.of(new TaskVersion(slot.head().version(), slot.head().lastModified()))
+                : Optional.empty();
+    }
+
+    /**
+     * Every task, read straight from the segments without going through the cache.
+     */
+    List<Task> findAll() {
+        List<Task> result = new ArrayList<>(Math.toIntExact(count()));
+        for (Slot slot : slots.values()) {
+            result.add(slot.read());
+        }
+        return result;
+    }
+
+    /**
+     * Stores {@code task} as-is, keeping its version, in place of any task with
+     * the same id.
+     */
+    synchronized void put(Task task) {
+        if (closed) {
+            throw new IllegalStateException("The cold task store is closed");
+        }
+        CompactTask head = CompactTask.of(task, tagDictionary, task.getVersion()).withoutText();
+        long[] signature = new long[2];
+        sign(signature, task.getTitle());
+        sign(signature, task.getDescription());
+        Slot slot = append(encode(task), head, signature[0], signature[1]);
+        Slot previous = slots.put(task.getId(), slot);
+        cache.remove(task.getId());
+        account(task.getId(), previous, slot);
+        modifications.increment();
+    }
+
+    /**
+     * @return Whether there was a task with {@code id}
+     */
+    synchronized boolean remove(UUID id) {
+        Slot previous = slots.remove(id);
+        if (previous == null) {
+            return false;
+        }
+        cache.remove(id);
+        account(id, previous, null);
+        modifications.increment();
+        return true;
+    }
+
+    /**
+     * @see TaskRepository#query
+     */
+    List<Task> query(TaskQuery query, UUID after, int limit) {
+        Filter filter = filter(query, false);
+        if (filter == null) {
+            return List.of();
+        }
+        Iterator<Map.Entry<UUID, Slot>> walk = (after != null ? slots.tailMap(after, false) : slots)
+                .entrySet().iterator();
+        List<Task> result = new ArrayList<>(Math.min(limit, 256));
+        while (result.size() < limit && walk.hasNext()) {
+            Map.Entry<UUID, Slot> entry = walk.next();
+            Task task = filter.apply(entry.getKey(), entry.getValue());
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @see TaskRepository#queryByDueDate
+     */
+    List<Task> queryByDueDate(TaskQuery query, DueDateKey after, int limit) {
+        Filter filter = filter(query, true);
+        if (filter == null) {
+            return List.of();
+        }
+        Set<Task.Status> statuses = filter.statuses != null ? filter.statuses : EnumSet.allOf(Task.Status.class);
+        Iterator<DueDateKey> walk = dueDateIndex.range(filter.dueFrom, filter.dueTo, statuses, after);
+        List<Task> result = new ArrayList<>(Math.min(limit, 256));
+        while (result.size() < limit && walk.hasNext()) {
+            DueDateKey key = walk.next();
+            Slot slot = slots.get(key.id());
+            if (slot != null && slot.head().dueDate() == key.dueDate()) {
+                Task task = filter.apply(key.id(), slot);
+                if (task != null) {
+                    result.add(task);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ranks the tasks matching {@code query} like {@link TextIndex#rank}, with
+     * word frequencies counted over this store, by reading every record.
+     *
+     * @param documents The number of tasks across every store whose results are merged
+     */
+    List<TextIndex.Hit> rank(String query, int limit, long documents) {
+        Words words = Words.of(query);
+        if (words.list().isEmpty()) {
+            return List.of();
+        }
+        record Candidate(UUID id, Map<String, Integer> weights) {
+        }
+        Map<String, Integer> frequencies = new HashMap<>();
+        List<Candidate> candidates = new ArrayList<>();
+        for (Map.Entry<UUID, Slot> entry : slots.entrySet()) {
+            if (!words.mayMatchAny(entry.getValue())) {
+                continue;
+            }
+            Task task = entry.getValue().read();
+            Map<String, Integer> weights = TextIndex.weights(task.getTitle(), task.getDescription());
+            weights.keySet().removeIf(term -> !matchesAny(words.list(), term));
+            if (weights.isEmpty()) {
+                continue;
+            }
+            for (String term : weights.keySet()) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+            if (matchesAll(words.list(), weights.keySet())) {
+                candidates.add(new Candidate(entry.getKey(), weights));
+            }
+        }
+
+        PriorityQueue<TextIndex.Hit> best = new PriorityQueue<>(TextIndex.Hit.WORST_FIRST);
+        for (Candidate candidate : candidates) {
+            double score = 0;
+            for (String word : words.list()) {
+                double wordScore = 0;
+                for (Map.Entry<String, Integer> weight : candidate.weights().entrySet()) {
+                    String term = weight.getKey();
+                    if (term.startsWith(word)) {
+                        int frequency = frequencies.get(term);
+                        double idf = Math.log(1 + (double) Math.max(documents, frequency) / frequency);
+                        double boost = term.length() == word.length() ? 1 : TextIndex.PREFIX_BOOST;
+                        wordScore = Math.max(wordScore, weight.getValue() * idf * boost);
+                    }
+                }
+                score += wordScore;
+            }
+            best.add(new TextIndex.Hit(candidate.id(), score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<TextIndex.Hit> hits = new ArrayList<>(best);
+        hits.sort(TextIndex.Hit.BEST_FIRST);
+        return hits;
+    }
+
+    /**
+     * @see TaskRepository#statistics()
+     */
+    TaskStatistics statistics() {
+        long now = System.currentTimeMillis();
+        dueHorizonLock.readLock().lock();
+        try {
+            Iterator<DueDateKey> cameDue =
+                    dueDateIndex.range(counters.dueHorizon(), now, EnumSet.allOf(Task.Status.class), null);
+            return counters.snapshot(now, cameDue, id -> {
+                Slot slot = slots.get(id);
+                return slot != null ? slot.head() : null;
+            });
+        } finally {
+            dueHorizonLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @see TaskRepositoryImpl#advanceDueHorizon()
+     */
+    void advanceDueHorizon() {
+        long now = System.currentTimeMillis();
+        if (now > counters.dueHorizon()) {
+            synchronized (this) {
+                long from = counters.dueHorizon();
+                if (now > from) {
+                    dueHorizonLock.writeLock().lock();
+                    try {
+                        Iterator<DueDateKey> cameDue =
+                                dueDateIndex.range(from, now, EnumSet.allOf(Task.Status.class), null);
+                        while (cameDue.hasNext()) {
+                            counters.cameDue(slots.get(cameDue.next().id()).head());
+                        }
+                        counters.advance(now);
+                    } finally {
+                        dueHorizonLock.writeLock().unlock();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the live records out of every full segment at most half of whose
+     * bytes are still live, and deletes those segments.
+     *
+     * @return The number of segments deleted
+     */
+    synchronized int compact() {
+        List<Segment> sparse = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment != current && segment.live * 2L <= segment.written) {
+                sparse.add(segment);
+            }
+        }
+        for (Segment segment : sparse) {
+            int position = 0;
+            while (position < segment.written) {
+                int length = segment.buffer.getInt(position);
+                int offset = position + Integer.BYTES;
+                UUID id = new UUID(segment.buffer.getLong(offset), segment.buffer.getLong(offset + Long.BYTES));
+                Slot slot = slots.get(id);
+                if (slot != null && slot.segment() == segment && slot.offset() == offset) {
+                    byte[] record = new byte[length];
+                    segment.buffer.get(offset, record);
+                    slots.put(id, append(record, slot.head(), slot.signatureLow(), slot.signatureHigh()));
+                }
+                position = offset + length;
+            }
+            segments.remove(segment);
+            delete(segment.path);
+        }
+        return sparse.size();
+    }
+
+    /**
+     * Deletes every segment file. The store must not be used afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (Segment segment : segments) {
+            delete(segment.path);
+        }
+        segments.clear();
+        current = null;
+    }
+
+    /**
+     * Reads a task whole, from the cache or else from its segment, and caches it.
+     */
+    private CompactTask load(UUID id) {
+        CompactTask cached = cache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        Slot slot = slots.get(id);
+        if (slot == null) {
+            return null;
+        }
+        CompactTask entry = CompactTask.of(slot.read(), tagDictionary, slot.head().version());
+        cache.put(id, entry);
+        // A writer replaces the slot before it evicts the cache entry, so one
+        // that ran since the slot was read is seen here and nothing stale stays cached.
+        if (slots.get(id) != slot) {
+            cache.remove(id, entry);
+        }
+        return entry;
+    }
+
+    private Slot append(byte[] record, CompactTask head, long signatureLow, long signatureHigh) {
+        int length = Integer.BYTES + record.length;
+        if (current == null || current.buffer.capacity() - current.written < length) {
+            current = newSegment(Math.max(segmentBytes, length));
+        }
+        int offset = current.written + Integer.BYTES;
+        current.buffer.putInt(current.written, record.length);
+        current.buffer.put(offset, record);
+        current.written += length;
+        current.live += length;
+        return new Slot(current, offset, record.length, head, signatureLow, signatureHigh);
+    }
+
+    private Segment newSegment(int capacity) {
+        Path path = directory.resolve("segment-" + ++segmentCount + ".dat");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid once the channel is closed.
+            Segment segment = new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+            segments.add(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create cold segment " + path, e);
+        }
+    }
+
+    /**
+     * Moves the counts and index entries of {@code id} from {@code previous}
+     * to {@code next}; either may be {@code null}.
+     */
+    private void account(UUID id, Slot previous, Slot next) {
+        CompactTask before = previous != null ? previous.head() : null;
+        CompactTask after = next != null ? next.head() : null;
+        if (previous != null) {
+            previous.segment().live -= Integer.BYTES + previous.length();
+            count(before, -1);
+        }
+        if (next != null) {
+            count(after, 1);
+        }
+        dueDateIndex.update(id, before, after);
+        counters.update(before, after);
+    }
+
+    private void count(CompactTask entry, int delta) {
+        size.add(delta);
+        if (entry.status() != null) {
+            byStatus[entry.status().ordinal()].add(delta);
+        }
+        if (entry.priority() != null) {
+            byPriority[entry.priority().ordinal()].add(delta);
+        }
+        if (entry.tagIds() != null) {
+            Set<Integer> distinct = new HashSet<>();
+            for (int tagId : entry.tagIds()) {
+                if (tagId != TagDictionary.NULL_TAG && distinct.add(tagId)) {
+                    byTag.computeIfAbsent(tagId, key -> new LongAdder()).add(delta);
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolves {@code query} against the counts of this store.
+     *
+     * @param dueOrder Whether results are ordered by due date, which leaves out
+     *                 tasks without one even when no range is given
+     * @return The filter, or {@code null} if no stored task can match
+     */
+    private Filter filter(TaskQuery query, boolean dueOrder) {
+        Filter filter = new Filter();
+        if (query.statuses() != null) {
+            filter.statuses = EnumSet.copyOf(query.statuses());
+            if (filter.statuses.stream().allMatch(status -> countByStatus(status) == 0)) {
+                return null;
+            }
+        }
+        if (query.priorities() != null) {
+            filter.priorities = EnumSet.copyOf(query.priorities());
+            if (filter.priorities.stream().allMatch(priority -> countByPriority(priority) == 0)) {
+                return null;
+            }
+        }
+        if (query.tags() != null) {
+            filter.allTags = query.allTags();
+            filter.tagIds = new HashSet<>();
+            for (String tag : query.tags()) {
+                Integer tagId = tagDictionary.findId(tag);
+                LongAdder count = tagId != null ? byTag.get(tagId) : null;
+                if (count != null && count.sum() > 0) {
+                    filter.tagIds.add(tagId);
+                } else if (filter.allTags) {
+                    return null;
+                }
+            }
+            if (filter.tagIds.isEmpty()) {
+                return null;
+            }
+        }
+        if (query.hasDueRange() || dueOrder) {
+            filter.due = true;
+            filter.dueFrom = query.dueFrom() != null ? query.dueFrom() : Long.MIN_VALUE + 1;
+            filter.dueTo = query.dueTo() != null ? query.dueTo() : Long.MAX_VALUE;
+            if (filter.dueFrom >= filter.dueTo) {
+                return null;
+            }
+        }
+        if (query.text() != null) {
+            filter.words = Words.of(query.text());
+        }
+        return filter;
+    }
+
+    /**
+     * Sets the signature bits of the words of {@code text} in {@code signature}.
+     */
+    private static void sign(long[] signature, String text) {
+        for (String term : TextIndex.tokenize(text)) {
+            int bit = signatureBit(term);
+            signature[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * The bit of a word in a {@link Slot}'s signature: a hash of its first
+     * {@value #SIGNATURE_PREFIX} characters, so that a word and every longer
+     * word it is a prefix of share it.
+     */
+    private static int signatureBit(String term) {
+        String prefix = term.length() > SIGNATURE_PREFIX ? term.substring(0, SIGNATURE_PREFIX) : term;
+        return (prefix.hashCode() * 0x9E3779B9) >>> 25;
+    }
+
+    private static boolean matchesAny(List<String> words, String term) {
+        for (String word : words) {
+            if (term.startsWith(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether every word is one of {@code terms} or a prefix of one.
+     */
+    private static boolean matchesAll(List<String> words, Set<String> terms) {
+        for (String word : words) {
+            boolean found = false;
+            for (String term : terms) {
+                if (term.startsWith(word)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] encode(Task task) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            TaskCodec.write(out, task);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete cold segment {}", path, e);
+        }
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * One mapped segment file. Its counters are guarded by the store.
+     */
+    private static final class Segment {
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int written;
+        private int live;
+
+        Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Where the record of a task lies, with everything but its text.
+     *
+     * @param signatureLow Bits 0 to 63 of the signature of the task's words, see {@link #signatureBit}
+     * @param signatureHigh Bits 64 to 127 of that signature
+     */
+    private record Slot(Segment segment, int offset, int length, CompactTask head,
+                        long signatureLow, long signatureHigh) {
+
+        Task read() {
+            byte[] record = new byte[length];
+            // Absolute reads leave the buffer's position alone, so readers can share it.
+            segment.buffer.get(offset, record);
+            try {
+                return TaskCodec.read(new DataInputStream(new ByteArrayInputStream(record)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Corrupt cold record in " + segment.path, e);
+            }
+        }
+    }
+
+    /**
+     * The distinct words of a text query, as many as {@link TextIndex} takes,
+     * with the signature bits of those long enough to have their own.
+     *
+     * @param anyShort Whether a word is shorter than {@value #SIGNATURE_PREFIX}
+     *                 characters, and so may match words with any of many bits
+     */
+    private record Words(List<String> list, long low, long high, boolean anyShort) {
+
+        static Words of(String query) {
+            List<String> words = new ArrayList<>(new LinkedHashSet<>(TextIndex.tokenize(query)));
+            if (words.size() > TextIndex.MAX_QUERY_TERMS) {
+                words = words.subList(0, TextIndex.MAX_QUERY_TERMS);
+            }
+            long[] mask = new long[2];
+            boolean anyShort = false;
+            for (String word : words) {
+                if (word.length() < SIGNATURE_PREFIX) {
+                    anyShort = true;
+                } else {
+                    int bit = signatureBit(word);
+                    mask[bit >>> 6] |= 1L << bit;
+                }
+            }
+            return new Words(words, mask[0], mask[1], anyShort);
+        }
+
+        /**
+         * False if the task of {@code slot} cannot match every word.
+         */
+        boolean mayMatchAll(Slot slot) {
+            return (slot.signatureLow() & low) == low && (slot.signatureHigh() & high) == high;
+        }
+
+        /**
+         * False if the task of {@code slot} cannot match any word.
+         */
+        boolean mayMatchAny(Slot slot) {
+            return anyShort || (slot.signatureLow() & low) != 0 || (slot.signatureHigh() & high) != 0;
+        }
+    }
+
+    /**
+     * A query resolved against the counts of the store, checked against every
+     * candidate: first on its index entry, then on its text.
+     */
+    private final class Filter {
+        private Set<Task.Status> statuses;
+        private Set<Task.Priority> priorities;
+        private boolean allTags;
+        private Set<Integer> tagIds;
+        private boolean due;
+        private long dueFrom;
+        private long dueTo;
+        private Words words;
+
+        /**
+         * @return The task if it matches, or {@code null}
+         */
+        Task apply(UUID id, Slot slot) {
+            CompactTask head = slot.head();
+            if (statuses != null && !statuses.contains(head.status())) {
+                return null;
+            }
+            if (priorities != null && !priorities.contains(head.priority())) {
+                return null;
+            }
+            if (tagIds != null && !(allTags
+                    ? TaskRepositoryImpl.hasAllTags(head, tagIds)
+                    : TaskRepositoryImpl.hasAnyTag(head, tagIds))) {
+                return null;
+            }
+            if (due && (head.dueDate() == CompactTask.NO_TIME
+                    || head.dueDate() < dueFrom || head.dueDate() >= dueTo)) {
+                return null;
+            }
+            if (words != null && !words.mayMatchAll(slot)) {
+                return null;
+            }
+            CompactTask entry = load(id);
+            if (entry == null) {
+                return null;
+            }
+            if (words != null) {
+                Set<String> terms = new HashSet<>(TextIndex.tokenize(entry.title()));
+                terms.addAll(TextIndex.tokenize(entry.description()));
+                if (!matchesAll(words.list(), terms)) {
+                    return null;
+                }
+            }
+            return entry.toTask(tagDictionary);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Storage layout of a task inside {@link TaskRepositoryImpl}.
+ * <p>
+ * Compared to {@link Task} it avoids every per-task helper object: the id is
+ * kept as two longs, the due date and timestamps as epoch milliseconds, the
+ * enums as byte ordinals and the tags as ids into a shared {@link TagDictionary}.
+ * Title and description are kept as plain strings, which the JVM already stores
+ * as one byte per character for Latin-1 text.
+ * </p>
+ * <p>
+ * Instances are immutable snapshots: an update builds a new record and swaps it
+ * in atomically, so a reader sees either the old or the new task, never a mix.
+ * Fields an update leaves unchanged (title, description, tag ids) are shared
+ * with the previous snapshot rather than copied, and the tag id array is never
+ * handed out, so nothing reachable from a snapshot is ever mutated.
+ * </p>
+ * <p>
+ * Timestamps are truncated to millisecond precision when a task is stored.
+ * The version is the one assigned by the repository for this write, not the
+ * one carried by the {@link Task} being stored.
+ * </p>
+ */
+record CompactTask(
+        long idMostSigBits,
+        long idLeastSigBits,
+        String title,
+        String description,
+        byte priorityOrdinal,
+        byte statusOrdinal,
+        long dueDate,
+        int[] tagIds,
+        long createdAt,
+        long updatedAt,
+        long version
+) {
+
+    static final long NO_TIME = Long.MIN_VALUE;
+    private static final byte NO_ORDINAL = -1;
+    private static final Task.Priority[] PRIORITIES = Task.Priority.values();
+    private static final Task.Status[] STATUSES = Task.Status.values();
+
+    static CompactTask of(Task task, TagDictionary dictionary, long version) {
+        return of(task, dictionary, version, null);
+    }
+
+    /**
+     * Builds the snapshot replacing {@code previous} (or a new one if it is
+     * {@code null}), sharing every field that did not change.
+     */
+    static CompactTask of(Task task, TagDictionary dictionary, long version, CompactTask previous) {
+        UUID id = task.getId();
+        int[] tagIds = encodeTags(task.getTags(), dictionary);
+        if (previous != null && Arrays.equals(tagIds, previous.tagIds)) {
+            tagIds = previous.tagIds;
+        }
+        return new CompactTask(
+                id.getMostSignificantBits(),
+                id.getLeastSignificantBits(),
+                previous != null ? share(task.getTitle(), previous.title) : task.getTitle(),
+                previous != null ? share(task.getDescription(), previous.description) : task.getDescription(),
+                task.getPriority() != null ? (byte) task.getPriority().ordinal() : NO_ORDINAL,
+                task.getStatus() != null ? (byte) task.getStatus().ordinal() : NO_ORDINAL,
+                task.getDueDate() != null ? task.getDueDate().getTime() : NO_TIME,
+                tagIds,
+                toMillis(task.getCreatedAt()),
+                toMillis(task.getUpdatedAt()),
+                version
+        );
+    }
+
+    /**
+     * This snapshot without its title and description, for a store that keeps
+     * those elsewhere but still filters and counts on the other fields.
+     */
+    CompactTask withoutText() {
+        return new CompactTask(idMostSigBits, idLeastSigBits, null, null, priorityOrdinal, statusOrdinal,
+                dueDate, tagIds, createdAt, updatedAt, version);
+    }
+
+    Task toTask(TagDictionary dictionary) {
+        return new Task(
+                id(),
+                title,
+                description,
+                priority(),
+                status(),
+                dueDate != NO_TIME ? new Date(dueDate) : null,
+                decodeTags(dictionary),
+                toDateTime(createdAt),
+                toDateTime(updatedAt),
+                version
+        );
+    }
+
+    /**
+     * @return When the task was last updated, in epoch milliseconds, or {@code -1} if unknown
+     */
+    long lastModified() {
+        // Task timestamps are local date-times taken in the system zone; updatedAt holds them as if UTC.
+        return updatedAt != NO_TIME
+                ? toDateTime(updatedAt).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+    }
+
+    UUID id() {
+        return new UUID(idMostSigBits, idLeastSigBits);
+    }
+
+    Task.Priority priority() {
+        return priorityOrdinal != NO_ORDINAL ? PRIORITIES[priorityOrdinal] : null;
+    }
+
+    Task.Status status() {
+        return statusOrdinal != NO_ORDINAL ? STATUSES[statusOrdinal] : null;
+    }
+
+    List<String> decodeTags(TagDictionary dictionary) {
+        if (tagIds == null) {
+            return null;
+        }
+        String[] tags = new String[tagIds.length];
+        boolean hasNull = false;
+        for (int i = 0; i < tagIds.length; i++) {
+            tags[i] = dictionary.tag(tagIds[i]);
+            hasNull |= tags[i] == null;
+        }
+        // List.of is what Task keeps as-is; it cannot hold null tags, which are rare.
+        return hasNull ? Collections.unmodifiableList(Arrays.asList(tags)) : List.of(tags);
+    }
+
+    private static String share(String value, String previous) {
+        return value != null && value.equals(previous) ? previous : value;
+    }
+
+    private static int[] encodeTags(List<String> tags, TagDictionary dictionary) {
+        if (tags == null) {
+            return null;
+        }
+        int[] ids = new int[tags.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = dictionary.idOf(tags.get(i));
+        }
+        return ids;
+    }
+
+    private static long toMillis(LocalDateTime value) {
+        return value != null ? value.toInstant(ZoneOffset.UTC).toEpochMilli() : NO_TIME;
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return millis != NO_TIME ? LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,120 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Sorted index of tasks by due date, partitioned by status.
+ * <p>
+ * Each status has its own skip list of {@link DueDateKey}s, so "overdue and not
+ * completed" is a range scan over the open statuses only, and a window query
+ * over several statuses lazily merges the matching ranges. Either way a query
+ * costs O(log n) to seek plus the number of keys it returns. Tasks without a
+ * due date or a status are not indexed.
+ * </p>
+ */
+final class DueDateIndex {
+
+    private final Map<Task.Status, NavigableSet<DueDateKey>> byStatus = new EnumMap<>(Task.Status.class);
+
+    DueDateIndex() {
+        for (Task.Status status : Task.Status.values()) {
+            byStatus.put(status, new ConcurrentSkipListSet<>());
+        }
+    }
+
+    /**
+     * Moves {@code id} from the position given by {@code previous} to the one given
+     * by {@code next}; either may be {@code null}. Must be called under the
+     * repository's per-key ordering.
+     */
+    void update(UUID id, CompactTask previous, CompactTask next) {
+        long oldDue = previous != null ? previous.dueDate() : CompactTask.NO_TIME;
+        long newDue = next != null ? next.dueDate() : CompactTask.NO_TIME;
+        Task.Status oldStatus = previous != null ? previous.status() : null;
+        Task.Status newStatus = next != null ? next.status() : null;
+        if (oldDue == newDue && oldStatus == newStatus) {
+            return;
+        }
+        if (oldDue != CompactTask.NO_TIME && oldStatus != null) {
+            byStatus.get(oldStatus).remove(new DueDateKey(oldDue, id));
+        }
+        if (newDue != CompactTask.NO_TIME && newStatus != null) {
+            byStatus.get(newStatus).add(new DueDateKey(newDue, id));
+        }
+    }
+
+    /**
+     * Iterates, in due-date order, the tasks with one of {@code statuses} whose due
+     * date lies in {@code [from, to)} and that come after {@code after}.
+     *
+     * @param after The last key of the previous page, or {@code null} to start at {@code from}
+     */
+    Iterator<DueDateKey> range(long from, long to, Collection<Task.Status> statuses, DueDateKey after) {
+        DueDateKey low = new DueDateKey(from, DueDateKey.MIN_ID);
+        boolean lowInclusive = true;
+        if (after != null && after.compareTo(low) >= 0) {
+            low = after;
+            lowInclusive = false;
+        }
+        DueDateKey high = new DueDateKey(to, DueDateKey.MIN_ID);
+        if (low.compareTo(high) >= 0) {
+            return Collections.emptyIterator();
+        }
+        List<Iterator<DueDateKey>> ranges = new ArrayList<>(statuses.size());
+        for (Task.Status status : statuses) {
+            ranges.add(byStatus.get(status).subSet(low, lowInclusive, high, false).iterator());
+        }
+        return ranges.size() == 1 ? ranges.get(0) : new MergeIterator(ranges);
+    }
+
+    /**
+     * Lazily merges ascending key iterators. A task is indexed under one status
+     * at a time, so the ranges never share a key.
+     */
+    private static final class MergeIterator implements Iterator<DueDateKey> {
+        private record Head(DueDateKey key, Iterator<DueDateKey> rest) {
+        }
+
+        private final PriorityQueue<Head> heads = new PriorityQueue<>((a, b) -> a.key().compareTo(b.key()));
+
+        MergeIterator(List<Iterator<DueDateKey>> ranges) {
+            for (Iterator<DueDateKey> range : ranges) {
+                advance(range);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public DueDateKey next() {
+            Head head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            advance(head.rest());
+            return head.key();
+        }
+
+        private void advance(Iterator<DueDateKey> range) {
+            if (range.hasNext()) {
+                heads.add(new Head(range.next(), range));
+            }
+        }
+    }
+}
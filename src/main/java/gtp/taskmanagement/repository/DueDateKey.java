@@ -0,0 +1,70 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.exception.InvalidCursorException;
+import gtp.taskmanagement.model.Task;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of a task in due-date order: by due date, ties broken by id.
+ * Used both as the key of the due-date index and as the resume point of a
+ * due-date ordered page.
+ *
+ * @param dueDate The due date in epoch milliseconds
+ * @param id The task id
+ */
+public record DueDateKey(long dueDate, UUID id) implements Comparable<DueDateKey> {
+
+    /**
+     * Smallest possible id, used to build range bounds that precede every task due at a given instant.
+     */
+    static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    /**
+     * The position of a task, which must have a due date.
+     */
+    public static DueDateKey of(Task task) {
+        return new DueDateKey(task.getDueDate().getTime(), task.getId());
+    }
+
+    /**
+     * Encodes the position of the last task on a due-date ordered page as an
+     * opaque, URL-safe cursor.
+     */
+    public static String encodeCursor(Task lastTask) {
+        ByteBuffer buffer = ByteBuffer.allocate(24)
+                .putLong(lastTask.getDueDate().getTime())
+                .putLong(lastTask.getId().getMostSignificantBits())
+                .putLong(lastTask.getId().getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encodeCursor(Task)}.
+     *
+     * @return The position to resume after, or {@code null} for a blank cursor
+     * @throws InvalidCursorException if the cursor is malformed
+     */
+    public static DueDateKey decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+        if (bytes.length != 24) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new DueDateKey(buffer.getLong(), new UUID(buffer.getLong(), buffer.getLong()));
+    }
+
+    @Override
+    public int compareTo(DueDateKey other) {
+        int byDate = Long.compare(dueDate, other.dueDate);
+        return byDate != 0 ? byDate : id.compareTo(other.id);
+    }
+}
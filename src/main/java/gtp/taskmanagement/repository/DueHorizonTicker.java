@@ -0,0 +1,68 @@
+package gtp.taskmanagement.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Moves the due horizons of {@link TaskCounters} up once a second, on one
+ * daemon thread shared by every store, so that reading statistics never has to.
+ * <p>
+ * Stores are only weakly held: a store that is no longer used drops out once
+ * it has been collected, so stores need not be closed to stop their ticks.
+ * </p>
+ */
+final class DueHorizonTicker {
+
+    static final long INTERVAL_MILLIS = 1_000;
+
+    private static final Logger log = LoggerFactory.getLogger(DueHorizonTicker.class);
+    private static final ScheduledExecutorService TICKER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-due-horizon");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private DueHorizonTicker() {
+    }
+
+    /**
+     * Runs {@code advance} on {@code store} every {@link #INTERVAL_MILLIS}
+     * until the store is collected. {@code advance} must not hold on to the store.
+     */
+    static <T> void schedule(T store, Consumer<T> advance) {
+        Tick<T> tick = new Tick<>(new WeakReference<>(store), advance);
+        tick.future = TICKER.scheduleWithFixedDelay(tick, INTERVAL_MILLIS, INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private static final class Tick<T> implements Runnable {
+        private final WeakReference<T> store;
+        private final Consumer<T> advance;
+        private volatile ScheduledFuture<?> future;
+
+        private Tick(WeakReference<T> store, Consumer<T> advance) {
+            this.store = store;
+            this.advance = advance;
+        }
+
+        @Override
+        public void run() {
+            T target = store.get();
+            if (target == null) {
+                future.cancel(false);
+                return;
+            }
+            try {
+                advance.accept(target);
+            } catch (RuntimeException e) {
+                log.error("Moving the due horizon of {} failed", target.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
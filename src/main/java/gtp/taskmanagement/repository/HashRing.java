@@ -0,0 +1,98 @@
+package gtp.taskmanagement.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Consistent-hash ring assigning task ids to the nodes of a cluster.
+ * <p>
+ * Every node is placed on a ring of 64-bit hashes at {@value #POINTS_PER_NODE}
+ * points derived from its name, and a task belongs to the node owning the
+ * first point at or after the hash of its id. Adding or removing a node
+ * therefore only moves the tasks between that node and its neighbours on the
+ * ring, about {@code 1/n} of them, and the many points per node keep the share
+ * of each node close to even. The ring depends only on the set of node names,
+ * so every node that sees the same members computes the same owners.
+ * </p>
+ */
+final class HashRing {
+
+    private static final int POINTS_PER_NODE = 128;
+
+    private final List<String> nodes;
+    private final long[] points;
+    private final String[] owners;
+
+    /**
+     * @param nodes The names of the members; must not be empty
+     */
+    HashRing(Collection<String> nodes) {
+        this.nodes = List.copyOf(new TreeSet<>(nodes));
+        if (this.nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        List<Point> all = new ArrayList<>(this.nodes.size() * POINTS_PER_NODE);
+        for (String node : this.nodes) {
+            for (int i = 0; i < POINTS_PER_NODE; i++) {
+                all.add(new Point(hash(node + "#" + i), node));
+            }
+        }
+        // Ties are broken by name so that every node orders colliding points alike.
+        all.sort((a, b) -> a.hash != b.hash ? Long.compare(a.hash, b.hash) : a.node.compareTo(b.node));
+        this.points = new long[all.size()];
+        this.owners = new String[all.size()];
+        for (int i = 0; i < all.size(); i++) {
+            points[i] = all.get(i).hash;
+            owners[i] = all.get(i).node;
+        }
+    }
+
+    /**
+     * The members of the ring, sorted by name.
+     */
+    List<String> nodes() {
+        return nodes;
+    }
+
+    String owner(UUID id) {
+        long hash = mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits()));
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * 64-bit FNV-1a of the UTF-8 bytes, finished with {@link #mix(long)} to
+     * spread names that differ only in their last characters.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * The finalizer of MurmurHash3.
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private record Point(long hash, String node) {
+    }
+}
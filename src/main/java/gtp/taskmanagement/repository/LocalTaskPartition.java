@@ -0,0 +1,135 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The tasks this node holds: a {@link TaskRepositoryImpl} seen as a {@link TaskPartition}.
+ */
+final class LocalTaskPartition implements TaskPartition {
+
+    private final String node;
+    private final long incarnation = ThreadLocalRandom.current().nextLong();
+    private final TaskRepositoryImpl store = new TaskRepositoryImpl();
+
+    LocalTaskPartition(String node) {
+        this.node = node;
+    }
+
+    /**
+     * The store itself, for walking and handing over its tasks.
+     */
+    TaskRepositoryImpl store() {
+        return store;
+    }
+
+    @Override
+    public String node() {
+        return node;
+    }
+
+    @Override
+    public Heartbeat heartbeat() {
+        return new Heartbeat(incarnation, store.modificationEpoch());
+    }
+
+    @Override
+    public Optional<Task> findById(UUID id) {
+        return store.findById(id);
+    }
+
+    @Override
+    public Optional<TaskVersion> findVersion(UUID id) {
+        return store.findVersion(id);
+    }
+
+    @Override
+    public List<Task> findAllById(Collection<UUID> ids) {
+        return store.findAllById(ids);
+    }
+
+    @Override
+    public Task save(Task task, long expectedVersion) {
+        return expectedVersion == ANY_VERSION ? store.save(task) : store.compareAndSave(task, expectedVersion);
+    }
+
+    @Override
+    public List<Task> saveAll(List<Task> tasks) {
+        return store.saveAll(tasks);
+    }
+
+    @Override
+    public boolean deleteById(UUID id) {
+        return store.deleteById(id);
+    }
+
+    @Override
+    public Set<UUID> deleteAllById(Collection<UUID> ids) {
+        return store.deleteAllById(ids);
+    }
+
+    @Override
+    public void adopt(List<Task> tasks) {
+        for (Task task : tasks) {
+            store.adopt(task);
+        }
+    }
+
+    @Override
+    public List<Task> scan(Task.Status status, Task.Priority priority) {
+        if (status != null) {
+            List<Task> tasks = store.findByStatus(status);
+            if (priority != null) {
+                tasks.removeIf(task -> task.getPriority() != priority);
+            }
+            return tasks;
+        }
+        return priority != null ? store.findByPriority(priority) : store.findAll();
+    }
+
+    @Override
+    public List<Task> query(TaskQuery query, UUID after, int limit) {
+        return store.query(query, after, limit);
+    }
+
+    @Override
+    public List<Task> queryByDueDate(TaskQuery query, DueDateKey after, int limit) {
+        return store.queryByDueDate(query, after, limit);
+    }
+
+    @Override
+    public List<TextIndex.Hit> rank(String text, int limit, long documents) {
+        return store.rank(text, limit, documents);
+    }
+
+    @Override
+    public Map<String, Long> countByTag() {
+        return store.countByTag();
+    }
+
+    @Override
+    public Summary summary() {
+        long epoch = store.modificationEpoch();
+        long[] byStatus = new long[Task.Status.values().length];
+        for (Task.Status status : Task.Status.values()) {
+            byStatus[status.ordinal()] = store.countByStatus(status);
+        }
+        long[] byPriority = new long[Task.Priority.values().length];
+        for (Task.Priority priority : Task.Priority.values()) {
+            byPriority[priority.ordinal()] = store.countByPriority(priority);
+        }
+        return new Summary(store.count(), epoch, byStatus, byPriority);
+    }
+
+    @Override
+    public TaskStatistics statistics() {
+        return store.statistics();
+    }
+}
@@ -0,0 +1,121 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Merges pages served by several stores, each in the same order, into one
+ * page, as the sharded and clustered stores do.
+ * <p>
+ * Every source contributes a first chunk of its page. When the merge has
+ * taken the last task of a full chunk and still needs more, that source is
+ * asked for its next chunk, starting after that task; a chunk shorter than
+ * asked for means the source has nothing more.
+ * </p>
+ * <p>
+ * A task at the same position as the one taken before it is skipped, so a
+ * task that is moving between two sources and briefly held by both appears
+ * once.
+ * </p>
+ */
+final class PageMerge {
+
+    private PageMerge() {
+    }
+
+    /**
+     * One page-ordered lookup, applied to a source.
+     */
+    @FunctionalInterface
+    interface PageFetch<S, K> {
+        List<Task> fetch(S source, K after, int limit);
+    }
+
+    /**
+     * @param sources The stores to merge
+     * @param first The first chunk of every source, in the order of {@code sources}
+     * @param chunk The size the first chunks were asked for, and of later ones
+     * @param fetch Fetches a later chunk of a source
+     * @param key The position of a task in page order
+     * @param limit The maximum number of tasks to return
+     * @return Up to {@code limit} tasks, in page order
+     */
+    static <S, K extends Comparable<K>> List<Task> merge(List<S> sources, List<List<Task>> first, int chunk,
+                                                         PageFetch<S, K> fetch, Function<Task, K> key, int limit) {
+        PriorityQueue<Cursor<S, K>> heads = new PriorityQueue<>(Math.max(1, sources.size()));
+        for (int i = 0; i < sources.size(); i++) {
+            Cursor<S, K> cursor = new Cursor<>(sources.get(i), first.get(i), chunk, key);
+            if (cursor.advance(fetch)) {
+                heads.add(cursor);
+            }
+        }
+        List<Task> page = new ArrayList<>(Math.min(limit, 256));
+        K taken = null;
+        while (page.size() < limit && !heads.isEmpty()) {
+            Cursor<S, K> cursor = heads.poll();
+            Task task = cursor.take();
+            if (taken == null || taken.compareTo(cursor.last) != 0) {
+                page.add(task);
+                taken = cursor.last;
+            }
+            if (page.size() < limit && cursor.advance(fetch)) {
+                heads.add(cursor);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Position of the merge within the page of one source.
+     */
+    private static final class Cursor<S, K extends Comparable<K>> implements Comparable<Cursor<S, K>> {
+        private final S source;
+        private final int chunk;
+        private final Function<Task, K> key;
+        private List<Task> tasks;
+        private int position;
+        private K last;
+        private K head;
+
+        Cursor(S source, List<Task> tasks, int chunk, Function<Task, K> key) {
+            this.source = source;
+            this.chunk = chunk;
+            this.key = key;
+            this.tasks = tasks;
+        }
+
+        /**
+         * Moves to the next task, fetching the next chunk if this one is used up.
+         *
+         * @return Whether there is a next task
+         */
+        boolean advance(PageFetch<S, K> fetch) {
+            if (position == tasks.size()) {
+                if (tasks.size() < chunk) {
+                    return false;
+                }
+                tasks = fetch.fetch(source, last, chunk);
+                position = 0;
+                if (tasks.isEmpty()) {
+                    return false;
+                }
+            }
+            head = key.apply(tasks.get(position));
+            return true;
+        }
+
+        Task take() {
+            last = head;
+            return tasks.get(position++);
+        }
+
+        @Override
+        public int compareTo(Cursor<S, K> other) {
+            return head.compareTo(other.head);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Durable {@link TaskRepository} that keeps the in-memory store of
+ * {@link TaskRepositoryImpl} and journals every write to a {@link WriteAheadLog}.
+ * <p>
+ * Enabled with {@code task.store.mode=wal}. On startup the snapshot and journal
+ * in {@code task.store.wal.dir} are replayed before the repository is used.
+ * {@link #save(Task)} and {@link #deleteById(UUID)} return only once their
+ * record is durable; concurrent writers are group-committed, so they share a
+ * single fsync. A write is journaled before the store or any index changes,
+ * so a failed append leaves no trace; it becomes visible to readers as soon as
+ * it is journaled, which may be before the fsync that makes it durable, so a
+ * crash in between can lose a write a reader saw, but never one acknowledged
+ * to its writer. Once the journal fails to persist a batch, the writes in
+ * that batch stay visible until a restart, but every later write is rejected
+ * before it changes the store. When the current journal generation grows past
+ * {@code task.store.wal.compact-threshold-bytes}, a background task writes a
+ * fresh snapshot and drops the journal it supersedes.
+ * </p>
+ */
+@Repository
+@ConditionalOnProperty(name = "task.store.mode", havingValue = "wal")
+public class PersistentTaskRepository extends TaskRepositoryImpl {
+
+    private static final Logger log = LoggerFactory.getLogger(PersistentTaskRepository.class);
+    private static final int SNAPSHOT_PAGE_SIZE = 1024;
+
+    /**
+     * Held shared by writers and exclusively while the journal rotates, so a
+     * snapshot taken after rotation observes every write of older generations.
+     */
+    private final ReadWriteLock rotationLock = new ReentrantReadWriteLock();
+    private final WriteAheadLog journal;
+    private final long compactThreshold;
+    private final ScheduledExecutorService compactor;
+
+    public PersistentTaskRepository(
+            @Value("${task.store.wal.dir:data}") String directory,
+            @Value("${task.store.wal.fsync:true}") boolean fsync,
+            @Value("${task.store.wal.compact-threshold-bytes:67108864}") long compactThreshold,
+            @Value("${task.store.wal.compact-interval-seconds:30}") long compactInterval) throws IOException {
+        Path path = Path.of(directory);
+        long newest = WriteAheadLog.replay(path, this::restore, super::deleteById);
+        this.journal = new WriteAheadLog(path, newest + 1, fsync);
+        this.compactThreshold = compactThreshold;
+        this.compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-wal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactIfNeeded, compactInterval, compactInterval, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public Task save(Task task) {
+        Task saved;
+        rotationLock.readLock().lock();
+        try {
+            saved = super.save(task);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        journal.sync();
+        return saved;
+    }
+
+    @Override
+    public Task compareAndSave(Task task, long expectedVersion) {
+        Task saved;
+        rotationLock.readLock().lock();
+        try {
+            saved = super.compareAndSave(task, expectedVersion);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        journal.sync();
+        return saved;
+    }
+
+    /**
+     * Journals the whole batch before waiting once for it to become durable.
+     */
+    @Override
+    public List<Task> saveAll(Collection<Task> tasks) {
+        List<Task> saved;
+        rotationLock.readLock().lock();
+        try {
+            saved = super.saveAll(tasks);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        journal.sync();
+        return saved;
+    }
+
+    /**
+     * Journals every write of the batch before waiting once for them to become durable.
+     */
+    @Override
+    public List<Task> compareAndSaveAll(Collection<Task> tasks) {
+        List<Task> saved;
+        rotationLock.readLock().lock();
+        try {
+            saved = super.compareAndSaveAll(tasks);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        journal.sync();
+        return saved;
+    }
+
+    @Override
+    public boolean deleteById(UUID id) {
+        boolean deleted;
+        rotationLock.readLock().lock();
+        try {
+            deleted = super.deleteById(id);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        journal.sync();
+        return deleted;
+    }
+
+    @Override
+    public Set<UUID> deleteAllById(Collection<UUID> ids) {
+        Set<UUID> deleted;
+        rotationLock.readLock().lock();
+        try {
+            deleted = super.deleteAllById(ids);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        journal.sync();
+        return deleted;
+    }
+
+    @Override
+    protected void onSave(Task task) {
+        journal.appendPut(task);
+    }
+
+    @Override
+    protected void onDelete(UUID id) {
+        // The journal is still null while the constructor replays existing records.
+        if (journal != null) {
+            journal.appendDelete(id);
+        }
+    }
+
+    /**
+     * Rotates the journal and writes a snapshot of the whole store, after which
+     * older journal generations are deleted.
+     */
+    public void compact() throws IOException {
+        long generation;
+        rotationLock.writeLock().lock();
+        try {
+            generation = journal.rotate();
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+        journal.writeSnapshot(generation, new PageIterator());
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        compactor.shutdownNow();
+        journal.close();
+    }
+
+    private void compactIfNeeded() {
+        if (journal.generationSize() < compactThreshold) {
+            return;
+        }
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            log.error("Task journal compaction failed", e);
+        }
+    }
+
+    /**
+     * Iterates the live store page by page, so a snapshot never holds more
+     * than one page of tasks in memory.
+     */
+    private class PageIterator implements Iterator<Task> {
+        private List<Task> page = findPage(null, SNAPSHOT_PAGE_SIZE);
+        private int position;
+
+        @Override
+        public boolean hasNext() {
+            if (position < page.size()) {
+                return true;
+            }
+            if (page.size() < SNAPSHOT_PAGE_SIZE) {
+                return false;
+            }
+            page = findPage(page.get(page.size() - 1).getId(), SNAPSHOT_PAGE_SIZE);
+            position = 0;
+            return !page.isEmpty();
+        }
+
+        @Override
+        public Task next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.get(position++);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package gtp.taskmanagement.repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sorted set of task ids sharing one indexed value (a status, a priority, a tag).
+ * <p>
+ * Ids are kept in a concurrent skip list so callers can seek to a cursor and walk
+ * forward in id order. The size is tracked separately because
+ * {@link ConcurrentSkipListSet#size()} is linear; it is used to pick the most
+ * selective list when several are combined.
+ * </p>
+ */
+final class PostingList {
+
+    private final NavigableSet<UUID> ids = new ConcurrentSkipListSet<>();
+    private final LongAdder size = new LongAdder();
+
+    void add(UUID id) {
+        if (ids.add(id)) {
+            size.increment();
+        }
+    }
+
+    void remove(UUID id) {
+        if (ids.remove(id)) {
+            size.decrement();
+        }
+    }
+
+    boolean contains(UUID id) {
+        return ids.contains(id);
+    }
+
+    long size() {
+        return size.sum();
+    }
+
+    /**
+     * @return Ids strictly greater than {@code after} in ascending order, or all ids when it is {@code null}
+     */
+    Iterator<UUID> iterator(UUID after) {
+        return (after != null ? ids.tailSet(after, false) : ids).iterator();
+    }
+
+    /**
+     * Merges several lists into one ascending, duplicate-free sequence of ids
+     * greater than {@code after}, reading each list lazily.
+     */
+    static Iterator<UUID> union(List<PostingList> lists, UUID after) {
+        if (lists.size() == 1) {
+            return lists.get(0).iterator(after);
+        }
+        return new UnionIterator(lists, after);
+    }
+
+    /**
+     * Yields, in ascending order, the ids greater than {@code after} that are
+     * present in every list. The smallest list drives the walk and the others are
+     * only probed, so the cost is bounded by the rarest value rather than by the
+     * sum of all lists.
+     */
+    static Iterator<UUID> intersection(List<PostingList> lists, UUID after) {
+        List<PostingList> bySize = new ArrayList<>(lists);
+        bySize.sort(Comparator.comparingLong(PostingList::size));
+        Iterator<UUID> candidates = bySize.get(0).iterator(after);
+        List<PostingList> probes = bySize.subList(1, bySize.size());
+        return new Iterator<>() {
+            private UUID next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && candidates.hasNext()) {
+                    UUID candidate = candidates.next();
+                    if (containedInAll(probes, candidate)) {
+                        next = candidate;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public UUID next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                UUID result = next;
+                next = null;
+                return result;
+            }
+        };
+    }
+
+    private static boolean containedInAll(List<PostingList> lists, UUID id) {
+        for (PostingList list : lists) {
+            if (!list.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class UnionIterator implements Iterator<UUID> {
+        private record Head(UUID id, Iterator<UUID> rest) {
+        }
+
+        private final PriorityQueue<Head> heads = new PriorityQueue<>((a, b) -> a.id().compareTo(b.id()));
+        private UUID last;
+
+        UnionIterator(List<PostingList> lists, UUID after) {
+            for (PostingList list : lists) {
+                advance(list.iterator(after));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!heads.isEmpty() && heads.peek().id().equals(last)) {
+                Head duplicate = heads.poll();
+                advance(duplicate.rest());
+            }
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public UUID next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Head head = heads.poll();
+            advance(head.rest());
+            last = head.id();
+            return last;
+        }
+
+        private void advance(Iterator<UUID> iterator) {
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), iterator));
+            }
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Answers {@link TaskQuery}s over the indexes of {@link TaskRepositoryImpl}.
+ * <p>
+ * Each criterion of a query can be read from an index: the status, priority
+ * and tag posting lists, the due-date index or the text index. The planner
+ * estimates how many tasks each of them yields: posting list sizes are kept
+ * up to date, the text index knows the postings of its rarest word, and a
+ * due-date range is counted, but never further than the smallest other
+ * estimate, nor past the point where scanning in the requested order would be
+ * cheaper than the walk counted so far. The index with the cheapest estimate then drives the walk and
+ * every other criterion is checked against each task it yields, so the cost
+ * follows the most selective criterion and no intermediate result is
+ * materialized.
+ * </p>
+ * <p>
+ * An index that already yields tasks in the requested order (posting lists by
+ * id, the due-date index by due date) can stop after {@code limit} matches.
+ * Assuming the criteria are independent, it is expected to walk
+ * {@code limit} divided by the combined selectivity of the other criteria,
+ * which can make it cheaper than a smaller index in the wrong order. A walk
+ * out of order visits every candidate and keeps the first {@code limit} in a
+ * bounded heap, so memory never grows with the number of matches either.
+ * </p>
+ * <p>
+ * A text criterion is exact: a word with more prefix expansions than the text
+ * index looks up is checked against the text of every candidate instead.
+ * </p>
+ * <p>
+ * Like the repository's other reads, this takes no lock: indexes are only
+ * used to find candidates, and every criterion is checked against the stored
+ * task.
+ * </p>
+ */
+final class QueryPlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryPlanner.class);
+
+    /**
+     * Ways to find candidate tasks.
+     */
+    enum Access {
+        /**
+         * Every task, in id order.
+         */
+        SCAN,
+        STATUS,
+        PRIORITY,
+        TAGS,
+        DUE_DATE,
+        TEXT
+    }
+
+    private final Map<UUID, CompactTask> tasks;
+    private final TagDictionary tagDictionary;
+    private final PostingList ids;
+    private final Map<Task.Status, PostingList> statusIndex;
+    private final Map<Task.Priority, PostingList> priorityIndex;
+    private final Map<Integer, PostingList> tagIndex;
+    private final DueDateIndex dueDateIndex;
+    private final TextIndex textIndex;
+
+    QueryPlanner(Map<UUID, CompactTask> tasks, TagDictionary tagDictionary, PostingList ids,
+                 Map<Task.Status, PostingList> statusIndex, Map<Task.Priority, PostingList> priorityIndex,
+                 Map<Integer, PostingList> tagIndex, DueDateIndex dueDateIndex, TextIndex textIndex) {
+        this.tasks = tasks;
+        this.tagDictionary = tagDictionary;
+        this.ids = ids;
+        this.statusIndex = statusIndex;
+        this.priorityIndex = priorityIndex;
+        this.tagIndex = tagIndex;
+        this.dueDateIndex = dueDateIndex;
+        this.textIndex = textIndex;
+    }
+
+    /**
+     * @see TaskRepository#query
+     */
+    List<Task> byId(TaskQuery query, UUID after, int limit) {
+        Criteria criteria = compile(query, false);
+        if (criteria == null) {
+            return List.of();
+        }
+        Access access = plan(criteria, false, limit);
+        if (access == null) {
+            return List.of();
+        }
+        if (access == Access.DUE_DATE || access == Access.TEXT) {
+            return top(candidates(criteria, access), limit, criteria,
+                    (id, entry) -> after == null || id.compareTo(after) > 0 ? id : null,
+                    Comparator.<UUID>naturalOrder());
+        }
+        Iterator<UUID> walk = switch (access) {
+            case STATUS -> PostingList.union(lists(statusIndex, criteria.statuses), after);
+            case PRIORITY -> PostingList.union(lists(priorityIndex, criteria.priorities), after);
+            case TAGS -> criteria.allTags
+                    ? PostingList.intersection(criteria.tagLists, after)
+                    : PostingList.union(criteria.tagLists, after);
+            default -> ids.iterator(after);
+        };
+        List<Task> result = new ArrayList<>(Math.min(limit, 256));
+        while (result.size() < limit && walk.hasNext()) {
+            UUID id = walk.next();
+            CompactTask entry = tasks.get(id);
+            if (entry != null && criteria.test(id, entry)) {
+                result.add(entry.toTask(tagDictionary));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @see TaskRepository#queryByDueDate
+     */
+    List<Task> byDueDate(TaskQuery query, DueDateKey after, int limit) {
+        Criteria criteria = compile(query, true);
+        if (criteria == null) {
+            return List.of();
+        }
+        Access access = plan(criteria, true, limit);
+        if (access == null) {
+            return List.of();
+        }
+        if (access != Access.DUE_DATE) {
+            return top(candidates(criteria, access), limit, criteria, (id, entry) -> {
+                DueDateKey key = new DueDateKey(entry.dueDate(), id);
+                return after == null || key.compareTo(after) > 0 ? key : null;
+            }, Comparator.<DueDateKey>naturalOrder());
+        }
+        Iterator<DueDateKey> walk = range(criteria, after);
+        List<Task> result = new ArrayList<>(Math.min(limit, 256));
+        while (result.size() < limit && walk.hasNext()) {
+            DueDateKey key = walk.next();
+            CompactTask entry = tasks.get(key.id());
+            if (entry != null && entry.dueDate() == key.dueDate() && criteria.test(key.id(), entry)) {
+                result.add(entry.toTask(tagDictionary));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resolves the criteria against the indexes.
+     *
+     * @param dueOrder Whether results are ordered by due date, which leaves out
+     *                 tasks without one even when no range is given
+     * @return The criteria, or {@code null} if some criterion can match no task
+     */
+    private Criteria compile(TaskQuery query, boolean dueOrder) {
+        Criteria criteria = new Criteria();
+        criteria.statuses = query.statuses() != null ? EnumSet.copyOf(query.statuses()) : null;
+        criteria.priorities = query.priorities() != null ? EnumSet.copyOf(query.priorities()) : null;
+        if (query.tags() != null) {
+            criteria.allTags = query.allTags();
+            criteria.tagIds = new HashSet<>();
+            criteria.tagLists = new ArrayList<>();
+            for (String tag : query.tags()) {
+                Integer tagId = tagDictionary.findId(tag);
+                PostingList list = tagId != null ? tagIndex.get(tagId) : null;
+                if (list == null) {
+                    if (criteria.allTags) {
+                        return null;
+                    }
+                } else if (criteria.tagIds.add(tagId)) {
+                    criteria.tagLists.add(list);
+                }
+            }
+            if (criteria.tagLists.isEmpty()) {
+                return null;
+            }
+        }
+        if (query.hasDueRange() || dueOrder) {
+            criteria.due = true;
+            criteria.dueFrom = query.dueFrom() != null ? query.dueFrom() : Long.MIN_VALUE + 1;
+            criteria.dueTo = query.dueTo() != null ? query.dueTo() : Long.MAX_VALUE;
+            if (criteria.dueFrom >= criteria.dueTo) {
+                return null;
+            }
+        }
+        if (query.text() != null) {
+            criteria.text = textIndex.match(query.text());
+        }
+        return criteria;
+    }
+
+    /**
+     * Picks the index to drive the query from.
+     *
+     * @return The access path, or {@code null} if some criterion is known to match no task
+     */
+    private Access plan(Criteria criteria, boolean dueOrder, int limit) {
+        long total = Math.max(1, ids.size());
+        Map<Access, Long> estimates = new EnumMap<>(Access.class);
+        if (criteria.statuses != null) {
+            estimates.put(Access.STATUS, sum(lists(statusIndex, criteria.statuses)));
+        }
+        if (criteria.priorities != null) {
+            estimates.put(Access.PRIORITY, sum(lists(priorityIndex, criteria.priorities)));
+        }
+        if (criteria.tagLists != null) {
+            long estimate = criteria.allTags ? Long.MAX_VALUE : 0;
+            for (PostingList list : criteria.tagLists) {
+                estimate = criteria.allTags ? Math.min(estimate, list.size()) : estimate + list.size();
+            }
+            estimates.put(Access.TAGS, estimate);
+        }
+        // Words with too many expansions are only checked per task, so the text index can only drive if some word was looked up.
+        if (criteria.text != null && criteria.text.indexed()) {
+            estimates.put(Access.TEXT, criteria.text.estimate());
+        }
+        if (criteria.due) {
+            // Counting the range costs as much as walking it, so it stops where another index is known to be cheaper.
+            long cap = total;
+            for (long estimate : estimates.values()) {
+                cap = Math.min(cap, estimate);
+            }
+            if (dueOrder) {
+                cap = Math.min(cap, orderedCost(Long.MAX_VALUE, limit, estimates, total, Access.DUE_DATE, criteria));
+            } else {
+                // With c tasks in range, scanning in id order walks about scan * total / c tasks; past
+                // sqrt(scan * total) that is less than the count itself has cost, so the scan wins and counting stops.
+                long scan = orderedCost(total, limit, estimates, total, Access.SCAN, criteria);
+                cap = Math.min(cap, (long) Math.ceil(Math.sqrt((double) scan * total)));
+            }
+            estimates.put(Access.DUE_DATE, count(criteria, cap));
+        }
+        if (estimates.containsValue(0L)) {
+            return null;
+        }
+
+        Access best = dueOrder ? Access.DUE_DATE : Access.SCAN;
+        double bestCost = dueOrder
+                ? orderedCost(estimates.get(Access.DUE_DATE), limit, estimates, total, Access.DUE_DATE, criteria)
+                : orderedCost(total, limit, estimates, total, Access.SCAN, criteria);
+        for (Map.Entry<Access, Long> entry : estimates.entrySet()) {
+            Access access = entry.getKey();
+            boolean ordered = dueOrder
+                    ? access == Access.DUE_DATE
+                    : access != Access.TEXT && access != Access.DUE_DATE;
+            double cost = ordered
+                    ? orderedCost(entry.getValue(), limit, estimates, total, access, criteria)
+                    : entry.getValue();
+            // Ties go to the path already in order, which can stop early if the estimates are off.
+            if (cost < bestCost || cost == bestCost && ordered) {
+                best = access;
+                bestCost = cost;
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Query driven by {} (estimated cost {}, estimates {} of {} tasks)",
+                    best, Math.round(bestCost), estimates, total);
+        }
+        return best;
+    }
+
+    /**
+     * Expected number of tasks an index yielding results in order has to walk
+     * to find {@code limit} matches: {@code limit} over the selectivity of the
+     * criteria it does not apply itself, and at most its whole {@code estimate}.
+     */
+    private static long orderedCost(long estimate, int limit, Map<Access, Long> estimates, long total,
+                                    Access driver, Criteria criteria) {
+        double selectivity = 1;
+        for (Map.Entry<Access, Long> entry : estimates.entrySet()) {
+            Access access = entry.getKey();
+            // The due-date index is partitioned by status, so it applies the status criterion as well.
+            if (access == driver || driver == Access.DUE_DATE && access == Access.STATUS) {
+                continue;
+            }
+            double base = total;
+            if (access == Access.DUE_DATE && criteria.statuses != null && estimates.containsKey(Access.STATUS)) {
+                base = Math.max(1, estimates.get(Access.STATUS));
+            }
+            selectivity *= Math.min(1, entry.getValue() / base);
+        }
+        if (selectivity == 0) {
+            return estimate;
+        }
+        return (long) Math.min(estimate, Math.ceil(limit / selectivity));
+    }
+
+    /**
+     * Counts the tasks in the due-date range, up to {@code cap}.
+     */
+    private long count(Criteria criteria, long cap) {
+        Iterator<DueDateKey> range = range(criteria, null);
+        long count = 0;
+        while (count < cap && range.hasNext()) {
+            range.next();
+            count++;
+        }
+        return count;
+    }
+
+    private Iterator<DueDateKey> range(Criteria criteria, DueDateKey after) {
+        Set<Task.Status> statuses = criteria.statuses != null ? criteria.statuses : EnumSet.allOf(Task.Status.class);
+        return dueDateIndex.range(criteria.dueFrom, criteria.dueTo, statuses, after);
+    }
+
+    /**
+     * Candidate ids from an index that does not yield them in the requested order.
+     */
+    private Iterator<UUID> candidates(Criteria criteria, Access access) {
+        return switch (access) {
+            case STATUS -> PostingList.union(lists(statusIndex, criteria.statuses), null);
+            case PRIORITY -> PostingList.union(lists(priorityIndex, criteria.priorities), null);
+            case TAGS -> criteria.allTags
+                    ? PostingList.intersection(criteria.tagLists, null)
+                    : PostingList.union(criteria.tagLists, null);
+            case TEXT -> criteria.text.candidates();
+            case DUE_DATE -> {
+                Iterator<DueDateKey> range = range(criteria, null);
+                yield new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return range.hasNext();
+                    }
+
+                    @Override
+                    public UUID next() {
+                        return range.next().id();
+                    }
+                };
+            }
+            case SCAN -> ids.iterator(null);
+        };
+    }
+
+    /**
+     * Keeps the {@code limit} matching candidates that come first by their sort
+     * key, in a heap of that size.
+     *
+     * @param keyOf Sort key of a matching task, or {@code null} if it lies before the cursor
+     */
+    private <K> List<Task> top(Iterator<UUID> candidates, int limit, Criteria criteria,
+                               BiFunction<UUID, CompactTask, K> keyOf, Comparator<K> order) {
+        record Hit<K>(K key, CompactTask entry) {
+        }
+        Comparator<Hit<K>> byKey = Comparator.comparing(Hit::key, order);
+        PriorityQueue<Hit<K>> best = new PriorityQueue<>(byKey.reversed());
+        while (candidates.hasNext()) {
+            UUID id = candidates.next();
+            CompactTask entry = tasks.get(id);
+            if (entry == null || !criteria.test(id, entry)) {
+                continue;
+            }
+            K key = keyOf.apply(id, entry);
+            if (key == null) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(new Hit<>(key, entry));
+            } else if (order.compare(key, best.peek().key()) < 0) {
+                best.poll();
+                best.add(new Hit<>(key, entry));
+            }
+        }
+        List<Hit<K>> hits = new ArrayList<>(best);
+        hits.sort(byKey);
+        List<Task> result = new ArrayList<>(hits.size());
+        for (Hit<K> hit : hits) {
+            result.add(hit.entry().toTask(tagDictionary));
+        }
+        return result;
+    }
+
+    private static <V> List<PostingList> lists(Map<V, PostingList> index, Set<V> values) {
+        List<PostingList> lists = new ArrayList<>(values.size());
+        for (V value : values) {
+            lists.add(index.get(value));
+        }
+        return lists;
+    }
+
+    private static long sum(List<PostingList> lists) {
+        long sum = 0;
+        for (PostingList list : lists) {
+            sum += list.size();
+        }
+        return sum;
+    }
+
+    /**
+     * A query resolved against the indexes, checked against every candidate.
+     */
+    private static final class Criteria {
+        private Set<Task.Status> statuses;
+        private Set<Task.Priority> priorities;
+        private boolean allTags;
+        private Set<Integer> tagIds;
+        private List<PostingList> tagLists;
+        private boolean due;
+        private long dueFrom;
+        private long dueTo;
+        private TextIndex.Match text;
+
+        boolean test(UUID id, CompactTask entry) {
+            if (statuses != null && !statuses.contains(entry.status())) {
+                return false;
+            }
+            if (priorities != null && !priorities.contains(entry.priority())) {
+                return false;
+            }
+            if (tagIds != null && !(allTags
+                    ? TaskRepositoryImpl.hasAllTags(entry, tagIds)
+                    : TaskRepositoryImpl.hasAnyTag(entry, tagIds))) {
+                return false;
+            }
+            if (due && (entry.dueDate() == CompactTask.NO_TIME
+                    || entry.dueDate() < dueFrom || entry.dueDate() >= dueTo)) {
+                return false;
+            }
+            return text == null || text.test(id, entry);
+        }
+    }
+}
@@ -0,0 +1,442 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * In-memory {@link TaskRepository} split into independent {@link TaskRepositoryImpl}
+ * shards, for hosts with many cores.
+ * <p>
+ * A task lives in the shard chosen by the hash of its id, so single-task reads
+ * and writes touch one shard only, and every shard has its own map, indexes,
+ * tag dictionary and counters. Writers to different shards therefore never
+ * share an index, and no index grows beyond its shard.
+ * </p>
+ * <p>
+ * Reads spanning the store fan out: full scans and batches run one job per
+ * shard on a dedicated {@link ForkJoinPool} of {@code task.store.sharded.parallelism}
+ * threads and are concatenated, counts are summed. Pages are merged lazily in
+ * id or due-date order: every shard is asked for a small chunk past the cursor
+ * in parallel, and a shard is only asked for more once the merge has used up
+ * its chunk, so a page costs about as much as on a single store of the same
+ * size. Search ranks every shard against the size of the whole store and
+ * merges by score; word frequencies are still counted per shard, which with
+ * tasks spread by id hash makes no practical difference.
+ * </p>
+ * <p>
+ * Enabled with {@code task.store.mode=sharded}; {@code task.store.shards} sets
+ * the number of shards. Tasks are kept in memory only.
+ * </p>
+ */
+@Repository
+@ConditionalOnProperty(name = "task.store.mode", havingValue = "sharded")
+public class ShardedTaskRepository implements TaskRepository {
+
+    /**
+     * Smallest chunk a shard is asked for while merging a page. Chunks are
+     * kept near a shard's expected share of the page, since every task fetched
+     * is materialized whether or not it makes the page.
+     */
+    private static final int MIN_CHUNK = 4;
+
+    private final TaskRepositoryImpl[] shards;
+    private final ForkJoinPool pool;
+
+    public ShardedTaskRepository(
+            @Value("${task.store.shards:16}") int shards,
+            @Value("${task.store.sharded.parallelism:0}") int parallelism) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("task.store.shards must be at least 1");
+        }
+        this.shards = new TaskRepositoryImpl[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new TaskRepositoryImpl();
+        }
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(Math.min(threads, shards), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("task-shard-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Number of shards the store is split into.
+     */
+    public int shardCount() {
+        return shards.length;
+    }
+
+    @Override
+    public List<Task> findAll() {
+        List<List<Task>> parts = fanOut(TaskRepositoryImpl::findAll);
+        List<Task> result = new ArrayList<>(Math.toIntExact(count()));
+        for (List<Task> part : parts) {
+            result.addAll(part);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> findPage(UUID after, int limit) {
+        return mergeById((shard, from, chunk) -> shard.findPage(from, chunk), after, limit);
+    }
+
+    @Override
+    public Optional<Task> findById(UUID id) {
+        return shardOf(id).findById(id);
+    }
+
+    @Override
+    public Optional<TaskVersion> findVersion(UUID id) {
+        return shardOf(id).findVersion(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The sum of the shards' epochs: every shard's epoch only grows, so the sum
+     * stays the same only if no shard was written to.
+     * </p>
+     */
+    @Override
+    public long modificationEpoch() {
+        long epoch = 0;
+        for (TaskRepositoryImpl shard : shards) {
+            epoch += shard.modificationEpoch();
+        }
+        return epoch;
+    }
+
+    @Override
+    public List<Task> findAllById(Collection<UUID> ids) {
+        List<Task> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            shardOf(id).findById(id).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    @Override
+    public Task save(Task task) {
+        Task withId = TaskRepositoryImpl.withId(task);
+        return shardOf(withId.getId()).save(withId);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The batch is split by shard and the parts are saved in parallel.
+     * </p>
+     */
+    @Override
+    public List<Task> saveAll(Collection<Task> tasks) {
+        List<Task> batch = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            batch.add(TaskRepositoryImpl.withId(task));
+        }
+        return inShards(batch, TaskRepositoryImpl::saveAll);
+    }
+
+    @Override
+    public Task compareAndSave(Task task, long expectedVersion) {
+        return shardOf(task.getId()).compareAndSave(task, expectedVersion);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The batch is split by shard and the parts are saved in parallel.
+     * </p>
+     */
+    @Override
+    public List<Task> compareAndSaveAll(Collection<Task> tasks) {
+        return inShards(new ArrayList<>(tasks), TaskRepositoryImpl::compareAndSaveAll);
+    }
+
+    /**
+     * Hands each shard its part of {@code batch} in parallel.
+     *
+     * @return The results of {@code write} in the order of {@code batch}
+     */
+    private List<Task> inShards(List<Task> batch, BiFunction<TaskRepositoryImpl, List<Task>, List<Task>> write) {
+        List<List<Integer>> positions = groupByShard(batch, Task::getId);
+        List<ForkJoinTask<List<Task>>> jobs = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            List<Integer> mine = positions.get(i);
+            if (mine.isEmpty()) {
+                jobs.add(null);
+                continue;
+            }
+            TaskRepositoryImpl shard = shards[i];
+            List<Task> part = new ArrayList<>(mine.size());
+            for (int position : mine) {
+                part.add(batch.get(position));
+            }
+            jobs.add(pool.submit(() -> write.apply(shard, part)));
+        }
+        Task[] saved = new Task[batch.size()];
+        for (int i = 0; i < shards.length; i++) {
+            if (jobs.get(i) == null) {
+                continue;
+            }
+            List<Task> part = jobs.get(i).join();
+            List<Integer> mine = positions.get(i);
+            for (int j = 0; j < part.size(); j++) {
+                saved[mine.get(j)] = part.get(j);
+            }
+        }
+        return Arrays.asList(saved);
+    }
+
+    @Override
+    public boolean deleteById(UUID id) {
+        return shardOf(id).deleteById(id);
+    }
+
+    @Override
+    public Set<UUID> deleteAllById(Collection<UUID> ids) {
+        List<UUID> batch = new ArrayList<>(ids);
+        List<List<Integer>> positions = groupByShard(batch, Function.identity());
+        List<ForkJoinTask<Set<UUID>>> jobs = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            List<Integer> mine = positions.get(i);
+            if (mine.isEmpty()) {
+                continue;
+            }
+            TaskRepositoryImpl shard = shards[i];
+            List<UUID> part = new ArrayList<>(mine.size());
+            for (int position : mine) {
+                part.add(batch.get(position));
+            }
+            jobs.add(pool.submit(() -> shard.deleteAllById(part)));
+        }
+        Set<UUID> deleted = new HashSet<>();
+        for (ForkJoinTask<Set<UUID>> job : jobs) {
+            deleted.addAll(job.join());
+        }
+        return deleted;
+    }
+
+    @Override
+    public List<Task> findByStatus(Task.Status status) {
+        List<Task> result = new ArrayList<>(Math.toIntExact(countByStatus(status)));
+        for (List<Task> part : fanOut(shard -> shard.findByStatus(status))) {
+            result.addAll(part);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> findByStatus(Task.Status status, UUID after, int limit) {
+        return mergeById((shard, from, chunk) -> shard.findByStatus(status, from, chunk), after, limit);
+    }
+
+    @Override
+    public List<Task> findByPriority(Task.Priority priority) {
+        List<Task> result = new ArrayList<>(Math.toIntExact(countByPriority(priority)));
+        for (List<Task> part : fanOut(shard -> shard.findByPriority(priority))) {
+            result.addAll(part);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> findByPriority(Task.Priority priority, UUID after, int limit) {
+        return mergeById((shard, from, chunk) -> shard.findByPriority(priority, from, chunk), after, limit);
+    }
+
+    @Override
+    public List<Task> findByAnyTag(Collection<String> tags, UUID after, int limit) {
+        return mergeById((shard, from, chunk) -> shard.findByAnyTag(tags, from, chunk), after, limit);
+    }
+
+    @Override
+    public List<Task> findByAllTags(Collection<String> tags, UUID after, int limit) {
+        return mergeById((shard, from, chunk) -> shard.findByAllTags(tags, from, chunk), after, limit);
+    }
+
+    @Override
+    public List<Task> findByDueDate(long from, long to, Collection<Task.Status> statuses, DueDateKey after, int limit) {
+        return mergeByDueDate((shard, start, chunk) -> shard.findByDueDate(from, to, statuses, start, chunk),
+                after, limit);
+    }
+
+    @Override
+    public List<Task> query(TaskQuery query, UUID after, int limit) {
+        return mergeById((shard, from, chunk) -> shard.query(query, from, chunk), after, limit);
+    }
+
+    @Override
+    public List<Task> queryByDueDate(TaskQuery query, DueDateKey after, int limit) {
+        return mergeByDueDate((shard, from, chunk) -> shard.queryByDueDate(query, from, chunk), after, limit);
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        long documents = count();
+        List<List<TextIndex.Hit>> parts = fanOut(shard -> shard.rank(query, limit, documents));
+        PriorityQueue<TextIndex.Hit> best = new PriorityQueue<>(TextIndex.Hit.BEST_FIRST);
+        for (List<TextIndex.Hit> part : parts) {
+            best.addAll(part);
+        }
+        List<Task> result = new ArrayList<>(Math.min(limit, best.size()));
+        while (result.size() < limit && !best.isEmpty()) {
+            UUID id = best.poll().id();
+            shardOf(id).findById(id).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> countByTag() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map<String, Long> part : fanOut(TaskRepositoryImpl::countByTag)) {
+            part.forEach((tag, count) -> counts.merge(tag, count, Long::sum));
+        }
+        return counts;
+    }
+
+    @Override
+    public long count() {
+        long count = 0;
+        for (TaskRepositoryImpl shard : shards) {
+            count += shard.count();
+        }
+        return count;
+    }
+
+    @Override
+    public long countByStatus(Task.Status status) {
+        long count = 0;
+        for (TaskRepositoryImpl shard : shards) {
+            count += shard.countByStatus(status);
+        }
+        return count;
+    }
+
+    @Override
+    public long countByPriority(Task.Priority priority) {
+        long count = 0;
+        for (TaskRepositoryImpl shard : shards) {
+            count += shard.countByPriority(priority);
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Sums the statistics of every shard; overdue tasks are counted up to the
+     * earliest time any shard reached.
+     * </p>
+     */
+    @Override
+    public TaskStatistics statistics() {
+        List<TaskStatistics> parts = new ArrayList<>(shards.length);
+        for (TaskRepositoryImpl shard : shards) {
+            parts.add(shard.statistics());
+        }
+        return TaskStatistics.sum(parts);
+    }
+
+    public void clear() {
+        fanOut(shard -> {
+            shard.clear();
+            return null;
+        });
+    }
+
+    private TaskRepositoryImpl shardOf(UUID id) {
+        return shards[indexOf(id)];
+    }
+
+    /**
+     * Spreads the high bits into the low ones, so ids that differ in only a few
+     * bits still land in different shards.
+     */
+    private int indexOf(UUID id) {
+        int hash = id.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    /**
+     * Positions of the items of {@code batch} owned by each shard, in batch order.
+     */
+    private <T> List<List<Integer>> groupByShard(List<T> batch, Function<T, UUID> id) {
+        List<List<Integer>> positions = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            positions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            positions.get(indexOf(id.apply(batch.get(i)))).add(i);
+        }
+        return positions;
+    }
+
+    /**
+     * Runs {@code job} on every shard in parallel. The calling thread takes the
+     * first shard itself rather than waiting idle.
+     *
+     * @return The results, in shard order
+     */
+    private <R> List<R> fanOut(Function<TaskRepositoryImpl, R> job) {
+        List<ForkJoinTask<R>> jobs = new ArrayList<>(shards.length - 1);
+        for (int i = 1; i < shards.length; i++) {
+            TaskRepositoryImpl shard = shards[i];
+            jobs.add(pool.submit(() -> job.apply(shard)));
+        }
+        List<R> results = new ArrayList<>(shards.length);
+        results.add(job.apply(shards[0]));
+        for (ForkJoinTask<R> pending : jobs) {
+            results.add(pending.join());
+        }
+        return results;
+    }
+
+    private List<Task> mergeById(PageMerge.PageFetch<TaskRepositoryImpl, UUID> fetch, UUID after, int limit) {
+        return merge(fetch, Task::getId, after, limit);
+    }
+
+    private List<Task> mergeByDueDate(PageMerge.PageFetch<TaskRepositoryImpl, DueDateKey> fetch,
+                                      DueDateKey after, int limit) {
+        return merge(fetch, DueDateKey::of, after, limit);
+    }
+
+    /**
+     * Merges the pages of every shard into one page of up to {@code limit}
+     * tasks, asking every shard for its first chunk in parallel.
+     */
+    private <K extends Comparable<K>> List<Task> merge(PageMerge.PageFetch<TaskRepositoryImpl, K> fetch,
+                                                       Function<Task, K> key, K after, int limit) {
+        int chunk = shards.length == 1 ? limit : Math.min(limit, Math.max(MIN_CHUNK, 2 * limit / shards.length));
+        List<List<Task>> first = fanOut(shard -> fetch.fetch(shard, after, chunk));
+        return PageMerge.merge(Arrays.asList(shards), first, chunk, fetch, key, limit);
+    }
+}
@@ -0,0 +1,64 @@
+package gtp.taskmanagement.repository;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns a dense int id to every distinct tag so stored tasks can reference
+ * tags by id instead of holding their own copies of the strings.
+ * <p>
+ * Ids are never reused or released; the dictionary grows with the number of
+ * distinct tags ever stored, which is small compared to the number of tasks.
+ * Lookups by tag are lock-free; registering a new tag takes a short lock.
+ * </p>
+ */
+final class TagDictionary {
+
+    /**
+     * Id used for a {@code null} element in a tag list.
+     */
+    static final int NULL_TAG = -1;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] tags = new String[64];
+    private int size;
+
+    int idOf(String tag) {
+        if (tag == null) {
+            return NULL_TAG;
+        }
+        Integer id = ids.get(tag);
+        return id != null ? id : register(tag);
+    }
+
+    /**
+     * @return The id of {@code tag}, or {@code null} if it has never been stored
+     */
+    Integer findId(String tag) {
+        return tag != null ? ids.get(tag) : null;
+    }
+
+    String tag(int id) {
+        return id == NULL_TAG ? null : tags[id];
+    }
+
+    int size() {
+        return ids.size();
+    }
+
+    private synchronized int register(String tag) {
+        Integer existing = ids.get(tag);
+        if (existing != null) {
+            return existing;
+        }
+        if (size == tags.length) {
+            tags = Arrays.copyOf(tags, size * 2);
+        }
+        int id = size++;
+        tags[id] = tag;
+        // Publishing through the map makes the array slot visible to any reader that obtains the id.
+        ids.put(tag, id);
+        return id;
+    }
+}
@@ -0,0 +1,118 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of a {@link Task} used by the on-disk stores and
+ * between the nodes of a cluster.
+ * <p>
+ * Optional values are written with explicit markers ({@code -1} ordinals,
+ * {@link Long#MIN_VALUE} for a missing due date, a boolean before strings) so
+ * a decoded task is identical to the one that was encoded, timestamps included.
+ * </p>
+ */
+final class TaskCodec {
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private TaskCodec() {
+    }
+
+    static void writeId(DataOutput out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    static UUID readId(DataInput in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    static void write(DataOutput out, Task task) throws IOException {
+        writeId(out, task.getId());
+        writeString(out, task.getTitle());
+        writeString(out, task.getDescription());
+        out.writeByte(task.getPriority() != null ? task.getPriority().ordinal() : -1);
+        out.writeByte(task.getStatus() != null ? task.getStatus().ordinal() : -1);
+        out.writeLong(task.getDueDate() != null ? task.getDueDate().getTime() : NO_DATE);
+        List<String> tags = task.getTags();
+        out.writeInt(tags != null ? tags.size() : -1);
+        if (tags != null) {
+            for (String tag : tags) {
+                writeString(out, tag);
+            }
+        }
+        writeTimestamp(out, task.getCreatedAt());
+        writeTimestamp(out, task.getUpdatedAt());
+        out.writeLong(task.getVersion());
+    }
+
+    static Task read(DataInput in) throws IOException {
+        UUID id = readId(in);
+        String title = readString(in);
+        String description = readString(in);
+        byte priority = in.readByte();
+        byte status = in.readByte();
+        long dueDate = in.readLong();
+        int tagCount = in.readInt();
+        List<String> tags = null;
+        if (tagCount >= 0) {
+            tags = new ArrayList<>(tagCount);
+            for (int i = 0; i < tagCount; i++) {
+                tags.add(readString(in));
+            }
+        }
+        LocalDateTime createdAt = readTimestamp(in);
+        LocalDateTime updatedAt = readTimestamp(in);
+        long version = in.readLong();
+        return new Task(
+                id,
+                title,
+                description,
+                priority >= 0 ? Task.Priority.values()[priority] : null,
+                status >= 0 ? Task.Status.values()[status] : null,
+                dueDate != NO_DATE ? new Date(dueDate) : null,
+                tags,
+                createdAt,
+                updatedAt,
+                version
+        );
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeTimestamp(DataOutput out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readTimestamp(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long seconds = in.readLong();
+        int nanos = in.readInt();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+}
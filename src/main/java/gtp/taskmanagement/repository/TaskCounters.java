@@ -0,0 +1,131 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Task counts per status and priority, kept current by the repository's
+ * writes so they can be read in constant time.
+ * <p>
+ * Two grids of {@link LongAdder}s are kept, one cell per status and priority
+ * pair: one counts all tasks, the other the tasks due before the due horizon.
+ * Being overdue depends on the clock as well as on writes, so the repository
+ * also moves the horizon up from time to time, on a {@link DueHorizonTicker}
+ * tick, passing the tasks that came due in between to {@link #cameDue}. Since a
+ * write compares its task with the current horizon, the repository must never
+ * run {@link #update} while it moves the horizon. A snapshot counts the few
+ * tasks that came due since the last tick on top of the grid, so it is current
+ * without moving the horizon itself.
+ * </p>
+ */
+final class TaskCounters {
+
+    private static final Task.Status[] STATUSES = Task.Status.values();
+    private static final Task.Priority[] PRIORITIES = Task.Priority.values();
+
+    private final LongAdder[] all = newGrid();
+    private final LongAdder[] overdue = newGrid();
+    private volatile long dueHorizon;
+
+    /**
+     * @param dueHorizon Tasks due before this time, in epoch milliseconds, count as overdue
+     */
+    TaskCounters(long dueHorizon) {
+        this.dueHorizon = dueHorizon;
+    }
+
+    long dueHorizon() {
+        return dueHorizon;
+    }
+
+    /**
+     * Moves a task's counts from the cells of {@code previous} to those of
+     * {@code next}; either may be {@code null} for an insert or a delete.
+     */
+    void update(CompactTask previous, CompactTask next) {
+        if (previous != null) {
+            add(previous, -1);
+        }
+        if (next != null) {
+            add(next, 1);
+        }
+    }
+
+    /**
+     * Counts {@code entry} as overdue while the horizon moves past its due date.
+     */
+    void cameDue(CompactTask entry) {
+        if (entry.status() != null && entry.priority() != null) {
+            overdue[cell(entry)].increment();
+        }
+    }
+
+    /**
+     * Moves the due horizon to {@code horizon}, once every task due before it
+     * has been passed to {@link #cameDue}.
+     */
+    void advance(long horizon) {
+        dueHorizon = horizon;
+    }
+
+    /**
+     * The counts, with tasks due before {@code now} as overdue. The horizon
+     * must not move meanwhile.
+     *
+     * @param dueSinceHorizon The keys of the tasks due from the horizon up to {@code now}
+     * @param entries Looks up the stored task of an id, or {@code null}
+     */
+    TaskStatistics snapshot(long now, Iterator<DueDateKey> dueSinceHorizon, Function<UUID, CompactTask> entries) {
+        Map<Task.Status, Map<Task.Priority, Long>> late = read(overdue);
+        while (dueSinceHorizon.hasNext()) {
+            CompactTask entry = entries.apply(dueSinceHorizon.next().id());
+            // A task written meanwhile may have moved since the index listed it.
+            if (entry != null && entry.status() != null && entry.priority() != null
+                    && entry.dueDate() >= dueHorizon && entry.dueDate() < now) {
+                late.get(entry.status()).merge(entry.priority(), 1L, Long::sum);
+            }
+        }
+        return new TaskStatistics(read(all), late, Math.max(now, dueHorizon));
+    }
+
+    private void add(CompactTask entry, int delta) {
+        if (entry.status() == null || entry.priority() == null) {
+            return;
+        }
+        int cell = cell(entry);
+        all[cell].add(delta);
+        if (entry.dueDate() != CompactTask.NO_TIME && entry.dueDate() < dueHorizon) {
+            overdue[cell].add(delta);
+        }
+    }
+
+    private static int cell(CompactTask entry) {
+        return entry.status().ordinal() * PRIORITIES.length + entry.priority().ordinal();
+    }
+
+    private static Map<Task.Status, Map<Task.Priority, Long>> read(LongAdder[] grid) {
+        Map<Task.Status, Map<Task.Priority, Long>> counts = new EnumMap<>(Task.Status.class);
+        for (Task.Status status : STATUSES) {
+            Map<Task.Priority, Long> row = new EnumMap<>(Task.Priority.class);
+            for (Task.Priority priority : PRIORITIES) {
+                row.put(priority, grid[status.ordinal() * PRIORITIES.length + priority.ordinal()].sum());
+            }
+            counts.put(status, row);
+        }
+        return counts;
+    }
+
+    private static LongAdder[] newGrid() {
+        LongAdder[] grid = new LongAdder[STATUSES.length * PRIORITIES.length];
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = new LongAdder();
+        }
+        return grid;
+    }
+}
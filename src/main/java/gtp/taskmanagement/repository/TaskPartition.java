@@ -0,0 +1,107 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The tasks one node of a cluster holds, as seen by {@link ClusterTaskRepository}:
+ * either this node's own store or a peer reached over HTTP.
+ * <p>
+ * Every operation applies to that node's tasks only; routing by owner and
+ * merging across nodes is left to the caller. Operations on a peer fail with
+ * {@link gtp.taskmanagement.exception.NodeUnavailableException} when it cannot
+ * be reached.
+ * </p>
+ */
+interface TaskPartition {
+
+    /**
+     * Version to pass to {@link #save} to store the task whatever its current version.
+     */
+    long ANY_VERSION = -1;
+
+    /**
+     * The name of the node, its base URL.
+     */
+    String node();
+
+    /**
+     * Answers a ping with what peers keep track of between requests.
+     */
+    Heartbeat heartbeat();
+
+    Optional<Task> findById(UUID id);
+
+    Optional<TaskVersion> findVersion(UUID id);
+
+    List<Task> findAllById(Collection<UUID> ids);
+
+    /**
+     * Saves {@code task} like {@link TaskRepository#compareAndSave}, or like
+     * {@link TaskRepository#save} when {@code expectedVersion} is {@link #ANY_VERSION}.
+     */
+    Task save(Task task, long expectedVersion);
+
+    List<Task> saveAll(List<Task> tasks);
+
+    boolean deleteById(UUID id);
+
+    Set<UUID> deleteAllById(Collection<UUID> ids);
+
+    /**
+     * Stores tasks handed over from another node, keeping their versions,
+     * unless this node already holds the same or a newer version of a task.
+     */
+    void adopt(List<Task> tasks);
+
+    /**
+     * Every task of the node with the given status and priority.
+     *
+     * @param status The status to match, or {@code null} for any
+     * @param priority The priority to match, or {@code null} for any
+     */
+    List<Task> scan(Task.Status status, Task.Priority priority);
+
+    List<Task> query(TaskQuery query, UUID after, int limit);
+
+    List<Task> queryByDueDate(TaskQuery query, DueDateKey after, int limit);
+
+    /**
+     * Ranks the node's tasks matching {@code text}, scored as if the whole
+     * cluster held {@code documents} tasks.
+     */
+    List<TextIndex.Hit> rank(String text, int limit, long documents);
+
+    Map<String, Long> countByTag();
+
+    Summary summary();
+
+    TaskStatistics statistics();
+
+    /**
+     * Counts of one node.
+     *
+     * @param count Number of tasks
+     * @param epoch The node's {@link TaskRepository#modificationEpoch()}
+     * @param byStatus Number of tasks per status, indexed by ordinal
+     * @param byPriority Number of tasks per priority, indexed by ordinal
+     */
+    record Summary(long count, long epoch, long[] byStatus, long[] byPriority) {
+    }
+
+    /**
+     * A node's answer to a ping.
+     *
+     * @param incarnation A value chosen at random when the node starts, so that a restart can be
+     *                    told apart from a node that merely stopped answering for a while
+     * @param epoch The node's {@link TaskRepository#modificationEpoch()}
+     */
+    record Heartbeat(long incarnation, long epoch) {
+    }
+}
@@ -0,0 +1,41 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+
+import java.util.Set;
+
+/**
+ * Criteria of a combined task query. A task matches when it meets every
+ * criterion given; a query without criteria matches every task.
+ *
+ * @param statuses Statuses to accept, or {@code null} for any
+ * @param priorities Priorities to accept, or {@code null} for any
+ * @param tags Tags to match, or {@code null}
+ * @param allTags Whether a task must carry every one of {@code tags} rather than at least one
+ * @param dueFrom Start of the due-date range in epoch milliseconds (inclusive), or {@code null}
+ * @param dueTo End of the due-date range in epoch milliseconds (exclusive), or {@code null};
+ *              when either bound is given, tasks without a due date never match
+ * @param text Words that must each match a word of the title or description, exactly
+ *             or as a prefix, or {@code null}
+ */
+public record TaskQuery(
+        Set<Task.Status> statuses,
+        Set<Task.Priority> priorities,
+        Set<String> tags,
+        boolean allTags,
+        Long dueFrom,
+        Long dueTo,
+        String text
+) {
+
+    public TaskQuery {
+        statuses = statuses == null || statuses.isEmpty() ? null : Set.copyOf(statuses);
+        priorities = priorities == null || priorities.isEmpty() ? null : Set.copyOf(priorities);
+        tags = tags == null || tags.isEmpty() ? null : Set.copyOf(tags);
+        text = text == null || text.isBlank() ? null : text;
+    }
+
+    boolean hasDueRange() {
+        return dueFrom != null || dueTo != null;
+    }
+}
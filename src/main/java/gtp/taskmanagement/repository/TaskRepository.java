@@ -10,8 +10,11 @@
 package gtp.taskmanagement.repository;
 
 import gtp.taskmanagement.model.Task;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface TaskRepository {
@@ -21,6 +24,18 @@ public interface TaskRepository {
      */
     List<Task> findAll();
 
+    /**
+     * Retrieves one page of tasks ordered by id.
+     * <p>
+     * Implementations should seek directly to {@code after} and walk forward
+     * rather than materializing the whole store.
+     * </p>
+     * @param after The id of the last task on the previous page, or {@code null} for the first page
+     * @param limit The maximum number of tasks to return (must be positive)
+     * @return Up to {@code limit} tasks with ids strictly greater than {@code after}
+     */
+    List<Task> findPage(UUID after, int limit);
+
     /**
      * Finds a task by its unique identifier.
      * @param id The UUID of the task to find
@@ -28,6 +43,43 @@ public interface TaskRepository {
      */
     Optional<Task> findById(UUID id);
 
+    /**
+     * Reads the version and last-modified time of a task without loading it,
+     * so callers can answer conditional requests cheaply.
+     * @param id The UUID of the task
+     * @return Optional containing the task's validators if found, empty otherwise
+     */
+    Optional<TaskVersion> findVersion(UUID id);
+
+    /**
+     * Returns a counter that grows with every write to the store.
+     * <p>
+     * The counter is advanced only after a write is visible to readers, so a
+     * caller that reads the counter before running a query knows the result
+     * reflects every write counted so far: if the counter has not moved, a
+     * repeated query returns the same result.
+     * </p>
+     * <p>
+     * Each store starts its counter at a random value, so an epoch seen before
+     * a restart is not reached again after it.
+     * </p>
+     * <p>
+     * Callers only compare epochs for equality. {@link ClusterTaskRepository}
+     * answers a digest of its members' epochs instead, which changes with every
+     * write but does not grow, and sees writes through other nodes up to a
+     * heartbeat late.
+     * </p>
+     * @return The current modification epoch
+     */
+    long modificationEpoch();
+
+    /**
+     * Finds several tasks by their unique identifiers in one call.
+     * @param ids The UUIDs of the tasks to find
+     * @return The tasks that exist, in the order of {@code ids}; unknown ids are skipped
+     */
+    List<Task> findAllById(Collection<UUID> ids);
+
     /**
      * Saves a task to the repository.
      * <p>
@@ -39,12 +91,53 @@ public interface TaskRepository {
      */
     Task save(Task task);
 
+    /**
+     * Saves several tasks in one pass, with the same semantics as {@link #save(Task)}
+     * for each of them. Implementations may amortize per-write costs such as
+     * durability syncs over the whole batch.
+     * @param tasks The tasks to save
+     * @return The saved tasks, in the order of {@code tasks}
+     */
+    List<Task> saveAll(Collection<Task> tasks);
+
+    /**
+     * Replaces an existing task only if it has not changed since it was read.
+     * <p>
+     * The check and the write are atomic for this task; the stored version is
+     * incremented on success.
+     * </p>
+     * @param task The new state of the task (its ID identifies the task to replace)
+     * @param expectedVersion The version the task had when it was read
+     * @return The saved task, carrying its new version
+     * @throws gtp.taskmanagement.exception.TaskNotFoundException if no task exists with the task's ID
+     * @throws gtp.taskmanagement.exception.TaskVersionConflictException if the stored version differs from {@code expectedVersion}
+     */
+    Task compareAndSave(Task task, long expectedVersion);
+
+    /**
+     * Replaces several tasks, each only if it is still at the version it
+     * carries, as {@link #compareAndSave(Task, long)} would. A task that
+     * changed or disappeared since it was read is skipped rather than failing
+     * the batch. Implementations may amortize per-write costs as in
+     * {@link #saveAll(Collection)}.
+     * @param tasks The new states of the tasks, each carrying the version it was read at
+     * @return The saved tasks in the order of {@code tasks}, with {@code null} for each skipped task
+     */
+    List<Task> compareAndSaveAll(Collection<Task> tasks);
+
     /**
      * Deletes a task by its unique identifier.
      * @param id The UUID of the task to delete
-     * @throws IllegalArgumentException if no task exists with the given ID
+     * @return Whether a task was deleted; {@code false} if none had the given ID
      */
-    void deleteById(UUID id);
+    boolean deleteById(UUID id);
+
+    /**
+     * Deletes several tasks in one pass.
+     * @param ids The UUIDs of the tasks to delete
+     * @return The ids that referred to an existing task and were deleted
+     */
+    Set<UUID> deleteAllById(Collection<UUID> ids);
 
     /**
      * Finds all tasks with the specified status.
@@ -53,10 +146,127 @@ public interface TaskRepository {
      */
     List<Task> findByStatus(Task.Status status);
 
+    /**
+     * Retrieves one page of tasks with the specified status, ordered by id.
+     * @param status The status to filter by (cannot be null)
+     * @param after The id of the last task on the previous page, or {@code null} for the first page
+     * @param limit The maximum number of tasks to return (must be positive)
+     * @return Up to {@code limit} matching tasks with ids strictly greater than {@code after}
+     */
+    List<Task> findByStatus(Task.Status status, UUID after, int limit);
+
     /**
      * Finds all tasks with the specified priority.
      * @param priority The priority to filter by (cannot be null)
      * @return List of matching tasks (empty list if none found)
      */
     List<Task> findByPriority(Task.Priority priority);
+
+    /**
+     * Retrieves one page of tasks with the specified priority, ordered by id.
+     * @param priority The priority to filter by (cannot be null)
+     * @param after The id of the last task on the previous page, or {@code null} for the first page
+     * @param limit The maximum number of tasks to return (must be positive)
+     * @return Up to {@code limit} matching tasks with ids strictly greater than {@code after}
+     */
+    List<Task> findByPriority(Task.Priority priority, UUID after, int limit);
+
+    /**
+     * Retrieves one page of tasks carrying at least one of the given tags, ordered by id.
+     * @param tags The tags to match (unknown tags are ignored)
+     * @param after The id of the last task on the previous page, or {@code null} for the first page
+     * @param limit The maximum number of tasks to return (must be positive)
+     * @return Up to {@code limit} matching tasks with ids strictly greater than {@code after}
+     */
+    List<Task> findByAnyTag(Collection<String> tags, UUID after, int limit);
+
+    /**
+     * Retrieves one page of tasks carrying every one of the given tags, ordered by id.
+     * @param tags The tags to match (an unknown tag matches nothing)
+     * @param after The id of the last task on the previous page, or {@code null} for the first page
+     * @param limit The maximum number of tasks to return (must be positive)
+     * @return Up to {@code limit} matching tasks with ids strictly greater than {@code after}
+     */
+    List<Task> findByAllTags(Collection<String> tags, UUID after, int limit);
+
+    /**
+     * Retrieves one page of tasks due within a time range, ordered by due date then id.
+     * Tasks without a due date are never returned.
+     * @param from The start of the range in epoch milliseconds (inclusive)
+     * @param to The end of the range in epoch milliseconds (exclusive)
+     * @param statuses The statuses to include
+     * @param after The position of the last task on the previous page, or {@code null} for the first page
+     * @param limit The maximum number of tasks to return (must be positive)
+     * @return Up to {@code limit} matching tasks positioned strictly after {@code after}
+     */
+    List<Task> findByDueDate(long from, long to, Collection<Task.Status> statuses, DueDateKey after, int limit);
+
+    /**
+     * Retrieves one page of tasks matching every criterion of {@code query}, ordered by id.
+     * <p>
+     * Implementations should drive the walk from the most selective criterion
+     * they can look up and check the others per task, rather than fetching the
+     * tasks matching each criterion and intersecting them.
+     * </p>
+     * @param query The criteria to match
+     * @param after The id of the last task on the previous page, or {@code null} for the first page
+     * @param limit The maximum number of tasks to return (must be positive)
+     * @return Up to {@code limit} matching tasks with ids strictly greater than {@code after}
+     */
+    List<Task> query(TaskQuery query, UUID after, int limit);
+
+    /**
+     * Retrieves one page of tasks matching every criterion of {@code query},
+     * ordered by due date then id, like {@link #query}. Tasks without a due
+     * date are never returned.
+     * @param query The criteria to match
+     * @param after The position of the last task on the previous page, or {@code null} for the first page
+     * @param limit The maximum number of tasks to return (must be positive)
+     * @return Up to {@code limit} matching tasks positioned strictly after {@code after}
+     */
+    List<Task> queryByDueDate(TaskQuery query, DueDateKey after, int limit);
+
+    /**
+     * Searches task titles and descriptions. Every word of the query must match,
+     * either exactly or as the prefix of a word in the task.
+     * @param query Free text to search for
+     * @param limit The maximum number of tasks to return (must be positive)
+     * @return Up to {@code limit} matching tasks, best match first
+     */
+    List<Task> search(String query, int limit);
+
+    /**
+     * Counts tasks per tag.
+     * @return Number of tasks carrying each tag, for every tag used by at least one task
+     */
+    Map<String, Long> countByTag();
+
+    /**
+     * Counts all stored tasks. Runs in constant time.
+     * @return Number of tasks in the store
+     */
+    long count();
+
+    /**
+     * Counts tasks with the specified status. Runs in constant time.
+     * @param status The status to count (cannot be null)
+     * @return Number of tasks with that status
+     */
+    long countByStatus(Task.Status status);
+
+    /**
+     * Counts tasks with the specified priority. Runs in constant time.
+     * @param priority The priority to count (cannot be null)
+     * @return Number of tasks with that priority
+     */
+    long countByPriority(Task.Priority priority);
+
+    /**
+     * Counts tasks by status and priority, in total and among those already due.
+     * Takes constant time, apart from counting the tasks that came due since
+     * the store last moved its due horizon, about a second ago at most. Never
+     * holds off writers.
+     * @return Counts of the whole store, with overdue tasks counted up to now
+     */
+    TaskStatistics statistics();
 }
\ No newline at end of file
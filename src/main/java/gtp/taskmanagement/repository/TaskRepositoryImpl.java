@@ -1,62 +1,664 @@
 package gtp.taskmanagement.repository;
 
+import gtp.taskmanagement.exception.TaskNotFoundException;
+import gtp.taskmanagement.exception.TaskVersionConflictException;
 import gtp.taskmanagement.model.Task;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
 
+/**
+ * In-memory {@link TaskRepository} backed by a {@link ConcurrentHashMap}.
+ * <p>
+ * Tasks are stored as immutable {@link CompactTask} snapshots with tags encoded
+ * through a shared {@link TagDictionary}. Writes swap in a new snapshot under
+ * the map's per-key {@code compute}; reads take no lock and only materialize a
+ * fresh {@link Task} that shares the snapshot's immutable strings, so callers never share mutable state with the store.
+ * </p>
+ * <p>
+ * Status, priority and tag lookups are served from secondary indexes (one
+ * {@link PostingList} per enum constant or tag) so a filter costs about as much
+ * as the number of matching tasks rather than the size of the whole store. The indexes are
+ * maintained inside the per-key {@code compute} of {@link #save(Task)} and
+ * {@link #deleteById(UUID)}, where the record being replaced tells which index
+ * entries to move, which keeps them consistent with the stored entry.
+ * </p>
+ * <p>
+ * Posting lists are sorted by id, as is the list of all ids, so pages can be
+ * served by seeking to the cursor and walking forward, without copying the rest
+ * of the store.
+ * </p>
+ * <p>
+ * Due dates are kept in a {@link DueDateIndex}, sorted by date within each
+ * status, so overdue and upcoming-window queries seek straight to the start of
+ * their range.
+ * </p>
+ * <p>
+ * Titles and descriptions are tokenized into a {@link TextIndex} for ranked
+ * full-text search.
+ * </p>
+ * <p>
+ * Queries combining several criteria are planned by a {@link QueryPlanner},
+ * which drives them from the most selective of these indexes.
+ * </p>
+ * <p>
+ * Every write bumps a store-wide modification counter after the new snapshot
+ * is visible; see {@link #modificationEpoch()}. It also moves the task
+ * between the cells of the {@link TaskCounters} grid, which answers
+ * {@link #statistics()} without looking at any task.
+ * </p>
+ * <p>
+ * This is the default store ({@code task.store.mode=memory}); other modes extend
+ * it through the {@link #onSave(Task)} and {@link #onDelete(UUID)} hooks.
+ * </p>
+ */
 @Repository
+@ConditionalOnProperty(name = "task.store.mode", havingValue = "memory", matchIfMissing = true)
 public class TaskRepositoryImpl implements TaskRepository {
-    private final Map<UUID, Task> tasks = new ConcurrentHashMap<>();
+    private static final long ANY_VERSION = -1;
+
+    private final Map<UUID, CompactTask> tasks = new ConcurrentHashMap<>();
+    private final TagDictionary tagDictionary = new TagDictionary();
+    private final PostingList ids = new PostingList();
+    private final Map<Task.Status, PostingList> statusIndex = new EnumMap<>(Task.Status.class);
+    private final Map<Task.Priority, PostingList> priorityIndex = new EnumMap<>(Task.Priority.class);
+    private final Map<Integer, PostingList> tagIndex = new ConcurrentHashMap<>();
+    private final DueDateIndex dueDateIndex = new DueDateIndex();
+    private final TextIndex textIndex = new TextIndex();
+    private final LongAdder modifications = modificationCounter();
+    private final TaskCounters counters = new TaskCounters(System.currentTimeMillis());
+    /**
+     * Held shared by writers and statistics readers, and exclusively while the
+     * due horizon of {@link #counters} moves, so no write sees it change halfway.
+     */
+    private final ReadWriteLock dueHorizonLock = new ReentrantReadWriteLock();
+    private final QueryPlanner planner = new QueryPlanner(
+            tasks, tagDictionary, ids, statusIndex, priorityIndex, tagIndex, dueDateIndex, textIndex);
+
+    public TaskRepositoryImpl() {
+        for (Task.Status status : Task.Status.values()) {
+            statusIndex.put(status, new PostingList());
+        }
+        for (Task.Priority priority : Task.Priority.values()) {
+            priorityIndex.put(priority, new PostingList());
+        }
+        DueHorizonTicker.schedule(this, TaskRepositoryImpl::advanceDueHorizon);
+    }
 
     @Override
     public List<Task> findAll() {
-        return new ArrayList<>(tasks.values());
+        List<Task> result = new ArrayList<>(tasks.size());
+        for (CompactTask entry : tasks.values()) {
+            result.add(entry.toTask(tagDictionary));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> findPage(UUID after, int limit) {
+        return page(ids.iterator(after), limit, entry -> true);
     }
 
     @Override
     public Optional<Task> findById(UUID id) {
-        return Optional.ofNullable(tasks.get(id));
+        CompactTask entry = tasks.get(id);
+        return entry != null ? Optional.of(entry.toTask(tagDictionary)) : Optional.empty();
+    }
+
+    @Override
+    public Optional<TaskVersion> findVersion(UUID id) {
+        CompactTask entry = tasks.get(id);
+        return entry != null ? Optional.of(new TaskVersion(entry.version(), entry.lastModified())) : Optional.empty();
+    }
+
+    @Override
+    public long modificationEpoch() {
+        return modifications.sum();
+    }
+
+    /**
+     * A write counter starting at a random value, so that a restarted store,
+     * whose counter starts over, does not hand out the epochs (and collection
+     * ETags) of its previous run again. The base stays below 2^52 so that sums
+     * over shards, tiers and nodes cannot overflow.
+     */
+    static LongAdder modificationCounter() {
+        LongAdder counter = new LongAdder();
+        counter.add(ThreadLocalRandom.current().nextLong(1L << 52));
+        return counter;
+    }
+
+    @Override
+    public List<Task> findAllById(Collection<UUID> ids) {
+        List<Task> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            CompactTask entry = tasks.get(id);
+            if (entry != null) {
+                result.add(entry.toTask(tagDictionary));
+            }
+        }
+        return result;
     }
 
     @Override
     public Task save(Task task) {
-        if (task.getId() == null) {
-            task = new Task(
-                    UUID.randomUUID(),
-                    task.getTitle(),
-                    task.getDescription(),
-                    task.getPriorityAsString(),
-                    task.getStatusAsString(),
-                    task.getDueDate(),
-                    task.getTags()
-            );
+        return store(task, ANY_VERSION);
+    }
+
+    @Override
+    public List<Task> saveAll(Collection<Task> batch) {
+        List<Task> saved = new ArrayList<>(batch.size());
+        for (Task task : batch) {
+            saved.add(store(task, ANY_VERSION));
         }
-        tasks.put(task.getId(), task);
-        return task;
+        return saved;
+    }
+
+    @Override
+    public Task compareAndSave(Task task, long expectedVersion) {
+        return store(task, expectedVersion);
+    }
+
+    @Override
+    public List<Task> compareAndSaveAll(Collection<Task> batch) {
+        List<Task> saved = new ArrayList<>(batch.size());
+        for (Task task : batch) {
+            try {
+                saved.add(store(task, task.getVersion()));
+            } catch (TaskNotFoundException | TaskVersionConflictException e) {
+                saved.add(null);
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    public boolean deleteById(UUID id) {
+        return remove(id, ANY_VERSION);
     }
 
     @Override
-    public void deleteById(UUID id) {
-        tasks.remove(id);
+    public Set<UUID> deleteAllById(Collection<UUID> ids) {
+        Set<UUID> deleted = new HashSet<>();
+        for (UUID id : ids) {
+            if (remove(id, ANY_VERSION)) {
+                deleted.add(id);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Stores a task read back from durable storage as-is, keeping its version,
+     * without calling {@link #onSave(Task)}.
+     */
+    void restore(Task task) {
+        put(task, false);
+    }
+
+    /**
+     * Stores a task handed over by another store as-is, keeping its version,
+     * unless this store already holds the same or a newer version of it.
+     *
+     * @return Whether the task was stored
+     */
+    boolean adopt(Task task) {
+        return put(task, true);
+    }
+
+    /**
+     * Removes the task with {@code id} only if it is still at {@code version},
+     * so that a write racing with a hand-over to another store is not lost.
+     *
+     * @return Whether the task was removed
+     */
+    boolean evict(UUID id, long version) {
+        return remove(id, version);
+    }
+
+    /**
+     * Gives {@code task} a new random id if it has none, so that stores
+     * partitioning tasks by id can route a new task before saving it.
+     */
+    static Task withId(Task task) {
+        if (task.getId() != null) {
+            return task;
+        }
+        return new Task(
+                UUID.randomUUID(),
+                task.getTitle(),
+                task.getDescription(),
+                task.getPriorityAsString(),
+                task.getStatusAsString(),
+                task.getDueDate(),
+                task.getTags()
+        );
+    }
+
+    private boolean put(Task task, boolean onlyIfNewer) {
+        boolean[] stored = new boolean[1];
+        dueHorizonLock.readLock().lock();
+        try {
+            tasks.compute(task.getId(), (id, previous) -> {
+                if (onlyIfNewer && previous != null && previous.version() >= task.getVersion()) {
+                    return previous;
+                }
+                CompactTask next = CompactTask.of(task, tagDictionary, task.getVersion(), previous);
+                reindex(id, previous, next);
+                if (previous == null) {
+                    ids.add(id);
+                }
+                stored[0] = true;
+                return next;
+            });
+        } finally {
+            dueHorizonLock.readLock().unlock();
+        }
+        if (stored[0]) {
+            modifications.increment();
+        }
+        return stored[0];
+    }
+
+    /**
+     * Stores {@code task}, assigning an id if it has none and the next version,
+     * and updates every index. Shared by the single, batch and compare-and-set
+     * forms so subclasses can wrap each of them independently.
+     * <p>
+     * The version check and the write happen in one {@code compute}, which
+     * only locks the map bin holding this id; writers to other tasks never
+     * wait on a contended task.
+     * </p>
+     *
+     * @param expectedVersion The version the stored task must have, or {@link #ANY_VERSION}
+     * @throws TaskNotFoundException if a version is expected but the task does not exist
+     * @throws TaskVersionConflictException if the stored version differs from the expected one
+     */
+    private Task store(Task task, long expectedVersion) {
+        Task toStore = withId(task);
+        Task[] saved = new Task[1];
+        dueHorizonLock.readLock().lock();
+        try {
+            tasks.compute(toStore.getId(), (id, previous) -> {
+                if (expectedVersion != ANY_VERSION) {
+                    if (previous == null) {
+                        throw new TaskNotFoundException("Task not found with id: " + id);
+                    }
+                    if (previous.version() != expectedVersion) {
+                        throw new TaskVersionConflictException(id, expectedVersion, previous.version());
+                    }
+                }
+                long version = previous != null ? previous.version() + 1 : 1;
+                CompactTask next = CompactTask.of(toStore, tagDictionary, version, previous);
+                saved[0] = next.toTask(tagDictionary);
+                // Journal first: if that fails, compute leaves the map as it was and no index has moved yet.
+                onSave(saved[0]);
+                reindex(id, previous, next);
+                if (previous == null) {
+                    ids.add(id);
+                }
+                return next;
+            });
+        } finally {
+            dueHorizonLock.readLock().unlock();
+        }
+        modifications.increment();
+        return saved[0];
+    }
+
+    /**
+     * Removes the task with {@code id} and its index entries.
+     *
+     * @param expectedVersion The version the stored task must have, or {@link #ANY_VERSION}
+     * @return Whether a task was removed
+     */
+    private boolean remove(UUID id, long expectedVersion) {
+        boolean[] removed = new boolean[1];
+        dueHorizonLock.readLock().lock();
+        try {
+            tasks.computeIfPresent(id, (key, previous) -> {
+                if (expectedVersion != ANY_VERSION && previous.version() != expectedVersion) {
+                    return previous;
+                }
+                onDelete(key);
+                reindex(key, previous, null);
+                ids.remove(key);
+                removed[0] = true;
+                return null;
+            });
+        } finally {
+            dueHorizonLock.readLock().unlock();
+        }
+        if (removed[0]) {
+            modifications.increment();
+        }
+        return removed[0];
     }
 
     @Override
     public List<Task> findByStatus(Task.Status status) {
-        return tasks.values().stream()
-                .filter(task -> status.equals(task.getStatus()))
-                .toList();
+        Iterator<UUID> matching = statusIndex.get(status).iterator(null);
+        List<Task> result = new ArrayList<>();
+        while (matching.hasNext()) {
+            UUID id = matching.next();
+            CompactTask entry = tasks.get(id);
+            if (entry != null && entry.status() == status) {
+                result.add(entry.toTask(tagDictionary));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> findByStatus(Task.Status status, UUID after, int limit) {
+        return page(statusIndex.get(status).iterator(after), limit, entry -> entry.status() == status);
     }
 
     @Override
     public List<Task> findByPriority(Task.Priority priority) {
-        return tasks.values().stream()
-                .filter(task -> priority.equals(task.getPriority()))
-                .toList();
+        Iterator<UUID> matching = priorityIndex.get(priority).iterator(null);
+        List<Task> result = new ArrayList<>();
+        while (matching.hasNext()) {
+            UUID id = matching.next();
+            CompactTask entry = tasks.get(id);
+            if (entry != null && entry.priority() == priority) {
+                result.add(entry.toTask(tagDictionary));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> findByPriority(Task.Priority priority, UUID after, int limit) {
+        return page(priorityIndex.get(priority).iterator(after), limit, entry -> entry.priority() == priority);
+    }
+
+    @Override
+    public List<Task> findByAnyTag(Collection<String> tags, UUID after, int limit) {
+        List<PostingList> lists = new ArrayList<>();
+        Set<Integer> tagIds = new HashSet<>();
+        for (String tag : tags) {
+            Integer tagId = tagDictionary.findId(tag);
+            PostingList list = tagId != null ? tagIndex.get(tagId) : null;
+            if (list != null && tagIds.add(tagId)) {
+                lists.add(list);
+            }
+        }
+        if (lists.isEmpty()) {
+            return List.of();
+        }
+        return page(PostingList.union(lists, after), limit, entry -> hasAnyTag(entry, tagIds));
+    }
+
+    @Override
+    public List<Task> findByAllTags(Collection<String> tags, UUID after, int limit) {
+        List<PostingList> lists = new ArrayList<>();
+        Set<Integer> tagIds = new HashSet<>();
+        for (String tag : tags) {
+            Integer tagId = tagDictionary.findId(tag);
+            PostingList list = tagId != null ? tagIndex.get(tagId) : null;
+            if (list == null) {
+                return List.of();
+            }
+            if (tagIds.add(tagId)) {
+                lists.add(list);
+            }
+        }
+        if (lists.isEmpty()) {
+            return List.of();
+        }
+        return page(PostingList.intersection(lists, after), limit, entry -> hasAllTags(entry, tagIds));
+    }
+
+    @Override
+    public List<Task> findByDueDate(long from, long to, Collection<Task.Status> statuses, DueDateKey after, int limit) {
+        if (statuses.isEmpty()) {
+            return List.of();
+        }
+        Iterator<DueDateKey> candidates = dueDateIndex.range(from, to, EnumSet.copyOf(statuses), after);
+        List<Task> result = new ArrayList<>(Math.min(limit, 256));
+        while (result.size() < limit && candidates.hasNext()) {
+            DueDateKey key = candidates.next();
+            CompactTask entry = tasks.get(key.id());
+            if (entry != null && entry.dueDate() == key.dueDate() && statuses.contains(entry.status())) {
+                result.add(entry.toTask(tagDictionary));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> query(TaskQuery query, UUID after, int limit) {
+        return planner.byId(query, after, limit);
+    }
+
+    @Override
+    public List<Task> queryByDueDate(TaskQuery query, DueDateKey after, int limit) {
+        return planner.byDueDate(query, after, limit);
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        List<Task> result = new ArrayList<>();
+        for (UUID id : textIndex.search(query, limit, tasks.size())) {
+            CompactTask entry = tasks.get(id);
+            if (entry != null) {
+                result.add(entry.toTask(tagDictionary));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ranks the tasks matching {@code query} like {@link #search}, keeping their
+     * scores, so that the results of several stores can be merged.
+     *
+     * @param documents The number of tasks across all those stores
+     */
+    List<TextIndex.Hit> rank(String query, int limit, long documents) {
+        return textIndex.rank(query, limit, documents);
+    }
+
+    @Override
+    public Map<String, Long> countByTag() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<Integer, PostingList> entry : tagIndex.entrySet()) {
+            long size = entry.getValue().size();
+            String tag = tagDictionary.tag(entry.getKey());
+            if (size > 0 && tag != null) {
+                counts.put(tag, size);
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public long count() {
+        return ids.size();
+    }
+
+    @Override
+    public long countByStatus(Task.Status status) {
+        return statusIndex.get(status).size();
+    }
+
+    @Override
+    public long countByPriority(Task.Priority priority) {
+        return priorityIndex.get(priority).size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Shares {@link #dueHorizonLock} with writers, so it never holds them off.
+     * Only the tasks that came due since the last tick of the
+     * {@link DueHorizonTicker} are walked, at most a second's worth.
+     * </p>
+     */
+    @Override
+    public TaskStatistics statistics() {
+        long now = System.currentTimeMillis();
+        dueHorizonLock.readLock().lock();
+        try {
+            Iterator<DueDateKey> cameDue =
+                    dueDateIndex.range(counters.dueHorizon(), now, EnumSet.allOf(Task.Status.class), null);
+            return counters.snapshot(now, cameDue, tasks::get);
+        } finally {
+            dueHorizonLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the due horizon of the statistics up to now, walking the tasks
+     * that came due since the previous tick. Writers are held off meanwhile.
+     */
+    void advanceDueHorizon() {
+        long now = System.currentTimeMillis();
+        if (now > counters.dueHorizon()) {
+            dueHorizonLock.writeLock().lock();
+            try {
+                long from = counters.dueHorizon();
+                if (now > from) {
+                    Iterator<DueDateKey> cameDue = dueDateIndex.range(from, now, EnumSet.allOf(Task.Status.class), null);
+                    while (cameDue.hasNext()) {
+                        counters.cameDue(tasks.get(cameDue.next().id()));
+                    }
+                    counters.advance(now);
+                }
+            } finally {
+                dueHorizonLock.writeLock().unlock();
+            }
+        }
     }
 
     public void clear() {
-        tasks.clear();
+        for (UUID id : tasks.keySet()) {
+            deleteById(id);
+        }
+    }
+
+    /**
+     * Called before {@code task} is stored and indexed, carrying the version it
+     * is stored under, from within the per-key {@code compute}, so successive
+     * calls for the same task arrive in the order the writes are applied.
+     * Subclasses may use it to journal writes; if it throws, the write is not
+     * applied and no index changes. It must not call back into this repository.
+     */
+    protected void onSave(Task task) {
+    }
+
+    /**
+     * Called before the task with {@code id} is removed and unindexed, under
+     * the same ordering guarantee as {@link #onSave(Task)}.
+     */
+    protected void onDelete(UUID id) {
+    }
+
+    /**
+     * Walks {@code candidates} (ids in ascending order) and collects up to
+     * {@code limit} stored tasks that still satisfy {@code filter}. The filter
+     * re-checks the stored record because an index entry may briefly refer to
+     * a task that is being updated.
+     */
+    private List<Task> page(Iterator<UUID> candidates, int limit, Predicate<CompactTask> filter) {
+        List<Task> result = new ArrayList<>(Math.min(limit, 256));
+        while (result.size() < limit && candidates.hasNext()) {
+            UUID id = candidates.next();
+            CompactTask entry = tasks.get(id);
+            if (entry != null && filter.test(entry)) {
+                result.add(entry.toTask(tagDictionary));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Moves the index entries for {@code id} from the values of the
+     * {@code previous} record to those of {@code next}. Either side may be
+     * {@code null} for an insert or a delete. Must be called from within the
+     * map's {@code compute} for {@code id} so updates to the same task are
+     * applied in order.
+     */
+    private void reindex(UUID id, CompactTask previous, CompactTask next) {
+        Task.Status oldStatus = previous != null ? previous.status() : null;
+        Task.Status newStatus = next != null ? next.status() : null;
+        if (oldStatus != newStatus) {
+            if (oldStatus != null) {
+                statusIndex.get(oldStatus).remove(id);
+            }
+            if (newStatus != null) {
+                statusIndex.get(newStatus).add(id);
+            }
+        }
+
+        Task.Priority oldPriority = previous != null ? previous.priority() : null;
+        Task.Priority newPriority = next != null ? next.priority() : null;
+        if (oldPriority != newPriority) {
+            if (oldPriority != null) {
+                priorityIndex.get(oldPriority).remove(id);
+            }
+            if (newPriority != null) {
+                priorityIndex.get(newPriority).add(id);
+            }
+        }
+
+        int[] oldTags = previous != null ? previous.tagIds() : null;
+        int[] newTags = next != null ? next.tagIds() : null;
+        if (oldTags != null) {
+            for (int tagId : oldTags) {
+                if (tagId != TagDictionary.NULL_TAG && !contains(newTags, tagId)) {
+                    tagIndex.get(tagId).remove(id);
+                }
+            }
+        }
+        if (newTags != null) {
+            for (int tagId : newTags) {
+                if (tagId != TagDictionary.NULL_TAG && !contains(oldTags, tagId)) {
+                    tagIndex.computeIfAbsent(tagId, key -> new PostingList()).add(id);
+                }
+            }
+        }
+
+        dueDateIndex.update(id, previous, next);
+        textIndex.update(id, previous, next);
+        counters.update(previous, next);
+    }
+
+    static boolean hasAnyTag(CompactTask entry, Set<Integer> tagIds) {
+        if (entry.tagIds() != null) {
+            for (int tagId : entry.tagIds()) {
+                if (tagIds.contains(tagId)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static boolean hasAllTags(CompactTask entry, Set<Integer> tagIds) {
+        for (int tagId : tagIds) {
+            if (!contains(entry.tagIds(), tagId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(int[] tagIds, int tagId) {
+        if (tagIds != null) {
+            for (int candidate : tagIds) {
+                if (candidate == tagId) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
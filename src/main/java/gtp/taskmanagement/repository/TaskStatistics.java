@@ -0,0 +1,45 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Point-in-time task counts of a store.
+ *
+ * @param counts Number of tasks per status and priority
+ * @param overdue Number of tasks per status and priority due before {@code asOf}
+ * @param asOf The time overdue tasks were counted up to, in epoch milliseconds
+ */
+public record TaskStatistics(
+        Map<Task.Status, Map<Task.Priority, Long>> counts,
+        Map<Task.Status, Map<Task.Priority, Long>> overdue,
+        long asOf
+) {
+
+    /**
+     * Adds up the statistics of several stores holding disjoint sets of tasks.
+     * Overdue tasks are counted up to the earliest time any of them reached.
+     */
+    static TaskStatistics sum(Collection<TaskStatistics> parts) {
+        Map<Task.Status, Map<Task.Priority, Long>> counts = new EnumMap<>(Task.Status.class);
+        Map<Task.Status, Map<Task.Priority, Long>> overdue = new EnumMap<>(Task.Status.class);
+        long asOf = Long.MAX_VALUE;
+        for (TaskStatistics part : parts) {
+            add(counts, part.counts());
+            add(overdue, part.overdue());
+            asOf = Math.min(asOf, part.asOf());
+        }
+        return new TaskStatistics(counts, overdue, parts.isEmpty() ? System.currentTimeMillis() : asOf);
+    }
+
+    private static void add(Map<Task.Status, Map<Task.Priority, Long>> total,
+                            Map<Task.Status, Map<Task.Priority, Long>> part) {
+        part.forEach((status, byPriority) -> {
+            Map<Task.Priority, Long> row = total.computeIfAbsent(status, s -> new EnumMap<>(Task.Priority.class));
+            byPriority.forEach((priority, count) -> row.merge(priority, count, Long::sum));
+        });
+    }
+}
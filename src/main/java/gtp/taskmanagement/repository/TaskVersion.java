@@ -0,0 +1,10 @@
+package gtp.taskmanagement.repository;
+
+/**
+ * Validators of a stored task, readable without materializing the task.
+ *
+ * @param version The stored version of the task
+ * @param lastModified When the task was last updated, in epoch milliseconds
+ */
+public record TaskVersion(long version, long lastModified) {
+}
@@ -0,0 +1,398 @@
+package gtp.taskmanagement.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Inverted index over task titles and descriptions.
+ * <p>
+ * Text is split into lower-cased runs of letters and digits. Each term maps to
+ * the tasks containing it together with a weight (occurrences, title
+ * occurrences counting {@value #TITLE_WEIGHT} times). Terms are kept sorted so
+ * that every query word also matches as a prefix, which is what a search box
+ * typing "deplo" expects.
+ * </p>
+ * <p>
+ * A query returns tasks matching every query word, ranked by the sum over words
+ * of weight times inverse document frequency, with prefix matches scoring below
+ * exact ones. The word with the fewest postings drives the scan and the others
+ * are probed per candidate, so the cost follows the rarest word rather than the
+ * size of the store. Prefix expansion is capped at
+ * {@value #MAX_EXPANSIONS} terms per word and only the best {@code limit}
+ * results are kept.
+ * </p>
+ * <p>
+ * A term is dropped once its last task leaves it, so terms that no task uses
+ * any more are not carried forever. Its posting map is retired under the
+ * map's own lock before it is removed, and an insert that finds a retired map
+ * waits for the fresh one, so a posting added concurrently is never lost.
+ * </p>
+ */
+final class TextIndex {
+
+    static final int TITLE_WEIGHT = 3;
+    static final int MAX_EXPANSIONS = 64;
+    static final int MAX_QUERY_TERMS = 8;
+    private static final int MAX_TERM_LENGTH = 32;
+    static final double PREFIX_BOOST = 0.5;
+
+    private final NavigableMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+
+    /**
+     * Moves {@code id} from the terms of {@code previous} to those of
+     * {@code next}; either may be {@code null}. Must be called under the
+     * repository's per-key ordering.
+     */
+    void update(UUID id, CompactTask previous, CompactTask next) {
+        if (previous != null && next != null
+                && Objects.equals(previous.title(), next.title())
+                && Objects.equals(previous.description(), next.description())) {
+            return;
+        }
+        Map<String, Integer> oldWeights = previous != null ? weights(previous) : Map.of();
+        Map<String, Integer> newWeights = next != null ? weights(next) : Map.of();
+        for (String term : oldWeights.keySet()) {
+            if (!newWeights.containsKey(term)) {
+                remove(term, id);
+            }
+        }
+        for (Map.Entry<String, Integer> entry : newWeights.entrySet()) {
+            if (!entry.getValue().equals(oldWeights.get(entry.getKey()))) {
+                add(entry.getKey(), id, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return The number of terms carried by at least one task
+     */
+    int termCount() {
+        return terms.size();
+    }
+
+    private void add(String term, UUID id, int weight) {
+        while (true) {
+            Postings postings = terms.computeIfAbsent(term, key -> new Postings());
+            synchronized (postings) {
+                if (!postings.retired) {
+                    postings.put(id, weight);
+                    return;
+                }
+            }
+            // Being removed: wait for the remover, then start a fresh map.
+            Thread.onSpinWait();
+        }
+    }
+
+    private void remove(String term, UUID id) {
+        Postings postings = terms.get(term);
+        if (postings == null) {
+            return;
+        }
+        postings.remove(id);
+        if (postings.isEmpty()) {
+            synchronized (postings) {
+                if (postings.isEmpty() && !postings.retired) {
+                    postings.retired = true;
+                    terms.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ranks the tasks matching every word of {@code query}.
+     *
+     * @param documents The number of stored tasks, used for inverse document frequency
+     * @return Up to {@code limit} task ids, best match first
+     */
+    List<UUID> search(String query, int limit, long documents) {
+        List<Hit> hits = rank(query, limit, documents);
+        List<UUID> ids = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            ids.add(hit.id());
+        }
+        return ids;
+    }
+
+    /**
+     * Like {@link #search}, but keeps the score of every task, so that the
+     * results of several indexes can be merged.
+     *
+     * @return Up to {@code limit} hits, best match first
+     */
+    List<Hit> rank(String query, int limit, long documents) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        List<List<Expansion>> groups = new ArrayList<>();
+        for (String word : new HashSet<>(words)) {
+            if (groups.size() == MAX_QUERY_TERMS) {
+                break;
+            }
+            List<Expansion> expansions = expand(word, documents, MAX_EXPANSIONS);
+            if (expansions.isEmpty()) {
+                return List.of();
+            }
+            groups.add(expansions);
+        }
+        groups.sort(Comparator.comparingLong(TextIndex::postingCount));
+
+        List<Expansion> driver = groups.get(0);
+        Set<UUID> visited = driver.size() > 1 ? new HashSet<>() : null;
+        PriorityQueue<Hit> best = new PriorityQueue<>(Hit.WORST_FIRST);
+        for (Expansion expansion : driver) {
+            for (UUID id : expansion.postings().keySet()) {
+                if (visited != null && !visited.add(id)) {
+                    continue;
+                }
+                double score = 0;
+                for (List<Expansion> group : groups) {
+                    double groupScore = score(group, id);
+                    if (groupScore == 0) {
+                        score = 0;
+                        break;
+                    }
+                    score += groupScore;
+                }
+                if (score > 0) {
+                    best.add(new Hit(id, score));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(Hit.BEST_FIRST);
+        return hits;
+    }
+
+    /**
+     * Prepares {@code query} as one criterion of a combined query: tasks are
+     * not ranked, and unlike {@link #search}, every word counts with all of its
+     * expansions. A word with more than {@value #MAX_EXPANSIONS} of them, or
+     * beyond the first {@value #MAX_QUERY_TERMS} words, is not looked up but
+     * checked against the text of each candidate.
+     *
+     * @return The criterion, or {@code null} if the query has no words
+     */
+    Match match(String query) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return null;
+        }
+        List<List<Expansion>> groups = new ArrayList<>();
+        List<String> unindexed = new ArrayList<>();
+        for (String word : new HashSet<>(words)) {
+            List<Expansion> expansions = groups.size() < MAX_QUERY_TERMS
+                    ? expand(word, 1, MAX_EXPANSIONS + 1)
+                    : null;
+            if (expansions != null && expansions.isEmpty()) {
+                return Match.NOTHING;
+            }
+            if (expansions == null || expansions.size() > MAX_EXPANSIONS) {
+                unindexed.add(word);
+            } else {
+                groups.add(expansions);
+            }
+        }
+        groups.sort(Comparator.comparingLong(TextIndex::postingCount));
+        return new Match(groups, unindexed);
+    }
+
+    /**
+     * Splits {@code text} into lower-cased runs of letters and digits, truncating
+     * overly long runs.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        int i = 0;
+        while (i <= text.length()) {
+            int codePoint = i < text.length() ? text.codePointAt(i) : ' ';
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (current.length() < MAX_TERM_LENGTH) {
+                    current.appendCodePoint(Character.toLowerCase(codePoint));
+                }
+            } else if (!current.isEmpty()) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+            i += Character.charCount(codePoint);
+        }
+        return tokens;
+    }
+
+    private static Map<String, Integer> weights(CompactTask task) {
+        return weights(task.title(), task.description());
+    }
+
+    /**
+     * The terms of a task with their weights, as indexed.
+     */
+    static Map<String, Integer> weights(String title, String description) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String term : tokenize(title)) {
+            weights.merge(term, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String term : tokenize(description)) {
+            weights.merge(term, 1, Integer::sum);
+        }
+        return weights;
+    }
+
+    /**
+     * Collects the non-empty terms starting with {@code word}, the exact term
+     * first, up to {@code max} of them.
+     */
+    private List<Expansion> expand(String word, long documents, int max) {
+        List<Expansion> expansions = new ArrayList<>();
+        for (Map.Entry<String, Postings> entry : terms.tailMap(word, true).entrySet()) {
+            if (!entry.getKey().startsWith(word) || expansions.size() == max) {
+                break;
+            }
+            int frequency = entry.getValue().size();
+            if (frequency > 0) {
+                double idf = Math.log(1 + (double) Math.max(documents, frequency) / frequency);
+                double boost = entry.getKey().length() == word.length() ? 1 : PREFIX_BOOST;
+                expansions.add(new Expansion(entry.getValue(), frequency, idf * boost));
+            }
+        }
+        return expansions;
+    }
+
+    private static long postingCount(List<Expansion> group) {
+        long count = 0;
+        for (Expansion expansion : group) {
+            count += expansion.frequency();
+        }
+        return count;
+    }
+
+    /**
+     * Best score of {@code id} among the expansions of one query word, or 0 if
+     * it matches none of them.
+     */
+    private static double score(List<Expansion> group, UUID id) {
+        double best = 0;
+        for (Expansion expansion : group) {
+            Integer weight = expansion.postings().get(id);
+            if (weight != null) {
+                best = Math.max(best, weight * expansion.factor());
+            }
+        }
+        return best;
+    }
+
+    private record Expansion(Map<UUID, Integer> postings, int frequency, double factor) {
+    }
+
+    /**
+     * The tasks carrying one term with their weights. Inserts and retirement
+     * synchronize on the map; lookups do not.
+     */
+    private static final class Postings extends ConcurrentHashMap<UUID, Integer> {
+        private boolean retired;
+    }
+
+    /**
+     * The tasks matching every word of a query, as found by {@link #match}:
+     * the expansions of the words looked up in the index, and the words that
+     * have to be checked against each task's text instead.
+     */
+    static final class Match {
+        /**
+         * Some word matches no task.
+         */
+        private static final Match NOTHING = new Match(null, List.of());
+
+        private final List<List<Expansion>> groups;
+        private final List<String> unindexed;
+
+        private Match(List<List<Expansion>> groups, List<String> unindexed) {
+            this.groups = groups;
+            this.unindexed = unindexed;
+        }
+
+        /**
+         * @return Whether some word was looked up in full, so that {@link #candidates}
+         *         holds every matching task
+         */
+        boolean indexed() {
+            return groups == null || !groups.isEmpty();
+        }
+
+        /**
+         * @return An upper bound of the number of matching tasks: the postings
+         *         of the rarest word looked up; only meaningful if {@link #indexed}
+         */
+        long estimate() {
+            return groups == null ? 0 : postingCount(groups.get(0));
+        }
+
+        /**
+         * @return The tasks carrying the rarest word looked up, in no particular
+         *         order; the other words still have to be checked with {@link #test}.
+         *         Only complete if {@link #indexed}.
+         */
+        Iterator<UUID> candidates() {
+            if (groups == null) {
+                return Collections.emptyIterator();
+            }
+            List<Expansion> driver = groups.get(0);
+            Stream<UUID> ids = driver.stream().flatMap(expansion -> expansion.postings().keySet().stream());
+            return (driver.size() > 1 ? ids.distinct() : ids).iterator();
+        }
+
+        boolean test(UUID id, CompactTask entry) {
+            if (groups == null) {
+                return false;
+            }
+            for (List<Expansion> group : groups) {
+                if (score(group, id) == 0) {
+                    return false;
+                }
+            }
+            if (unindexed.isEmpty()) {
+                return true;
+            }
+            Set<String> words = weights(entry).keySet();
+            for (String prefix : unindexed) {
+                if (words.stream().noneMatch(word -> word.startsWith(prefix))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    record Hit(UUID id, double score) {
+        /**
+         * Lowest score first; among equal scores the greater id is worse, so
+         * ties resolve deterministically by ascending id.
+         */
+        static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+                .thenComparing(Hit::id, Comparator.reverseOrder());
+        static final Comparator<Hit> BEST_FIRST = WORST_FIRST.reversed();
+    }
+}
@@ -0,0 +1,443 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.exception.TaskNotFoundException;
+import gtp.taskmanagement.exception.TaskVersionConflictException;
+import gtp.taskmanagement.model.Task;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-memory {@link TaskRepository} that moves finished tasks to disk, so the
+ * heap holds the tasks still being worked on whole and only a small index
+ * entry for every task done.
+ * <p>
+ * Tasks are saved to a {@link TaskRepositoryImpl}, the hot tier. Every
+ * {@code task.store.cold.archive-interval-seconds} a background thread moves
+ * the completed and failed tasks not updated for
+ * {@code task.store.cold.archive-after-seconds} to a {@link ColdTaskStore},
+ * which keeps them in memory-mapped files under {@code task.store.cold.dir}
+ * with only an id index on the heap. Reads consult both tiers: a task is
+ * looked up in the hot tier first, pages are merged from both in id or
+ * due-date order, and counts, statistics and search results are combined.
+ * Saving an archived task moves it back to the hot tier first, with its
+ * version, so the write applies as to any other task.
+ * </p>
+ * <p>
+ * A moving task is stored in its new tier before it is removed from the old
+ * one, and pages skip the duplicate. Moves and writes of the same task are
+ * serialized on one of {@value #LOCK_STRIPES} locks picked by id; writes to
+ * different tasks rarely share one.
+ * </p>
+ * <p>
+ * Enabled with {@code task.store.mode=tiered}. The disk is scratch space:
+ * like the memory store, it keeps nothing across restarts, and the segment
+ * files are deleted on {@link #close()} and at startup. The heap is not
+ * bounded by the working set either, since every moved task keeps its index
+ * entry there.
+ * </p>
+ */
+@Repository
+@ConditionalOnProperty(name = "task.store.mode", havingValue = "tiered")
+public class TieredTaskRepository implements TaskRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(TieredTaskRepository.class);
+    private static final int LOCK_STRIPES = 64;
+    private static final int ARCHIVE_PAGE_SIZE = 512;
+    private static final TaskQuery ALL = new TaskQuery(null, null, null, false, null, null, null);
+    private static final List<Tier> TIERS = List.of(Tier.HOT, Tier.COLD);
+
+    private final TaskRepositoryImpl hot = new TaskRepositoryImpl();
+    private final ColdTaskStore cold;
+    private final Duration archiveAfter;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final ScheduledExecutorService archiver;
+
+    public TieredTaskRepository(
+            @Value("${task.store.cold.dir:data/cold}") String directory,
+            @Value("${task.store.cold.segment-bytes:67108864}") int segmentBytes,
+            @Value("${task.store.cold.cache-size:1024}") int cacheSize,
+            @Value("${task.store.cold.archive-after-seconds:3600}") long archiveAfter,
+            @Value("${task.store.cold.archive-interval-seconds:60}") long archiveInterval) throws IOException {
+        this.cold = new ColdTaskStore(Path.of(directory), segmentBytes, cacheSize);
+        this.archiveAfter = Duration.ofSeconds(archiveAfter);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.archiver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-cold-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        archiver.scheduleWithFixedDelay(this::archiveQuietly, archiveInterval, archiveInterval, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        archiver.shutdownNow();
+        archiver.awaitTermination(10, TimeUnit.SECONDS);
+        cold.close();
+    }
+
+    /**
+     * Moves the completed and failed tasks that were last updated longer than
+     * {@code task.store.cold.archive-after-seconds} ago to the cold tier, then
+     * compacts it.
+     *
+     * @return The number of tasks moved
+     */
+    public int archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(archiveAfter);
+        int moved = 0;
+        for (Task.Status status : List.of(Task.Status.COMPLETED, Task.Status.FAILED)) {
+            List<Task> page = hot.findByStatus(status, null, ARCHIVE_PAGE_SIZE);
+            while (!page.isEmpty()) {
+                for (Task task : page) {
+                    LocalDateTime updated = task.getUpdatedAt() != null ? task.getUpdatedAt() : task.getCreatedAt();
+                    if ((updated == null || updated.isBefore(cutoff)) && moveToCold(task)) {
+                        moved++;
+                    }
+                }
+                page = page.size() < ARCHIVE_PAGE_SIZE
+                        ? List.of()
+                        : hot.findByStatus(status, page.get(page.size() - 1).getId(), ARCHIVE_PAGE_SIZE);
+            }
+        }
+        cold.compact();
+        return moved;
+    }
+
+    /**
+     * Number of tasks in the cold tier.
+     */
+    public long archivedCount() {
+        return cold.count();
+    }
+
+    @Override
+    public List<Task> findAll() {
+        List<Task> result = hot.findAll();
+        result.addAll(cold.findAll());
+        return result;
+    }
+
+    @Override
+    public List<Task> findPage(UUID after, int limit) {
+        return query(ALL, after, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Looks in the hot tier again after a miss in both, in case the task was
+     * moved back from the cold tier in between.
+     * </p>
+     */
+    @Override
+    public Optional<Task> findById(UUID id) {
+        Optional<Task> task = hot.findById(id);
+        if (task.isEmpty()) {
+            task = cold.findById(id);
+        }
+        return task.isPresent() ? task : hot.findById(id);
+    }
+
+    @Override
+    public Optional<TaskVersion> findVersion(UUID id) {
+        Optional<TaskVersion> version = hot.findVersion(id);
+        if (version.isEmpty()) {
+            version = cold.findVersion(id);
+        }
+        return version.isPresent() ? version : hot.findVersion(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The sum of the tiers' epochs; moving a task writes to both.
+     * </p>
+     */
+    @Override
+    public long modificationEpoch() {
+        return hot.modificationEpoch() + cold.modificationEpoch();
+    }
+
+    @Override
+    public List<Task> findAllById(Collection<UUID> ids) {
+        List<Task> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            findById(id).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    @Override
+    public Task save(Task task) {
+        Task withId = TaskRepositoryImpl.withId(task);
+        return locked(withId.getId(), () -> {
+            promote(withId.getId());
+            return hot.save(withId);
+        });
+    }
+
+    @Override
+    public List<Task> saveAll(Collection<Task> tasks) {
+        List<Task> saved = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            saved.add(save(task));
+        }
+        return saved;
+    }
+
+    @Override
+    public Task compareAndSave(Task task, long expectedVersion) {
+        return locked(task.getId(), () -> {
+            promote(task.getId());
+            return hot.compareAndSave(task, expectedVersion);
+        });
+    }
+
+    @Override
+    public List<Task> compareAndSaveAll(Collection<Task> tasks) {
+        List<Task> saved = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            try {
+                saved.add(compareAndSave(task, task.getVersion()));
+            } catch (TaskNotFoundException | TaskVersionConflictException e) {
+                saved.add(null);
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    public boolean deleteById(UUID id) {
+        return delete(id);
+    }
+
+    @Override
+    public Set<UUID> deleteAllById(Collection<UUID> ids) {
+        Set<UUID> deleted = new HashSet<>();
+        for (UUID id : ids) {
+            if (delete(id)) {
+                deleted.add(id);
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public List<Task> findByStatus(Task.Status status) {
+        List<Task> result = hot.findByStatus(status);
+        result.addAll(cold.query(new TaskQuery(Set.of(status), null, null, false, null, null, null),
+                null, Integer.MAX_VALUE));
+        return result;
+    }
+
+    @Override
+    public List<Task> findByStatus(Task.Status status, UUID after, int limit) {
+        return query(new TaskQuery(Set.of(status), null, null, false, null, null, null), after, limit);
+    }
+
+    @Override
+    public List<Task> findByPriority(Task.Priority priority) {
+        List<Task> result = hot.findByPriority(priority);
+        result.addAll(cold.query(new TaskQuery(null, Set.of(priority), null, false, null, null, null),
+                null, Integer.MAX_VALUE));
+        return result;
+    }
+
+    @Override
+    public List<Task> findByPriority(Task.Priority priority, UUID after, int limit) {
+        return query(new TaskQuery(null, Set.of(priority), null, false, null, null, null), after, limit);
+    }
+
+    @Override
+    public List<Task> findByAnyTag(Collection<String> tags, UUID after, int limit) {
+        if (tags.isEmpty()) {
+            return List.of();
+        }
+        return query(new TaskQuery(null, null, new HashSet<>(tags), false, null, null, null), after, limit);
+    }
+
+    @Override
+    public List<Task> findByAllTags(Collection<String> tags, UUID after, int limit) {
+        if (tags.isEmpty()) {
+            return List.of();
+        }
+        return query(new TaskQuery(null, null, new HashSet<>(tags), true, null, null, null), after, limit);
+    }
+
+    @Override
+    public List<Task> findByDueDate(long from, long to, Collection<Task.Status> statuses, DueDateKey after, int limit) {
+        if (statuses.isEmpty()) {
+            return List.of();
+        }
+        return queryByDueDate(new TaskQuery(new HashSet<>(statuses), null, null, false, from, to, null), after, limit);
+    }
+
+    @Override
+    public List<Task> query(TaskQuery query, UUID after, int limit) {
+        return merge((tier, from, size) -> tier == Tier.HOT
+                        ? hot.query(query, from, size)
+                        : cold.query(query, from, size),
+                Task::getId, after, limit);
+    }
+
+    @Override
+    public List<Task> queryByDueDate(TaskQuery query, DueDateKey after, int limit) {
+        return merge((tier, from, size) -> tier == Tier.HOT
+                        ? hot.queryByDueDate(query, from, size)
+                        : cold.queryByDueDate(query, from, size),
+                DueDateKey::of, after, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Both tiers are ranked against the size of the whole store and merged by
+     * score. Ranking the cold tier reads every archived task.
+     * </p>
+     */
+    @Override
+    public List<Task> search(String query, int limit) {
+        long documents = count();
+        PriorityQueue<TextIndex.Hit> best = new PriorityQueue<>(TextIndex.Hit.BEST_FIRST);
+        best.addAll(hot.rank(query, limit, documents));
+        if (cold.count() > 0) {
+            best.addAll(cold.rank(query, limit, documents));
+        }
+        Set<UUID> seen = new HashSet<>();
+        List<Task> result = new ArrayList<>(Math.min(limit, best.size()));
+        while (result.size() < limit && !best.isEmpty()) {
+            UUID id = best.poll().id();
+            if (seen.add(id)) {
+                findById(id).ifPresent(result::add);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> countByTag() {
+        Map<String, Long> counts = new TreeMap<>(hot.countByTag());
+        cold.countByTag().forEach((tag, count) -> counts.merge(tag, count, Long::sum));
+        return counts;
+    }
+
+    @Override
+    public long count() {
+        return hot.count() + cold.count();
+    }
+
+    @Override
+    public long countByStatus(Task.Status status) {
+        return hot.countByStatus(status) + cold.countByStatus(status);
+    }
+
+    @Override
+    public long countByPriority(Task.Priority priority) {
+        return hot.countByPriority(priority) + cold.countByPriority(priority);
+    }
+
+    @Override
+    public TaskStatistics statistics() {
+        return TaskStatistics.sum(List.of(hot.statistics(), cold.statistics()));
+    }
+
+    private void archiveQuietly() {
+        try {
+            int moved = archive();
+            if (moved > 0) {
+                log.info("Moved {} finished tasks to the cold tier, which now holds {}", moved, cold.count());
+            }
+        } catch (RuntimeException e) {
+            log.error("Archiving finished tasks failed", e);
+        }
+    }
+
+    /**
+     * Moves {@code task} to the cold tier, unless it changed since it was read.
+     *
+     * @return Whether it was moved
+     */
+    private boolean moveToCold(Task task) {
+        return locked(task.getId(), () -> {
+            Optional<TaskVersion> stored = hot.findVersion(task.getId());
+            if (stored.isEmpty() || stored.get().version() != task.getVersion()) {
+                return false;
+            }
+            cold.put(task);
+            hot.evict(task.getId(), task.getVersion());
+            return true;
+        });
+    }
+
+    /**
+     * Moves the task with {@code id} back to the hot tier, keeping its version.
+     * The caller holds its lock.
+     */
+    private void promote(UUID id) {
+        if (cold.contains(id)) {
+            cold.findById(id).ifPresent(hot::restore);
+            cold.remove(id);
+        }
+    }
+
+    private boolean delete(UUID id) {
+        return locked(id, () -> cold.remove(id) | hot.deleteById(id));
+    }
+
+    private <R> R locked(UUID id, Supplier<R> action) {
+        ReentrantLock lock = locks[Math.floorMod(id.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Merges the pages of both tiers, or returns the hot tier's page while the
+     * cold tier is empty.
+     */
+    private <K extends Comparable<K>> List<Task> merge(PageMerge.PageFetch<Tier, K> fetch,
+                                                       Function<Task, K> key, K after, int limit) {
+        List<Task> hotPage = fetch.fetch(Tier.HOT, after, limit);
+        if (cold.count() == 0) {
+            return hotPage;
+        }
+        List<List<Task>> first = List.of(hotPage, fetch.fetch(Tier.COLD, after, limit));
+        return PageMerge.merge(TIERS, first, limit, fetch, key, limit);
+    }
+
+    private enum Tier {
+        HOT,
+        COLD
+    }
+}
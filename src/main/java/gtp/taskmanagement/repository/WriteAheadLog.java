@@ -0,0 +1,437 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, group-committed journal of task writes.
+ * <p>
+ * Callers append framed records ({@code [length][crc32][payload]}) to an
+ * in-memory batch and then {@link #sync()} to wait until everything appended
+ * so far is on disk. A single writer thread drains the whole batch with one
+ * gathering {@link FileChannel} write followed by one {@code force}, so a burst
+ * of concurrent requests shares a single fsync.
+ * </p>
+ * <p>
+ * The journal is split into numbered generations ({@code tasks-N.log}).
+ * {@link #rotate()} starts a new generation and {@link #writeSnapshot} records
+ * the full store as of that generation in {@code tasks.snapshot}, after which
+ * the older generations are deleted. {@link #replay} restores a directory by
+ * loading the snapshot and then every later generation in order, stopping at
+ * the first torn or corrupt record of each file.
+ * </p>
+ * <p>
+ * Once the writer fails to persist a batch, the journal stays failed: every
+ * later append and {@link #sync()} throws, so no further write is applied.
+ * </p>
+ */
+final class WriteAheadLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int SNAPSHOT_MAGIC = 0x54534E50;
+    private static final int MAX_RECORD_LENGTH = 1 << 20;
+    private static final String SNAPSHOT_FILE = "tasks.snapshot";
+    private static final Pattern LOG_FILE = Pattern.compile("tasks-(\\d+)\\.log");
+
+    private final Path directory;
+    private final boolean fsync;
+    private final Thread writer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hasPending = lock.newCondition();
+    private final Condition madeDurable = lock.newCondition();
+    private List<Object> pending = new ArrayList<>();
+    private long appended;
+    private long durable;
+    private long generation;
+    private boolean closed;
+    private IOException failure;
+
+    private FileChannel channel;
+    private volatile long generationSize;
+
+    /**
+     * Marks the point in the batch stream where the writer must switch files.
+     */
+    private record Rotation(long generation) {
+    }
+
+    /**
+     * Opens a new journal generation in {@code directory} and starts the writer.
+     *
+     * @param generation The generation to write to; must be newer than any existing file
+     * @param fsync Whether each batch is forced to the storage device before it is acknowledged
+     */
+    WriteAheadLog(Path directory, long generation, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.generation = generation;
+        Files.createDirectories(directory);
+        this.channel = open(generation);
+        this.writer = new Thread(this::runWriter, "task-wal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    void appendPut(Task task) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(PUT);
+            TaskCodec.write(out, task);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        enqueue(frame(bytes.toByteArray()));
+    }
+
+    void appendDelete(UUID id) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(17);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(DELETE);
+            TaskCodec.writeId(out, id);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        enqueue(frame(bytes.toByteArray()));
+    }
+
+    /**
+     * Blocks until every record appended before this call is durable.
+     *
+     * @throws UncheckedIOException if the writer failed to persist a batch
+     */
+    void sync() {
+        lock.lock();
+        try {
+            long target = appended;
+            while (durable < target && failure == null) {
+                madeDurable.awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Task journal is unavailable", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the current generation and directs later appends to a new one.
+     * Returns once every record of the previous generation is durable.
+     *
+     * @return The new generation; a snapshot taken from now on covers all older ones
+     */
+    long rotate() {
+        long next;
+        lock.lock();
+        try {
+            next = ++generation;
+            pending.add(new Rotation(next));
+            appended++;
+            hasPending.signal();
+        } finally {
+            lock.unlock();
+        }
+        sync();
+        return next;
+    }
+
+    /**
+     * @return Bytes written to the current generation so far
+     */
+    long generationSize() {
+        return generationSize;
+    }
+
+    /**
+     * Writes {@code tasks} as the snapshot that later generations apply on top of,
+     * then deletes the generations it supersedes. The snapshot is written to a
+     * temporary file and atomically renamed, so a crash leaves the old snapshot
+     * and journal intact.
+     *
+     * @param fromGeneration The first generation not included in the snapshot, as returned by {@link #rotate()}
+     * @param tasks The full contents of the store
+     */
+    void writeSnapshot(long fromGeneration, Iterator<Task> tasks) throws IOException {
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel snapshot = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(snapshot), 1 << 16));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(fromGeneration);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream record = new DataOutputStream(bytes);
+            while (tasks.hasNext()) {
+                bytes.reset();
+                record.writeByte(PUT);
+                TaskCodec.write(record, tasks.next());
+                out.write(frame(bytes.toByteArray()).array());
+            }
+            out.flush();
+            snapshot.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        for (long stale : generations(directory)) {
+            if (stale < fromGeneration) {
+                Files.deleteIfExists(logFile(directory, stale));
+            }
+        }
+    }
+
+    /**
+     * Stops accepting appends, flushes what is pending and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            hasPending.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    /**
+     * Replays the snapshot and journal generations found in {@code directory}.
+     *
+     * @param onPut Receives every stored task, in journal order
+     * @param onDelete Receives every deleted id, in journal order
+     * @return The newest generation found, or {@code 0} if the directory holds no journal
+     */
+    static long replay(Path directory, Consumer<Task> onPut, Consumer<UUID> onDelete) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        long fromGeneration = 0;
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot), 1 << 16))) {
+                if (in.readInt() != SNAPSHOT_MAGIC) {
+                    throw new IOException("Not a task snapshot: " + snapshot);
+                }
+                fromGeneration = in.readLong();
+                readRecords(snapshot, in, onPut, onDelete);
+            }
+        }
+        long newest = fromGeneration;
+        for (long generation : generations(directory)) {
+            if (generation < fromGeneration) {
+                continue;
+            }
+            Path file = logFile(directory, generation);
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+                readRecords(file, new DataInputStream(in), onPut, onDelete);
+            }
+            newest = Math.max(newest, generation);
+        }
+        return newest;
+    }
+
+    private static void readRecords(Path file, DataInputStream in, Consumer<Task> onPut,
+                                    Consumer<UUID> onDelete) throws IOException {
+        CRC32 crc = new CRC32();
+        while (true) {
+            int length;
+            try {
+                length = in.readInt();
+            } catch (EOFException e) {
+                return;
+            }
+            byte[] payload;
+            long checksum;
+            try {
+                checksum = in.readInt() & 0xFFFFFFFFL;
+                if (length <= 0 || length > MAX_RECORD_LENGTH) {
+                    log.warn("Ignoring corrupt tail of {}", file);
+                    return;
+                }
+                payload = new byte[length];
+                in.readFully(payload);
+            } catch (EOFException e) {
+                log.warn("Ignoring torn record at the end of {}", file);
+                return;
+            }
+            crc.reset();
+            crc.update(payload);
+            if (crc.getValue() != checksum) {
+                log.warn("Ignoring corrupt tail of {}", file);
+                return;
+            }
+            DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+            byte op = record.readByte();
+            if (op == PUT) {
+                onPut.accept(TaskCodec.read(record));
+            } else if (op == DELETE) {
+                onDelete.accept(TaskCodec.readId(record));
+            } else {
+                throw new IOException("Unknown record type " + op + " in " + file);
+            }
+        }
+    }
+
+    /**
+     * Adds {@code record} to the next batch.
+     *
+     * @throws UncheckedIOException if the writer already failed, so that the
+     *                              caller does not apply a write that can no
+     *                              longer be journaled
+     */
+    private void enqueue(ByteBuffer record) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Task journal is closed");
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Task journal is unavailable", failure);
+            }
+            pending.add(record);
+            appended++;
+            hasPending.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runWriter() {
+        List<ByteBuffer> buffers = new ArrayList<>();
+        while (true) {
+            List<Object> batch;
+            long upTo;
+            lock.lock();
+            try {
+                while (pending.isEmpty() && !closed) {
+                    hasPending.awaitUninterruptibly();
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+                upTo = appended;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                for (Object entry : batch) {
+                    if (entry instanceof ByteBuffer record) {
+                        buffers.add(record);
+                    } else {
+                        write(buffers);
+                        channel.close();
+                        channel = open(((Rotation) entry).generation());
+                        generationSize = 0;
+                    }
+                }
+                write(buffers);
+            } catch (IOException e) {
+                error = e;
+                buffers.clear();
+            }
+
+            lock.lock();
+            try {
+                if (error != null && failure == null) {
+                    log.error("Failed to write task journal", error);
+                    failure = error;
+                }
+                durable = upTo;
+                madeDurable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void write(List<ByteBuffer> buffers) throws IOException {
+        if (buffers.isEmpty()) {
+            return;
+        }
+        ByteBuffer[] batch = buffers.toArray(new ByteBuffer[0]);
+        long remaining = 0;
+        for (ByteBuffer buffer : batch) {
+            remaining += buffer.remaining();
+        }
+        long written = remaining;
+        while (remaining > 0) {
+            remaining -= channel.write(batch);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+        generationSize += written;
+        buffers.clear();
+    }
+
+    private FileChannel open(long generation) throws IOException {
+        return FileChannel.open(logFile(directory, generation),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static ByteBuffer frame(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(8 + payload.length);
+        record.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        return record;
+    }
+
+    private static Path logFile(Path directory, long generation) {
+        return directory.resolve(String.format("tasks-%020d.log", generation));
+    }
+
+    private static List<Long> generations(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> LOG_FILE.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
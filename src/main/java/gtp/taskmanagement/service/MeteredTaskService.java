@@ -0,0 +1,265 @@
+package gtp.taskmanagement.service;
+
+import gtp.taskmanagement.dto.BatchItemResult;
+import gtp.taskmanagement.dto.TagMatch;
+import gtp.taskmanagement.dto.TaskBatchPatch;
+import gtp.taskmanagement.dto.TaskFilter;
+import gtp.taskmanagement.dto.TaskPage;
+import gtp.taskmanagement.dto.TaskRequest;
+import gtp.taskmanagement.dto.TaskResponse;
+import gtp.taskmanagement.dto.TaskStats;
+import gtp.taskmanagement.dto.TaskUpdateRequest;
+import gtp.taskmanagement.model.Task;
+import gtp.taskmanagement.repository.TaskVersion;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * {@link TaskService} that measures every call it passes on to
+ * {@link TaskServiceImpl}.
+ * <p>
+ * Latencies are recorded by the {@code task.service} timer, tagged with the
+ * operation, its outcome and the exception thrown, if any. The number of
+ * tasks returned by list and search operations is recorded by the
+ * {@code task.list.size} summary. Meters for successful calls are registered
+ * up front, so the hot path costs two clock reads and a few atomic updates;
+ * a failed call looks up its timer when it happens.
+ * {@link #streamTasks} is not timed because an export lasts as long as the
+ * client takes to read it.
+ * </p>
+ */
+@Service
+@Primary
+public class MeteredTaskService implements TaskService {
+
+    private final TaskService delegate;
+    private final MeterRegistry registry;
+
+    private final Operation getTasks;
+    private final Operation getTaskById;
+    private final Operation getTaskVersion;
+    private final Operation createTask;
+    private final Operation updateTask;
+    private final Operation patchTask;
+    private final Operation deleteTask;
+    private final Operation getTasksByStatus;
+    private final Operation getTasksByPriority;
+    private final Operation getTasksByTags;
+    private final Operation getTagCounts;
+    private final Operation getStatistics;
+    private final Operation getTasksDueBetween;
+    private final Operation getOverdueTasks;
+    private final Operation getUpcomingTasks;
+    private final Operation searchTasks;
+    private final Operation queryTasks;
+    private final Operation createTasks;
+    private final Operation patchTasks;
+    private final Operation getTasksById;
+    private final Operation deleteTasks;
+
+    public MeteredTaskService(TaskServiceImpl delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.getTasks = new Operation("getTasks", true);
+        this.getTaskById = new Operation("getTaskById", false);
+        this.getTaskVersion = new Operation("getTaskVersion", false);
+        this.createTask = new Operation("createTask", false);
+        this.updateTask = new Operation("updateTask", false);
+        this.patchTask = new Operation("patchTask", false);
+        this.deleteTask = new Operation("deleteTask", false);
+        this.getTasksByStatus = new Operation("getTasksByStatus", true);
+        this.getTasksByPriority = new Operation("getTasksByPriority", true);
+        this.getTasksByTags = new Operation("getTasksByTags", true);
+        this.getTagCounts = new Operation("getTagCounts", false);
+        this.getStatistics = new Operation("getStatistics", false);
+        this.getTasksDueBetween = new Operation("getTasksDueBetween", true);
+        this.getOverdueTasks = new Operation("getOverdueTasks", true);
+        this.getUpcomingTasks = new Operation("getUpcomingTasks", true);
+        this.searchTasks = new Operation("searchTasks", true);
+        this.queryTasks = new Operation("queryTasks", true);
+        this.createTasks = new Operation("createTasks", false);
+        this.patchTasks = new Operation("patchTasks", false);
+        this.getTasksById = new Operation("getTasksById", false);
+        this.deleteTasks = new Operation("deleteTasks", false);
+    }
+
+    @Override
+    public TaskPage getTasks(String cursor, Integer limit) {
+        return getTasks.page(() -> delegate.getTasks(cursor, limit));
+    }
+
+    @Override
+    public TaskResponse getTaskById(UUID id) {
+        return getTaskById.record(() -> delegate.getTaskById(id));
+    }
+
+    @Override
+    public TaskVersion getTaskVersion(UUID id) {
+        return getTaskVersion.record(() -> delegate.getTaskVersion(id));
+    }
+
+    @Override
+    public long getModificationEpoch() {
+        return delegate.getModificationEpoch();
+    }
+
+    @Override
+    public TaskResponse createTask(Task task) {
+        return createTask.record(() -> delegate.createTask(task));
+    }
+
+    @Override
+    public TaskResponse updateTask(UUID id, Task task, Set<Long> expectedVersions) {
+        return updateTask.record(() -> delegate.updateTask(id, task, expectedVersions));
+    }
+
+    @Override
+    public TaskResponse patchTask(UUID id, TaskUpdateRequest updates, Set<Long> expectedVersions) {
+        return patchTask.record(() -> delegate.patchTask(id, updates, expectedVersions));
+    }
+
+    @Override
+    public void deleteTask(UUID id) {
+        deleteTask.record(() -> {
+            delegate.deleteTask(id);
+            return null;
+        });
+    }
+
+    @Override
+    public TaskPage getTasksByStatus(String status, String cursor, Integer limit) {
+        return getTasksByStatus.page(() -> delegate.getTasksByStatus(status, cursor, limit));
+    }
+
+    @Override
+    public TaskPage getTasksByPriority(String priority, String cursor, Integer limit) {
+        return getTasksByPriority.page(() -> delegate.getTasksByPriority(priority, cursor, limit));
+    }
+
+    @Override
+    public TaskPage getTasksByTags(List<String> tags, TagMatch match, String cursor, Integer limit) {
+        return getTasksByTags.page(() -> delegate.getTasksByTags(tags, match, cursor, limit));
+    }
+
+    @Override
+    public Map<String, Long> getTagCounts() {
+        return getTagCounts.record(delegate::getTagCounts);
+    }
+
+    @Override
+    public TaskStats getStatistics() {
+        return getStatistics.record(delegate::getStatistics);
+    }
+
+    @Override
+    public TaskPage getTasksDueBetween(Instant from, Instant to, List<String> statuses, String cursor, Integer limit) {
+        return getTasksDueBetween.page(() -> delegate.getTasksDueBetween(from, to, statuses, cursor, limit));
+    }
+
+    @Override
+    public TaskPage getOverdueTasks(List<String> statuses, String cursor, Integer limit) {
+        return getOverdueTasks.page(() -> delegate.getOverdueTasks(statuses, cursor, limit));
+    }
+
+    @Override
+    public TaskPage getUpcomingTasks(Duration window, List<String> statuses, String cursor, Integer limit) {
+        return getUpcomingTasks.page(() -> delegate.getUpcomingTasks(window, statuses, cursor, limit));
+    }
+
+    @Override
+    public List<TaskResponse> searchTasks(String query, Integer limit) {
+        List<TaskResponse> tasks = searchTasks.record(() -> delegate.searchTasks(query, limit));
+        searchTasks.listSize.record(tasks.size());
+        return tasks;
+    }
+
+    @Override
+    public TaskPage queryTasks(TaskFilter filter, String cursor, Integer limit) {
+        return queryTasks.page(() -> delegate.queryTasks(filter, cursor, limit));
+    }
+
+    @Override
+    public Stream<TaskResponse> streamTasks(String status, String priority) {
+        return delegate.streamTasks(status, priority);
+    }
+
+    @Override
+    public List<BatchItemResult> createTasks(List<TaskRequest> requests) {
+        return createTasks.record(() -> delegate.createTasks(requests));
+    }
+
+    @Override
+    public List<BatchItemResult> patchTasks(List<TaskBatchPatch> patches) {
+        return patchTasks.record(() -> delegate.patchTasks(patches));
+    }
+
+    @Override
+    public List<BatchItemResult> getTasksById(List<UUID> ids) {
+        return getTasksById.record(() -> delegate.getTasksById(ids));
+    }
+
+    @Override
+    public List<BatchItemResult> deleteTasks(List<UUID> ids) {
+        return deleteTasks.record(() -> delegate.deleteTasks(ids));
+    }
+
+    /**
+     * The meters of one service operation.
+     */
+    private final class Operation {
+        private final String name;
+        private final Timer success;
+        private final DistributionSummary listSize;
+
+        Operation(String name, boolean returnsList) {
+            this.name = name;
+            this.success = timer("success", "none");
+            this.listSize = returnsList
+                    ? DistributionSummary.builder("task.list.size")
+                            .description("Number of tasks returned by list and search operations")
+                            .baseUnit("tasks")
+                            .tag("operation", name)
+                            .register(registry)
+                    : null;
+        }
+
+        <T> T record(Supplier<T> call) {
+            long start = System.nanoTime();
+            T result;
+            try {
+                result = call.get();
+            } catch (RuntimeException e) {
+                timer("error", e.getClass().getSimpleName()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+            success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        }
+
+        TaskPage page(Supplier<TaskPage> call) {
+            TaskPage page = record(call);
+            listSize.record(page.items().size());
+            return page;
+        }
+
+        private Timer timer(String outcome, String exception) {
+            return Timer.builder("task.service")
+                    .description("Latency of task service operations")
+                    .tags("operation", name, "outcome", outcome, "exception", exception)
+                    .register(registry);
+        }
+    }
+}
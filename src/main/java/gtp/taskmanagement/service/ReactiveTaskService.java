@@ -0,0 +1,231 @@
+package gtp.taskmanagement.service;
+
+import gtp.taskmanagement.dto.BatchItemResult;
+import gtp.taskmanagement.dto.ImportResult;
+import gtp.taskmanagement.dto.TagMatch;
+import gtp.taskmanagement.dto.TaskChangeEvent;
+import gtp.taskmanagement.dto.TaskBatchPatch;
+import gtp.taskmanagement.dto.TaskFilter;
+import gtp.taskmanagement.dto.TaskPage;
+import gtp.taskmanagement.dto.TaskRequest;
+import gtp.taskmanagement.dto.TaskResponse;
+import gtp.taskmanagement.dto.TaskStats;
+import gtp.taskmanagement.dto.TaskUpdateRequest;
+import gtp.taskmanagement.model.Task;
+import gtp.taskmanagement.repository.TaskVersion;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking facade over {@link TaskService} for the reactive deployment mode.
+ * <p>
+ * Reads are served from memory in microseconds, so they run on the calling
+ * event-loop thread. Writes may wait for the write-ahead log's fsync and its
+ * lock, so they are moved to the bounded elastic scheduler and never block an
+ * event loop. Exports are exposed as a {@link Flux} that pulls pages from the
+ * store only as the subscriber requests more, which lets a slow client's
+ * connection hold back the walk.
+ * </p>
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTaskService {
+
+    private static final int FEED_BATCH = 64;
+
+    private final TaskService taskService;
+    private final TaskImporter taskImporter;
+    private final TaskChangeFeed changeFeed;
+    private final Scheduler writes = Schedulers.boundedElastic();
+
+    public ReactiveTaskService(TaskService taskService, TaskImporter taskImporter, TaskChangeFeed changeFeed) {
+        this.taskService = taskService;
+        this.taskImporter = taskImporter;
+        this.changeFeed = changeFeed;
+    }
+
+    public Mono<TaskPage> getTasks(String cursor, Integer limit) {
+        return read(() -> taskService.getTasks(cursor, limit));
+    }
+
+    public Mono<TaskResponse> getTaskById(UUID id) {
+        return read(() -> taskService.getTaskById(id));
+    }
+
+    public Mono<TaskVersion> getTaskVersion(UUID id) {
+        return read(() -> taskService.getTaskVersion(id));
+    }
+
+    public long getModificationEpoch() {
+        return taskService.getModificationEpoch();
+    }
+
+    public Mono<TaskResponse> createTask(Task task) {
+        return write(() -> taskService.createTask(task));
+    }
+
+    public Mono<TaskResponse> updateTask(UUID id, Task task, Set<Long> expectedVersions) {
+        return write(() -> taskService.updateTask(id, task, expectedVersions));
+    }
+
+    public Mono<TaskResponse> patchTask(UUID id, TaskUpdateRequest updates, Set<Long> expectedVersions) {
+        return write(() -> taskService.patchTask(id, updates, expectedVersions));
+    }
+
+    public Mono<Void> deleteTask(UUID id) {
+        return write(() -> {
+            taskService.deleteTask(id);
+            return null;
+        });
+    }
+
+    public Mono<TaskPage> getTasksByStatus(String status, String cursor, Integer limit) {
+        return read(() -> taskService.getTasksByStatus(status, cursor, limit));
+    }
+
+    public Mono<TaskPage> getTasksByPriority(String priority, String cursor, Integer limit) {
+        return read(() -> taskService.getTasksByPriority(priority, cursor, limit));
+    }
+
+    public Mono<TaskPage> getTasksByTags(List<String> tags, TagMatch match, String cursor, Integer limit) {
+        return read(() -> taskService.getTasksByTags(tags, match, cursor, limit));
+    }
+
+    public Mono<Map<String, Long>> getTagCounts() {
+        return read(taskService::getTagCounts);
+    }
+
+    public Mono<TaskStats> getStatistics() {
+        return read(taskService::getStatistics);
+    }
+
+    public Mono<TaskPage> getTasksDueBetween(Instant from, Instant to, List<String> statuses,
+                                             String cursor, Integer limit) {
+        return read(() -> taskService.getTasksDueBetween(from, to, statuses, cursor, limit));
+    }
+
+    public Mono<TaskPage> getOverdueTasks(List<String> statuses, String cursor, Integer limit) {
+        return read(() -> taskService.getOverdueTasks(statuses, cursor, limit));
+    }
+
+    public Mono<TaskPage> getUpcomingTasks(Duration window, List<String> statuses, String cursor, Integer limit) {
+        return read(() -> taskService.getUpcomingTasks(window, statuses, cursor, limit));
+    }
+
+    public Flux<TaskResponse> searchTasks(String query, Integer limit) {
+        return read(() -> taskService.searchTasks(query, limit)).flatMapIterable(tasks -> tasks);
+    }
+
+    public Mono<TaskPage> queryTasks(TaskFilter filter, String cursor, Integer limit) {
+        return read(() -> taskService.queryTasks(filter, cursor, limit));
+    }
+
+    /**
+     * Opens a stream of matching tasks in id order. The filters are checked
+     * when the returned {@code Mono} is subscribed, so an unknown status or
+     * priority fails before a response is committed; the underlying store walk
+     * is closed when the subscriber of the {@code Flux} completes or cancels.
+     */
+    public Mono<Flux<TaskResponse>> streamTasks(String status, String priority) {
+        return read(() -> taskService.streamTasks(status, priority)).map(Flux::fromStream);
+    }
+
+    /**
+     * Follows the change feed. Events are taken from the subscription's ring
+     * only as far as the subscriber has requested them, so a slow client
+     * overflows its ring and gets a resync instead of queueing events here.
+     * They are handed to a parallel worker so that the writer whose change
+     * made them available never runs the downstream.
+     *
+     * @see TaskChangeFeed#subscribe
+     */
+    public Flux<TaskChangeEvent> followChanges(Task.Status status, Task.Priority priority, Long lastEventId) {
+        return Flux.<TaskChangeEvent>create(sink -> {
+            TaskChangeFeed.Subscription subscription = changeFeed.subscribe(status, priority, lastEventId);
+            AtomicInteger pending = new AtomicInteger();
+            Runnable drain = () -> {
+                // Only one caller drains at a time; calls made meanwhile make it go round again.
+                if (pending.getAndIncrement() != 0) {
+                    return;
+                }
+                int missed = 1;
+                do {
+                    long demand;
+                    while ((demand = sink.requestedFromDownstream()) > 0) {
+                        List<TaskChangeEvent> events = subscription.poll((int) Math.min(demand, FEED_BATCH));
+                        if (events.isEmpty()) {
+                            break;
+                        }
+                        events.forEach(sink::next);
+                    }
+                    missed = pending.addAndGet(-missed);
+                } while (missed != 0);
+            };
+            sink.onRequest(requested -> drain.run());
+            sink.onDispose(subscription::close);
+            subscription.onAvailable(drain);
+        }).publishOn(Schedulers.parallel(), FEED_BATCH);
+    }
+
+    public Mono<List<BatchItemResult>> createTasks(List<TaskRequest> requests) {
+        return write(() -> taskService.createTasks(requests));
+    }
+
+    public Mono<List<BatchItemResult>> patchTasks(List<TaskBatchPatch> patches) {
+        return write(() -> taskService.patchTasks(patches));
+    }
+
+    public Mono<List<BatchItemResult>> getTasksById(List<UUID> ids) {
+        return read(() -> taskService.getTasksById(ids));
+    }
+
+    public Mono<List<BatchItemResult>> deleteTasks(List<UUID> ids) {
+        return write(() -> taskService.deleteTasks(ids));
+    }
+
+    /**
+     * Imports an NDJSON body chunk by chunk as it arrives. Chunks are handed to
+     * the importer in order on the write scheduler, and the body is only
+     * requested further as they are consumed. Each subscription imports into
+     * a session of its own, opened when it subscribes.
+     */
+    public Mono<ImportResult> importTasks(Flux<DataBuffer> body) {
+        return Mono.defer(() -> {
+            TaskImporter.Session session = taskImporter.newSession();
+            return body.publishOn(writes)
+                    .doOnNext(buffer -> {
+                        try {
+                            byte[] bytes = new byte[buffer.readableByteCount()];
+                            buffer.read(bytes);
+                            session.write(bytes, 0, bytes.length);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .then(Mono.fromCallable(session::finish).subscribeOn(writes));
+        });
+    }
+
+    private static <T> Mono<T> read(Callable<T> call) {
+        return Mono.fromCallable(call);
+    }
+
+    private <T> Mono<T> write(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(writes);
+    }
+}
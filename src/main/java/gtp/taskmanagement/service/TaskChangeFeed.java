@@ -0,0 +1,245 @@
+package gtp.taskmanagement.service;
+
+import gtp.taskmanagement.dto.TaskChangeEvent;
+import gtp.taskmanagement.dto.TaskChangeType;
+import gtp.taskmanagement.dto.TaskResponse;
+import gtp.taskmanagement.model.Task;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans task changes out to live subscribers of the change feed.
+ * <p>
+ * Every subscriber has a bounded ring buffer of {@code task.feed.buffer-size}
+ * events that {@link #publish} appends to from the writing thread, without
+ * blocking. The transport drains it when told that events are available.
+ * A subscriber that falls behind until its ring is full loses the buffered
+ * events and gets a single {@link TaskChangeType#RESYNC} event in their
+ * place, telling it to reload before applying further events. A slow client
+ * therefore never holds up writers or grows memory.
+ * </p>
+ * <p>
+ * Event ids count up from a random start chosen at boot, so an id from before
+ * a restart, or from another instance, is not mistaken for one of this feed's
+ * and a client reconnecting with it is told to resync.
+ * </p>
+ * <p>
+ * Subscriptions are plain objects. Holding one open costs no thread; the
+ * transport decides where draining runs.
+ * </p>
+ * <p>
+ * The feed is local to the instance. In cluster mode a change is published
+ * only by the instance that handled the request, so a subscriber sees the
+ * changes made through its own instance and none made through the others.
+ * </p>
+ */
+@Component
+public class TaskChangeFeed {
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong(ThreadLocalRandom.current().nextLong(1L << 52));
+    private final int bufferSize;
+    private final Counter overflows;
+
+    public TaskChangeFeed(MeterRegistry registry, @Value("${task.feed.buffer-size:256}") int bufferSize) {
+        this.bufferSize = bufferSize;
+        this.overflows = Counter.builder("task.feed.overflows")
+                .description("Times a feed subscriber fell behind and was told to resync")
+                .register(registry);
+        Gauge.builder("task.feed.subscribers", subscriptions, Set::size)
+                .description("Open change feed subscriptions")
+                .register(registry);
+    }
+
+    /**
+     * Opens a subscription to changes of tasks matching the optional filters.
+     * Deletions are delivered regardless of the filters, since the deleted task
+     * is no longer known.
+     *
+     * @param status Status to follow, or {@code null} for all
+     * @param priority Priority to follow, or {@code null} for all
+     * @param lastEventId Sequence of the last event a reconnecting client saw, or
+     *                    {@code null}; unless it is the latest this feed issued,
+     *                    the subscription starts with a resync
+     */
+    public Subscription subscribe(Task.Status status, Task.Priority priority, Long lastEventId) {
+        Subscription subscription = new Subscription(status, priority, bufferSize);
+        subscriptions.add(subscription);
+        if (lastEventId != null && lastEventId != sequence.get()) {
+            subscription.resync();
+        }
+        return subscription;
+    }
+
+    /**
+     * Publishes a change to every matching subscriber.
+     *
+     * @param task The task after the change, or {@code null} for a deletion
+     * @param previousStatus The status before an update or patch, or {@code null}
+     * @param previousPriority The priority before an update or patch, or {@code null}
+     */
+    public void publish(TaskChangeType type, UUID id, TaskResponse task,
+                        Task.Status previousStatus, Task.Priority previousPriority) {
+        long next = sequence.incrementAndGet();
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        TaskChangeEvent event = new TaskChangeEvent(next, type, id, task,
+                previousStatus != null ? previousStatus.name() : null,
+                previousPriority != null ? previousPriority.name() : null,
+                Instant.now());
+        for (Subscription subscription : subscriptions) {
+            if (subscription.matches(event)) {
+                subscription.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Tells every subscriber to reload, for changes made without individual
+     * events such as bulk imports.
+     */
+    public void resyncAll() {
+        sequence.incrementAndGet();
+        for (Subscription subscription : subscriptions) {
+            subscription.resync();
+        }
+    }
+
+    /**
+     * One subscriber's view of the feed: a ring of pending events plus a flag
+     * for a resync owed to it.
+     */
+    public final class Subscription implements AutoCloseable {
+        private final Task.Status status;
+        private final Task.Priority priority;
+        private final TaskChangeEvent[] ring;
+        private int head;
+        private int size;
+        private boolean resyncPending;
+        private boolean closed;
+        private volatile Runnable listener = () -> {
+        };
+
+        private Subscription(Task.Status status, Task.Priority priority, int capacity) {
+            this.status = status;
+            this.priority = priority;
+            this.ring = new TaskChangeEvent[capacity];
+        }
+
+        /**
+         * Sets the callback run whenever events become available, from the
+         * publishing thread; it should only schedule draining, not drain.
+         * Runs it at once if events are already pending.
+         */
+        public void onAvailable(Runnable listener) {
+            this.listener = listener;
+            if (hasPending()) {
+                listener.run();
+            }
+        }
+
+        public synchronized boolean hasPending() {
+            return size > 0 || resyncPending;
+        }
+
+        /**
+         * Removes and returns up to {@code max} pending events, oldest first,
+         * preceded by a resync event if one is owed.
+         */
+        public List<TaskChangeEvent> poll(int max) {
+            synchronized (this) {
+                if (size == 0 && !resyncPending) {
+                    return Collections.emptyList();
+                }
+                List<TaskChangeEvent> events = new ArrayList<>(Math.min(max, size + 1));
+                if (resyncPending) {
+                    resyncPending = false;
+                    events.add(new TaskChangeEvent(sequence.get(), TaskChangeType.RESYNC,
+                            null, null, null, null, Instant.now()));
+                }
+                while (events.size() < max && size > 0) {
+                    events.add(ring[head]);
+                    ring[head] = null;
+                    head = (head + 1) % ring.length;
+                    size--;
+                }
+                return events;
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                closed = true;
+                clear();
+            }
+            subscriptions.remove(this);
+        }
+
+        private boolean matches(TaskChangeEvent event) {
+            if (event.task() == null) {
+                return true;
+            }
+            return matches(event.task().status(), event.task().priority())
+                    || event.previousStatus() != null && matches(event.previousStatus(), event.previousPriority());
+        }
+
+        private boolean matches(String taskStatus, String taskPriority) {
+            return (status == null || status.name().equals(taskStatus))
+                    && (priority == null || priority.name().equals(taskPriority));
+        }
+
+        private void offer(TaskChangeEvent event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (size == ring.length) {
+                    // The events lost with the buffer are covered by the reload the resync asks for.
+                    clear();
+                    if (!resyncPending) {
+                        resyncPending = true;
+                        overflows.increment();
+                    }
+                    return;
+                }
+                ring[(head + size) % ring.length] = event;
+                size++;
+            }
+            listener.run();
+        }
+
+        private void resync() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                clear();
+                resyncPending = true;
+            }
+            listener.run();
+        }
+
+        private void clear() {
+            for (int i = 0; i < size; i++) {
+                ring[(head + i) % ring.length] = null;
+            }
+            head = 0;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package gtp.taskmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import gtp.taskmanagement.dto.ImportLineError;
+import gtp.taskmanagement.dto.ImportResult;
+import gtp.taskmanagement.dto.TaskRequest;
+import gtp.taskmanagement.model.Task;
+import gtp.taskmanagement.repository.TaskRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Imports tasks from newline-delimited JSON, one {@link TaskRequest} per line.
+ * <p>
+ * The input is read incrementally and each line is parsed and validated on
+ * its own, exactly like the body of {@code POST /api/v1/tasks}. Valid tasks
+ * are saved in batches of {@code task.import.batch-size} through
+ * {@link TaskRepository#saveAll}, and the next bytes are only read once the
+ * pending batch is saved. Reading from a request body therefore pushes back
+ * on the client through the connection instead of queueing its input.
+ * </p>
+ * <p>
+ * Memory held during an import is one batch of tasks, one line of at most
+ * {@value #MAX_LINE_BYTES} bytes (longer lines are skipped and reported) and
+ * the first {@code task.import.max-reported-errors} rejected lines.
+ * </p>
+ * <p>
+ * Imported tasks are not published one by one to the {@link TaskChangeFeed};
+ * once an import has saved any task, every subscriber is told to resync.
+ * </p>
+ */
+@Service
+public class TaskImporter {
+
+    static final int MAX_LINE_BYTES = 64 * 1024;
+    private static final int READ_CHUNK = 16 * 1024;
+
+    private static final Logger log = LoggerFactory.getLogger(TaskImporter.class);
+
+    private final TaskRepository taskRepository;
+    private final TaskChangeFeed changeFeed;
+    private final Validator validator;
+    private final ObjectReader requestReader;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public TaskImporter(TaskRepository taskRepository,
+                        TaskChangeFeed changeFeed,
+                        Validator validator,
+                        ObjectMapper objectMapper,
+                        @Value("${task.import.batch-size:1000}") int batchSize,
+                        @Value("${task.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.taskRepository = taskRepository;
+        this.changeFeed = changeFeed;
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(TaskRequest.class);
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Imports every line of {@code in}, leaving the stream open.
+     *
+     * @return Counts, the first rejected lines and the throughput of the import
+     * @throws IOException if reading {@code in} fails; batches saved before the
+     *                     failure stay imported
+     */
+    public ImportResult importTasks(InputStream in) throws IOException {
+        Session session = newSession();
+        byte[] chunk = new byte[READ_CHUNK];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            session.write(chunk, 0, read);
+        }
+        return session.finish();
+    }
+
+    /**
+     * Starts an import fed by the caller, for input that arrives as chunks
+     * rather than as an {@link InputStream}.
+     */
+    public Session newSession() {
+        return new Session(System.nanoTime());
+    }
+
+    /**
+     * One import in progress: the partial line, the pending batch and the
+     * running counts. Chunks may split lines anywhere and must be written in
+     * order from one thread at a time.
+     */
+    public final class Session {
+        private final long startNanos;
+        private final byte[] line = new byte[MAX_LINE_BYTES];
+        private final List<Task> batch = new ArrayList<>(batchSize);
+        private final List<ImportLineError> errors = new ArrayList<>();
+        private int length;
+        private boolean overlong;
+        private long lines;
+        private long imported;
+        private long failed;
+
+        private Session(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Consumes {@code count} bytes of input, saving a batch whenever one fills up.
+         */
+        public void write(byte[] bytes, int offset, int count) {
+            for (int i = offset; i < offset + count; i++) {
+                byte b = bytes[i];
+                if (b == '\n') {
+                    endLine();
+                } else if (length < line.length) {
+                    line[length++] = b;
+                } else {
+                    overlong = true;
+                }
+            }
+        }
+
+        /**
+         * Handles a last line without a trailing newline, saves the pending
+         * batch and summarizes the import.
+         */
+        public ImportResult finish() {
+            if (length > 0 || overlong) {
+                endLine();
+            }
+            flush();
+            if (imported > 0) {
+                changeFeed.resyncAll();
+            }
+            long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+            ImportResult result = new ImportResult(
+                    lines,
+                    imported,
+                    failed,
+                    errors,
+                    failed > errors.size(),
+                    elapsedNanos / 1_000_000,
+                    imported * 1_000_000_000L / elapsedNanos);
+            log.info("Imported {} tasks from {} lines ({} rejected) in {} ms, {} tasks/s",
+                    result.imported(), result.lines(), result.failed(), result.elapsedMillis(), result.tasksPerSecond());
+            return result;
+        }
+
+        private void endLine() {
+            accept();
+            length = 0;
+            overlong = false;
+        }
+
+        private void accept() {
+            lines++;
+            if (overlong) {
+                reject(Map.of("line", "Line exceeds " + MAX_LINE_BYTES + " bytes"));
+                return;
+            }
+            if (isBlank(line, length)) {
+                return;
+            }
+            TaskRequest request;
+            try {
+                request = requestReader.readValue(line, 0, length);
+            } catch (IOException e) {
+                reject(Map.of("line", "Malformed JSON"));
+                return;
+            }
+            Map<String, String> violations = validate(request);
+            if (!violations.isEmpty()) {
+                reject(violations);
+                return;
+            }
+            batch.add(new Task(
+                    null,
+                    request.title(),
+                    request.description(),
+                    request.priority(),
+                    request.status(),
+                    request.dueDate(),
+                    request.tags()
+            ));
+            if (batch.size() == batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!batch.isEmpty()) {
+                imported += taskRepository.saveAll(batch).size();
+                batch.clear();
+            }
+        }
+
+        private void reject(Map<String, String> lineErrors) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportLineError(lines, lineErrors));
+            }
+        }
+    }
+
+    private Map<String, String> validate(TaskRequest request) {
+        if (request == null) {
+            return Map.of("line", "Task is required");
+        }
+        Map<String, String> errors = new TreeMap<>();
+        for (ConstraintViolation<TaskRequest> violation : validator.validate(request)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    private static boolean isBlank(byte[] line, int length) {
+        for (int i = 0; i < length; i++) {
+            if (line[i] != ' ' && line[i] != '\t' && line[i] != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,160 @@
+package gtp.taskmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import gtp.taskmanagement.dto.TaskJsonArray;
+import gtp.taskmanagement.dto.TaskResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cache of tasks already encoded as UTF-8 JSON, so that reads copy bytes
+ * instead of running Jackson over the same task again and again.
+ * <p>
+ * Entries are keyed by task id and remember the version they were encoded
+ * from; an entry is only served for that exact version, so a stale encoding
+ * can never reach a client even if some write path forgot to invalidate it.
+ * The service still invalidates on every write so that memory is not spent on
+ * encodings that can no longer be served. Encoding uses the application's
+ * {@link ObjectMapper}, which makes the cached bytes identical to what the
+ * regular message converter would write.
+ * </p>
+ * <p>
+ * Memory is bounded by {@code task.json-cache.max-bytes}, counting the
+ * encoded bytes plus a fixed per-entry overhead; when it is exceeded the
+ * entries least likely to be read again are evicted. Lookups are counted in
+ * {@code cache.gets} with a {@code result} of {@code hit} or {@code miss}, and
+ * the retained bytes are exposed as {@code task.json.cache.bytes}.
+ * </p>
+ */
+@Component
+public class TaskJsonCache {
+
+    static final String CACHE_NAME = "taskJson";
+
+    /**
+     * Approximate heap taken by a cache node, key, entry and array header on
+     * top of the encoded bytes.
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final ObjectMapper objectMapper;
+    private final Cache<UUID, Entry> cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    public TaskJsonCache(ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${task.json-cache.max-bytes:33554432}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((UUID id, Entry entry) -> entry.json().length + ENTRY_OVERHEAD)
+                .build();
+        this.hits = Counter.builder("cache.gets")
+                .tag("cache", CACHE_NAME)
+                .tag("result", "hit")
+                .description("Task JSON cache lookups served from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets")
+                .tag("cache", CACHE_NAME)
+                .tag("result", "miss")
+                .description("Task JSON cache lookups that had to encode the task")
+                .register(meterRegistry);
+        Gauge.builder("task.json.cache.bytes", cache, TaskJsonCache::weightedSize)
+                .description("Bytes retained by the task JSON cache, including per-entry overhead")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached encoding of task {@code id} at {@code version}.
+     *
+     * @return The encoded task, or {@code null} if it is not cached at that version
+     */
+    public byte[] find(UUID id, long version) {
+        Entry entry = cache.getIfPresent(id);
+        if (entry != null && entry.version() == version) {
+            hits.increment();
+            return entry.json();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Returns the encoding of {@code task}, encoding and caching it on a miss.
+     */
+    public byte[] toJson(TaskResponse task) {
+        byte[] json = find(task.id(), task.version());
+        return json != null ? json : put(task);
+    }
+
+    /**
+     * Encodes {@code tasks} as one JSON array, reusing cached encodings.
+     */
+    public TaskJsonArray toJsonArray(List<TaskResponse> tasks) {
+        List<byte[]> elements = new ArrayList<>(tasks.size());
+        for (TaskResponse task : tasks) {
+            elements.add(toJson(task));
+        }
+        return new TaskJsonArray(elements);
+    }
+
+    /**
+     * Encodes {@code task} and caches the result, replacing any older version.
+     *
+     * @return The encoded task
+     */
+    public byte[] put(TaskResponse task) {
+        byte[] json = serialize(task);
+        cache.put(task.id(), new Entry(task.version(), json));
+        return json;
+    }
+
+    /**
+     * Returns the encoding of {@code task} without caching it, reusing a cached
+     * encoding of the same version if there is one. Bulk reads such as exports
+     * use this so that one pass over the store does not evict the tasks that
+     * are actually read often; their lookups are not counted either.
+     */
+    public byte[] encode(TaskResponse task) {
+        Entry entry = cache.getIfPresent(task.id());
+        return entry != null && entry.version() == task.version() ? entry.json() : serialize(task);
+    }
+
+    /**
+     * Drops the encoding of task {@code id}, if any. Called after every write to
+     * the task.
+     */
+    public void invalidate(UUID id) {
+        cache.invalidate(id);
+    }
+
+    private byte[] serialize(TaskResponse task) {
+        try {
+            return objectMapper.writeValueAsBytes(task);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static double weightedSize(Cache<UUID, Entry> cache) {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+    private record Entry(long version, byte[] json) {
+    }
+}
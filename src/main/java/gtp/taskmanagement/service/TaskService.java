@@ -1,21 +1,81 @@
 package gtp.taskmanagement.service;
 
+import gtp.taskmanagement.dto.BatchItemResult;
+import gtp.taskmanagement.dto.TagMatch;
+import gtp.taskmanagement.dto.TaskBatchPatch;
+import gtp.taskmanagement.dto.TaskFilter;
+import gtp.taskmanagement.dto.TaskPage;
+import gtp.taskmanagement.dto.TaskRequest;
 import gtp.taskmanagement.dto.TaskResponse;
+import gtp.taskmanagement.dto.TaskStats;
 import gtp.taskmanagement.dto.TaskUpdateRequest;
 import gtp.taskmanagement.model.Task;
+import gtp.taskmanagement.repository.TaskVersion;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface TaskService {
-    List<TaskResponse> getAllTasks();
+    TaskPage getTasks(String cursor, Integer limit);
     TaskResponse getTaskById(UUID id);
+
+    TaskVersion getTaskVersion(UUID id);
+
+    long getModificationEpoch();
     TaskResponse createTask(Task task);
-    TaskResponse updateTask(UUID id, Task task);
+    TaskResponse updateTask(UUID id, Task task, Set<Long> expectedVersions);
 
-    TaskResponse patchTask(UUID id, TaskUpdateRequest updates);
+    TaskResponse patchTask(UUID id, TaskUpdateRequest updates, Set<Long> expectedVersions);
 
     void deleteTask(UUID id);
-    List<TaskResponse> getTasksByStatus(String status);
+    TaskPage getTasksByStatus(String status, String cursor, Integer limit);
+
+    TaskPage getTasksByPriority(String priority, String cursor, Integer limit);
+
+    TaskPage getTasksByTags(List<String> tags, TagMatch match, String cursor, Integer limit);
+
+    Map<String, Long> getTagCounts();
+
+    /**
+     * Counts tasks by status and priority, along with overdue tasks and the
+     * completion rate, in constant time however many tasks are stored.
+     */
+    TaskStats getStatistics();
+
+    TaskPage getTasksDueBetween(Instant from, Instant to, List<String> statuses, String cursor, Integer limit);
+
+    TaskPage getOverdueTasks(List<String> statuses, String cursor, Integer limit);
+
+    TaskPage getUpcomingTasks(Duration window, List<String> statuses, String cursor, Integer limit);
+
+    List<TaskResponse> searchTasks(String query, Integer limit);
+
+    /**
+     * Finds tasks matching every criterion of {@code filter}, one page at a
+     * time, in the order it asks for.
+     */
+    TaskPage queryTasks(TaskFilter filter, String cursor, Integer limit);
+
+    /**
+     * Lazily walks every task matching the optional filters in id order. Tasks
+     * are read from the repository one page at a time as the stream is
+     * consumed, so memory does not grow with the store. Close the stream when done.
+     *
+     * @param status Status to keep, or {@code null} for all
+     * @param priority Priority to keep, or {@code null} for all
+     * @throws gtp.taskmanagement.exception.InvalidFilterException if {@code status} or {@code priority} names none
+     */
+    Stream<TaskResponse> streamTasks(String status, String priority);
+
+    List<BatchItemResult> createTasks(List<TaskRequest> requests);
+
+    List<BatchItemResult> patchTasks(List<TaskBatchPatch> patches);
+
+    List<BatchItemResult> getTasksById(List<UUID> ids);
 
-    List<TaskResponse> getTasksByPriority(String priority);
+    List<BatchItemResult> deleteTasks(List<UUID> ids);
 }
\ No newline at end of file
@@ -1,29 +1,97 @@
 package gtp.taskmanagement.service;
 
+import gtp.taskmanagement.dto.BatchItemResult;
+import gtp.taskmanagement.dto.TagMatch;
+import gtp.taskmanagement.dto.TaskChangeType;
+import gtp.taskmanagement.dto.TaskBatchPatch;
+import gtp.taskmanagement.dto.TaskFilter;
+import gtp.taskmanagement.dto.TaskPage;
+import gtp.taskmanagement.dto.TaskRequest;
 import gtp.taskmanagement.dto.TaskResponse;
+import gtp.taskmanagement.dto.TaskSort;
+import gtp.taskmanagement.dto.TaskStats;
 import gtp.taskmanagement.dto.TaskUpdateRequest;
+import gtp.taskmanagement.exception.BatchTooLargeException;
+import gtp.taskmanagement.exception.InvalidFilterException;
+import gtp.taskmanagement.exception.InvalidLimitException;
 import gtp.taskmanagement.exception.TaskNotFoundException;
+import gtp.taskmanagement.exception.TaskVersionConflictException;
 import gtp.taskmanagement.model.Task;
+import gtp.taskmanagement.repository.DueDateKey;
+import gtp.taskmanagement.repository.TaskQuery;
 import gtp.taskmanagement.repository.TaskRepository;
+import gtp.taskmanagement.repository.TaskStatistics;
+import gtp.taskmanagement.repository.TaskVersion;
+import gtp.taskmanagement.util.Util;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static gtp.taskmanagement.util.Util.decodeCursor;
+import static gtp.taskmanagement.util.Util.encodeCursor;
 
 @Service
 public class TaskServiceImpl implements TaskService {
 
     private final TaskRepository taskRepository;
+    private final TaskJsonCache jsonCache;
+    private final TaskChangeFeed changeFeed;
+    private final Validator validator;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int defaultSearchSize;
+    private final int maxSearchSize;
+    private final int maxBatchSize;
+    private final int exportPageSize;
 
-    public TaskServiceImpl(TaskRepository taskRepository) {
+    public TaskServiceImpl(TaskRepository taskRepository,
+                           TaskJsonCache jsonCache,
+                           TaskChangeFeed changeFeed,
+                           Validator validator,
+                           @Value("${task.pagination.default-limit:100}") int defaultPageSize,
+                           @Value("${task.pagination.max-limit:1000}") int maxPageSize,
+                           @Value("${task.search.default-limit:20}") int defaultSearchSize,
+                           @Value("${task.search.max-limit:100}") int maxSearchSize,
+                           @Value("${task.batch.max-size:1000}") int maxBatchSize,
+                           @Value("${task.export.page-size:500}") int exportPageSize) {
         this.taskRepository = taskRepository;
+        this.jsonCache = jsonCache;
+        this.changeFeed = changeFeed;
+        this.validator = validator;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.defaultSearchSize = defaultSearchSize;
+        this.maxSearchSize = maxSearchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.exportPageSize = exportPageSize;
     }
 
     @Override
-    public List<TaskResponse> getAllTasks() {
-        return taskRepository.findAll().stream()
-                .map(TaskResponse::fromEntity)
-                .toList();
+    public TaskPage getTasks(String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        return toPage(taskRepository.findPage(decodeCursor(cursor), pageSize + 1), pageSize);
     }
 
     @Override
@@ -33,73 +101,503 @@ public class TaskServiceImpl implements TaskService {
                 .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
     }
 
+    @Override
+    public TaskVersion getTaskVersion(UUID id) {
+        return taskRepository.findVersion(id)
+                .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
+    }
+
+    @Override
+    public long getModificationEpoch() {
+        return taskRepository.modificationEpoch();
+    }
+
     @Override
     public TaskResponse createTask(Task task) {
         Task savedTask = taskRepository.save(task);
-        return TaskResponse.fromEntity(savedTask);
+        TaskResponse response = TaskResponse.fromEntity(savedTask);
+        changeFeed.publish(TaskChangeType.CREATED, response.id(), response, null, null);
+        return response;
     }
 
     @Override
-    public TaskResponse updateTask(UUID id, Task taskUpdates) {
-        Task existingTask = taskRepository.findById(id)
-                .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
+    public TaskResponse updateTask(UUID id, Task taskUpdates, Set<Long> expectedVersions) {
+        return modify(id, expectedVersions, TaskChangeType.UPDATED, existingTask -> {
+            if (taskUpdates.getTitle() != null) {
+                existingTask.setTitle(taskUpdates.getTitle());
+            }
+            if (taskUpdates.getDescription() != null) {
+                existingTask.setDescription(taskUpdates.getDescription());
+            }
+            if (taskUpdates.getPriority() != null) {
+                existingTask.setPriority(taskUpdates.getPriority());
+            }
+            if (taskUpdates.getStatus() != null) {
+                existingTask.setStatus(taskUpdates.getStatus());
+            }
+            if (taskUpdates.getDueDate() != null) {
+                existingTask.setDueDate(taskUpdates.getDueDate());
+            }
+            if (taskUpdates.getTags() != null) {
+                existingTask.setTags(taskUpdates.getTags());
+            }
+        });
+    }
 
-        if (taskUpdates.getTitle() != null) {
-            existingTask.setTitle(taskUpdates.getTitle());
+    // In TaskServiceImpl.java
+    @Override
+    public TaskResponse patchTask(UUID id, TaskUpdateRequest updates, Set<Long> expectedVersions) {
+        return modify(id, expectedVersions, TaskChangeType.PATCHED, task -> applyUpdates(task, updates));
+    }
+
+    /**
+     * Applies {@code changes} to a fresh copy of the stored task and writes it
+     * back with compare-and-set.
+     * <p>
+     * A conflict only means another writer got in first, so the task is
+     * re-read and the changes re-applied on top of the newer state, provided
+     * that state is still one of the expected versions (from {@code If-Match});
+     * otherwise the mismatch is reported to the caller. No lock is held between
+     * read and write, and a retry only happens after some other write to the
+     * same task has succeeded.
+     * </p>
+     *
+     * @param expectedVersions The versions the task may be at, or {@code null} for any
+     * @param type The change published to the feed once the write succeeds
+     * @throws TaskVersionConflictException if the task is at none of {@code expectedVersions}
+     */
+    private TaskResponse modify(UUID id, Set<Long> expectedVersions, TaskChangeType type, Consumer<Task> changes) {
+        while (true) {
+            Task task = taskRepository.findById(id)
+                    .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
+            long readVersion = task.getVersion();
+            if (expectedVersions != null && !expectedVersions.contains(readVersion)) {
+                throw new TaskVersionConflictException(id, expectedVersions, readVersion);
+            }
+            Task.Status previousStatus = task.getStatus();
+            Task.Priority previousPriority = task.getPriority();
+            changes.accept(task);
+            try {
+                Task saved = taskRepository.compareAndSave(task, readVersion);
+                jsonCache.invalidate(id);
+                TaskResponse response = TaskResponse.fromEntity(saved);
+                changeFeed.publish(type, id, response, previousStatus, previousPriority);
+                return response;
+            } catch (TaskVersionConflictException e) {
+                // Re-read; the check above rejects the newer state if it was not expected.
+            }
         }
-        if (taskUpdates.getDescription() != null) {
-            existingTask.setDescription(taskUpdates.getDescription());
+    }
+
+    @Override
+    public void deleteTask(UUID id) {
+        boolean deleted = taskRepository.deleteById(id);
+        jsonCache.invalidate(id);
+        if (deleted) {
+            changeFeed.publish(TaskChangeType.DELETED, id, null, null, null);
         }
-        if (taskUpdates.getPriority() != null) {
-            existingTask.setPriority(taskUpdates.getPriority());
+    }
+
+    @Override
+    public TaskPage getTasksByStatus(String status, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        return toPage(taskRepository.findByStatus(
+                status(status), decodeCursor(cursor), pageSize + 1), pageSize);
+    }
+
+    @Override
+    public TaskPage getTasksByPriority(String priority, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        return toPage(taskRepository.findByPriority(
+                priority(priority), decodeCursor(cursor), pageSize + 1), pageSize);
+    }
+
+    @Override
+    public TaskPage getTasksByTags(List<String> tags, TagMatch match, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        List<Task> slice = match == TagMatch.ALL
+                ? taskRepository.findByAllTags(tags, decodeCursor(cursor), pageSize + 1)
+                : taskRepository.findByAnyTag(tags, decodeCursor(cursor), pageSize + 1);
+        return toPage(slice, pageSize);
+    }
+
+    @Override
+    public Map<String, Long> getTagCounts() {
+        return taskRepository.countByTag();
+    }
+
+    @Override
+    public TaskStats getStatistics() {
+        TaskStatistics statistics = taskRepository.statistics();
+        long total = 0;
+        long overdue = 0;
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        Map<String, Long> byPriority = new LinkedHashMap<>();
+        Map<String, Map<String, Long>> byStatusAndPriority = new LinkedHashMap<>();
+        Map<String, Long> overdueByPriority = new LinkedHashMap<>();
+        for (Task.Priority priority : Task.Priority.values()) {
+            byPriority.put(priority.name(), 0L);
+            overdueByPriority.put(priority.name(), 0L);
         }
-        if (taskUpdates.getStatus() != null) {
-            existingTask.setStatus(taskUpdates.getStatus());
+        for (Task.Status status : Task.Status.values()) {
+            Map<String, Long> row = new LinkedHashMap<>();
+            long statusTotal = 0;
+            for (Task.Priority priority : Task.Priority.values()) {
+                long count = statistics.counts().get(status).get(priority);
+                row.put(priority.name(), count);
+                statusTotal += count;
+                byPriority.merge(priority.name(), count, Long::sum);
+                if (status != Task.Status.COMPLETED) {
+                    long late = statistics.overdue().get(status).get(priority);
+                    overdueByPriority.merge(priority.name(), late, Long::sum);
+                    overdue += late;
+                }
+            }
+            byStatus.put(status.name(), statusTotal);
+            byStatusAndPriority.put(status.name(), row);
+            total += statusTotal;
         }
-        if (taskUpdates.getDueDate() != null) {
-            existingTask.setDueDate(taskUpdates.getDueDate());
+        double completionRate = total > 0 ? (double) byStatus.get(Task.Status.COMPLETED.name()) / total : 0;
+        return new TaskStats(total, byStatus, byPriority, byStatusAndPriority, overdue, overdueByPriority,
+                completionRate, Instant.ofEpochMilli(statistics.asOf()));
+    }
+
+    @Override
+    public TaskPage getTasksDueBetween(Instant from, Instant to, List<String> statuses, String cursor, Integer limit) {
+        long start = from != null ? from.toEpochMilli() : Long.MIN_VALUE + 1;
+        long end = to != null ? to.toEpochMilli() : Long.MAX_VALUE;
+        return duePage(start, end, parseStatuses(statuses, EnumSet.allOf(Task.Status.class)), cursor, limit);
+    }
+
+    @Override
+    public TaskPage getOverdueTasks(List<String> statuses, String cursor, Integer limit) {
+        Set<Task.Status> selected = parseStatuses(statuses, EnumSet.complementOf(EnumSet.of(Task.Status.COMPLETED)));
+        return duePage(Long.MIN_VALUE + 1, System.currentTimeMillis(), selected, cursor, limit);
+    }
+
+    @Override
+    public TaskPage getUpcomingTasks(Duration window, List<String> statuses, String cursor, Integer limit) {
+        Set<Task.Status> selected = parseStatuses(statuses, EnumSet.complementOf(EnumSet.of(Task.Status.COMPLETED)));
+        long now = System.currentTimeMillis();
+        return duePage(now, now + window.toMillis(), selected, cursor, limit);
+    }
+
+    /**
+     * Resolves the requested page size, falling back to the default when absent
+     * and clamping it to the configured server-side maximum.
+     *
+     * @throws InvalidLimitException if {@code limit} is below 1
+     */
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
         }
-        if (taskUpdates.getTags() != null) {
-            existingTask.setTags(taskUpdates.getTags());
+        return Math.min(checkLimit(limit), maxPageSize);
+    }
+
+    private static int checkLimit(int limit) {
+        if (limit < 1) {
+            throw new InvalidLimitException("limit must be at least 1, was " + limit);
         }
+        return limit;
+    }
 
-        Task updatedTask = taskRepository.save(existingTask);
-        return TaskResponse.fromEntity(updatedTask);
+    @Override
+    public List<TaskResponse> searchTasks(String query, Integer limit) {
+        int size = limit == null ? defaultSearchSize : Math.min(checkLimit(limit), maxSearchSize);
+        return taskRepository.search(query, size).stream()
+                .map(TaskResponse::fromEntity)
+                .toList();
     }
 
-    // In TaskServiceImpl.java
     @Override
-    public TaskResponse patchTask(UUID id, TaskUpdateRequest updates) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new TaskNotFoundException("Task not found"));
+    public TaskPage queryTasks(TaskFilter filter, String cursor, Integer limit) {
+        Set<Task.Priority> priorities = null;
+        if (filter.priorities() != null) {
+            priorities = EnumSet.noneOf(Task.Priority.class);
+            for (String priority : filter.priorities()) {
+                priorities.add(priority(priority));
+            }
+        }
+        TaskQuery query = new TaskQuery(
+                parseStatuses(filter.statuses(), null),
+                priorities,
+                filter.tags() != null ? new HashSet<>(filter.tags()) : null,
+                filter.tagMatch() != TagMatch.ANY,
+                filter.dueFrom() != null ? filter.dueFrom().toEpochMilli() : null,
+                filter.dueTo() != null ? filter.dueTo().toEpochMilli() : null,
+                filter.text());
+        int pageSize = pageSize(limit);
+        if (filter.sort() == TaskSort.DUE_DATE) {
+            List<Task> slice = taskRepository.queryByDueDate(query, DueDateKey.decodeCursor(cursor), pageSize + 1);
+            return toPage(slice, pageSize, DueDateKey::encodeCursor);
+        }
+        return toPage(taskRepository.query(query, decodeCursor(cursor), pageSize + 1), pageSize);
+    }
 
-        updates.title().ifPresent(task::setTitle);
-        updates.description().ifPresent(task::setDescription);
-        updates.priority().ifPresent(task::setPriority);
-        updates.status().ifPresent(task::setStatus);
-        updates.dueDate().ifPresent(task::setDueDate);
-        updates.tags().ifPresent(task::setTags);
+    /**
+     * Pages through the narrowest index for the filters; when both are given the
+     * status index drives the walk and priority is checked per task. Each page
+     * is fetched only once the previous one has been consumed, so a slow
+     * consumer holds back the walk instead of letting pages pile up.
+     */
+    @Override
+    public Stream<TaskResponse> streamTasks(String status, String priority) {
+        Task.Status byStatus = status != null ? status(status) : null;
+        Task.Priority byPriority = priority != null ? priority(priority) : null;
+        Function<UUID, List<Task>> pager;
+        Predicate<Task> filter = task -> true;
+        if (byStatus != null) {
+            pager = after -> taskRepository.findByStatus(byStatus, after, exportPageSize);
+            if (byPriority != null) {
+                filter = task -> task.getPriority() == byPriority;
+            }
+        } else if (byPriority != null) {
+            pager = after -> taskRepository.findByPriority(byPriority, after, exportPageSize);
+        } else {
+            pager = after -> taskRepository.findPage(after, exportPageSize);
+        }
+        // A short page is the last one, so it is followed by an empty page without another query.
+        return Stream.iterate(pager.apply(null), page -> !page.isEmpty(), page -> page.size() < exportPageSize
+                        ? List.of()
+                        : pager.apply(page.get(page.size() - 1).getId()))
+                .flatMap(List::stream)
+                .filter(filter)
+                .map(TaskResponse::fromEntity);
+    }
 
-        Task updated = taskRepository.save(task);
-        return TaskResponse.fromEntity(updated);
+    @Override
+    public List<BatchItemResult> createTasks(List<TaskRequest> requests) {
+        checkBatchSize(requests.size());
+        List<BatchItemResult> results = new ArrayList<>(requests.size());
+        List<Task> valid = new ArrayList<>(requests.size());
+        List<Integer> validIndexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            TaskRequest request = requests.get(i);
+            Map<String, String> errors = validate(request);
+            if (!errors.isEmpty()) {
+                results.add(BatchItemResult.failure(i, null, HttpStatus.BAD_REQUEST.value(), errors));
+                continue;
+            }
+            results.add(null);
+            validIndexes.add(i);
+            valid.add(new Task(
+                    null,
+                    request.title(),
+                    request.description(),
+                    request.priority(),
+                    request.status(),
+                    request.dueDate(),
+                    request.tags()
+            ));
+        }
+        List<Task> saved = taskRepository.saveAll(valid);
+        for (int i = 0; i < saved.size(); i++) {
+            int index = validIndexes.get(i);
+            TaskResponse response = TaskResponse.fromEntity(saved.get(i));
+            changeFeed.publish(TaskChangeType.CREATED, response.id(), response, null, null);
+            results.set(index, BatchItemResult.success(index, HttpStatus.CREATED.value(), response));
+        }
+        return results;
     }
 
     @Override
-    public void deleteTask(UUID id) {
-        taskRepository.deleteById(id);
+    public List<BatchItemResult> patchTasks(List<TaskBatchPatch> patches) {
+        checkBatchSize(patches.size());
+        List<BatchItemResult> results = new ArrayList<>(Collections.nCopies(patches.size(), null));
+        // Valid patches by task, in request order, so repeated ids compose.
+        Map<UUID, List<Integer>> pending = new LinkedHashMap<>();
+        for (int i = 0; i < patches.size(); i++) {
+            TaskBatchPatch patch = patches.get(i);
+            UUID id = patch != null ? patch.id() : null;
+            if (id == null) {
+                results.set(i, BatchItemResult.failure(i, null, HttpStatus.BAD_REQUEST.value(),
+                        Map.of("id", "Task id is required")));
+                continue;
+            }
+            Map<String, String> errors = validate(patch.changes());
+            if (!errors.isEmpty()) {
+                results.set(i, BatchItemResult.failure(i, id, HttpStatus.BAD_REQUEST.value(), errors));
+                continue;
+            }
+            pending.computeIfAbsent(id, key -> new ArrayList<>()).add(i);
+        }
+
+        // As in modify: each task is written back at the version it was read at, and a task
+        // another writer changed in between is re-read and patched again on top of that change.
+        while (!pending.isEmpty()) {
+            List<Task> toSave = new ArrayList<>(pending.size());
+            Map<UUID, Task.Status> previousStatus = new HashMap<>();
+            Map<UUID, Task.Priority> previousPriority = new HashMap<>();
+            for (Task task : taskRepository.findAllById(pending.keySet())) {
+                previousStatus.put(task.getId(), task.getStatus());
+                previousPriority.put(task.getId(), task.getPriority());
+                for (int index : pending.get(task.getId())) {
+                    applyUpdates(task, patches.get(index).changes());
+                }
+                toSave.add(task);
+            }
+            Map<UUID, List<Integer>> missing = new LinkedHashMap<>(pending);
+            for (Task task : toSave) {
+                missing.remove(task.getId());
+            }
+            missing.forEach((id, indexes) -> {
+                for (int index : indexes) {
+                    results.set(index, BatchItemResult.failure(index, id, HttpStatus.NOT_FOUND.value(),
+                            Map.of("id", "Task not found with id: " + id)));
+                }
+                pending.remove(id);
+            });
+
+            List<Task> saved = taskRepository.compareAndSaveAll(toSave);
+            for (Task task : saved) {
+                if (task == null) {
+                    continue;
+                }
+                UUID id = task.getId();
+                jsonCache.invalidate(id);
+                TaskResponse response = TaskResponse.fromEntity(task);
+                changeFeed.publish(TaskChangeType.PATCHED, id, response, previousStatus.get(id), previousPriority.get(id));
+                for (int index : pending.remove(id)) {
+                    results.set(index, BatchItemResult.success(index, HttpStatus.OK.value(), response));
+                }
+            }
+        }
+        return results;
     }
 
     @Override
-    public List<TaskResponse> getTasksByStatus(String status) {
-        return taskRepository.findByStatus(Task.Status.valueOf(status.toUpperCase())).stream()
-                .map(TaskResponse::fromEntity)
-                .toList();
+    public List<BatchItemResult> getTasksById(List<UUID> ids) {
+        checkBatchSize(ids.size());
+        Map<UUID, TaskResponse> found = new HashMap<>();
+        for (Task task : taskRepository.findAllById(ids.stream().filter(Objects::nonNull).toList())) {
+            found.put(task.getId(), TaskResponse.fromEntity(task));
+        }
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            TaskResponse task = found.get(ids.get(i));
+            results.add(task != null
+                    ? BatchItemResult.success(i, HttpStatus.OK.value(), task)
+                    : notFound(i, ids.get(i)));
+        }
+        return results;
     }
 
     @Override
-    public List<TaskResponse> getTasksByPriority(String priority) {
-        return taskRepository.findByPriority(Task.Priority.valueOf(priority.toUpperCase())).stream()
+    public List<BatchItemResult> deleteTasks(List<UUID> ids) {
+        checkBatchSize(ids.size());
+        Set<UUID> deleted = taskRepository.deleteAllById(ids.stream().filter(Objects::nonNull).toList());
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        for (UUID id : deleted) {
+            jsonCache.invalidate(id);
+            changeFeed.publish(TaskChangeType.DELETED, id, null, null, null);
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            UUID id = ids.get(i);
+            results.add(deleted.remove(id)
+                    ? new BatchItemResult(i, id, HttpStatus.NO_CONTENT.value(), null, null)
+                    : notFound(i, id));
+        }
+        return results;
+    }
+
+    /**
+     * Copies the fields present in {@code updates} onto {@code task}.
+     */
+    private static void applyUpdates(Task task, TaskUpdateRequest updates) {
+        task.update(updates.title(), updates.description(), updates.priority(), updates.status(),
+                updates.dueDate(), updates.tags());
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > maxBatchSize) {
+            throw new BatchTooLargeException(
+                    "Batch of " + size + " items exceeds the maximum of " + maxBatchSize);
+        }
+    }
+
+    /**
+     * Validates one batch item the way {@code @Valid} validates a single request
+     * body, returning field errors instead of throwing so the rest of the batch
+     * can proceed.
+     */
+    private Map<String, String> validate(Object item) {
+        if (item == null) {
+            return Map.of("item", "Item is required");
+        }
+        Map<String, String> errors = new TreeMap<>();
+        for (ConstraintViolation<Object> violation : validator.validate(item)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    private static BatchItemResult notFound(int index, UUID id) {
+        String message = id != null ? "Task not found with id: " + id : "Task id is required";
+        int status = id != null ? HttpStatus.NOT_FOUND.value() : HttpStatus.BAD_REQUEST.value();
+        return BatchItemResult.failure(index, id, status, Map.of("id", message));
+    }
+
+    private TaskPage duePage(long from, long to, Set<Task.Status> statuses, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        List<Task> slice = taskRepository.findByDueDate(from, to, statuses, DueDateKey.decodeCursor(cursor), pageSize + 1);
+        return toPage(slice, pageSize, DueDateKey::encodeCursor);
+    }
+
+    /**
+     * Parses status names, returning {@code defaults} when none are given.
+     */
+    private static Set<Task.Status> parseStatuses(List<String> statuses, Set<Task.Status> defaults) {
+        if (statuses == null || statuses.isEmpty()) {
+            return defaults;
+        }
+        Set<Task.Status> parsed = EnumSet.noneOf(Task.Status.class);
+        for (String status : statuses) {
+            parsed.add(status(status));
+        }
+        return parsed;
+    }
+
+    /**
+     * @throws InvalidFilterException if {@code value} names no status
+     */
+    private static Task.Status status(String value) {
+        Task.Status status = Util.parseStatus(value);
+        if (status == null) {
+            throw new InvalidFilterException("Invalid status: " + value + "; expected one of "
+                    + Arrays.toString(Task.Status.values()));
+        }
+        return status;
+    }
+
+    /**
+     * @throws InvalidFilterException if {@code value} names no priority
+     */
+    private static Task.Priority priority(String value) {
+        Task.Priority priority = Util.parsePriority(value);
+        if (priority == null) {
+            throw new InvalidFilterException("Invalid priority: " + value + "; expected one of "
+                    + Arrays.toString(Task.Priority.values()));
+        }
+        return priority;
+    }
+
+    private TaskPage toPage(List<Task> slice, int pageSize) {
+        return toPage(slice, pageSize, task -> encodeCursor(task.getId()));
+    }
+
+    /**
+     * Builds a page from a repository slice fetched with one extra element; the
+     * extra element only signals that a following page exists. The next cursor
+     * is built from the last task returned.
+     */
+    private TaskPage toPage(List<Task> slice, int pageSize, Function<Task, String> cursorOf) {
+        boolean hasMore = slice.size() > pageSize;
+        List<Task> tasks = hasMore ? slice.subList(0, pageSize) : slice;
+        List<TaskResponse> items = tasks.stream()
                 .map(TaskResponse::fromEntity)
                 .toList();
+        String nextCursor = hasMore ? cursorOf.apply(tasks.get(tasks.size() - 1)) : null;
+        return new TaskPage(items, nextCursor);
     }
 }
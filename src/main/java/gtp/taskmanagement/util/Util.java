@@ -1,22 +1,119 @@
 package gtp.taskmanagement.util;
 
+import gtp.taskmanagement.exception.InvalidCursorException;
 import gtp.taskmanagement.model.Task;
 
-import java.util.Arrays;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
 
 public class Util {
+    private static final Task.Priority[] PRIORITIES = Task.Priority.values();
+    private static final Task.Status[] STATUSES = Task.Status.values();
+
     public static boolean isValidPriority(String value) {
-        return Arrays.stream(Task.Priority.values())
-                .anyMatch(priority -> priority.name().equalsIgnoreCase(value));
+        return parsePriority(value) != null;
     }
 
     public static boolean isValidStatus(String value) {
-        if (value == null || value.trim().isEmpty()) return false;
+        return parseStatus(value) != null;
+    }
+
+    /**
+     * Looks up a priority by name, ignoring case, without allocating or throwing.
+     *
+     * @return The priority, or {@code null} if {@code value} names none
+     */
+    public static Task.Priority parsePriority(String value) {
+        if (value != null) {
+            for (Task.Priority priority : PRIORITIES) {
+                if (priority.name().equalsIgnoreCase(value)) {
+                    return priority;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Looks up a status by name, ignoring case, without allocating or throwing.
+     *
+     * @return The status, or {@code null} if {@code value} names none
+     */
+    public static Task.Status parseStatus(String value) {
+        if (value != null) {
+            for (Task.Status status : STATUSES) {
+                if (status.name().equalsIgnoreCase(value)) {
+                    return status;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Formats a task version as a strong entity tag, e.g. {@code "3"}.
+     */
+    public static String toETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Parses an {@code If-Match} header: {@code *} or a comma-separated list of
+     * entity tags, as produced by {@link #toETag(long)}. If-Match compares
+     * strongly, so weak tags ({@code W/"3"}) and tags that are not ours match
+     * no version.
+     *
+     * @return The versions any of which satisfies the header (possibly none),
+     * or {@code null} when the header is absent or {@code *}
+     */
+    public static Set<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+        Set<Long> versions = new HashSet<>();
+        for (String member : ifMatch.split(",")) {
+            String tag = member.trim();
+            if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+                continue;
+            }
+            try {
+                versions.add(Long.parseLong(tag.substring(1, tag.length() - 1)));
+            } catch (NumberFormatException e) {
+                // Not one of ours: matches nothing.
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Encodes the id of the last task on a page as an opaque, URL-safe cursor.
+     */
+    public static String encodeCursor(UUID lastId) {
+        ByteBuffer buffer = ByteBuffer.allocate(16)
+                .putLong(lastId.getMostSignificantBits())
+                .putLong(lastId.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encodeCursor(UUID)}.
+     *
+     * @return The id to resume after, or {@code null} for a blank cursor
+     * @throws InvalidCursorException if the cursor is malformed
+     */
+    public static UUID decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        byte[] bytes;
         try {
-            Task.Status.valueOf(value.toUpperCase());
-            return true;
+            bytes = Base64.getUrlDecoder().decode(cursor);
         } catch (IllegalArgumentException e) {
-            return false;
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+        if (bytes.length != 16) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
         }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
     }
 }
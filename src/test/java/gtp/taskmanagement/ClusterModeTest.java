@@ -0,0 +1,192 @@
+package gtp.taskmanagement;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gtp.taskmanagement.controller.TaskController;
+import gtp.taskmanagement.repository.ClusterTaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs several instances in cluster mode on local ports and checks that they
+ * behave as one store.
+ * <p>
+ * Two instances start first and take tasks created through one of them; every
+ * task must be readable through the other. A third instance then joins: the
+ * tasks it now owns must be handed over to it, and a paged listing and the
+ * statistics through it must cover every task. Finally the third instance
+ * shuts down, and every task must still be readable from the remaining two.
+ * Calls to the peer endpoint without the cluster secret are refused throughout.
+ * </p>
+ * <p>
+ * Skipped by default, as it starts three application contexts and waits on
+ * heartbeats; run with {@code mvn test -Dtest=ClusterModeTest -Dclustertest=true}.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "clustertest", matches = "true")
+class ClusterModeTest {
+
+    private static final int TASKS = 60;
+    private static final Duration SETTLE = Duration.ofSeconds(30);
+    private static final String SECRET = "cluster-mode-test";
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void instancesShareTasksAndHandThemOverWhenMembersChange() throws Exception {
+        int[] ports = {freePort(), freePort(), freePort()};
+        String peers = "http://localhost:" + ports[0] + ",http://localhost:" + ports[1]
+                + ",http://localhost:" + ports[2];
+        String[] nodes = {"http://localhost:" + ports[0], "http://localhost:" + ports[1],
+                "http://localhost:" + ports[2]};
+        try (ConfigurableApplicationContext first = start(ports[0], peers);
+             ConfigurableApplicationContext second = start(ports[1], peers)) {
+            awaitMembers(2, nodes[0], nodes[1]);
+            assertThat(send(HttpRequest.newBuilder(URI.create(nodes[0] + "/internal/v1/cluster/ping"))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build()).statusCode()).isEqualTo(401);
+            assertThat(send(HttpRequest.newBuilder(URI.create(nodes[1] + "/internal/v1/cluster"))
+                    .header(ClusterTaskRepository.SECRET_HEADER, "wrong").build()).statusCode()).isEqualTo(403);
+
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < TASKS; i++) {
+                HttpResponse<String> created = send(HttpRequest.newBuilder(URI.create(nodes[0] + "/api/v1/tasks"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"title\":\"Cluster task " + i + "\",\"priority\":\"MEDIUM\",\"tags\":[\"cluster\"]}"))
+                        .build());
+                assertThat(created.statusCode()).isEqualTo(201);
+                ids.add(json.readTree(created.body()).get("id").asText());
+            }
+            for (String id : ids) {
+                assertThat(get(nodes[1] + "/api/v1/tasks/" + id).statusCode()).isEqualTo(200);
+            }
+            assertThat(localTasks(nodes[0]) + localTasks(nodes[1])).isEqualTo(TASKS);
+            assertThat(localTasks(nodes[0])).isPositive();
+            assertThat(localTasks(nodes[1])).isPositive();
+
+            try (ConfigurableApplicationContext third = start(ports[2], peers)) {
+                awaitMembers(3, nodes);
+                await(() -> localTasks(nodes[2]) > 0
+                        && localTasks(nodes[0]) + localTasks(nodes[1]) + localTasks(nodes[2]) == TASKS);
+
+                assertThat(listAll(nodes[2])).containsExactlyInAnyOrderElementsOf(ids);
+                JsonNode stats = json.readTree(get(nodes[2] + "/api/v1/tasks/stats").body());
+                assertThat(stats.get("total").asLong()).isEqualTo(TASKS);
+            }
+
+            awaitMembers(2, nodes[0], nodes[1]);
+            assertThat(localTasks(nodes[0]) + localTasks(nodes[1])).isEqualTo(TASKS);
+            for (String id : ids) {
+                assertThat(get(nodes[0] + "/api/v1/tasks/" + id).statusCode()).isEqualTo(200);
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(int port, String peers) {
+        return new SpringApplicationBuilder(TaskManagementApplication.class)
+                .run(
+                        "--server.port=" + port,
+                        "--task.store.mode=cluster",
+                        "--task.cluster.peers=" + peers,
+                        "--task.cluster.secret=" + SECRET,
+                        "--task.cluster.heartbeat-interval-ms=200",
+                        "--task.seed.samples=false",
+                        "--task.rate-limit.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.file.name=");
+    }
+
+    /**
+     * Pages through the whole task list of {@code node}, a few tasks at a time.
+     */
+    private List<String> listAll(String node) throws Exception {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            HttpResponse<String> page = get(node + "/api/v1/tasks?limit=7" + (cursor != null ? "&cursor=" + cursor : ""));
+            assertThat(page.statusCode()).isEqualTo(200);
+            for (JsonNode task : json.readTree(page.body())) {
+                ids.add(task.get("id").asText());
+            }
+            cursor = page.headers().firstValue(TaskController.NEXT_CURSOR_HEADER).orElse(null);
+        } while (cursor != null);
+        return ids;
+    }
+
+    private void awaitMembers(int count, String... nodes) throws Exception {
+        await(() -> {
+            for (String node : nodes) {
+                if (members(node).size() != count) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    private Set<String> members(String node) {
+        try {
+            Set<String> members = new HashSet<>();
+            for (JsonNode member : json.readTree(clusterState(node).body()).get("members")) {
+                members.add(member.asText());
+            }
+            return members;
+        } catch (Exception e) {
+            return Set.of();
+        }
+    }
+
+    private long localTasks(String node) {
+        try {
+            return json.readTree(clusterState(node).body()).get("localTasks").asLong();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private HttpResponse<String> clusterState(String node) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(node + "/internal/v1/cluster"))
+                .header(ClusterTaskRepository.SECRET_HEADER, SECRET)
+                .build());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + SETTLE.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("cluster did not settle within %s", SETTLE).isLessThan(deadline);
+            Thread.sleep(100);
+        }
+    }
+
+    private HttpResponse<String> get(String uri) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(uri)).build());
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package gtp.taskmanagement;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test comparing the servlet deployment (Tomcat, thread per request) with
+ * the reactive one (Netty event loops) as the number of concurrent connections
+ * grows.
+ * <p>
+ * Each deployment is started on a random port and seeded through the import
+ * endpoint. Then, for every concurrency level, that many clients keep one
+ * request each in flight against a list endpoint. Throughput and latency
+ * percentiles are logged per level; every request must succeed, and the 99th
+ * percentile must stay under {@value #MAX_P99_MILLIS} ms.
+ * </p>
+ * <p>
+ * Skipped by default; run with
+ * {@code mvn test -Dtest=ConnectionScalabilityLoadTest -Dloadtest=true}. The
+ * client shares the machine with the server, so compare the two deployments
+ * with each other rather than reading the numbers as absolute capacity.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class ConnectionScalabilityLoadTest {
+
+    private static final int[] CONCURRENCY = {100, 1_000, 5_000};
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final int SEED_TASKS = 5_000;
+    private static final String LIST_PATH = "/api/v1/tasks?limit=20";
+    /**
+     * A generous ceiling that only catches a deployment stalling, such as
+     * requests queueing behind a full thread pool until they time out.
+     */
+    private static final double MAX_P99_MILLIS = 30_000;
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionScalabilityLoadTest.class);
+
+    @Test
+    void servletAndReactiveDeploymentsUnderConcurrentConnections() throws Exception {
+        for (WebApplicationType type : List.of(WebApplicationType.SERVLET, WebApplicationType.REACTIVE)) {
+            try (ConfigurableApplicationContext context = start(type)) {
+                String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                try (HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(30))
+                        .build()) {
+                    seed(client, base);
+                    for (int connections : CONCURRENCY) {
+                        Run run = run(client, base, connections);
+                        log.info(String.format("%s with %d connections: %.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms",
+                                type, connections, run.throughput(), run.percentile(0.50), run.percentile(0.99),
+                                run.percentile(1.0)));
+                        assertThat(run.failures()).as("%s with %d connections: failed requests", type, connections)
+                                .isZero();
+                        assertThat(run.percentile(0.99)).as("%s with %d connections: p99 ms", type, connections)
+                                .isLessThan(MAX_P99_MILLIS);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts a deployment. Settings are passed as command-line arguments, which
+     * override application.properties; {@code properties(...)} would only add
+     * defaults beneath it.
+     */
+    private static ConfigurableApplicationContext start(WebApplicationType type) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(TaskManagementApplication.class);
+        if (type == WebApplicationType.REACTIVE) {
+            builder.profiles("reactive");
+        }
+        return builder.web(type).run(
+                "--server.port=0",
+                "--task.store.mode=memory",
+                // Every connection comes from one address; measure the server, not the limiter.
+                "--task.rate-limit.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level." + ConnectionScalabilityLoadTest.class.getName() + "=INFO",
+                "--logging.file.name=");
+    }
+
+    private static void seed(HttpClient client, String base) throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < SEED_TASKS; i++) {
+            body.append("{\"title\":\"Load task ").append(i)
+                    .append("\",\"priority\":\"MEDIUM\",\"tags\":[\"load\"]}\n");
+        }
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + "/api/v1/tasks/import"))
+                        .header("Content-Type", "application/x-ndjson")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+    }
+
+    /**
+     * Runs {@code connections} virtual-thread clients, each sending
+     * {@value #REQUESTS_PER_CLIENT} requests back to back, so that about
+     * {@code connections} requests and connections are open at any time.
+     */
+    private static Run run(HttpClient client, String base, int connections) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + LIST_PATH))
+                .timeout(Duration.ofMinutes(2))
+                .build();
+        long[] latencies = new long[connections * REQUESTS_PER_CLIENT];
+        AtomicLong failures = new AtomicLong();
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(connections);
+            for (int c = 0; c < connections; c++) {
+                int offset = c * REQUESTS_PER_CLIENT;
+                futures.add(clients.submit(() -> {
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                        }
+                        latencies[offset + r] = System.nanoTime() - sent;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Run(latencies, elapsed, failures.get());
+    }
+
+    private record Run(long[] sortedLatencies, long elapsedNanos, long failures) {
+        double throughput() {
+            return sortedLatencies.length * 1e9 / elapsedNanos;
+        }
+
+        double percentile(double p) {
+            int index = (int) Math.min(sortedLatencies.length - 1, Math.ceil(p * sortedLatencies.length) - 1);
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package gtp.taskmanagement.controller;
+
+import gtp.taskmanagement.controller.RateLimited.Budget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientRateLimiterTest {
+
+    private final ClientRateLimiter limiter =
+            new ClientRateLimiter(new SimpleMeterRegistry(), "X-API-Key", "team-a, team-b", 1, 1, 1, 1, 1000);
+
+    @Test
+    void unknownKeysDrawOnTheBucketsOfTheirAddress() {
+        MockHttpServletRequest first = request("10.0.0.1", "made-up-1");
+        MockHttpServletRequest second = request("10.0.0.1", "made-up-2");
+
+        assertThat(limiter.clientOf(first)).isEqualTo("addr:10.0.0.1").isEqualTo(limiter.clientOf(second));
+        assertThat(limiter.acquire(limiter.clientOf(first), Budget.POINT)).isZero();
+        assertThat(limiter.acquire(limiter.clientOf(second), Budget.POINT)).isPositive();
+    }
+
+    @Test
+    void configuredKeysHaveBucketsOfTheirOwn() {
+        MockHttpServletRequest teamA = request("10.0.0.1", "team-a");
+        MockHttpServletRequest teamB = request("10.0.0.1", "team-b");
+
+        assertThat(limiter.clientOf(teamA)).isEqualTo("key:team-a");
+        assertThat(limiter.acquire(limiter.clientOf(teamA), Budget.POINT)).isZero();
+        assertThat(limiter.acquire(limiter.clientOf(teamB), Budget.POINT)).isZero();
+        assertThat(limiter.acquire(limiter.clientOf(request("10.0.0.1", null)), Budget.POINT)).isZero();
+        assertThat(limiter.acquire(limiter.clientOf(teamA), Budget.POINT)).isPositive();
+    }
+
+    private static MockHttpServletRequest request(String address, String key) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks");
+        request.setRemoteAddr(address);
+        if (key != null) {
+            request.addHeader("X-API-Key", key);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,51 @@
+package gtp.taskmanagement.controller;
+
+import gtp.taskmanagement.repository.ClusterTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ClusterControllerTest {
+
+    private static final String SELF = "http://localhost:18080";
+    private static final String SECRET = "s3cret";
+
+    private final ClusterTaskRepository cluster = new ClusterTaskRepository(SELF, "", 1000, 2000, 3, SECRET);
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new ClusterController(cluster)).build();
+
+    @AfterEach
+    void close() throws InterruptedException {
+        cluster.close();
+    }
+
+    @Test
+    void peerCallsWithoutTheSecretAreRefused() throws Exception {
+        mvc.perform(post("/internal/v1/cluster/ping").contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(get("/internal/v1/cluster"))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(post("/internal/v1/cluster/ping").contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header(ClusterTaskRepository.SECRET_HEADER, "guess"))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/internal/v1/cluster").header(ClusterTaskRepository.SECRET_HEADER, ""))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void peerCallsWithTheSecretAreServed() throws Exception {
+        mvc.perform(post("/internal/v1/cluster/ping").contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header(ClusterTaskRepository.SECRET_HEADER, SECRET))
+                .andExpect(status().isOk());
+        mvc.perform(get("/internal/v1/cluster").header(ClusterTaskRepository.SECRET_HEADER, SECRET))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.self").value(SELF))
+                .andExpect(jsonPath("$.localTasks").value(0));
+    }
+}
@@ -0,0 +1,70 @@
+package gtp.taskmanagement.controller;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import gtp.taskmanagement.exception.GlobalExceptionHandler;
+import gtp.taskmanagement.model.Task;
+import gtp.taskmanagement.repository.TaskRepositoryImpl;
+import gtp.taskmanagement.service.TaskChangeFeed;
+import gtp.taskmanagement.service.TaskJsonCache;
+import gtp.taskmanagement.service.TaskServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TaskControllerTest {
+
+    private static final long EXPORT_TIMEOUT_SECONDS = 3600;
+    private static final long DEFAULT_TIMEOUT_MILLIS = 30_000;
+
+    private final TaskRepositoryImpl repository = new TaskRepositoryImpl();
+    private final MockMvc mvc = mockMvc(repository);
+
+    @Test
+    void exportRunsWithItsOwnAsyncTimeout() throws Exception {
+        repository.save(new Task(null, "Export me", null, "LOW", "PENDING",
+                new Date(System.currentTimeMillis() + 86_400_000L), List.of()));
+
+        MvcResult export = mvc.perform(get("/api/v1/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(export.getRequest().getAsyncContext().getTimeout()).isEqualTo(EXPORT_TIMEOUT_SECONDS * 1000);
+        mvc.perform(asyncDispatch(export)).andExpect(status().isOk());
+        assertThat(export.getResponse().getContentAsString()).contains("Export me");
+    }
+
+    @Test
+    void exportRejectsAnUnknownStatusBeforeStreaming() throws Exception {
+        mvc.perform(get("/api/v1/tasks/export").param("status", "DONE"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(startsWith("Invalid status: DONE")));
+    }
+
+    private static MockMvc mockMvc(TaskRepositoryImpl repository) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TaskJsonCache jsonCache = new TaskJsonCache(JsonMapper.builder().findAndAddModules().build(), registry, 1L << 20);
+        TaskServiceImpl taskService = new TaskServiceImpl(repository, jsonCache, new TaskChangeFeed(registry, 16),
+                Validation.buildDefaultValidatorFactory().getValidator(), 100, 1000, 20, 100, 1000, 500);
+        // The importer and the change feed are not involved in exports.
+        TaskController controller = new TaskController(taskService, jsonCache, null, null, EXPORT_TIMEOUT_SECONDS);
+        return MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler(registry))
+                .setAsyncRequestTimeout(DEFAULT_TIMEOUT_MILLIS)
+                .build();
+    }
+}
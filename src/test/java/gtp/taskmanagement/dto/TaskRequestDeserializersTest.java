@@ -0,0 +1,131 @@
+package gtp.taskmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.deser.DeserializationProblemHandler;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskRequestDeserializersTest {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().findAndAddModules().build();
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2025-06-01T09:30:00.000+00:00",
+            "2025-06-01T09:30:00.000Z",
+            "2025-06-01T09:30:00Z",
+            "2025-06-01T09:30:00.123+0000",
+            "2025-06-01T09:30:00+05:30",
+            "2025-06-01T09:30:00.999-0330",
+            "2025-01-01T00:30:00+01:00",
+            "1999-12-31T23:59:59.999-01:00",
+            "2024-02-29T23:59:59Z",
+            "2000-02-29T12:00:00.001+14:00",
+            "1900-01-01T00:00:00Z",
+            "2100-03-01T00:00:00-23:59",
+    })
+    void isoInstantsParseAsTheDateFormatDoes(String text) throws Exception {
+        assertThat(TaskRequestDeserializers.parseIsoInstant(text)).isEqualTo(dateFormat().parse(text).getTime());
+        assertThat(dueDate(text)).isEqualTo(dateFormat().parse(text));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2025-06-01",
+            "2025-06-01T09:30:00",
+            "2025-06-01T09:30:00.000",
+            "2025-06-01T09:30:00.12Z",
+            "2025-06-01T09:30Z",
+            "2025-06-01 09:30:00Z",
+            "2025-06-01T09:30:00+5:30",
+            "2025-06-01T09:30:00+05",
+            "2023-02-29T12:00:00Z",
+            "2025-04-31T12:00:00Z",
+            "2025-13-01T00:00:00Z",
+            "2025-06-01T24:00:00Z",
+            "1899-12-31T23:59:59Z",
+            "Sun, 01 Jun 2025 09:30:00 GMT",
+            "not a date",
+    })
+    void otherStringsAreLeftToTheDateFormat(String text) throws Exception {
+        assertThat(TaskRequestDeserializers.parseIsoInstant(text)).isEqualTo(Long.MIN_VALUE);
+        Date expected;
+        try {
+            expected = dateFormat().parse(text);
+        } catch (ParseException e) {
+            assertThatThrownBy(() -> dueDate(text)).hasMessageContaining("not a valid date");
+            return;
+        }
+        assertThat(dueDate(text)).isEqualTo(expected);
+    }
+
+    @Test
+    void fieldNamesFollowTheNamingStrategy() throws Exception {
+        JsonMapper snakeCase = JsonMapper.builder().findAndAddModules()
+                .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .build();
+        String json = "{\"title\":\"Ship it\",\"due_date\":0,\"dueDate\":1,\"tags\":[\"ops\"]}";
+
+        TaskUpdateRequest update = snakeCase.readValue(json, TaskUpdateRequest.class);
+        assertThat(update.dueDate()).isEqualTo(new Date(0));
+        assertThat(update.tags()).containsExactly("ops");
+        assertThat(MAPPER.readValue(json, TaskRequest.class).dueDate()).isEqualTo(new Date(1));
+    }
+
+    @Test
+    void fieldNamesFollowJsonProperty() throws Exception {
+        JsonMapper renamed = JsonMapper.builder().findAndAddModules()
+                .addMixIn(TaskRequest.class, RenamedTitle.class)
+                .build();
+
+        TaskRequest request = renamed.readValue("{\"name\":\"Ship it\",\"title\":\"ignored\"}", TaskRequest.class);
+        assertThat(request.title()).isEqualTo("Ship it");
+    }
+
+    @Test
+    void tagsUseWhatAProblemHandlerReturns() throws Exception {
+        JsonMapper lenient = JsonMapper.builder().findAndAddModules()
+                .addHandler(new DeserializationProblemHandler() {
+                    @Override
+                    public Object handleUnexpectedToken(DeserializationContext ctxt, JavaType targetType,
+                                                        JsonToken t, JsonParser p, String failureMsg)
+                            throws IOException {
+                        return List.of(p.getText());
+                    }
+                })
+                .build();
+
+        TaskRequest request = lenient.readValue("{\"tags\":\"ops\",\"title\":\"Ship it\"}", TaskRequest.class);
+        assertThat(request.tags()).containsExactly("ops");
+        assertThat(request.title()).isEqualTo("Ship it");
+    }
+
+    private static Date dueDate(String text) throws Exception {
+        return MAPPER.readValue("{\"dueDate\":\"" + text + "\"}", TaskRequest.class).dueDate();
+    }
+
+    private static DateFormat dateFormat() {
+        return (DateFormat) MAPPER.getDateFormat().clone();
+    }
+
+    private abstract static class RenamedTitle {
+        @JsonProperty("name")
+        abstract String title();
+    }
+}
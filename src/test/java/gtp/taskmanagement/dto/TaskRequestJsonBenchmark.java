@@ -0,0 +1,119 @@
+package gtp.taskmanagement.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import gtp.taskmanagement.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of decoding a create or patch request body, and of applying a patch.
+ * <p>
+ * {@code create} and {@code update} read with {@link TaskRequestDeserializers},
+ * as the API does. {@code createGeneric} and {@code updateGeneric} read the
+ * same bodies into records of the same shape with Jackson's own record
+ * support, the update one holding every field in an {@link Optional} as
+ * {@link TaskUpdateRequest} used to. {@code updateAndApply} also applies the
+ * decoded patch to a task. Allocation per operation is the
+ * {@code gc.alloc.rate.norm} line of the GC profiler, which
+ * {@link #main(String[])} enables; from the command line add {@code -prof gc}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskRequestJsonBenchmark {
+
+    private static final byte[] CREATE_BODY = """
+            {"title":"Prepare the release notes",\
+            "description":"Collect the merged changes since the last release and describe them for users",\
+            "priority":"HIGH","status":"IN_PROGRESS","dueDate":"2030-06-01T09:30:00.000+00:00",\
+            "tags":["release","docs","backend"]}""".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] UPDATE_BODY = """
+            {"status":"completed","dueDate":"2030-06-02T12:00:00.000+00:00"}""".getBytes(StandardCharsets.UTF_8);
+
+    record GenericCreate(String title, String description, String priority, String status, Date dueDate,
+                         List<String> tags) {
+    }
+
+    record GenericUpdate(Optional<String> title, Optional<String> description, Optional<String> priority,
+                         Optional<String> status, Optional<Date> dueDate, Optional<List<String>> tags) {
+    }
+
+    private ObjectReader createReader;
+    private ObjectReader updateReader;
+    private ObjectReader genericCreateReader;
+    private ObjectReader genericUpdateReader;
+    private Task task;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+        createReader = objectMapper.readerFor(TaskRequest.class);
+        updateReader = objectMapper.readerFor(TaskUpdateRequest.class);
+        genericCreateReader = objectMapper.readerFor(GenericCreate.class);
+        genericUpdateReader = objectMapper.readerFor(GenericUpdate.class);
+        task = new Task(UUID.randomUUID(), "Prepare the release notes", null, "HIGH", "PENDING",
+                null, List.of("release"));
+    }
+
+    @Benchmark
+    public TaskRequest create() throws IOException {
+        return createReader.readValue(CREATE_BODY);
+    }
+
+    @Benchmark
+    public GenericCreate createGeneric() throws IOException {
+        return genericCreateReader.readValue(CREATE_BODY);
+    }
+
+    @Benchmark
+    public TaskUpdateRequest update() throws IOException {
+        return updateReader.readValue(UPDATE_BODY);
+    }
+
+    @Benchmark
+    public GenericUpdate updateGeneric() throws IOException {
+        return genericUpdateReader.readValue(UPDATE_BODY);
+    }
+
+    @Benchmark
+    public Task updateAndApply() throws IOException {
+        TaskUpdateRequest updates = updateReader.readValue(UPDATE_BODY);
+        task.update(updates.title(), updates.description(), updates.priority(), updates.status(),
+                updates.dueDate(), updates.tags());
+        return task;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TaskRequestJsonBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package gtp.taskmanagement.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import gtp.taskmanagement.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a stored task into a response body, the work behind every
+ * cache miss on the read endpoints.
+ * <p>
+ * {@code fromEntity} only copies the task into a {@link TaskResponse};
+ * {@code fromEntityAndEncode} also serializes it with an object mapper
+ * configured the way Spring Boot configures its own. The difference between
+ * the two is the Jackson encoding. Run {@link #main(String[])} from the IDE or
+ * the test classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskResponseBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Task task;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        task = new Task(UUID.randomUUID(), "Prepare the release notes",
+                "Collect the merged changes since the last release and describe them for users",
+                "HIGH", "IN_PROGRESS", new Date(System.currentTimeMillis() + 86_400_000L),
+                List.of("release", "docs", "backend"));
+    }
+
+    @Benchmark
+    public TaskResponse fromEntity() {
+        return TaskResponse.fromEntity(task);
+    }
+
+    @Benchmark
+    public byte[] fromEntityAndEncode() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(TaskResponse.fromEntity(task));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TaskResponseBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,96 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.reactive.context.GenericReactiveWebApplicationContext;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClusterTaskRepositoryTest {
+
+    private static final String SELF = "http://localhost:8081";
+    private static final String PEER = "http://localhost:8082";
+
+    @Test
+    void startsOnlyInTheServletDeployment() throws InterruptedException {
+        ClusterTaskRepository cluster = new ClusterTaskRepository(SELF, "", 1000, 2000, 3, "s3cret");
+        try {
+            assertThatThrownBy(() -> cluster.setApplicationContext(new GenericReactiveWebApplicationContext()))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("servlet");
+            cluster.setApplicationContext(new GenericWebApplicationContext());
+        } finally {
+            cluster.close();
+        }
+    }
+
+    @Test
+    void modificationEpochChangesWithEveryWriteOnly() throws InterruptedException {
+        ClusterTaskRepository cluster = new ClusterTaskRepository(SELF, "", 1000, 2000, 3, "s3cret");
+        try {
+            Set<Long> seen = new HashSet<>();
+            seen.add(cluster.modificationEpoch());
+            Task saved = cluster.save(new Task(null, "Write the release notes", null, "MEDIUM", "PENDING",
+                    new Date(System.currentTimeMillis() + 86_400_000L), List.of("docs")));
+            assertThat(seen.add(cluster.modificationEpoch())).isTrue();
+            cluster.findAll();
+            cluster.count();
+            assertThat(seen.add(cluster.modificationEpoch())).isFalse();
+            saved.setTitle("Rewrite the release notes");
+            cluster.compareAndSave(saved, saved.getVersion());
+            assertThat(seen.add(cluster.modificationEpoch())).isTrue();
+            cluster.deleteById(saved.getId());
+            assertThat(seen.add(cluster.modificationEpoch())).isTrue();
+        } finally {
+            cluster.close();
+        }
+    }
+
+    @Test
+    void taskWrittenDuringHandOffIsHandedOverAgain() {
+        TaskRepositoryImpl store = new TaskRepositoryImpl();
+        HashRing ring = new HashRing(Set.of(SELF, PEER));
+        for (int i = 0; i < 50; i++) {
+            store.save(new Task(null, "Task " + i, null, "MEDIUM", "PENDING",
+                    new Date(System.currentTimeMillis() + 86_400_000L), List.of("ops")));
+        }
+        Task moving = store.findAll().stream()
+                .filter(task -> ring.owner(task.getId()).equals(PEER))
+                .findFirst().orElseThrow();
+        LocalTaskPartition peer = new LocalTaskPartition(PEER);
+
+        // A write routed here by a stale ring lands after the page was read, before the evict.
+        boolean[] raced = {false};
+        boolean complete = ClusterTaskRepository.handOff(store, SELF, ring, (node, tasks) -> {
+            if (!raced[0] && tasks.stream().anyMatch(task -> task.getId().equals(moving.getId()))) {
+                raced[0] = true;
+                Task written = store.findById(moving.getId()).orElseThrow();
+                written.setTitle("Written during the hand-over");
+                store.save(written);
+            }
+            peer.adopt(tasks);
+        });
+
+        assertThat(raced[0]).isTrue();
+        assertThat(complete).isFalse();
+        assertThat(store.findById(moving.getId())).get()
+                .extracting(Task::getTitle).isEqualTo("Written during the hand-over");
+
+        assertThat(ClusterTaskRepository.handOff(store, SELF, ring, (node, tasks) -> peer.adopt(tasks))).isTrue();
+        assertThat(store.findById(moving.getId())).isEmpty();
+        Task adopted = peer.findById(moving.getId()).orElseThrow();
+        assertThat(adopted.getTitle()).isEqualTo("Written during the hand-over");
+        assertThat(adopted.getVersion()).isEqualTo(moving.getVersion() + 1);
+        for (Task task : store.findAll()) {
+            assertThat(ring.owner(task.getId())).isEqualTo(SELF);
+        }
+        assertThat(store.count() + peer.store().count()).isEqualTo(50);
+    }
+}
@@ -0,0 +1,100 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.dto.TaskResponse;
+import gtp.taskmanagement.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reader throughput of {@link TaskRepositoryImpl} with and without concurrent writers.
+ * <p>
+ * Readers fetch a random task and turn it into a {@link TaskResponse}, as the
+ * GET endpoints do. The {@code readOnly} group runs three readers alone; the
+ * {@code readWrite} group runs the same three readers next to a writer that
+ * keeps rewriting the same hot tasks. Since reads take no lock and only load
+ * the current snapshot, {@code readWrite:read} should stay close to
+ * {@code readOnly:read}. Run {@link #main(String[])} from the IDE or the test
+ * classpath.
+ * </p>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentReadWriteBenchmark {
+
+    private static final int TASKS = 100_000;
+    private static final int HOT_TASKS = 64;
+
+    private TaskRepositoryImpl repository;
+    private UUID[] ids;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        repository = new TaskRepositoryImpl();
+        ids = new UUID[TASKS];
+        for (int i = 0; i < TASKS; i++) {
+            ids[i] = repository.save(new Task(null, "Task " + i, "Description of task " + i,
+                    "MEDIUM", "PENDING", null, List.of("bench", "tag" + (i % 16)))).getId();
+        }
+    }
+
+    @Benchmark
+    @Group("readOnly")
+    @GroupThreads(3)
+    public TaskResponse readOnlyRead() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public TaskResponse readWriteRead() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public Task readWriteWrite() {
+        // Readers pick these ids too, so they regularly read tasks that are being replaced.
+        UUID id = ids[ThreadLocalRandom.current().nextInt(HOT_TASKS)];
+        Task task = repository.findById(id).orElseThrow();
+        task.setTitle("Task updated " + task.getVersion());
+        task.setTags(List.of("bench", "updated"));
+        return repository.save(task);
+    }
+
+    private TaskResponse read() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID id = ids[random.nextBoolean() ? random.nextInt(HOT_TASKS) : random.nextInt(TASKS)];
+        return TaskResponse.fromEntity(repository.findById(id).orElseThrow());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConcurrentReadWriteBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
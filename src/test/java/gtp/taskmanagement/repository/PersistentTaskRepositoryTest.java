@@ -0,0 +1,69 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PersistentTaskRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesAfterAJournalFailureAreRejectedBeforeTheyApply() throws Exception {
+        PersistentTaskRepository repository = new PersistentTaskRepository(directory.toString(), true, 1L << 30, 3600);
+        try {
+            Task stored = repository.save(task(null, "Write the release notes"));
+
+            // The writer's next batch fails, as on a full or vanished disk.
+            channel(repository).close();
+            assertThatThrownBy(() -> repository.save(task(null, "Plan the migration")))
+                    .isInstanceOf(UncheckedIOException.class);
+            long count = repository.count();
+
+            UUID id = UUID.randomUUID();
+            assertThatThrownBy(() -> repository.save(task(id, "Review the deployment plan")))
+                    .isInstanceOf(UncheckedIOException.class);
+            Task changed = repository.findById(stored.getId()).orElseThrow();
+            changed.setTitle("Rewrite the release notes");
+            assertThatThrownBy(() -> repository.compareAndSave(changed, stored.getVersion()))
+                    .isInstanceOf(UncheckedIOException.class);
+            assertThatThrownBy(() -> repository.deleteById(stored.getId()))
+                    .isInstanceOf(UncheckedIOException.class);
+
+            assertThat(repository.findById(id)).isEmpty();
+            assertThat(repository.count()).isEqualTo(count);
+            assertThat(repository.findById(stored.getId()).orElseThrow().getVersion()).isEqualTo(stored.getVersion());
+            assertThat(repository.search("deployment", 10)).isEmpty();
+        } finally {
+            repository.close();
+        }
+    }
+
+    /**
+     * The file the journal's writer appends to.
+     */
+    private static FileChannel channel(PersistentTaskRepository repository) throws ReflectiveOperationException {
+        Field journal = PersistentTaskRepository.class.getDeclaredField("journal");
+        journal.setAccessible(true);
+        Field channel = WriteAheadLog.class.getDeclaredField("channel");
+        channel.setAccessible(true);
+        return (FileChannel) channel.get(journal.get(repository));
+    }
+
+    private static Task task(UUID id, String title) {
+        return new Task(id, title, null, "MEDIUM", "PENDING",
+                new Date(System.currentTimeMillis() + 86_400_000L), List.of("docs"));
+    }
+}
@@ -0,0 +1,206 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares paged {@link TaskRepositoryImpl#query} and
+ * {@link TaskRepositoryImpl#queryByDueDate} results with a brute-force filter
+ * of every task, for random combinations of criteria, whichever index the
+ * planner picks.
+ */
+class QueryPlannerTest {
+
+    private static final int TASKS = 3_000;
+    private static final int QUERIES = 400;
+    private static final long DAY = 86_400_000L;
+    private static final long NOW = 1_750_000_000_000L;
+    private static final String[] TAGS = {"backend", "frontend", "urgent", "docs", "bug", "ops", "infra", "qa"};
+    private static final String[] WORDS = {"deploy", "deployment", "review", "release", "notes", "migrate",
+            "migration", "database", "plan", "fix", "login", "page"};
+    /**
+     * Words sharing prefixes with more terms than the text index expands.
+     */
+    private static final List<String> NUMBERED = new ArrayList<>();
+
+    private static final TaskRepositoryImpl repository = new TaskRepositoryImpl();
+    private static List<Task> all;
+
+    @BeforeAll
+    static void fill() {
+        for (int i = 0; i < 150; i++) {
+            NUMBERED.add("w%03d".formatted(i));
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < TASKS; i++) {
+            repository.save(randomTask(random));
+        }
+        all = repository.findAll();
+    }
+
+    @Test
+    void prefixWithMoreExpansionsThanLookedUpStillMatchesEveryTask() {
+        TaskQuery query = new TaskQuery(null, null, null, false, null, null, "w");
+        assertThat(ids(pagesById(query, 100))).isEqualTo(ids(expected(query, false)));
+        assertThat(expected(query, false)).hasSizeGreaterThan(TASKS / 2);
+    }
+
+    @Test
+    void pagedQueriesMatchBruteForce() {
+        Random random = new Random(7);
+        int[] limits = {1, 7, 50, 500};
+        for (int i = 0; i < QUERIES; i++) {
+            TaskQuery query = randomQuery(random);
+            int limit = limits[random.nextInt(limits.length)];
+            assertThat(ids(pagesById(query, limit)))
+                    .as("by id, limit %d: %s", limit, query)
+                    .isEqualTo(ids(expected(query, false)));
+            assertThat(ids(pagesByDueDate(query, limit)))
+                    .as("by due date, limit %d: %s", limit, query)
+                    .isEqualTo(ids(expected(query, true)));
+        }
+    }
+
+    private static List<Task> pagesById(TaskQuery query, int limit) {
+        List<Task> result = new ArrayList<>();
+        UUID after = null;
+        while (true) {
+            List<Task> page = repository.query(query, after, limit);
+            assertThat(page.size()).isLessThanOrEqualTo(limit);
+            result.addAll(page);
+            if (page.size() < limit) {
+                return result;
+            }
+            after = page.get(page.size() - 1).getId();
+        }
+    }
+
+    private static List<Task> pagesByDueDate(TaskQuery query, int limit) {
+        List<Task> result = new ArrayList<>();
+        DueDateKey after = null;
+        while (true) {
+            List<Task> page = repository.queryByDueDate(query, after, limit);
+            assertThat(page.size()).isLessThanOrEqualTo(limit);
+            result.addAll(page);
+            if (page.size() < limit) {
+                return result;
+            }
+            after = DueDateKey.of(page.get(page.size() - 1));
+        }
+    }
+
+    private static List<Task> expected(TaskQuery query, boolean dueOrder) {
+        List<Task> matches = new ArrayList<>();
+        for (Task task : all) {
+            if (matches(query, task) && (!dueOrder || task.getDueDate() != null)) {
+                matches.add(task);
+            }
+        }
+        matches.sort(dueOrder
+                ? Comparator.comparing(DueDateKey::of)
+                : Comparator.comparing(Task::getId));
+        return matches;
+    }
+
+    private static boolean matches(TaskQuery query, Task task) {
+        if (query.statuses() != null && !query.statuses().contains(task.getStatus())) {
+            return false;
+        }
+        if (query.priorities() != null && !query.priorities().contains(task.getPriority())) {
+            return false;
+        }
+        if (query.tags() != null && !(query.allTags()
+                ? task.getTags().containsAll(query.tags())
+                : query.tags().stream().anyMatch(task.getTags()::contains))) {
+            return false;
+        }
+        if (query.dueFrom() != null || query.dueTo() != null) {
+            if (task.getDueDate() == null) {
+                return false;
+            }
+            long due = task.getDueDate().getTime();
+            if (query.dueFrom() != null && due < query.dueFrom() || query.dueTo() != null && due >= query.dueTo()) {
+                return false;
+            }
+        }
+        if (query.text() != null) {
+            List<String> words = TextIndex.tokenize(task.getTitle() + " " + task.getDescription());
+            for (String prefix : TextIndex.tokenize(query.text())) {
+                if (words.stream().noneMatch(word -> word.startsWith(prefix))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static List<UUID> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    private static Task randomTask(Random random) {
+        String title = word(random) + " " + word(random);
+        String description = random.nextBoolean() ? word(random) + " " + word(random) + " " + word(random) : "";
+        Task.Status status = Task.Status.values()[random.nextInt(Task.Status.values().length)];
+        Task.Priority priority = Task.Priority.values()[random.nextInt(Task.Priority.values().length)];
+        Date due = random.nextInt(5) == 0 ? null : new Date(NOW + (random.nextInt(60) - 30) * DAY);
+        Set<String> tags = new HashSet<>();
+        for (int i = random.nextInt(4); i > 0; i--) {
+            tags.add(TAGS[random.nextInt(TAGS.length)]);
+        }
+        return new Task(null, title, description, priority.name(), status.name(), due, new ArrayList<>(tags));
+    }
+
+    private static String word(Random random) {
+        return random.nextInt(3) == 0
+                ? NUMBERED.get(random.nextInt(NUMBERED.size()))
+                : WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static TaskQuery randomQuery(Random random) {
+        Set<Task.Status> statuses = random.nextInt(3) == 0 ? randomSubset(random, Task.Status.class) : null;
+        Set<Task.Priority> priorities = random.nextInt(3) == 0 ? randomSubset(random, Task.Priority.class) : null;
+        Set<String> tags = null;
+        if (random.nextInt(3) == 0) {
+            tags = new HashSet<>();
+            for (int i = 1 + random.nextInt(3); i > 0; i--) {
+                tags.add(random.nextInt(10) == 0 ? "unknown" : TAGS[random.nextInt(TAGS.length)]);
+            }
+        }
+        Long dueFrom = random.nextInt(3) == 0 ? NOW + (random.nextInt(70) - 35) * DAY : null;
+        Long dueTo = random.nextInt(3) == 0 ? NOW + (random.nextInt(70) - 35) * DAY : null;
+        String text = null;
+        if (random.nextInt(3) == 0) {
+            String[] texts = {"w", "w1", "w12", "w123", "dep", "deploy", "mig", "notes", "p", "zzz",
+                    "w release", "dep w0", "plan page fix"};
+            text = texts[random.nextInt(texts.length)];
+        }
+        return new TaskQuery(statuses, priorities, tags, random.nextBoolean(), dueFrom, dueTo, text);
+    }
+
+    private static <E extends Enum<E>> Set<E> randomSubset(Random random, Class<E> type) {
+        Set<E> subset = EnumSet.noneOf(type);
+        for (E value : type.getEnumConstants()) {
+            if (random.nextBoolean()) {
+                subset.add(value);
+            }
+        }
+        if (subset.isEmpty()) {
+            subset.add(type.getEnumConstants()[random.nextInt(type.getEnumConstants().length)]);
+        }
+        return subset;
+    }
+}
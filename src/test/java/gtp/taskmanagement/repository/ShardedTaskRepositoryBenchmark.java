@@ -0,0 +1,137 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link ShardedTaskRepository} from one core up to every core of the host.
+ * <p>
+ * The scans ({@code findAll}, {@code countByTag}, {@code saveAll} of
+ * {@value #BATCH} tasks) fan out over {@code parallelism} pool threads, so
+ * they show how one large request speeds up with more cores. {@code save} and
+ * {@code findPage} are single requests, run by as many benchmark threads as
+ * the pool has, so they show how many concurrent requests the store serves.
+ * {@code shards=1} is the unsharded store behind the same code path.
+ * Run {@link #main(String[])} from the IDE or the test classpath: it runs
+ * every benchmark once per power of two up to the number of available
+ * processors, with that many benchmark threads and pool threads. The
+ * {@code benchmark} profile runs the single-core case only.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShardedTaskRepositoryBenchmark {
+
+    private static final int TASKS = 200_000;
+    private static final int PAGE = 100;
+    private static final int BATCH = 1_000;
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH"};
+    private static final String[] STATUSES = {"PENDING", "IN_PROGRESS", "COMPLETED", "FAILED"};
+
+    @Param({"1", "16", "64"})
+    public int shards;
+
+    @Param({"1"})
+    public int parallelism;
+
+    private ShardedTaskRepository repository;
+    private UUID[] ids;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        repository = new ShardedTaskRepository(shards, parallelism);
+        List<Task> batch = new ArrayList<>(TASKS);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < TASKS; i++) {
+            batch.add(new Task(null, "Task " + i, "Description of task " + i,
+                    PRIORITIES[i % PRIORITIES.length], STATUSES[i % STATUSES.length],
+                    new Date(now + i * 60_000L), List.of("bench", "tag" + (i % 16))));
+        }
+        List<Task> saved = repository.saveAll(batch);
+        ids = new UUID[TASKS];
+        for (int i = 0; i < TASKS; i++) {
+            ids[i] = saved.get(i).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        repository.close();
+    }
+
+    @Benchmark
+    public List<Task> findAll() {
+        return repository.findAll();
+    }
+
+    @Benchmark
+    public Map<String, Long> countByTag() {
+        return repository.countByTag();
+    }
+
+    @Benchmark
+    public List<Task> saveAll() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Task> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(rewritten(ids[random.nextInt(TASKS)], random));
+        }
+        return repository.saveAll(batch);
+    }
+
+    @Benchmark
+    public Task save() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return repository.save(rewritten(ids[random.nextInt(TASKS)], random));
+    }
+
+    @Benchmark
+    public List<Task> findPage() {
+        return repository.findPage(ids[ThreadLocalRandom.current().nextInt(TASKS)], PAGE);
+    }
+
+    private Task rewritten(UUID id, ThreadLocalRandom random) {
+        Task task = repository.findById(id).orElseThrow();
+        task.setPriority(PRIORITIES[random.nextInt(PRIORITIES.length)]);
+        task.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+        return task;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            new Runner(new OptionsBuilder()
+                    .include(ShardedTaskRepositoryBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .param("parallelism", Integer.toString(threads))
+                    .build()).run();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the same random tasks and writes against a {@link ShardedTaskRepository}
+ * and a single {@link TaskRepositoryImpl}, and checks that every paged read,
+ * merged across shards by {@link PageMerge}, returns what the single store does.
+ */
+class ShardedTaskRepositoryTest {
+
+    private static final int TASKS = 5_000;
+    private static final long DAY = 86_400_000L;
+    private static final long NOW = 1_750_000_000_000L;
+    private static final String[] TAGS = {"backend", "frontend", "urgent", "docs", "bug", "ops"};
+    private static final String[] WORDS = {"deploy", "review", "release", "notes", "migrate", "database", "plan"};
+    private static final int[] LIMITS = {1, 3, 20, 100, 1000};
+
+    private final ShardedTaskRepository sharded = new ShardedTaskRepository(7, 3);
+    private final TaskRepositoryImpl single = new TaskRepositoryImpl();
+    private final Random random = new Random(11);
+
+    @AfterEach
+    void close() {
+        sharded.close();
+    }
+
+    @Test
+    void shardedStoreAnswersLikeASingleStore() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(randomTask());
+        }
+        assertThat(views(sharded.saveAll(tasks))).isEqualTo(views(single.saveAll(tasks)));
+        assertSameReads();
+
+        // Writes at stale and current versions, and deletions, in batches and one by one.
+        List<Task> stored = single.findAll();
+        List<Task> changes = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Task task = stored.get(random.nextInt(stored.size()));
+            Task changed = withVersion(randomTask(task.getId()), random.nextInt(4) == 0 ? 0 : task.getVersion());
+            changes.add(changed);
+        }
+        assertThat(views(sharded.compareAndSaveAll(changes))).isEqualTo(views(single.compareAndSaveAll(changes)));
+        Set<UUID> doomed = new HashSet<>();
+        for (int i = 0; i < 300; i++) {
+            doomed.add(stored.get(random.nextInt(stored.size())).getId());
+        }
+        doomed.add(UUID.randomUUID());
+        assertThat(sharded.deleteAllById(doomed)).isEqualTo(single.deleteAllById(doomed));
+        for (int i = 0; i < 50; i++) {
+            UUID id = i % 5 == 0 ? UUID.randomUUID() : stored.get(random.nextInt(stored.size())).getId();
+            assertThat(sharded.deleteById(id)).isEqualTo(single.deleteById(id));
+        }
+        for (int i = 0; i < 100; i++) {
+            Task task = randomTask();
+            assertThat(view(sharded.save(task))).isEqualTo(view(single.save(task)));
+        }
+        assertSameReads();
+    }
+
+    private void assertSameReads() {
+        assertThat(sharded.count()).isEqualTo(single.count());
+        assertThat(sharded.countByTag()).isEqualTo(single.countByTag());
+        assertThat(sharded.statistics().counts()).isEqualTo(single.statistics().counts());
+        for (Task.Status status : Task.Status.values()) {
+            assertThat(sharded.countByStatus(status)).isEqualTo(single.countByStatus(status));
+        }
+        for (Task.Priority priority : Task.Priority.values()) {
+            assertThat(sharded.countByPriority(priority)).isEqualTo(single.countByPriority(priority));
+        }
+        assertThat(new HashSet<>(views(sharded.findAll()))).isEqualTo(new HashSet<>(views(single.findAll())));
+
+        for (int limit : LIMITS) {
+            assertSamePages(TaskRepository::findPage, limit);
+            Task.Status status = Task.Status.values()[random.nextInt(Task.Status.values().length)];
+            assertSamePages((store, after, chunk) -> store.findByStatus(status, after, chunk), limit);
+            Task.Priority priority = Task.Priority.values()[random.nextInt(Task.Priority.values().length)];
+            assertSamePages((store, after, chunk) -> store.findByPriority(priority, after, chunk), limit);
+            Set<String> tags = new HashSet<>(
+                    List.of(TAGS[random.nextInt(TAGS.length)], TAGS[random.nextInt(TAGS.length)]));
+            assertSamePages((store, after, chunk) -> store.findByAnyTag(tags, after, chunk), limit);
+            assertSamePages((store, after, chunk) -> store.findByAllTags(tags, after, chunk), limit);
+            long from = NOW + (random.nextInt(40) - 20) * DAY;
+            long to = from + random.nextInt(20) * DAY;
+            Set<Task.Status> statuses = EnumSet.of(status, Task.Status.PENDING);
+            assertSameDuePages((store, after, chunk) -> store.findByDueDate(from, to, statuses, after, chunk), limit);
+
+            TaskQuery query = randomQuery();
+            assertSamePages((store, after, chunk) -> store.query(query, after, chunk), limit);
+            assertSameDuePages((store, after, chunk) -> store.queryByDueDate(query, after, chunk), limit);
+        }
+    }
+
+    private void assertSamePages(PageRead<UUID> read, int limit) {
+        assertThat(views(pages(sharded, read, limit, Task::getId)))
+                .isEqualTo(views(pages(single, read, limit, Task::getId)));
+    }
+
+    private void assertSameDuePages(PageRead<DueDateKey> read, int limit) {
+        assertThat(views(pages(sharded, read, limit, DueDateKey::of)))
+                .isEqualTo(views(pages(single, read, limit, DueDateKey::of)));
+    }
+
+    /**
+     * Reads every page of {@code read} with {@code limit} tasks each.
+     */
+    private static <C> List<Task> pages(TaskRepository store, PageRead<C> read, int limit,
+                                        Function<Task, C> cursorOf) {
+        List<Task> result = new ArrayList<>();
+        C after = null;
+        while (true) {
+            List<Task> page = read.apply(store, after, limit);
+            assertThat(page.size()).isLessThanOrEqualTo(limit);
+            result.addAll(page);
+            if (page.size() < limit) {
+                return result;
+            }
+            after = cursorOf.apply(page.get(page.size() - 1));
+        }
+    }
+
+    private interface PageRead<C> {
+        List<Task> apply(TaskRepository store, C after, int limit);
+    }
+
+    /**
+     * What both stores must agree on; timestamps are set by each store on its own.
+     */
+    private static String view(Task task) {
+        if (task == null) {
+            return null;
+        }
+        List<String> tags = new ArrayList<>(task.getTags() != null ? task.getTags() : List.of());
+        tags.sort(null);
+        return String.join("|", task.getId().toString(), Long.toString(task.getVersion()), task.getTitle(),
+                String.valueOf(task.getDescription()), String.valueOf(task.getPriority()),
+                String.valueOf(task.getStatus()),
+                task.getDueDate() != null ? Long.toString(task.getDueDate().getTime()) : "-", tags.toString());
+    }
+
+    private static List<String> views(Collection<Task> tasks) {
+        List<String> views = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            views.add(view(task));
+        }
+        return views;
+    }
+
+    private Task randomTask() {
+        return randomTask(UUID.randomUUID());
+    }
+
+    private Task randomTask(UUID id) {
+        Task.Status status = Task.Status.values()[random.nextInt(Task.Status.values().length)];
+        Task.Priority priority = Task.Priority.values()[random.nextInt(Task.Priority.values().length)];
+        Date due = random.nextInt(5) == 0 ? null : new Date(NOW + (random.nextInt(60) - 30) * DAY);
+        Set<String> tags = new HashSet<>();
+        for (int i = random.nextInt(4); i > 0; i--) {
+            tags.add(TAGS[random.nextInt(TAGS.length)]);
+        }
+        return new Task(id, WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)],
+                WORDS[random.nextInt(WORDS.length)], priority.name(), status.name(), due, new ArrayList<>(tags));
+    }
+
+    private static Task withVersion(Task task, long version) {
+        return new Task(task.getId(), task.getTitle(), task.getDescription(), task.getPriority(), task.getStatus(),
+                task.getDueDate(), task.getTags(), null, null, version);
+    }
+
+    private TaskQuery randomQuery() {
+        Set<Task.Status> statuses = random.nextBoolean()
+                ? EnumSet.of(Task.Status.values()[random.nextInt(Task.Status.values().length)]) : null;
+        Set<Task.Priority> priorities = random.nextBoolean()
+                ? EnumSet.of(Task.Priority.values()[random.nextInt(Task.Priority.values().length)]) : null;
+        Set<String> tags = random.nextBoolean() ? Set.of(TAGS[random.nextInt(TAGS.length)]) : null;
+        Long dueFrom = random.nextBoolean() ? NOW + (random.nextInt(40) - 20) * DAY : null;
+        Long dueTo = random.nextBoolean() ? NOW + (random.nextInt(40) - 20) * DAY : null;
+        String text = random.nextBoolean() ? WORDS[random.nextInt(WORDS.length)].substring(0, 3) : null;
+        return new TaskQuery(statuses, priorities, tags, random.nextBoolean(), dueFrom, dueTo, text);
+    }
+}
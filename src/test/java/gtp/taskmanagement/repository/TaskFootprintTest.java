@@ -0,0 +1,94 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Footprint report comparing the retained heap per task of the store as it
+ * used to be, {@link Task} objects in a map with skip-list sets of ids for the
+ * id, status, priority and tag indexes, with {@link TaskRepositoryImpl} and
+ * its own indexes for the same lookups.
+ * <p>
+ * The text, due-date and statistics indexes, which the old store did not
+ * have, are left out of the comparison. Titles and descriptions are counted on
+ * both sides. JOL needs {@code -Djol.magicFieldOffset=true} on JDK 21 to read
+ * the fields of records; the surefire configuration passes it.
+ * </p>
+ */
+class TaskFootprintTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskFootprintTest.class);
+    private static final int TASKS = 5_000;
+    private static final String[] TAG_POOL = {"backend", "frontend", "urgent", "docs", "bug", "ops"};
+
+    @Test
+    void compactStoreRetainsLessHeapPerTask() throws ReflectiveOperationException {
+        TaskRepositoryImpl repository = new TaskRepositoryImpl();
+        Map<UUID, Task> tasks = new ConcurrentHashMap<>();
+        NavigableSet<UUID> ids = new ConcurrentSkipListSet<>();
+        Map<Task.Status, NavigableSet<UUID>> byStatus = new EnumMap<>(Task.Status.class);
+        Map<Task.Priority, NavigableSet<UUID>> byPriority = new EnumMap<>(Task.Priority.class);
+        Map<String, NavigableSet<UUID>> byTag = new ConcurrentHashMap<>();
+        for (int i = 0; i < TASKS; i++) {
+            Task task = repository.save(sampleTask(i));
+            UUID id = task.getId();
+            tasks.put(id, task);
+            ids.add(id);
+            byStatus.computeIfAbsent(task.getStatus(), key -> new ConcurrentSkipListSet<>()).add(id);
+            byPriority.computeIfAbsent(task.getPriority(), key -> new ConcurrentSkipListSet<>()).add(id);
+            for (String tag : task.getTags()) {
+                byTag.computeIfAbsent(tag, key -> new ConcurrentSkipListSet<>()).add(id);
+            }
+        }
+
+        long before = GraphLayout.parseInstance(tasks, ids, byStatus, byPriority, byTag).totalSize() / TASKS;
+        GraphLayout notCompared = GraphLayout.parseInstance(
+                field(repository, "textIndex"), field(repository, "dueDateIndex"), field(repository, "counters"));
+        long after = GraphLayout.parseInstance(repository).subtract(notCompared).totalSize() / TASKS;
+        log.info("Task store footprint with id, status, priority and tag indexes: {} bytes/task as Task objects, "
+                + "{} bytes/task as CompactTask records ({} tasks)", before, after, TASKS);
+
+        assertThat(after).as("bytes per task, against %d before", before).isLessThan(before * 4 / 5);
+    }
+
+    /**
+     * An index of the repository that the old store had no counterpart for.
+     */
+    private static Object field(TaskRepositoryImpl repository, String name) throws ReflectiveOperationException {
+        Field field = TaskRepositoryImpl.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(repository);
+    }
+
+    private static Task sampleTask(int i) {
+        // Tags are fresh String instances per task, as they are when deserialized from requests.
+        List<String> tags = new ArrayList<>();
+        tags.add(new String(TAG_POOL[i % TAG_POOL.length]));
+        tags.add(new String(TAG_POOL[(i / TAG_POOL.length) % TAG_POOL.length]));
+        return new Task(
+                null,
+                "Task number " + i,
+                "Description of task number " + i + " with some detail",
+                i % 3 == 0 ? "HIGH" : "LOW",
+                i % 2 == 0 ? "PENDING" : "IN_PROGRESS",
+                new Date(System.currentTimeMillis() + i * 60_000L),
+                tags
+        );
+    }
+}
@@ -0,0 +1,156 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the basic {@link TaskRepositoryImpl} operations as the store grows.
+ * <p>
+ * {@code save} rewrites a random existing task, moving it between status and
+ * priority indexes, so the store keeps its size across iterations. The filtered reads fetch one page of {@value #PAGE} tasks
+ * after a random cursor, as the paginated endpoints do; {@code findAll}
+ * copies out the whole store. The {@code query*} benchmarks combine status,
+ * priority, tag and a one-week due-date range, leaving the planner to pick
+ * the index that drives them. The {@code *Contended} variants run the same
+ * operation on {@value #THREADS} threads sharing one store, to show how much
+ * writers and readers slow each other down. Run {@link #main(String[])} from
+ * the IDE or the test classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskRepositoryBenchmark {
+
+    private static final int PAGE = 100;
+    private static final int THREADS = 4;
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH"};
+    private static final String[] STATUSES = {"PENDING", "IN_PROGRESS", "COMPLETED", "FAILED"};
+
+    @Param({"10000", "100000", "1000000"})
+    public int storeSize;
+
+    private TaskRepositoryImpl repository;
+    private UUID[] ids;
+    private TaskQuery query;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        repository = new TaskRepositoryImpl();
+        ids = new UUID[storeSize];
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < storeSize; i++) {
+            ids[i] = repository.save(new Task(null, "Task " + i, "Description of task " + i,
+                    PRIORITIES[i % PRIORITIES.length], STATUSES[i % STATUSES.length],
+                    new Date(now + i * 60_000L), List.of("bench", "tag" + (i % 16)))).getId();
+        }
+        query = new TaskQuery(EnumSet.of(Task.Status.PENDING, Task.Status.IN_PROGRESS), EnumSet.of(Task.Priority.HIGH),
+                Set.of("tag3"), true, now, now + TimeUnit.DAYS.toMillis(7), null);
+    }
+
+    @Benchmark
+    public Task save() {
+        return replace();
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public Task saveContended() {
+        return replace();
+    }
+
+    @Benchmark
+    public Optional<Task> findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public Optional<Task> findByIdContended() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    public List<Task> findByStatus() {
+        return repository.findByStatus(Task.Status.PENDING, randomId(), PAGE);
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public List<Task> findByStatusContended() {
+        return repository.findByStatus(Task.Status.PENDING, randomId(), PAGE);
+    }
+
+    @Benchmark
+    public List<Task> findByPriority() {
+        return repository.findByPriority(Task.Priority.HIGH, randomId(), PAGE);
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public List<Task> findByPriorityContended() {
+        return repository.findByPriority(Task.Priority.HIGH, randomId(), PAGE);
+    }
+
+    @Benchmark
+    public List<Task> query() {
+        return repository.query(query, randomId(), PAGE);
+    }
+
+    @Benchmark
+    public List<Task> queryByDueDate() {
+        return repository.queryByDueDate(query, null, PAGE);
+    }
+
+    @Benchmark
+    public List<Task> findAll() {
+        return repository.findAll();
+    }
+
+    private Task replace() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Task task = repository.findById(ids[random.nextInt(storeSize)]).orElseThrow();
+        task.setTitle("Task updated " + task.getVersion());
+        task.setPriority(PRIORITIES[random.nextInt(PRIORITIES.length)]);
+        task.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+        task.setTags(List.of("bench", "updated"));
+        return repository.save(task);
+    }
+
+    private UUID randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(storeSize)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TaskRepositoryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
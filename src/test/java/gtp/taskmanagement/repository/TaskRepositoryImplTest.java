@@ -0,0 +1,110 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskRepositoryImplTest {
+
+    @Test
+    void restartedStoreDoesNotReuseModificationEpochs() {
+        TaskRepositoryImpl before = new TaskRepositoryImpl();
+        before.save(task("Write the release notes", "PENDING", "docs"));
+        TaskRepositoryImpl after = new TaskRepositoryImpl();
+
+        assertThat(after.modificationEpoch()).isNotEqualTo(before.modificationEpoch());
+        long epoch = after.modificationEpoch();
+        after.save(task("Write the release notes", "PENDING", "docs"));
+        assertThat(after.modificationEpoch()).isEqualTo(epoch + 1);
+    }
+
+    @Test
+    void statisticsCountTasksThatCameDueSinceTheLastTick() throws InterruptedException {
+        TaskRepositoryImpl repository = new TaskRepositoryImpl();
+        long due = System.currentTimeMillis() + 50;
+        repository.save(new Task(null, "Rotate the certificates", null, "HIGH", "PENDING", new Date(due), List.of("ops")));
+        repository.save(task("Write the release notes", "PENDING", "docs"));
+        assertThat(repository.statistics().overdue().get(Task.Status.PENDING)).containsEntry(Task.Priority.HIGH, 0L);
+
+        Thread.sleep(due - System.currentTimeMillis() + 20);
+        assertThat(repository.statistics().overdue().get(Task.Status.PENDING)).containsEntry(Task.Priority.HIGH, 1L);
+        repository.advanceDueHorizon();
+        TaskStatistics statistics = repository.statistics();
+        assertThat(statistics.overdue().get(Task.Status.PENDING))
+                .containsEntry(Task.Priority.HIGH, 1L)
+                .containsEntry(Task.Priority.MEDIUM, 0L);
+        assertThat(statistics.asOf()).isGreaterThan(due);
+    }
+
+    /**
+     * A write whose journal append fails must leave the store and every index as
+     * they were.
+     */
+
+    @Test
+    void failedJournalAppendLeavesStoreAndIndexesUnchanged() {
+        FailingJournalRepository repository = new FailingJournalRepository();
+        Task stored = repository.save(task("Write the release notes", "PENDING", "docs"));
+
+        repository.failing = true;
+        Task changed = repository.findById(stored.getId()).orElseThrow();
+        changed.setTitle("Review the deployment plan");
+        changed.setStatus(Task.Status.COMPLETED);
+        changed.setTags(List.of("ops"));
+        assertThatThrownBy(() -> repository.compareAndSave(changed, stored.getVersion()))
+                .isInstanceOf(UncheckedIOException.class);
+        assertThatThrownBy(() -> repository.save(task("Plan the migration", "PENDING", "backend")))
+                .isInstanceOf(UncheckedIOException.class);
+        assertThatThrownBy(() -> repository.deleteById(stored.getId()))
+                .isInstanceOf(UncheckedIOException.class);
+
+        assertUnchanged(repository, stored);
+    }
+
+    private static void assertUnchanged(TaskRepositoryImpl repository, Task stored) {
+        UUID id = stored.getId();
+        assertThat(repository.count()).isEqualTo(1);
+        assertThat(repository.findById(id).orElseThrow().getVersion()).isEqualTo(stored.getVersion());
+        assertThat(repository.findByStatus(Task.Status.PENDING)).extracting(Task::getId).containsExactly(id);
+        assertThat(repository.countByStatus(Task.Status.COMPLETED)).isZero();
+        assertThat(repository.countByTag()).containsOnlyKeys("docs");
+        assertThat(repository.search("release", 10)).extracting(Task::getId).containsExactly(id);
+        assertThat(repository.search("deployment", 10)).isEmpty();
+        assertThat(repository.search("migration", 10)).isEmpty();
+        assertThat(repository.statistics().counts().get(Task.Status.PENDING)).containsEntry(Task.Priority.MEDIUM, 1L);
+        assertThat(repository.statistics().counts().get(Task.Status.COMPLETED)).containsEntry(Task.Priority.MEDIUM, 0L);
+    }
+
+    private static Task task(String title, String status, String tag) {
+        return new Task(null, title, null, "MEDIUM", status,
+                new Date(System.currentTimeMillis() + 86_400_000L), List.of(tag));
+    }
+
+    private static final class FailingJournalRepository extends TaskRepositoryImpl {
+        private boolean failing;
+
+        @Override
+        protected void onSave(Task task) {
+            fail();
+        }
+
+        @Override
+        protected void onDelete(UUID id) {
+            fail();
+        }
+
+        private void fail() {
+            if (failing) {
+                throw new UncheckedIOException(new IOException("disk full"));
+            }
+        }
+    }
+}
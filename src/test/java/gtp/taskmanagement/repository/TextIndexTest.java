@@ -0,0 +1,73 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextIndexTest {
+
+    private final TagDictionary dictionary = new TagDictionary();
+
+    @Test
+    void dropsTermsNoTaskCarries() {
+        TextIndex index = new TextIndex();
+        Task task = task("Deploy the gateway", "rollout plan");
+        CompactTask first = CompactTask.of(task, dictionary, 1);
+        task.setTitle("Deploy the proxy");
+        CompactTask renamed = CompactTask.of(task, dictionary, 2);
+
+        index.update(first.id(), null, first);
+        index.update(first.id(), first, renamed);
+
+        assertThat(index.search("gateway", 10, 1)).isEmpty();
+        assertThat(index.search("proxy", 10, 1)).containsExactly(first.id());
+        assertThat(index.termCount()).isEqualTo(5);
+
+        index.update(first.id(), renamed, null);
+        assertThat(index.termCount()).isZero();
+    }
+
+    @Test
+    void concurrentChurnOnOneTermKeepsEveryPosting() throws Exception {
+        TextIndex index = new TextIndex();
+        int threads = 4;
+        int rounds = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<CompactTask>> kept = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                kept.add(executor.submit(() -> {
+                    // Each thread owns its task, as the repository's per-key ordering guarantees.
+                    CompactTask task = CompactTask.of(task("shared", null), dictionary, 1);
+                    for (int i = 0; i < rounds; i++) {
+                        index.update(task.id(), null, task);
+                        index.update(task.id(), task, null);
+                    }
+                    index.update(task.id(), null, task);
+                    return task;
+                }));
+            }
+            List<UUID> ids = new ArrayList<>();
+            for (Future<CompactTask> future : kept) {
+                ids.add(future.get().id());
+            }
+            assertThat(index.search("shared", threads * 2, threads)).containsExactlyInAnyOrderElementsOf(ids);
+            assertThat(index.termCount()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Task task(String title, String description) {
+        return new Task(null, title, description, "MEDIUM", "PENDING", new Date(), List.of());
+    }
+}
@@ -0,0 +1,79 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of {@link TaskRepositoryImpl#search(String, int)} as the store grows.
+ * <p>
+ * Every store size holds the same number of tasks matching the rare query
+ * word, while the common words grow with the store. Because the rarest word
+ * drives the scan, the average time per query should stay roughly flat across
+ * sizes. Run {@link #main(String[])} from the IDE or the test classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class TextSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "deploy", "review", "report", "release", "refactor", "database", "backend", "frontend", "meeting", "budget"
+    };
+    private static final int RARE_MATCHES = 100;
+
+    @Param({"10000", "100000", "1000000"})
+    public int storeSize;
+
+    private TaskRepositoryImpl repository;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        repository = new TaskRepositoryImpl();
+        Random random = new Random(42);
+        int rareEvery = storeSize / RARE_MATCHES;
+        for (int i = 0; i < storeSize; i++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + (i % rareEvery == 0 ? " migration" : "");
+            String description = "Task " + i + " about the " + WORDS[random.nextInt(WORDS.length)];
+            repository.save(new Task(null, title, description, "MEDIUM", "PENDING", null, List.of()));
+        }
+    }
+
+    @Benchmark
+    public List<Task> rareWord() {
+        return repository.search("migration", 20);
+    }
+
+    @Benchmark
+    public List<Task> rarePrefixWithCommonWord() {
+        return repository.search("migr deploy", 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TextSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,116 @@
+package gtp.taskmanagement.repository;
+
+import gtp.taskmanagement.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Moves tasks between the tiers of a {@link TieredTaskRepository} by hand and
+ * checks that reads, writes and searches see every task exactly once,
+ * whichever tier holds it.
+ */
+class TieredTaskRepositoryTest {
+
+    private static final long DAY = 86_400_000L;
+
+    @TempDir
+    Path directory;
+
+    private TieredTaskRepository repository;
+
+    @BeforeEach
+    void open() throws IOException {
+        // Finished tasks are archivable at once; the background archiver never runs.
+        repository = new TieredTaskRepository(directory.toString(), 1 << 16, 4, 0, 3600);
+    }
+
+    @AfterEach
+    void close() throws InterruptedException {
+        repository.close();
+    }
+
+    @Test
+    void archivedTaskMovesBackWhenUpdated() {
+        Task done = repository.save(task("Rotate the certificates", "rotated before expiry", "COMPLETED"));
+        Task open = repository.save(task("Plan the migration", "move the database", "PENDING"));
+
+        assertThat(repository.archive()).isEqualTo(1);
+        assertThat(repository.archivedCount()).isEqualTo(1);
+        Task archived = repository.findById(done.getId()).orElseThrow();
+        assertThat(archived.getVersion()).isEqualTo(done.getVersion());
+        assertThat(archived.getDescription()).isEqualTo("rotated before expiry");
+        assertThat(repository.count()).isEqualTo(2);
+        assertThat(repository.countByStatus(Task.Status.COMPLETED)).isEqualTo(1);
+
+        archived.setStatus(Task.Status.PENDING);
+        Task reopened = repository.compareAndSave(archived, archived.getVersion());
+        assertThat(reopened.getVersion()).isEqualTo(done.getVersion() + 1);
+        assertThat(repository.archivedCount()).isZero();
+        assertThat(repository.count()).isEqualTo(2);
+        assertThat(repository.countByStatus(Task.Status.COMPLETED)).isZero();
+        assertThat(repository.findById(done.getId()).orElseThrow().getStatus()).isEqualTo(Task.Status.PENDING);
+        assertThat(repository.findPage(null, 10)).extracting(Task::getId)
+                .containsExactlyInAnyOrder(done.getId(), open.getId());
+        assertThat(repository.archive()).isZero();
+    }
+
+    @Test
+    void pagesAndCountsCoverBothTiers() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            ids.add(repository.save(task("Task " + i, "number " + i, i % 2 == 0 ? "COMPLETED" : "IN_PROGRESS"))
+                    .getId());
+        }
+        assertThat(repository.archive()).isEqualTo(20);
+
+        List<UUID> paged = new ArrayList<>();
+        UUID after = null;
+        List<Task> page;
+        do {
+            page = repository.findPage(after, 7);
+            page.forEach(task -> paged.add(task.getId()));
+            after = page.isEmpty() ? null : page.get(page.size() - 1).getId();
+        } while (page.size() == 7);
+        assertThat(paged).isSorted().containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(repository.findByStatus(Task.Status.COMPLETED, null, 100)).hasSize(20);
+        assertThat(repository.countByTag()).containsEntry("ops", 40L);
+        assertThat(repository.statistics().counts().get(Task.Status.COMPLETED)).containsEntry(Task.Priority.MEDIUM, 20L);
+
+        repository.deleteAllById(ids.subList(0, 10));
+        assertThat(repository.count()).isEqualTo(30);
+        assertThat(repository.archivedCount()).isEqualTo(15);
+    }
+
+    @Test
+    void searchRanksBothTiersTogether() {
+        Task archived = repository.save(task("Renew the invoice template", "invoice layout", "COMPLETED"));
+        repository.archive();
+        Task hot = repository.save(task("Send the invoice", "to accounting", "PENDING"));
+        repository.save(task("Review the deployment plan", "before release", "PENDING"));
+
+        assertThat(repository.search("invoice", 10)).extracting(Task::getId)
+                .containsExactlyInAnyOrder(archived.getId(), hot.getId());
+        assertThat(repository.search("inv", 10)).hasSize(2);
+        assertThat(repository.search("invoice", 1)).extracting(Task::getId).containsExactly(archived.getId());
+        assertThat(repository.query(new TaskQuery(null, null, null, false, null, null, "invoice"), null, 10))
+                .extracting(Task::getId)
+                .containsExactlyInAnyOrder(archived.getId(), hot.getId());
+        assertThat(repository.search("template", 10)).extracting(Task::getId).containsExactly(archived.getId());
+    }
+
+    private static Task task(String title, String description, String status) {
+        return new Task(null, title, description, "MEDIUM", status,
+                new Date(System.currentTimeMillis() + DAY), List.of("ops"));
+    }
+}
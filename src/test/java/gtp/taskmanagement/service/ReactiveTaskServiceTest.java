@@ -0,0 +1,55 @@
+package gtp.taskmanagement.service;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import gtp.taskmanagement.dto.ImportResult;
+import gtp.taskmanagement.repository.TaskRepositoryImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveTaskServiceTest {
+
+    private final TaskRepositoryImpl repository = new TaskRepositoryImpl();
+    private final ReactiveTaskService service = reactiveTaskService(repository);
+
+    @Test
+    void eachSubscriptionImportsIntoItsOwnSession() {
+        // Fresh buffers per subscription; the line is split across chunks.
+        Flux<DataBuffer> body = Flux.defer(() -> Flux.just(
+                buffer("{\"title\":\"Write the release notes\",\"priority\":\"LOW\"}\n{\"title\":\"Plan"),
+                buffer(" the migration\",\"priority\":\"HIGH\"}\nnot json\n")));
+        Mono<ImportResult> result = service.importTasks(body);
+        assertThat(repository.count()).isZero();
+
+        ImportResult first = result.block();
+        ImportResult second = result.block();
+
+        assertThat(first.lines()).isEqualTo(3);
+        assertThat(first.imported()).isEqualTo(2);
+        assertThat(first.failed()).isEqualTo(1);
+        assertThat(second.lines()).isEqualTo(3);
+        assertThat(second.imported()).isEqualTo(2);
+        assertThat(second.failed()).isEqualTo(1);
+        assertThat(repository.count()).isEqualTo(4);
+    }
+
+    private static DataBuffer buffer(String text) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ReactiveTaskService reactiveTaskService(TaskRepositoryImpl repository) {
+        TaskChangeFeed changeFeed = new TaskChangeFeed(new SimpleMeterRegistry(), 16);
+        TaskImporter importer = new TaskImporter(repository, changeFeed,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                JsonMapper.builder().findAndAddModules().build(), 1000, 100);
+        return new ReactiveTaskService(null, importer, changeFeed);
+    }
+}
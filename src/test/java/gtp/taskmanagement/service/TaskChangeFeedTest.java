@@ -0,0 +1,52 @@
+package gtp.taskmanagement.service;
+
+import gtp.taskmanagement.dto.TaskChangeEvent;
+import gtp.taskmanagement.dto.TaskChangeType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskChangeFeedTest {
+
+    @Test
+    void reconnectingWithAnIdFromAnotherFeedResyncs() {
+        TaskChangeFeed before = new TaskChangeFeed(new SimpleMeterRegistry(), 16);
+        TaskChangeFeed after = new TaskChangeFeed(new SimpleMeterRegistry(), 16);
+        long seen = lastEventId(before);
+        after.publish(TaskChangeType.DELETED, UUID.randomUUID(), null, null, null);
+
+        try (TaskChangeFeed.Subscription stale = after.subscribe(null, null, seen)) {
+            assertThat(stale.poll(10)).extracting(TaskChangeEvent::type).containsExactly(TaskChangeType.RESYNC);
+        }
+    }
+
+    @Test
+    void reconnectingWithTheLatestIdDoesNotResync() {
+        TaskChangeFeed feed = new TaskChangeFeed(new SimpleMeterRegistry(), 16);
+        long seen = lastEventId(feed);
+        try (TaskChangeFeed.Subscription current = feed.subscribe(null, null, seen)) {
+            assertThat(current.poll(10)).isEmpty();
+        }
+
+        feed.publish(TaskChangeType.DELETED, UUID.randomUUID(), null, null, null);
+        try (TaskChangeFeed.Subscription behind = feed.subscribe(null, null, seen)) {
+            assertThat(behind.poll(10)).extracting(TaskChangeEvent::type).containsExactly(TaskChangeType.RESYNC);
+        }
+    }
+
+    /**
+     * Publishes a deletion and returns the id a subscriber received it with.
+     */
+    private static long lastEventId(TaskChangeFeed feed) {
+        try (TaskChangeFeed.Subscription subscription = feed.subscribe(null, null, null)) {
+            feed.publish(TaskChangeType.DELETED, UUID.randomUUID(), null, null, null);
+            List<TaskChangeEvent> events = subscription.poll(10);
+            assertThat(events).hasSize(1);
+            return events.get(0).sequence();
+        }
+    }
+}
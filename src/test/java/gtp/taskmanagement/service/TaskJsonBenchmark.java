@@ -0,0 +1,98 @@
+package gtp.taskmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import gtp.taskmanagement.dto.TaskResponse;
+import gtp.taskmanagement.model.Task;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing one page of tasks as a JSON response body.
+ * <p>
+ * {@code jackson} is the path list endpoints used to take, serializing a
+ * {@code List<TaskResponse>} with the object mapper. {@code cachedFragments}
+ * is the current path with a warm {@link TaskJsonCache}: each task's encoding
+ * is looked up and copied. Both write into the same reusable buffer so only
+ * encoding is measured. Run {@link #main(String[])} from the IDE or the test
+ * classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskJsonBenchmark {
+
+    @Param({"100", "1000"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private TaskJsonCache cache;
+    private List<TaskResponse> page;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 20);
+
+    @Setup(Level.Trial)
+    public void populate() {
+        // Same serialization settings Spring Boot applies to its own mapper.
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        cache = new TaskJsonCache(objectMapper, new SimpleMeterRegistry(), 64L << 20);
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Task task = new Task(UUID.randomUUID(), "Task number " + i,
+                    "Description of task number " + i + " with some detail",
+                    i % 3 == 0 ? "HIGH" : "LOW", "PENDING",
+                    new Date(System.currentTimeMillis() + i * 60_000L), List.of("backend", "urgent"));
+            page.add(TaskResponse.fromEntity(task));
+        }
+        cache.toJsonArray(page);
+    }
+
+    @Benchmark
+    public int jackson() throws IOException {
+        buffer.reset();
+        objectMapper.writeValue(buffer, page);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public int cachedFragments() throws IOException {
+        buffer.reset();
+        cache.toJsonArray(page).writeTo(buffer);
+        return buffer.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TaskJsonBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,96 @@
+package gtp.taskmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gtp.taskmanagement.dto.TaskResponse;
+import gtp.taskmanagement.dto.TaskUpdateRequest;
+import gtp.taskmanagement.model.Task;
+import gtp.taskmanagement.repository.TaskRepositoryImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link TaskServiceImpl#patchTask} on an in-memory store.
+ * <p>
+ * Each call changes a random task's title and status, which covers the read,
+ * the optimistic compare-and-save and the JSON cache invalidation. The
+ * {@code patchTaskContended} variant runs {@value #THREADS} threads patching
+ * the same {@value #HOT_TASKS} tasks, so lost compare-and-save races and their
+ * retries show up in the result. Run {@link #main(String[])} from the IDE or
+ * the test classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    private static final int TASKS = 100_000;
+    private static final int HOT_TASKS = 16;
+    private static final int THREADS = 4;
+    private static final List<String> STATUSES = List.of("PENDING", "IN_PROGRESS", "COMPLETED");
+
+    private TaskService taskService;
+    private UUID[] ids;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        TaskRepositoryImpl repository = new TaskRepositoryImpl();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TaskJsonCache jsonCache = new TaskJsonCache(new ObjectMapper(), registry, 64L << 20);
+        TaskChangeFeed changeFeed = new TaskChangeFeed(registry, 256);
+        // patchTask does not use the validator.
+        taskService = new TaskServiceImpl(repository, jsonCache, changeFeed, null, 100, 1000, 20, 100, 1000, 500);
+        ids = new UUID[TASKS];
+        for (int i = 0; i < TASKS; i++) {
+            ids[i] = repository.save(new Task(null, "Task " + i, "Description of task " + i,
+                    "MEDIUM", "PENDING", null, List.of("bench", "tag" + (i % 16)))).getId();
+        }
+    }
+
+    @Benchmark
+    public TaskResponse patchTask() {
+        return patch(ids[ThreadLocalRandom.current().nextInt(TASKS)]);
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public TaskResponse patchTaskContended() {
+        return patch(ids[ThreadLocalRandom.current().nextInt(HOT_TASKS)]);
+    }
+
+    private TaskResponse patch(UUID id) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        TaskUpdateRequest updates = new TaskUpdateRequest(
+                "Patched task " + random.nextInt(1000), null, null,
+                STATUSES.get(random.nextInt(STATUSES.size())), null, null);
+        return taskService.patchTask(id, updates, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TaskServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,98 @@
+package gtp.taskmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gtp.taskmanagement.dto.BatchItemResult;
+import gtp.taskmanagement.dto.TaskBatchPatch;
+import gtp.taskmanagement.dto.TaskUpdateRequest;
+import gtp.taskmanagement.model.Task;
+import gtp.taskmanagement.repository.TaskRepositoryImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A batch patch must not overwrite a write that lands between its read and its save.
+ */
+class TaskServiceImplTest {
+
+    private final RacingRepository repository = new RacingRepository();
+    private final TaskServiceImpl taskService = taskService(repository);
+
+    @Test
+    void batchPatchReappliesOnTopOfAConcurrentWrite() {
+        Task stored = repository.save(task("Write the release notes"));
+        repository.afterFirstRead = read -> {
+            Task concurrent = read.findById(stored.getId()).orElseThrow();
+            concurrent.setTitle("Write the release notes for 2.0");
+            read.save(concurrent);
+        };
+
+        List<BatchItemResult> results = taskService.patchTasks(List.of(
+                new TaskBatchPatch(stored.getId(), changes("HIGH", null)),
+                new TaskBatchPatch(stored.getId(), changes(null, "IN_PROGRESS"))));
+
+        assertThat(results).extracting(BatchItemResult::status).containsExactly(200, 200);
+        Task patched = repository.findById(stored.getId()).orElseThrow();
+        assertThat(patched.getTitle()).isEqualTo("Write the release notes for 2.0");
+        assertThat(patched.getPriority()).isEqualTo(Task.Priority.HIGH);
+        assertThat(patched.getStatus()).isEqualTo(Task.Status.IN_PROGRESS);
+        assertThat(patched.getVersion()).isEqualTo(stored.getVersion() + 2);
+    }
+
+    @Test
+    void batchPatchReportsATaskDeletedBeforeItsSaveAsNotFound() {
+        Task stored = repository.save(task("Plan the migration"));
+        Task kept = repository.save(task("Review the deployment plan"));
+        repository.afterFirstRead = read -> read.deleteById(stored.getId());
+
+        List<BatchItemResult> results = taskService.patchTasks(List.of(
+                new TaskBatchPatch(stored.getId(), changes("HIGH", null)),
+                new TaskBatchPatch(kept.getId(), changes("HIGH", null))));
+
+        assertThat(results).extracting(BatchItemResult::status).containsExactly(404, 200);
+        assertThat(repository.findById(stored.getId())).isEmpty();
+        assertThat(repository.findById(kept.getId()).orElseThrow().getPriority()).isEqualTo(Task.Priority.HIGH);
+    }
+
+    private static TaskServiceImpl taskService(TaskRepositoryImpl repository) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        return new TaskServiceImpl(repository, new TaskJsonCache(new ObjectMapper(), registry, 1L << 20),
+                new TaskChangeFeed(registry, 16), Validation.buildDefaultValidatorFactory().getValidator(),
+                100, 1000, 20, 100, 1000, 500);
+    }
+
+    private static TaskUpdateRequest changes(String priority, String status) {
+        return new TaskUpdateRequest(null, null, priority, status, null, null);
+    }
+
+    private static Task task(String title) {
+        return new Task(null, title, null, "MEDIUM", "PENDING",
+                new Date(System.currentTimeMillis() + 86_400_000L), List.of());
+    }
+
+    /**
+     * Lets another writer in right after the first batch read, as a concurrent request would.
+     */
+    private static final class RacingRepository extends TaskRepositoryImpl {
+        private Consumer<TaskRepositoryImpl> afterFirstRead;
+
+        @Override
+        public List<Task> findAllById(Collection<UUID> ids) {
+            List<Task> read = super.findAllById(ids);
+            if (afterFirstRead != null) {
+                Consumer<TaskRepositoryImpl> writer = afterFirstRead;
+                afterFirstRead = null;
+                writer.accept(this);
+            }
+            return read;
+        }
+    }
+}
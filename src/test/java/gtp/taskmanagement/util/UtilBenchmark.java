@@ -0,0 +1,77 @@
+package gtp.taskmanagement.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link Util#isValidPriority} and {@link Util#isValidStatus}, which
+ * run for every task constructed from a request and every filtered query.
+ * <p>
+ * Each is measured with an exact match, a value in the wrong case and an
+ * unknown value; the unknown case is where {@code isValidStatus} used to pay
+ * for a thrown exception. Run {@link #main(String[])} from the IDE or the test
+ * classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UtilBenchmark {
+
+    @Param({"exact", "lowerCase", "unknown"})
+    public String input;
+
+    private String priority;
+    private String status;
+
+    @Setup
+    public void prepare() {
+        switch (input) {
+            case "exact" -> {
+                priority = "LOW";
+                status = "IN_PROGRESS";
+            }
+            case "lowerCase" -> {
+                priority = "low";
+                status = "in_progress";
+            }
+            default -> {
+                priority = "URGENT";
+                status = "BLOCKED";
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isValidPriority() {
+        return Util.isValidPriority(priority);
+    }
+
+    @Benchmark
+    public boolean isValidStatus() {
+        return Util.isValidStatus(status);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UtilBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
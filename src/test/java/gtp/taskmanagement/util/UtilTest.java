@@ -0,0 +1,28 @@
+package gtp.taskmanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UtilTest {
+
+    @Test
+    void ifMatchAbsentOrStarAcceptsAnyVersion() {
+        assertThat(Util.parseIfMatch(null)).isNull();
+        assertThat(Util.parseIfMatch(" ")).isNull();
+        assertThat(Util.parseIfMatch("*")).isNull();
+    }
+
+    @Test
+    void ifMatchAcceptsEveryStrongTagOfAList() {
+        assertThat(Util.parseIfMatch("\"3\"")).containsExactly(3L);
+        assertThat(Util.parseIfMatch("\"3\", \"5\",\"8\"")).containsExactlyInAnyOrder(3L, 5L, 8L);
+    }
+
+    @Test
+    void ifMatchWeakOrForeignTagsMatchNothing() {
+        assertThat(Util.parseIfMatch("W/\"3\"")).isEmpty();
+        assertThat(Util.parseIfMatch("\"abc\", \"\", 3")).isEmpty();
+        assertThat(Util.parseIfMatch("W/\"3\", \"4\"")).containsExactly(4L);
+    }
+}